@@ -0,0 +1,44 @@
+package com.bamikahub.inventorysystem.config;
+
+import com.bamikahub.inventorysystem.services.messaging.BrokerBackplane;
+import com.bamikahub.inventorysystem.services.messaging.BrokerBackplaneBridge;
+import com.bamikahub.inventorysystem.services.messaging.JdbcBrokerBackplane;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Beans for app.websocket.broker=backplane: every node keeps its simple broker and relays broker messages to
+ * the other nodes through a shared backplane. The database-backed backplane is used unless another
+ * BrokerBackplane bean is registered.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.websocket.broker", havingValue = "backplane")
+public class BrokerBackplaneConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(BrokerBackplane.class)
+    public JdbcBrokerBackplane jdbcBrokerBackplane(JdbcTemplate jdbcTemplate,
+            @Value("${app.websocket.backplane.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.websocket.backplane.poll-interval-ms:100}") long pollIntervalMs,
+            @Value("${app.websocket.backplane.batch-size:500}") int batchSize,
+            @Value("${app.websocket.backplane.gap-timeout-ms:2000}") long gapTimeoutMs,
+            @Value("${app.websocket.backplane.retention:60s}") Duration retention) {
+        return new JdbcBrokerBackplane(jdbcTemplate, queueCapacity, pollIntervalMs, batchSize, gapTimeoutMs, retention);
+    }
+
+    @Bean
+    public BrokerBackplaneBridge brokerBackplaneBridge(BrokerBackplane backplane, ApplicationContext applicationContext,
+            @Value("${app.websocket.backplane.node-id:}") String nodeId) {
+        return new BrokerBackplaneBridge(backplane, applicationContext,
+                StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString());
+    }
+}
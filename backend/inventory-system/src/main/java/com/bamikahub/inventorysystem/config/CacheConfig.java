@@ -1,28 +1,73 @@
 package com.bamikahub.inventorysystem.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
-import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.List;
 
+/**
+ * Bounded, expiring application caches. Each cache reads its TTL and size from
+ * app.cache.&lt;name&gt;.ttl / app.cache.&lt;name&gt;.max-size, falling back to the defaults.
+ * Puts and evictions are deferred until the surrounding transaction commits so a write
+ * path never leaves stale data behind for a concurrent reader to re-cache.
+ */
 @Configuration
 @EnableCaching
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String DASHBOARD_CHARTS = "dashboardCharts";
+    public static final String PROJECT_REPORTS = "projectReports";
+    public static final String FINANCE_REPORTS = "financeReports";
+    public static final String INVENTORY_REPORTS = "inventoryReports";
+    public static final String SUPPORT_REPORTS = "supportReports";
+    // Authenticated principals resolved from JWTs, keyed by token subject
+    public static final String PRINCIPALS = "principals";
+    // Unread private-chat counts per thread, keyed by user id
+    public static final String CHAT_UNREAD_COUNTS = "chatUnreadCounts";
+    // Unread in-app notification counters, keyed by user id
+    public static final String NOTIFICATION_UNREAD_COUNTS = "notificationUnreadCounts";
+    // Per-user settings, keyed by user id
+    public static final String USER_SETTINGS = "userSettings";
+
+    public static final List<String> CACHE_NAMES =
+            List.of(DASHBOARD_CHARTS, PROJECT_REPORTS, FINANCE_REPORTS, INVENTORY_REPORTS, SUPPORT_REPORTS, PRINCIPALS,
+                    CHAT_UNREAD_COUNTS, NOTIFICATION_UNREAD_COUNTS, USER_SETTINGS);
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final long DEFAULT_MAX_SIZE = 200;
 
     @Bean
-    public CacheManager cacheManager() {
-        SimpleCacheManager cacheManager = new SimpleCacheManager();
-        cacheManager.setCaches(Arrays.asList(
-                new ConcurrentMapCache("dashboardCharts"),
-                new ConcurrentMapCache("projectReports"),
-                new ConcurrentMapCache("financeReports"),
-                new ConcurrentMapCache("inventoryReports"),
-                new ConcurrentMapCache("supportReports")
-        ));
-        return cacheManager;
+    public CacheManager cacheManager(Environment environment) {
+        Duration defaultTtl = environment.getProperty("app.cache.default-ttl", Duration.class, DEFAULT_TTL);
+        long defaultMaxSize = environment.getProperty("app.cache.default-max-size", Long.class, DEFAULT_MAX_SIZE);
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Static mode: only the caches registered below exist, so a typo in a cache name fails fast
+        cacheManager.setCacheNames(List.of());
+        for (String name : CACHE_NAMES) {
+            cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                    .expireAfterWrite(environment.getProperty("app.cache." + name + ".ttl", Duration.class, defaultTtl))
+                    .maximumSize(environment.getProperty("app.cache." + name + ".max-size", Long.class, defaultMaxSize))
+                    .recordStats()
+                    .build());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Report caches hold several methods that share the same request parameter, so the method name is part of the key
+    @Override
+    public KeyGenerator keyGenerator() {
+        return (target, method, params) -> new SimpleKey(method.getName(), SimpleKeyGenerator.generateKey(params));
     }
 }
@@ -1,16 +1,80 @@
 package com.bamikahub.inventorysystem.config;
 
+import com.bamikahub.inventorysystem.security.jwt.StompAuthChannelInterceptor;
+import com.bamikahub.inventorysystem.services.chat.ChatPresenceService;
+import com.bamikahub.inventorysystem.services.messaging.BrokerBackplaneBridge;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over WebSocket. app.websocket.broker selects how broker destinations reach subscribers:
+ * <ul>
+ *     <li>simple (default): in-memory broker, single node only</li>
+ *     <li>backplane: in-memory broker on each node, with broker messages relayed between nodes
+ *     (see {@link BrokerBackplaneConfig})</li>
+ *     <li>relay: an external STOMP broker such as RabbitMQ or ActiveMQ; needs reactor-netty on the classpath</li>
+ * </ul>
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String[] BROKER_PREFIXES = {"/topic", "/queue"};
+
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Autowired(required = false)
+    private BrokerBackplaneBridge backplaneBridge;
+
+    // Lazy: both depend on beans created by the broker configuration this class contributes to
+    @Autowired
+    @Lazy
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    @Lazy
+    private ChatPresenceService presenceService;
+
+    // Lazy: needs the security and user beans, which the broker configuration should not pull in early
+    @Autowired
+    @Lazy
+    private StompAuthChannelInterceptor authInterceptor;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
@@ -19,12 +83,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/topic", "/queue");
         registry.setUserDestinationPrefix("/user");
+
+        switch (brokerMode) {
+            case "relay" -> enableRelay(registry);
+            case "backplane" -> {
+                if (backplaneBridge == null) {
+                    throw new IllegalStateException("app.websocket.broker=backplane but no backplane bridge is configured");
+                }
+                enableSimpleBroker(registry);
+                registry.configureBrokerChannel().interceptors(backplaneBridge);
+            }
+            case "simple" -> enableSimpleBroker(registry);
+            default -> throw new IllegalStateException("Unknown app.websocket.broker mode: " + brokerMode);
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        // place for future interceptors (auth, metrics)
+        // CONNECT frames carrying a staff JWT bind the session to the user, for /user destinations
+        registration.interceptors(authInterceptor);
+        // Every inbound frame, heart-beats included, keeps the sender's presence alive
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                presenceService.touchSession(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+                return message;
+            }
+        });
+    }
+
+    private void enableSimpleBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker(BROKER_PREFIXES)
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+    }
+
+    private void enableRelay(MessageBrokerRegistry registry) {
+        if (!ClassUtils.isPresent("reactor.netty.tcp.TcpClient", getClass().getClassLoader())) {
+            throw new IllegalStateException("app.websocket.broker=relay needs io.projectreactor.netty:reactor-netty on the classpath");
+        }
+        var relay = registry.enableStompBrokerRelay(BROKER_PREFIXES)
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                // Share connected users between nodes so /user destinations resolve on any node
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        if (StringUtils.hasText(relayVirtualHost)) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
     }
 }
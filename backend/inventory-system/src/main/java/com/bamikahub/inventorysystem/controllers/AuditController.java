@@ -2,14 +2,17 @@ package com.bamikahub.inventorysystem.controllers;
 
 import com.bamikahub.inventorysystem.dto.audit.AuditFilterDto;
 import com.bamikahub.inventorysystem.dto.audit.AuditLogDto;
+import com.bamikahub.inventorysystem.dto.audit.AuditLogPageDto;
 import com.bamikahub.inventorysystem.services.audit.AuditExportService;
 import com.bamikahub.inventorysystem.services.audit.AuditQueryService;
+import com.bamikahub.inventorysystem.services.audit.AuditService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -28,26 +31,48 @@ public class AuditController {
 
     private final AuditQueryService auditQueryService;
     private final AuditExportService auditExportService;
+    private final AuditService auditService;
 
     /**
-     * Query audit logs with filters
-     * 
+     * Query the most recent audit logs matching the filters, newest first.
+     * Use /query/page to read further back.
+     *
      * @param filters AuditFilterDto containing filter criteria
+     * @param limit Max number of records (default 100, capped by audit.query.max-page-size)
      * @return List of AuditLogDto
      */
     @PostMapping("/query")
-    public ResponseEntity<List<AuditLogDto>> queryAuditLogs(@RequestBody AuditFilterDto filters) {
-        List<AuditLogDto> logs = auditQueryService.queryAuditLogs(filters);
+    public ResponseEntity<List<AuditLogDto>> queryAuditLogs(
+            @RequestBody AuditFilterDto filters,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<AuditLogDto> logs = auditQueryService.queryAuditLogsPage(filters, null, limit).getItems();
         return ResponseEntity.ok(logs);
     }
 
     /**
-     * Get all audit logs (paginated in future)
+     * Query one page of audit logs with filters, newest first
+     *
+     * @param filters AuditFilterDto containing filter criteria
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 50)
+     */
+    @PostMapping("/query/page")
+    public ResponseEntity<AuditLogPageDto> queryAuditLogsPage(
+            @RequestBody AuditFilterDto filters,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditQueryService.queryAuditLogsPage(filters, cursor, size));
+    }
+
+    /**
+     * Get the most recent audit logs, newest first
+     *
+     * @param limit Max number of records (default 100, capped by audit.query.max-page-size)
      */
     @GetMapping
-    public ResponseEntity<List<AuditLogDto>> getAllAuditLogs() {
+    public ResponseEntity<List<AuditLogDto>> getAllAuditLogs(@RequestParam(defaultValue = "100") int limit) {
         AuditFilterDto emptyFilter = new AuditFilterDto();
-        List<AuditLogDto> logs = auditQueryService.queryAuditLogs(emptyFilter);
+        List<AuditLogDto> logs = auditQueryService.queryAuditLogsPage(emptyFilter, null, limit).getItems();
         return ResponseEntity.ok(logs);
     }
 
@@ -115,63 +140,58 @@ public class AuditController {
     }
 
     /**
-     * Export audit logs to CSV
+     * Audit writer pipeline counters: queued, written, dropped and failed entries
+     */
+    @GetMapping("/stats/writer")
+    public ResponseEntity<Map<String, Long>> getWriterStats() {
+        return ResponseEntity.ok(auditService.getWriterStats());
+    }
+
+    /**
+     * Export audit logs to CSV, streamed to the client as rows are read
      * 
      * @param filters AuditFilterDto containing filter criteria
      */
     @PostMapping("/export/csv")
     @PreAuthorize("hasAuthority('AUDIT_EXPORT')")
-    public ResponseEntity<byte[]> exportToCsv(@RequestBody AuditFilterDto filters) {
-        List<AuditLogDto> logs = auditQueryService.queryAuditLogs(filters);
-        byte[] csvData = auditExportService.exportToCsv(logs);
-        
+    public ResponseEntity<StreamingResponseBody> exportToCsv(@RequestBody AuditFilterDto filters) {
         String filename = "audit_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
         
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csvData);
+                .body(out -> auditExportService.exportToCsv(filters, out));
     }
 
     /**
-     * Export audit logs to Excel
+     * Export audit logs to Excel, streamed to the client
      * 
      * @param filters AuditFilterDto containing filter criteria
      */
     @PostMapping("/export/excel")
     @PreAuthorize("hasAuthority('AUDIT_EXPORT')")
-    public ResponseEntity<byte[]> exportToExcel(@RequestBody AuditFilterDto filters) {
-        try {
-            List<AuditLogDto> logs = auditQueryService.queryAuditLogs(filters);
-            byte[] excelData = auditExportService.exportToExcel(logs);
-            
-            String filename = "audit_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excelData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<StreamingResponseBody> exportToExcel(@RequestBody AuditFilterDto filters) {
+        String filename = "audit_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(out -> auditExportService.exportToExcel(filters, out));
     }
 
     /**
-     * Export audit logs to PDF
+     * Export audit logs to PDF, streamed to the client page by page
      * 
      * @param filters AuditFilterDto containing filter criteria
      */
     @PostMapping("/export/pdf")
     @PreAuthorize("hasAuthority('AUDIT_EXPORT')")
-    public ResponseEntity<byte[]> exportToPdf(@RequestBody AuditFilterDto filters) {
-        List<AuditLogDto> logs = auditQueryService.queryAuditLogs(filters);
-        byte[] pdfData = auditExportService.exportToPdf(logs);
-        
+    public ResponseEntity<StreamingResponseBody> exportToPdf(@RequestBody AuditFilterDto filters) {
         String filename = "audit_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
         
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfData);
+                .body(out -> auditExportService.exportToPdf(filters, out));
     }
 }
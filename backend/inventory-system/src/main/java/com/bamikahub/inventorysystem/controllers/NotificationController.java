@@ -2,6 +2,7 @@ package com.bamikahub.inventorysystem.controllers;
 
 import com.bamikahub.inventorysystem.dto.notification.CreateNotificationRequest;
 import com.bamikahub.inventorysystem.dto.notification.NotificationDto;
+import com.bamikahub.inventorysystem.dto.notification.NotificationResumeDto;
 import com.bamikahub.inventorysystem.models.notification.NotificationPriority;
 import com.bamikahub.inventorysystem.models.notification.NotificationType;
 import com.bamikahub.inventorysystem.security.services.UserDetailsImpl;
@@ -13,16 +14,11 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for notification management
@@ -36,39 +32,31 @@ public class NotificationController {
     private final NotificationService notificationService;
     
     /**
-     * Get all notifications for current user
+     * Get notifications for current user, newest first. Pages by number with a total count, or, when
+     * beforeId is given, returns the entries after that notification without counting (for infinite scroll).
      */
     @GetMapping
-    public ResponseEntity<Page<NotificationDto>> getMyNotifications(
+    public ResponseEntity<Slice<NotificationDto>> getMyNotifications(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String priority,
-            @RequestParam(required = false) Boolean isRead) {
+            @RequestParam(required = false) Boolean isRead,
+            @RequestParam(required = false) Long beforeId) {
 
         final NotificationType typeFilter = resolveTypeFilter(type);
         final NotificationPriority priorityFilter = resolvePriorityFilter(priority);
 
         int safePage = Math.max(page, 0);
         int safeSize = Math.min(Math.max(size, 1), 100);
-        Pageable pageable = PageRequest.of(safePage, safeSize);
 
-        List<NotificationDto> filtered = notificationService
-                .getUserNotifications(userDetails.getId())
-                .stream()
-                .filter(dto -> typeFilter == null || dto.getType() == typeFilter)
-                .filter(dto -> priorityFilter == null || dto.getPriority() == priorityFilter)
-                .filter(dto -> isRead == null || Objects.equals(dto.getIsRead(), isRead))
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-    List<NotificationDto> content = start >= filtered.size()
-        ? Collections.emptyList()
-                : filtered.subList(start, Math.min(start + pageable.getPageSize(), filtered.size()));
-
-        Page<NotificationDto> response = new PageImpl<>(content, pageable, filtered.size());
-        return ResponseEntity.ok(response);
+        if (beforeId != null) {
+            return ResponseEntity.ok(notificationService.getUserNotificationsBefore(
+                    userDetails.getId(), beforeId, typeFilter, priorityFilter, isRead, safeSize));
+        }
+        return ResponseEntity.ok(notificationService.getUserNotifications(
+                userDetails.getId(), typeFilter, priorityFilter, isRead, PageRequest.of(safePage, safeSize)));
     }
 
     private NotificationType resolveTypeFilter(String type) {
@@ -93,6 +81,19 @@ public class NotificationController {
         }
     }
     
+    /**
+     * Get the notifications created after the last one the client has seen, oldest first, with the current
+     * unread count. Reconnecting clients call this instead of reloading the inbox.
+     */
+    @GetMapping("/since")
+    public ResponseEntity<NotificationResumeDto> getNotificationsSince(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+        return ResponseEntity.ok(notificationService.getNotificationsAfter(userDetails.getId(), afterId, safeSize));
+    }
+    
     /**
      * Get unread notifications for current user
      */
@@ -0,0 +1,69 @@
+package com.bamikahub.inventorysystem.controllers;
+
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
+import com.bamikahub.inventorysystem.services.storage.FileResponseWriter;
+import com.bamikahub.inventorysystem.services.storage.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves everything below file.upload-dir at /uploads/** with ETags, conditional GET and byte ranges.
+ * Content-addressed blobs (blobs/ab/&lt;sha256&gt;.ext) and their image variants are served as immutable.
+ * Image variants that do not exist yet are generated on request.
+ */
+@RestController
+public class UploadsController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final Pattern BLOB_PATH = Pattern.compile("^blobs/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,10})?$");
+    private static final Pattern BLOB_VARIANT_PATH =
+            Pattern.compile("^variants/([a-z]+)/blobs/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,10})?$");
+
+    private final FileResponseWriter fileResponseWriter;
+    private final ImageVariantService imageVariantService;
+    private final Path uploadRoot;
+    private final Path blobStaging;
+
+    public UploadsController(FileResponseWriter fileResponseWriter,
+                             ImageVariantService imageVariantService,
+                             @Value("${file.upload-dir}") String uploadDir,
+                             @Value("${file.upload-dir.blobs}") String blobDir) {
+        this.fileResponseWriter = fileResponseWriter;
+        this.imageVariantService = imageVariantService;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.blobStaging = Paths.get(blobDir).toAbsolutePath().normalize().resolve("tmp");
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        String relative = path.startsWith(PREFIX) ? path.substring(PREFIX.length()) : "";
+        Path file = uploadRoot.resolve(relative).normalize();
+        // Stay inside the upload dir and never expose uploads that are still being staged
+        if (relative.isEmpty() || !file.startsWith(uploadRoot) || file.startsWith(blobStaging)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (relative.startsWith(ImageVariant.VARIANTS_DIR)) {
+            Path served = imageVariantService.resolve(relative);
+            Matcher variant = BLOB_VARIANT_PATH.matcher(relative);
+            // The original stands in while the variant is generated, so it must not be cached as the variant
+            String hash = served.equals(file) && variant.matches() ? variant.group(1) + "-" + variant.group(2) : null;
+            fileResponseWriter.writePublic(request, response, served, hash);
+            return;
+        }
+        Matcher blob = BLOB_PATH.matcher(relative);
+        fileResponseWriter.writePublic(request, response, file, blob.matches() ? blob.group(1) : null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bamikahub.inventorysystem.controllers.admin;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes hit/miss/eviction statistics for the application caches and allows clearing them.
+ */
+@RestController
+@RequestMapping("/internal/admin/caches")
+@RequiredArgsConstructor
+public class AdminCacheController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS_READ')")
+    public ResponseEntity<List<Map<String, Object>>> listCaches() {
+        List<Map<String, Object>> caches = cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(name -> describe(name, cacheManager.getCache(name)))
+                .toList();
+        return ResponseEntity.ok(caches);
+    }
+
+    @DeleteMapping("/{name}")
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS_UPDATE')")
+    public ResponseEntity<?> clearCache(@PathVariable String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.clear();
+        return ResponseEntity.ok(Map.of("message", "Cache '" + name + "' cleared."));
+    }
+
+    private Map<String, Object> describe(String name, Cache cache) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", name);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            CacheStats stats = nativeCache.stats();
+            info.put("size", nativeCache.estimatedSize());
+            info.put("hitCount", stats.hitCount());
+            info.put("missCount", stats.missCount());
+            info.put("hitRate", stats.hitRate());
+            info.put("evictionCount", stats.evictionCount());
+            nativeCache.policy().eviction().map(Policy.Eviction::getMaximum)
+                    .ifPresent(maximum -> info.put("maxSize", maximum));
+            nativeCache.policy().expireAfterWrite().map(Policy.FixedExpiration::getExpiresAfter)
+                    .ifPresent(ttl -> info.put("ttl", ttl.toString()));
+        }
+        return info;
+    }
+}
@@ -10,19 +10,25 @@ import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.chat.ChatService;
 import com.bamikahub.inventorysystem.services.chat.ChatPresenceService;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
+import com.bamikahub.inventorysystem.services.storage.FileResponseWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -34,6 +40,7 @@ public class ChatRestController {
     private final ChatAuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
     private final ChatPresenceService presenceService;
+    private final FileResponseWriter fileResponseWriter;
 
     @PostMapping(value = "/messages", consumes = {"multipart/form-data"})
     public ResponseEntity<ChatMessageDTO> sendMessage(@RequestPart("payload") @Valid SendMessageRequest request,
@@ -50,19 +57,25 @@ public class ChatRestController {
     @GetMapping("/users")
     public ResponseEntity<List<ChatUserDTO>> listUsers(@RequestParam(required = false) Long excludeUserId) {
         List<User> users = userRepository.findAll();
+        Set<Long> online = presenceService.getOnlineUserIds();
         List<ChatUserDTO> dtos = users.stream()
                 .filter(u -> excludeUserId == null || !u.getId().equals(excludeUserId))
                 .map(u -> ChatUserDTO.builder()
                         .id(u.getId())
                         .fullName(u.getFullName())
                         .email(u.getEmail())
-                        .online(presenceService.getPresence(u.getId()).isOnline())
+                        .online(online.contains(u.getId()))
             .avatar(u.getProfilePictureUrl())
                         .build())
                 .toList();
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/presence")
+    public ResponseEntity<List<PresenceUpdate>> getOnlineUsers() {
+        return ResponseEntity.ok(presenceService.getOnlineSnapshot());
+    }
+
     @PostMapping("/threads/private")
     public ResponseEntity<ChatThreadDTO> createOrFetchPrivate(@RequestBody @Valid CreatePrivateThreadRequest request) {
         ChatThreadDTO dto = chatService.ensurePrivateThreadDto(request.getSenderId(), request.getRecipientId());
@@ -71,26 +84,34 @@ public class ChatRestController {
 
     @GetMapping("/threads/{threadId}/messages")
     public ResponseEntity<List<ChatMessageDTO>> getMessages(@PathVariable Long threadId,
-                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(required = false) Long before,
                                                             @RequestParam(defaultValue = "50") int size) {
-        return ResponseEntity.ok(chatService.getRecentMessages(threadId, page, size));
+        return ResponseEntity.ok(chatService.getMessageHistory(threadId, before, size));
+    }
+
+    @GetMapping("/threads/{threadId}/messages/search")
+    public ResponseEntity<List<ChatMessageDTO>> searchMessages(@PathVariable Long threadId,
+                                                               @RequestParam("q") String query,
+                                                               @RequestParam(required = false) Long before,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(chatService.searchMessages(threadId, query, before, size));
     }
 
     @PostMapping("/threads/{threadId}/read")
-    public ResponseEntity<List<ChatMessageDTO>> markThreadRead(@PathVariable Long threadId,
-                                                               @RequestBody @Valid MarkThreadReadRequest request) {
-        return ResponseEntity.ok(chatService.markThreadRead(threadId, request.getUserId(), request.getLastMessageId()));
+    public ResponseEntity<ChatReadReceiptDTO> markThreadRead(@PathVariable Long threadId,
+                                                             @RequestBody @Valid MarkThreadReadRequest request) {
+        ChatReadReceiptDTO receipt = chatService.markThreadRead(threadId, request.getUserId(), request.getLastMessageId());
+        return receipt != null ? ResponseEntity.ok(receipt) : ResponseEntity.noContent().build();
     }
 
     @GetMapping("/attachments/{id}")
-    public ResponseEntity<FileSystemResource> downloadAttachment(@PathVariable Long id) {
+    public void downloadAttachment(@PathVariable Long id, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
         ChatAttachment attachment = attachmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Attachment not found"));
-        FileSystemResource resource = new FileSystemResource(attachment.getStoragePath());
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + attachment.getFileName())
-                .header(HttpHeaders.CONTENT_TYPE, attachment.getContentType())
-                .body(resource);
+        fileResponseWriter.writePrivate(request, response, Paths.get(attachment.getStoragePath()),
+                attachment.getContentHash(),
+                ContentDisposition.attachment().filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
     }
 
     @GetMapping("/audit")
@@ -12,11 +12,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.security.Principal;
+
 @Slf4j
 @Controller
 @RequiredArgsConstructor
@@ -38,15 +41,19 @@ public class ChatWebSocketController {
         chatService.deleteMessage(request.getMessageId(), request.getActorId(), Boolean.TRUE.equals(adminOverride));
     }
 
+    // The user comes from the authenticated session; a userId in the payload is ignored
     @MessageMapping("/chat/presence")
-    public void updatePresence(@Payload PresenceUpdate update) {
-        if (update == null || update.getUserId() == null) {
+    public void updatePresence(@Payload PresenceUpdate update,
+                               @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+                               Principal user) {
+        Long userId = ChatPresenceService.userIdOf(user);
+        if (update == null || userId == null) {
             return;
         }
         if (update.isOnline()) {
-            presenceService.markOnline(update.getUserId());
+            presenceService.heartbeat(sessionId, userId);
         } else {
-            presenceService.markOffline(update.getUserId());
+            presenceService.signOff(sessionId);
         }
     }
 }
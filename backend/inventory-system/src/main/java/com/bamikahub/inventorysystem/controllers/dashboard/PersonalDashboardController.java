@@ -9,6 +9,8 @@ import com.bamikahub.inventorysystem.services.assignment.AssignmentService;
 import com.bamikahub.inventorysystem.services.notification.NotificationService;
 import com.bamikahub.inventorysystem.services.support.SupportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -35,22 +37,18 @@ public class PersonalDashboardController {
 
         Long userId = userDetails.getId();
 
-        // Notifications (get all, then page in-memory)
-        List<NotificationDto> notifications = notificationService.getUserNotifications(userId);
-        int notifStart = Math.max(0, Math.min(notifications.size(), page * size));
-        List<NotificationDto> notifPage = notifications.stream()
-                .skip(notifStart)
-                .limit(size)
-                .collect(Collectors.toList());
+        // Notifications (paged in the database)
+        Page<NotificationDto> notifications = notificationService
+                .getUserNotifications(userId, null, null, null, PageRequest.of(Math.max(page, 0), Math.max(size, 1)));
+        List<NotificationDto> notifPage = notifications.getContent();
 
         // Tickets submitted by this user
-        List<TicketListResponse> tickets = supportService.findTickets(
+        Page<TicketListResponse> tickets = supportService.findTickets(
                 com.bamikahub.inventorysystem.dto.support.TicketFilterCriteria.builder()
                         .submittedById(userId)
-                        .build()
+                        .build(),
+                PageRequest.of(Math.max(page, 0), Math.max(size, 1))
         );
-        int ticketStart = Math.max(0, Math.min(tickets.size(), page * size));
-        List<TicketListResponse> ticketPage = tickets.stream().skip(ticketStart).limit(size).collect(Collectors.toList());
 
         // Assignments assigned to this user
         List<AssignmentDTO> assignments = Collections.emptyList();
@@ -64,9 +62,9 @@ public class PersonalDashboardController {
 
         PersonalSummaryDto dto = new PersonalSummaryDto();
         dto.setNotifications(notifPage);
-        dto.setNotificationsTotal(notifications.size());
-        dto.setTickets(ticketPage);
-        dto.setTicketsTotal(tickets.size());
+        dto.setNotificationsTotal((int) notifications.getTotalElements());
+        dto.setTickets(tickets.getContent());
+        dto.setTicketsTotal((int) tickets.getTotalElements());
         dto.setAssignments(assignPage);
         dto.setAssignmentsTotal(assignments.size());
 
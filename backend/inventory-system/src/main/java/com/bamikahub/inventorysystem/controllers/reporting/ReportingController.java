@@ -2,14 +2,17 @@ package com.bamikahub.inventorysystem.controllers.reporting;
 
 import com.bamikahub.inventorysystem.dto.reporting.*;
 import com.bamikahub.inventorysystem.models.reporting.ReportHistory;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
 import com.bamikahub.inventorysystem.services.reporting.ReportingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -19,6 +22,9 @@ public class ReportingController {
     @Autowired
     private ReportingService reportingService;
 
+    @Autowired
+    private ReportRollupService reportRollupService;
+
     // ============= DASHBOARD & GENERAL =============
 
     @GetMapping("/dashboard-charts")
@@ -33,6 +39,13 @@ public class ReportingController {
         return reportingService.getReportHistory();
     }
 
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasAuthority('SYSTEM_SETTINGS_UPDATE')")
+    public ResponseEntity<?> rebuildRollups() {
+        reportRollupService.rebuildAll();
+        return ResponseEntity.ok(Map.of("message", "Report rollups rebuilt successfully."));
+    }
+
     // ============= OPERATIONS REPORTS =============
 
     @GetMapping("/operations/project-performance")
@@ -14,6 +14,8 @@ import com.bamikahub.inventorysystem.models.support.TicketCategory;
 import com.bamikahub.inventorysystem.models.support.TicketComment;
 import com.bamikahub.inventorysystem.services.support.SupportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -39,9 +41,12 @@ public class SupportController {
         return supportService.createTicket(request);
     }
 
+    /**
+     * Pages the tickets matching the filters, most recently updated first.
+     */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public List<TicketListResponse> getAllTickets(
+    public Page<TicketListResponse> getAllTickets(
             @RequestParam(required = false) SupportTicket.TicketStatus status,
             @RequestParam(required = false) SupportTicket.TicketPriority priority,
             @RequestParam(required = false) Integer categoryId,
@@ -53,11 +58,13 @@ public class SupportController {
             @RequestParam(required = false) Long projectId,
             @RequestParam(required = false) String department,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "false") boolean includeArchived
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size
     ) {
     TicketFilterCriteria criteria = buildCriteria(status, priority, categoryId, assignedToId, submittedById,
         startDate, endDate, inventoryItemId, projectId, department, search, includeArchived);
-    return supportService.findTickets(criteria);
+    return supportService.findTickets(criteria, PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
     }
 
     @GetMapping("/{id}")
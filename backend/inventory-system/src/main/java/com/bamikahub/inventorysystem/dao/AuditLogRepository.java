@@ -2,6 +2,7 @@ package com.bamikahub.inventorysystem.dao;
 
 import com.bamikahub.inventorysystem.models.audit.AuditLog;
 import com.bamikahub.inventorysystem.models.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -34,24 +35,28 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     // Find by severity
     List<AuditLog> findBySeverityOrderByTimestampDesc(AuditLog.Severity severity);
 
-    // Complex query with multiple filters
-    @Query("SELECT a FROM AuditLog a WHERE " +
+    // Keyset page of the filtered feed, newest first: rows strictly after the (cursorTime, cursorId) position
+    @Query("SELECT a FROM AuditLog a JOIN FETCH a.actor WHERE " +
             "(:userId IS NULL OR a.actor.id = :userId) AND " +
             "(:action IS NULL OR a.action = :action) AND " +
             "(:entityType IS NULL OR a.entityType = :entityType) AND " +
             "(:entityId IS NULL OR a.entityId = :entityId) AND " +
             "(:severity IS NULL OR a.severity = :severity) AND " +
             "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
-            "(:endDate IS NULL OR a.timestamp <= :endDate) " +
-            "ORDER BY a.timestamp DESC")
-    List<AuditLog> findByFilters(
+            "(:endDate IS NULL OR a.timestamp <= :endDate) AND " +
+            "(:cursorTime IS NULL OR a.timestamp < :cursorTime OR (a.timestamp = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageByFilters(
             @Param("userId") Long userId,
             @Param("action") AuditLog.ActionType action,
             @Param("entityType") String entityType,
             @Param("entityId") Long entityId,
             @Param("severity") AuditLog.Severity severity,
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
     );
 
     // Get recent activity for a user
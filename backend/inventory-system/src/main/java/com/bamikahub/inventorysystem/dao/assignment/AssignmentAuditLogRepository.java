@@ -2,11 +2,13 @@ package com.bamikahub.inventorysystem.dao.assignment;
 
 import com.bamikahub.inventorysystem.models.assignment.Assignment;
 import com.bamikahub.inventorysystem.models.assignment.AssignmentAuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AssignmentAuditLogRepository extends JpaRepository<AssignmentAuditLog, Long> {
@@ -18,19 +20,24 @@ public interface AssignmentAuditLogRepository extends JpaRepository<AssignmentAu
     @Query("SELECT a FROM AssignmentAuditLog a WHERE a.actor.id = :userId ORDER BY a.createdAt DESC")
     List<AssignmentAuditLog> findRecentActivityByUser(@Param("userId") Long userId);
 
-    @Query("SELECT a FROM AssignmentAuditLog a WHERE " +
+    // Keyset page of the filtered feed, newest first: rows strictly after the (cursorTime, cursorId) position
+    @Query("SELECT a FROM AssignmentAuditLog a JOIN FETCH a.actor WHERE " +
             "(:userId IS NULL OR a.actor.id = :userId) AND " +
-            "(:action IS NULL OR a.actionType = :action) AND " +
+            "a.actionType IN :actions AND " +
             "(:assignmentId IS NULL OR a.assignment.id = :assignmentId) AND " +
             "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
-            "(:endDate IS NULL OR a.createdAt <= :endDate) " +
-            "ORDER BY a.createdAt DESC")
-    List<AssignmentAuditLog> findByFilters(
+            "(:endDate IS NULL OR a.createdAt <= :endDate) AND " +
+            "(:cursorTime IS NULL OR a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AssignmentAuditLog> findPageByFilters(
             @Param("userId") Long userId,
-            @Param("action") AssignmentAuditLog.AuditAction action,
+            @Param("actions") Collection<AssignmentAuditLog.AuditAction> actions,
             @Param("assignmentId") Long assignmentId,
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
     );
 
     long countByActorId(Long actorId);
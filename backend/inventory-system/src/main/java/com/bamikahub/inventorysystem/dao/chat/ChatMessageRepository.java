@@ -1,25 +1,51 @@
 package com.bamikahub.inventorysystem.dao.chat;
 
 import com.bamikahub.inventorysystem.models.chat.ChatMessage;
-import com.bamikahub.inventorysystem.models.chat.ChatThread;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    Page<ChatMessage> findByThreadOrderBySentAtDesc(ChatThread thread, Pageable pageable);
+    // Keyset page of a thread's history, newest first; a null cursor starts at the latest message
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.sender LEFT JOIN FETCH cm.attachment " +
+            "WHERE cm.thread.id = :threadId " +
+            "AND (:beforeSentAt IS NULL OR cm.sentAt < :beforeSentAt " +
+            "OR (cm.sentAt = :beforeSentAt AND cm.id < :beforeId)) " +
+            "ORDER BY cm.sentAt DESC, cm.id DESC")
+    List<ChatMessage> findHistoryPage(@Param("threadId") Long threadId,
+                                      @Param("beforeSentAt") LocalDateTime beforeSentAt,
+                                      @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
 
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.thread = :thread AND cm.sentAt < :before ORDER BY cm.sentAt DESC")
-    Page<ChatMessage> findPreviousMessages(@Param("thread") ChatThread thread,
-                                           @Param("before") LocalDateTime before,
-                                           Pageable pageable);
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.sender LEFT JOIN FETCH cm.attachment " +
+            "WHERE cm.id IN :ids AND cm.deleted = false ORDER BY cm.id DESC")
+    List<ChatMessage> findVisibleByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.thread = :thread AND cm.deleted = false AND (LOWER(cm.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) ORDER BY cm.sentAt DESC")
-    List<ChatMessage> searchMessages(@Param("thread") ChatThread thread, @Param("keyword") String keyword, Pageable pageable);
+    @Modifying
+    @Query("UPDATE ChatMessage cm SET cm.readAt = :now, cm.deliveredAt = COALESCE(cm.deliveredAt, :now) " +
+            "WHERE cm.id IN :ids")
+    int markRead(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT MAX(cm.id) FROM ChatMessage cm WHERE cm.thread.id = :threadId")
+    Long findLatestMessageId(@Param("threadId") Long threadId);
+
+    // Unread messages in a shared thread for one user: everything after their read watermark not sent by them
+    @Query("SELECT COUNT(cm) FROM ChatMessage cm WHERE cm.thread.id = :threadId AND cm.id > :afterId " +
+            "AND cm.sender.id <> :userId AND cm.deleted = false")
+    long countUnreadAfter(@Param("threadId") Long threadId,
+                          @Param("afterId") Long afterId,
+                          @Param("userId") Long userId);
+
+    // Same for a user without a watermark: everything posted since they joined, as if they had been notified of it
+    @Query("SELECT COUNT(cm) FROM ChatMessage cm, User u WHERE u.id = :userId AND cm.thread.id = :threadId " +
+            "AND cm.sender.id <> :userId AND cm.deleted = false AND (u.createdAt IS NULL OR cm.sentAt >= u.createdAt)")
+    long countUnreadSinceJoined(@Param("threadId") Long threadId,
+                                @Param("userId") Long userId);
 }
@@ -3,7 +3,11 @@ package com.bamikahub.inventorysystem.dao.chat;
 import com.bamikahub.inventorysystem.models.chat.ChatNotification;
 import com.bamikahub.inventorysystem.models.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatNotificationRepository extends JpaRepository<ChatNotification, Long> {
@@ -12,9 +16,29 @@ public interface ChatNotificationRepository extends JpaRepository<ChatNotificati
 
     List<ChatNotification> findByRecipientAndReadFalse(User recipient);
 
-    List<ChatNotification> findByRecipientAndThreadIdAndReadFalseAndMessageIdLessThanEqual(User recipient, Long threadId, Long messageId);
-
-    long countByRecipientIdAndThreadIdAndReadFalse(Long recipientId, Long threadId);
+    @Query("SELECT n.threadId AS threadId, COUNT(n) AS unreadCount FROM ChatNotification n " +
+            "WHERE n.recipient.id = :userId AND n.read = false AND n.threadId IS NOT NULL GROUP BY n.threadId")
+    List<ThreadUnreadRow> countUnreadByThread(@Param("userId") Long userId);
 
     boolean existsByMessageIdAndReadFalse(Long messageId);
+
+    // Marks every unread notification of the user in the thread up to and including lastMessageId as read
+    @Modifying
+    @Query("UPDATE ChatNotification n SET n.read = true, n.readAt = :now, " +
+            "n.delivered = true, n.deliveredAt = COALESCE(n.deliveredAt, :now) " +
+            "WHERE n.recipient.id = :userId AND n.threadId = :threadId AND n.read = false " +
+            "AND n.messageId <= :lastMessageId")
+    int markReadUpTo(@Param("userId") Long userId,
+                     @Param("threadId") Long threadId,
+                     @Param("lastMessageId") Long lastMessageId,
+                     @Param("now") LocalDateTime now);
+
+    // Messages up to lastMessageId, not yet marked read, whose notifications have all been read
+    @Query("SELECT n.messageId FROM ChatNotification n " +
+            "WHERE n.threadId = :threadId AND n.messageId IN (" +
+            "SELECT m.id FROM ChatMessage m WHERE m.thread.id = :threadId AND m.id <= :lastMessageId " +
+            "AND m.readAt IS NULL) " +
+            "GROUP BY n.messageId HAVING SUM(CASE WHEN n.read = false THEN 1 ELSE 0 END) = 0")
+    List<Long> findFullyReadMessageIds(@Param("threadId") Long threadId,
+                                       @Param("lastMessageId") Long lastMessageId);
 }
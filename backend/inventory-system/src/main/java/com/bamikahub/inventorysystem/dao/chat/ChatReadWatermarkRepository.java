@@ -0,0 +1,26 @@
+package com.bamikahub.inventorysystem.dao.chat;
+
+import com.bamikahub.inventorysystem.models.chat.ChatReadWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ChatReadWatermarkRepository extends JpaRepository<ChatReadWatermark, Long> {
+
+    Optional<ChatReadWatermark> findByThreadIdAndUserId(Long threadId, Long userId);
+
+    boolean existsByThreadIdAndUserId(Long threadId, Long userId);
+
+    // Only ever moves a watermark forward
+    @Modifying
+    @Query("UPDATE ChatReadWatermark w SET w.lastReadMessageId = :messageId, w.updatedAt = :now " +
+            "WHERE w.threadId = :threadId AND w.userId = :userId AND w.lastReadMessageId < :messageId")
+    int advance(@Param("threadId") Long threadId,
+                @Param("userId") Long userId,
+                @Param("messageId") Long messageId,
+                @Param("now") LocalDateTime now);
+}
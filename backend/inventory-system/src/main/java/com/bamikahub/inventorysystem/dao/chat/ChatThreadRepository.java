@@ -1,9 +1,8 @@
 package com.bamikahub.inventorysystem.dao.chat;
 
 import com.bamikahub.inventorysystem.models.chat.ChatThread;
-import com.bamikahub.inventorysystem.models.chat.ChatThread.ThreadType;
-import com.bamikahub.inventorysystem.models.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,12 +11,29 @@ import java.util.Optional;
 
 public interface ChatThreadRepository extends JpaRepository<ChatThread, Long> {
 
-    @Query("SELECT ct FROM ChatThread ct JOIN ct.participants p WHERE ct.type = :type AND p = :user ORDER BY ct.lastMessageAt DESC NULLS LAST, ct.updatedAt DESC")
-    List<ChatThread> findByParticipantAndType(@Param("user") User user, @Param("type") ThreadType type);
-
     @Query("SELECT ct FROM ChatThread ct WHERE ct.type = 'GENERAL'")
     Optional<ChatThread> findGeneralThread();
 
     @Query("SELECT ct FROM ChatThread ct JOIN ct.participants p1 JOIN ct.participants p2 WHERE ct.type = 'PRIVATE' AND p1.id = :userId AND p2.id = :otherUserId")
     Optional<ChatThread> findPrivateThreadBetween(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    // The chat sidebar in one round trip: the general thread and the user's private threads, one row per participant
+    @Query("SELECT t.id AS threadId, t.type AS type, t.subject AS subject, t.lastMessageAt AS lastMessageAt, " +
+            "m.id AS lastMessageId, m.sender.id AS lastMessageSenderId, m.content AS lastMessageContent, " +
+            "a.fileName AS lastMessageFileName, m.deleted AS lastMessageDeleted, m.sentAt AS lastMessageSentAt, " +
+            "p.id AS participantId, p.firstName AS participantFirstName, p.lastName AS participantLastName, " +
+            "p.profilePictureUrl AS participantAvatar " +
+            "FROM ChatThread t LEFT JOIN t.participants p " +
+            "LEFT JOIN ChatMessage m ON m.id = t.lastMessageId LEFT JOIN m.attachment a " +
+            "WHERE t.type = 'GENERAL' OR t.id IN (" +
+            "SELECT own.id FROM ChatThread own JOIN own.participants me WHERE own.type = 'PRIVATE' AND me.id = :userId) " +
+            "ORDER BY CASE WHEN t.type = 'GENERAL' THEN 0 ELSE 1 END, t.lastMessageAt DESC NULLS LAST, t.updatedAt DESC, t.id")
+    List<ChatThreadSummaryRow> findThreadSummaries(@Param("userId") Long userId);
+
+    // Threads created before lastMessageId existed point at their newest message
+    @Modifying
+    @Query("UPDATE ChatThread t SET t.lastMessageId = " +
+            "(SELECT MAX(m.id) FROM ChatMessage m WHERE m.thread.id = t.id) " +
+            "WHERE t.lastMessageId IS NULL AND t.lastMessageAt IS NOT NULL")
+    int backfillLastMessageIds();
 }
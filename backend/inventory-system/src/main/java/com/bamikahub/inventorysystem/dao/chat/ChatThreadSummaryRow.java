@@ -0,0 +1,26 @@
+package com.bamikahub.inventorysystem.dao.chat;
+
+import com.bamikahub.inventorysystem.models.chat.ChatThread.ThreadType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One participant of a thread in the chat sidebar, together with the thread and its latest message.
+ * Threads without participants (the general thread) appear once with null participant columns.
+ */
+public interface ChatThreadSummaryRow {
+    Long getThreadId();
+    ThreadType getType();
+    String getSubject();
+    LocalDateTime getLastMessageAt();
+    Long getLastMessageId();
+    Long getLastMessageSenderId();
+    String getLastMessageContent();
+    String getLastMessageFileName();
+    Boolean getLastMessageDeleted();
+    LocalDateTime getLastMessageSentAt();
+    Long getParticipantId();
+    String getParticipantFirstName();
+    String getParticipantLastName();
+    String getParticipantAvatar();
+}
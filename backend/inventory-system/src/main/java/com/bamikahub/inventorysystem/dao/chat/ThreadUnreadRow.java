@@ -0,0 +1,9 @@
+package com.bamikahub.inventorysystem.dao.chat;
+
+/**
+ * Aggregate row: unread notification count of one user in one thread.
+ */
+public interface ThreadUnreadRow {
+    Long getThreadId();
+    Long getUnreadCount();
+}
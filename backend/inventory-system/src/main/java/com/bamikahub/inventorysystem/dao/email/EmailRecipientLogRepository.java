@@ -1,12 +1,42 @@
 package com.bamikahub.inventorysystem.dao.email;
 
 import com.bamikahub.inventorysystem.models.email.EmailRecipientLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EmailRecipientLogRepository extends JpaRepository<EmailRecipientLog, Long> {
     List<EmailRecipientLog> findByEmailMessageId(Long messageId);
+
+    // Outbox rows that are due for a delivery attempt, oldest first
+    @Query("select r.id from EmailRecipientLog r where r.status = :status " +
+            "and (r.nextAttemptAt is null or r.nextAttemptAt <= :now) order by r.id")
+    List<Long> findDueIds(@Param("status") EmailRecipientLog.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    // The rows among ids that the pass holding claimToken leased
+    @Query("select r from EmailRecipientLog r join fetch r.emailMessage " +
+            "where r.id in :ids and r.claimToken = :claimToken")
+    List<EmailRecipientLog> findClaimed(@Param("ids") Collection<Long> ids,
+                                        @Param("claimToken") String claimToken);
+
+    // Claims rows for one dispatch pass by pushing their due time past the lease. Re-checks that each row is
+    // still due, so a row another node leased since it was selected is left alone
+    @Modifying
+    @Query("update EmailRecipientLog r set r.nextAttemptAt = :leaseUntil, r.claimToken = :claimToken " +
+            "where r.id in :ids and r.status = :status and (r.nextAttemptAt is null or r.nextAttemptAt <= :now)")
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("status") EmailRecipientLog.Status status,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("claimToken") String claimToken);
 }
@@ -1,8 +1,60 @@
 package com.bamikahub.inventorysystem.dao.finance;
 
+import com.bamikahub.inventorysystem.dao.reporting.DailyAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyRequisitionSpendRow;
+import com.bamikahub.inventorysystem.dao.reporting.ProjectBudgetRow;
+import com.bamikahub.inventorysystem.dao.reporting.RequisitionStatusRow;
 import com.bamikahub.inventorysystem.models.finance.Requisition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface RequisitionRepository extends JpaRepository<Requisition, Long> {}
\ No newline at end of file
+public interface RequisitionRepository extends JpaRepository<Requisition, Long> {
+
+    // Daily estimated item cost of requisitions in the given statuses created within [from, to)
+    @Query("SELECT CAST(r.createdAt AS LocalDate) AS day, SUM(ri.estimatedUnitCost * ri.quantity) AS amount " +
+            "FROM RequisitionItem ri JOIN ri.requisition r " +
+            "WHERE r.status IN :statuses AND r.createdAt >= :from AND r.createdAt < :to " +
+            "GROUP BY CAST(r.createdAt AS LocalDate)")
+    List<DailyAmountRow> sumEstimatedCostByDay(@Param("statuses") Collection<Requisition.RequisitionStatus> statuses,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // Requisition count and estimated value per status; null filters are ignored and undated rows always match
+    @Query("SELECT r.status AS status, COUNT(DISTINCT r.id) AS count, " +
+            "SUM(ri.estimatedUnitCost * ri.quantity) AS totalValue " +
+            "FROM Requisition r LEFT JOIN r.items ri WHERE " +
+            "(:projectId IS NULL OR r.project.id = :projectId) AND " +
+            "(:status IS NULL OR r.status = :status) AND " +
+            "(:from IS NULL OR r.createdAt IS NULL OR r.createdAt >= :from) AND " +
+            "(:to IS NULL OR r.createdAt IS NULL OR r.createdAt < :to) " +
+            "GROUP BY r.status")
+    List<RequisitionStatusRow> summarizeByStatus(@Param("projectId") Long projectId,
+                                                 @Param("status") Requisition.RequisitionStatus status,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    // Per-project estimated cost: budgeted excludes the given statuses, actual counts only the spent ones
+    @Query("SELECT r.project.id AS projectId, " +
+            "SUM(CASE WHEN r.status NOT IN :excluded THEN ri.estimatedUnitCost * ri.quantity ELSE 0 END) AS budgetedCost, " +
+            "SUM(CASE WHEN r.status IN :spent THEN ri.estimatedUnitCost * ri.quantity ELSE 0 END) AS actualCost " +
+            "FROM RequisitionItem ri JOIN ri.requisition r " +
+            "WHERE r.project IS NOT NULL " +
+            "GROUP BY r.project.id")
+    List<ProjectBudgetRow> sumCostByProject(@Param("excluded") Collection<Requisition.RequisitionStatus> excluded,
+                                            @Param("spent") Collection<Requisition.RequisitionStatus> spent);
+
+    // Full-history daily spend per project and status, used to rebuild the requisition rollups
+    @Query("SELECT CAST(r.createdAt AS LocalDate) AS day, COALESCE(p.id, 0) AS projectId, r.status AS status, " +
+            "COUNT(DISTINCT r.id) AS count, SUM(ri.estimatedUnitCost * ri.quantity) AS amount " +
+            "FROM Requisition r LEFT JOIN r.project p LEFT JOIN r.items ri " +
+            "WHERE r.createdAt IS NOT NULL AND r.status IN :statuses " +
+            "GROUP BY CAST(r.createdAt AS LocalDate), COALESCE(p.id, 0), r.status")
+    List<DailyRequisitionSpendRow> sumDailySpendByProjectAndStatus(@Param("statuses") Collection<Requisition.RequisitionStatus> statuses);
+}
@@ -1,8 +1,11 @@
 package com.bamikahub.inventorysystem.dao.inventory;
 
+import com.bamikahub.inventorysystem.dao.reporting.CategoryStockRow;
+import com.bamikahub.inventorysystem.dao.reporting.ItemStockRow;
 import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +20,16 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     @Override
     @Query("select i from InventoryItem i where i.isDeleted = false")
     List<InventoryItem> findAll();
-}
\ No newline at end of file
+
+    // Active item stock levels without loading the eager category, optionally limited to one category
+    @Query("select i.id as itemId, i.name as itemName, i.sku as sku, i.quantity as quantity " +
+            "from InventoryItem i where i.isDeleted = false and (:categoryId is null or i.category.id = :categoryId)")
+    List<ItemStockRow> findStockLevels(@Param("categoryId") Long categoryId);
+
+    // Item count, low-stock count and stock value of active items per category, used to seed the dashboard counters
+    @Query("select i.category.id as categoryId, count(i) as itemCount, " +
+            "sum(case when i.quantity <= i.reorderLevel then 1 else 0 end) as lowStockCount, " +
+            "sum(i.unitPrice * i.quantity) as stockValue " +
+            "from InventoryItem i where i.isDeleted = false group by i.category.id")
+    List<CategoryStockRow> summarizeStockByCategory();
+}
@@ -1,11 +1,70 @@
 package com.bamikahub.inventorysystem.dao.inventory;
 
+import com.bamikahub.inventorysystem.dao.reporting.DailyAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyItemMovementRow;
+import com.bamikahub.inventorysystem.dao.reporting.ItemMovementRow;
+import com.bamikahub.inventorysystem.dao.reporting.StockOutItemRow;
 import com.bamikahub.inventorysystem.models.inventory.StockTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, Long> {
     List<StockTransaction> findByItemIdOrderByCreatedAtDesc(Long itemId);
-}
\ No newline at end of file
+
+    // Per-item quantity and cost totals for one transaction type within [from, to)
+    @Query("SELECT i.id AS itemId, i.name AS itemName, i.sku AS sku, i.unitPrice AS unitPrice, " +
+            "SUM(t.quantity) AS quantity, SUM(COALESCE(t.unitCost, 0) * t.quantity) AS cogs " +
+            "FROM StockTransaction t JOIN t.item i " +
+            "WHERE t.type = :type AND t.createdAt >= :from AND t.createdAt < :to " +
+            "AND (:categoryId IS NULL OR i.category.id = :categoryId) " +
+            "GROUP BY i.id, i.name, i.sku, i.unitPrice")
+    List<StockOutItemRow> sumByItem(@Param("type") StockTransaction.TransactionType type,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("categoryId") Long categoryId);
+
+    // Daily value (current item unit price x quantity) for one transaction type within [from, to)
+    @Query("SELECT CAST(t.createdAt AS LocalDate) AS day, SUM(i.unitPrice * t.quantity) AS amount " +
+            "FROM StockTransaction t JOIN t.item i " +
+            "WHERE t.type = :type AND t.createdAt >= :from AND t.createdAt < :to " +
+            "GROUP BY CAST(t.createdAt AS LocalDate)")
+    List<DailyAmountRow> sumValueByDay(@Param("type") StockTransaction.TransactionType type,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    // Per-item stock-in/stock-out totals within [from, to), optionally limited to one category
+    @Query("SELECT t.item.id AS itemId, " +
+            "SUM(CASE WHEN t.type = :in THEN t.quantity ELSE 0 END) AS stockIn, " +
+            "SUM(CASE WHEN t.type = :out THEN t.quantity ELSE 0 END) AS stockOut, " +
+            "SUM(CASE WHEN t.type = :in THEN 1 ELSE 0 END) AS stockInCount " +
+            "FROM StockTransaction t " +
+            "WHERE t.createdAt >= :from AND t.createdAt < :to " +
+            "AND (:categoryId IS NULL OR t.item.category.id = :categoryId) " +
+            "GROUP BY t.item.id")
+    List<ItemMovementRow> sumMovementByItem(@Param("in") StockTransaction.TransactionType in,
+                                            @Param("out") StockTransaction.TransactionType out,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("categoryId") Long categoryId);
+
+    // Full-history daily movement per item, used to rebuild the inventory rollups. Movements are valued at the
+    // unit price recorded with them, like the incremental path; older rows without one fall back to the current price
+    @Query("SELECT CAST(t.createdAt AS LocalDate) AS day, i.id AS itemId, i.category.id AS categoryId, " +
+            "SUM(CASE WHEN t.type = :in THEN t.quantity ELSE 0 END) AS stockIn, " +
+            "SUM(CASE WHEN t.type = :out THEN t.quantity ELSE 0 END) AS stockOut, " +
+            "SUM(CASE WHEN t.type = :in THEN COALESCE(t.unitPrice, i.unitPrice) * t.quantity ELSE 0 END) AS stockInValue, " +
+            "SUM(CASE WHEN t.type = :out THEN COALESCE(t.unitPrice, i.unitPrice) * t.quantity ELSE 0 END) AS stockOutValue, " +
+            "SUM(CASE WHEN t.type = :in THEN COALESCE(t.unitCost, 0) * t.quantity ELSE 0 END) AS stockInCost, " +
+            "SUM(CASE WHEN t.type = :out THEN COALESCE(t.unitCost, 0) * t.quantity ELSE 0 END) AS stockOutCost " +
+            "FROM StockTransaction t JOIN t.item i " +
+            "WHERE t.createdAt IS NOT NULL AND t.type IN (:in, :out) " +
+            "GROUP BY CAST(t.createdAt AS LocalDate), i.id, i.category.id")
+    List<DailyItemMovementRow> sumDailyMovementByItem(@Param("in") StockTransaction.TransactionType in,
+                                                      @Param("out") StockTransaction.TransactionType out);
+}
@@ -1,8 +1,12 @@
 package com.bamikahub.inventorysystem.dao.notification;
 
 import com.bamikahub.inventorysystem.models.notification.Notification;
+import com.bamikahub.inventorysystem.models.notification.NotificationPriority;
 import com.bamikahub.inventorysystem.models.notification.NotificationType;
 import com.bamikahub.inventorysystem.models.user.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -30,6 +34,49 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     Long countByRecipientAndIsReadFalse(User recipient);
     
+    /**
+     * Count unread notifications for a user, by id
+     */
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId AND n.isRead = false")
+    long countUnreadByRecipientId(@Param("recipientId") Long recipientId);
+    
+    /**
+     * Page of a user's inbox, newest first; null filters are ignored
+     */
+    @Query(value = "SELECT n FROM Notification n LEFT JOIN FETCH n.triggeredBy " +
+           "WHERE n.recipient.id = :recipientId " +
+           "AND (:type IS NULL OR n.type = :type) " +
+           "AND (:priority IS NULL OR n.priority = :priority) " +
+           "AND (:isRead IS NULL OR n.isRead = :isRead) " +
+           "ORDER BY n.createdAt DESC, n.id DESC",
+           countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId " +
+           "AND (:type IS NULL OR n.type = :type) " +
+           "AND (:priority IS NULL OR n.priority = :priority) " +
+           "AND (:isRead IS NULL OR n.isRead = :isRead)")
+    Page<Notification> findInbox(@Param("recipientId") Long recipientId,
+                                 @Param("type") NotificationType type,
+                                 @Param("priority") NotificationPriority priority,
+                                 @Param("isRead") Boolean isRead,
+                                 Pageable pageable);
+    
+    /**
+     * Inbox entries after the given (createdAt, id) position, newest first; no count query
+     */
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.triggeredBy " +
+           "WHERE n.recipient.id = :recipientId " +
+           "AND (:type IS NULL OR n.type = :type) " +
+           "AND (:priority IS NULL OR n.priority = :priority) " +
+           "AND (:isRead IS NULL OR n.isRead = :isRead) " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<Notification> findInboxBefore(@Param("recipientId") Long recipientId,
+                                        @Param("type") NotificationType type,
+                                        @Param("priority") NotificationPriority priority,
+                                        @Param("isRead") Boolean isRead,
+                                        @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                        @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
+    
     /**
      * Find notifications by type for a user
      */
@@ -69,6 +116,29 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
            "WHERE n.id IN :ids")
     int markAsRead(@Param("ids") List<Long> ids, @Param("readAt") LocalDateTime readAt);
     
+    /**
+     * Notifications created after the given id, oldest first; served by the recipient index, which includes the id
+     */
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.triggeredBy " +
+           "WHERE n.recipient.id = :recipientId AND n.id > :afterId ORDER BY n.id ASC")
+    Slice<Notification> findCreatedAfter(@Param("recipientId") Long recipientId,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+    
+    /**
+     * Load notifications with their recipient and trigger for an email, oldest first
+     */
+    @Query("SELECT n FROM Notification n JOIN FETCH n.recipient LEFT JOIN FETCH n.triggeredBy " +
+           "WHERE n.id IN :ids ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findForEmail(@Param("ids") List<Long> ids);
+    
+    /**
+     * Record that notifications went out by email
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.emailSent = true WHERE n.id IN :ids")
+    int markEmailSent(@Param("ids") List<Long> ids);
+    
     /**
      * Delete old read notifications (cleanup)
      */
@@ -0,0 +1,12 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rollup row: a monetary total for one rollup bucket, identified by its first day.
+ */
+public interface BucketAmountRow {
+    LocalDate getBucketStart();
+    BigDecimal getAmount();
+}
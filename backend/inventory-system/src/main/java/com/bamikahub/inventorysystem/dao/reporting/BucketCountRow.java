@@ -0,0 +1,11 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup row: a record count for one rollup bucket, identified by its first day.
+ */
+public interface BucketCountRow {
+    LocalDate getBucketStart();
+    Long getCount();
+}
@@ -0,0 +1,13 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row: active item count, low-stock count and stock value for one category.
+ */
+public interface CategoryStockRow {
+    Long getCategoryId();
+    Long getItemCount();
+    Long getLowStockCount();
+    BigDecimal getStockValue();
+}
@@ -0,0 +1,12 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate row: a monetary total for one calendar day.
+ */
+public interface DailyAmountRow {
+    LocalDate getDay();
+    BigDecimal getAmount();
+}
@@ -0,0 +1,11 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregate row: a record count for one calendar day.
+ */
+public interface DailyCountRow {
+    LocalDate getDay();
+    Long getCount();
+}
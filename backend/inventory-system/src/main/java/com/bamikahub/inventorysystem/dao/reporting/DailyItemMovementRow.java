@@ -0,0 +1,19 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate row: stock in/out quantities, values and costs for one item on one day.
+ */
+public interface DailyItemMovementRow {
+    LocalDate getDay();
+    Long getItemId();
+    Long getCategoryId();
+    Long getStockIn();
+    Long getStockOut();
+    BigDecimal getStockInValue();
+    BigDecimal getStockOutValue();
+    BigDecimal getStockInCost();
+    BigDecimal getStockOutCost();
+}
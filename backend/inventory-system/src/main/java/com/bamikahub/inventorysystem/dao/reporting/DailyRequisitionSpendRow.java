@@ -0,0 +1,17 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate row: requisition count and estimated cost for one project and status on one creation day.
+ */
+public interface DailyRequisitionSpendRow {
+    LocalDate getDay();
+    Long getProjectId();
+    Requisition.RequisitionStatus getStatus();
+    Long getCount();
+    BigDecimal getAmount();
+}
@@ -0,0 +1,18 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregate row: ticket counts and summed turnaround hours for one priority on one creation day.
+ */
+public interface DailyTicketSlaRow {
+    LocalDate getDay();
+    SupportTicket.TicketPriority getPriority();
+    Long getCreatedCount();
+    Long getRespondedCount();
+    Long getTotalResponseHours();
+    Long getResolvedCount();
+    Long getTotalResolutionHours();
+}
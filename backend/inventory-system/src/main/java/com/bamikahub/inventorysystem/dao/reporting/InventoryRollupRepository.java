@@ -0,0 +1,39 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.reporting.InventoryRollup;
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryRollupRepository extends JpaRepository<InventoryRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE InventoryRollup r SET " +
+            "r.stockInQuantity = r.stockInQuantity + :inQty, r.stockOutQuantity = r.stockOutQuantity + :outQty, " +
+            "r.stockInValue = r.stockInValue + :inValue, r.stockOutValue = r.stockOutValue + :outValue, " +
+            "r.stockInCost = r.stockInCost + :inCost, r.stockOutCost = r.stockOutCost + :outCost " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.itemId = :itemId")
+    int increment(@Param("granularity") RollupGranularity granularity,
+                  @Param("bucketStart") LocalDate bucketStart,
+                  @Param("itemId") Long itemId,
+                  @Param("inQty") long inQty,
+                  @Param("outQty") long outQty,
+                  @Param("inValue") BigDecimal inValue,
+                  @Param("outValue") BigDecimal outValue,
+                  @Param("inCost") BigDecimal inCost,
+                  @Param("outCost") BigDecimal outCost);
+
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.stockOutValue) AS amount FROM InventoryRollup r " +
+            "WHERE r.granularity = :granularity AND r.bucketStart IN :buckets GROUP BY r.bucketStart")
+    List<BucketAmountRow> sumStockOutValue(@Param("granularity") RollupGranularity granularity,
+                                           @Param("buckets") Collection<LocalDate> buckets);
+}
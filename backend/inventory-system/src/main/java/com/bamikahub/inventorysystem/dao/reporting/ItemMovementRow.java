@@ -0,0 +1,11 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+/**
+ * Aggregate row: stock-in/stock-out quantities and stock-in count for one inventory item.
+ */
+public interface ItemMovementRow {
+    Long getItemId();
+    Long getStockIn();
+    Long getStockOut();
+    Long getStockInCount();
+}
@@ -0,0 +1,11 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+/**
+ * Lightweight row: the identifying columns and current quantity of an inventory item.
+ */
+public interface ItemStockRow {
+    Long getItemId();
+    String getItemName();
+    String getSku();
+    Integer getQuantity();
+}
@@ -0,0 +1,12 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row: budgeted and actual requisition cost for one project.
+ */
+public interface ProjectBudgetRow {
+    Long getProjectId();
+    BigDecimal getBudgetedCost();
+    BigDecimal getActualCost();
+}
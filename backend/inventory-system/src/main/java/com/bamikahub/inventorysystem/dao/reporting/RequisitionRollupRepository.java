@@ -0,0 +1,38 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+import com.bamikahub.inventorysystem.models.reporting.RequisitionRollup;
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RequisitionRollupRepository extends JpaRepository<RequisitionRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE RequisitionRollup r SET " +
+            "r.requisitionCount = r.requisitionCount + :count, r.totalAmount = r.totalAmount + :amount " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart " +
+            "AND r.projectId = :projectId AND r.status = :status")
+    int increment(@Param("granularity") RollupGranularity granularity,
+                  @Param("bucketStart") LocalDate bucketStart,
+                  @Param("projectId") Long projectId,
+                  @Param("status") Requisition.RequisitionStatus status,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount);
+
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.totalAmount) AS amount FROM RequisitionRollup r " +
+            "WHERE r.granularity = :granularity AND r.bucketStart IN :buckets AND r.status IN :statuses " +
+            "GROUP BY r.bucketStart")
+    List<BucketAmountRow> sumAmount(@Param("granularity") RollupGranularity granularity,
+                                    @Param("buckets") Collection<LocalDate> buckets,
+                                    @Param("statuses") Collection<Requisition.RequisitionStatus> statuses);
+}
@@ -0,0 +1,14 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row: requisition count and estimated value for one status.
+ */
+public interface RequisitionStatusRow {
+    Requisition.RequisitionStatus getStatus();
+    Long getCount();
+    BigDecimal getTotalValue();
+}
@@ -0,0 +1,15 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+
+/**
+ * Aggregate row: SLA counters and average turnaround hours for one ticket priority.
+ */
+public interface SlaPriorityRow {
+    SupportTicket.TicketPriority getPriority();
+    Long getTotalTickets();
+    Long getResponseMetCount();
+    Long getResolutionMetCount();
+    Double getAverageResponseHours();
+    Double getAverageResolutionHours();
+}
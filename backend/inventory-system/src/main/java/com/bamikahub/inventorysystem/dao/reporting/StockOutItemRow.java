@@ -0,0 +1,15 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row: stock-out totals for a single inventory item.
+ */
+public interface StockOutItemRow {
+    Long getItemId();
+    String getItemName();
+    String getSku();
+    BigDecimal getUnitPrice();
+    Long getQuantity();
+    BigDecimal getCogs();
+}
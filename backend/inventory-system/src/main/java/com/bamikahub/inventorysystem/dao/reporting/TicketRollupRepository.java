@@ -0,0 +1,41 @@
+package com.bamikahub.inventorysystem.dao.reporting;
+
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
+import com.bamikahub.inventorysystem.models.reporting.TicketRollup;
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketRollupRepository extends JpaRepository<TicketRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE TicketRollup r SET " +
+            "r.createdCount = r.createdCount + :created, " +
+            "r.respondedCount = r.respondedCount + :responded, r.totalResponseHours = r.totalResponseHours + :responseHours, " +
+            "r.resolvedCount = r.resolvedCount + :resolved, r.totalResolutionHours = r.totalResolutionHours + :resolutionHours " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.priority = :priority")
+    int increment(@Param("granularity") RollupGranularity granularity,
+                  @Param("bucketStart") LocalDate bucketStart,
+                  @Param("priority") SupportTicket.TicketPriority priority,
+                  @Param("created") long created,
+                  @Param("responded") long responded,
+                  @Param("responseHours") long responseHours,
+                  @Param("resolved") long resolved,
+                  @Param("resolutionHours") long resolutionHours);
+
+    // Tickets created per bucket; a null priority counts every priority
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.createdCount) AS count FROM TicketRollup r " +
+            "WHERE r.granularity = :granularity AND r.bucketStart IN :buckets " +
+            "AND (:priority IS NULL OR r.priority = :priority) GROUP BY r.bucketStart")
+    List<BucketCountRow> sumCreated(@Param("granularity") RollupGranularity granularity,
+                                    @Param("buckets") Collection<LocalDate> buckets,
+                                    @Param("priority") SupportTicket.TicketPriority priority);
+}
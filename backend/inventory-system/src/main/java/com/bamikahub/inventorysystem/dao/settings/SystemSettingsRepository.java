@@ -4,7 +4,10 @@ import com.bamikahub.inventorysystem.models.settings.SystemSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface SystemSettingsRepository extends JpaRepository<SystemSettings, Long> {
     // Only one system settings record should exist
+    Optional<SystemSettings> findFirstByOrderByIdAsc();
 }
\ No newline at end of file
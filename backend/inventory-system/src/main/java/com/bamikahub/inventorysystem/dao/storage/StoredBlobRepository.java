@@ -0,0 +1,43 @@
+package com.bamikahub.inventorysystem.dao.storage;
+
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1, b.releasedAt = NULL WHERE b.sha256 = :sha256")
+    int acquire(@Param("sha256") String sha256);
+
+    // A plain INSERT, so a concurrent first upload of the same content fails instead of being merged over
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (sha256, byte_size, storage_key, ref_count, created_at) " +
+            "VALUES (:sha256, :size, :storageKey, 1, :now)", nativeQuery = true)
+    int insertFirstReference(@Param("sha256") String sha256,
+                             @Param("size") long size,
+                             @Param("storageKey") String storageKey,
+                             @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1, b.releasedAt = :now " +
+            "WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int release(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.sha256 FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :cutoff ORDER BY b.releasedAt")
+    List<String> findReleasedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Holds the row while a sweep deletes the file so a concurrent acquire waits for the outcome
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.sha256 = :sha256")
+    Optional<StoredBlob> findForUpdate(@Param("sha256") String sha256);
+}
@@ -0,0 +1,13 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import java.time.LocalDateTime;
+
+/**
+ * Due times of one open ticket, as scanned by the SLA engine.
+ */
+public interface SlaDueRow {
+    Long getTicketId();
+    LocalDateTime getResponseDueAt();
+    LocalDateTime getResolutionDueAt();
+    LocalDateTime getLastEscalationAt();
+}
@@ -0,0 +1,24 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+
+import java.time.LocalDateTime;
+
+/**
+ * The scalar ticket fields SLA notifications and rollups need, without the ticket's comments and attachments.
+ */
+public interface SlaTicketRow {
+    Long getId();
+    String getSubject();
+    SupportTicket.TicketStatus getStatus();
+    SupportTicket.TicketPriority getPriority();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getFirstResponseAt();
+    LocalDateTime getResolvedAt();
+    LocalDateTime getResponseDueAt();
+    LocalDateTime getResolutionDueAt();
+    Boolean getResponseBreached();
+    Boolean getResolutionBreached();
+    Long getAssignedToId();
+    String getAssignedToEmail();
+}
@@ -1,18 +1,117 @@
 package com.bamikahub.inventorysystem.dao.support;
 
+import com.bamikahub.inventorysystem.dao.reporting.DailyCountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyTicketSlaRow;
+import com.bamikahub.inventorysystem.dao.reporting.SlaPriorityRow;
 import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long>, JpaSpecificationExecutor<SupportTicket> {
+public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long>, JpaSpecificationExecutor<SupportTicket>,
+		TicketListQueries {
 	long countByStatus(SupportTicket.TicketStatus status);
 	long countByCategory_Name(String name);
 	long countByResolutionBreachedFalseAndStatus(SupportTicket.TicketStatus status);
 	long countByPriority(SupportTicket.TicketPriority priority);
-	List<SupportTicket> findByStatusIn(List<SupportTicket.TicketStatus> statuses);
-	List<SupportTicket> findByStatusNot(SupportTicket.TicketStatus status);
-}
\ No newline at end of file
+
+	// Open tickets whose first response falls due by the horizon and has not been flagged yet
+	@Query("SELECT t.id AS ticketId, t.responseDueAt AS responseDueAt, t.resolutionDueAt AS resolutionDueAt, " +
+			"t.lastEscalationAt AS lastEscalationAt FROM SupportTicket t " +
+			"WHERE t.status IN :statuses AND t.responseDueAt <= :horizon " +
+			"AND t.responseBreached = false AND t.firstResponseAt IS NULL " +
+			"ORDER BY t.responseDueAt")
+	List<SlaDueRow> findResponseDue(@Param("statuses") Collection<SupportTicket.TicketStatus> statuses,
+									@Param("horizon") LocalDateTime horizon,
+									Pageable pageable);
+
+	// Unresolved tickets past their resolution target by the horizon that were not escalated after repeatHorizon
+	@Query("SELECT t.id AS ticketId, t.responseDueAt AS responseDueAt, t.resolutionDueAt AS resolutionDueAt, " +
+			"t.lastEscalationAt AS lastEscalationAt FROM SupportTicket t " +
+			"WHERE t.status IN :statuses AND t.resolutionDueAt <= :horizon AND t.resolvedAt IS NULL " +
+			"AND (t.lastEscalationAt IS NULL OR t.lastEscalationAt <= :repeatHorizon) " +
+			"ORDER BY t.resolutionDueAt")
+	List<SlaDueRow> findEscalationDue(@Param("statuses") Collection<SupportTicket.TicketStatus> statuses,
+									  @Param("horizon") LocalDateTime horizon,
+									  @Param("repeatHorizon") LocalDateTime repeatHorizon,
+									  Pageable pageable);
+
+	@Query("SELECT t.id AS id, t.subject AS subject, t.status AS status, t.priority AS priority, " +
+			"t.createdAt AS createdAt, t.firstResponseAt AS firstResponseAt, t.resolvedAt AS resolvedAt, " +
+			"t.responseDueAt AS responseDueAt, t.resolutionDueAt AS resolutionDueAt, " +
+			"t.responseBreached AS responseBreached, t.resolutionBreached AS resolutionBreached, " +
+			"a.id AS assignedToId, a.email AS assignedToEmail " +
+			"FROM SupportTicket t LEFT JOIN t.assignedTo a WHERE t.id = :id")
+	Optional<SlaTicketRow> findSlaTicket(@Param("id") Long id);
+
+	// Conditional so a ticket answered, closed or flagged meanwhile (or by another node) is left alone
+	@Modifying
+	@Query("UPDATE SupportTicket t SET t.responseBreached = true, t.updatedAt = :now " +
+			"WHERE t.id = :id AND t.status IN :statuses AND t.responseDueAt <= :now " +
+			"AND t.responseBreached = false AND t.firstResponseAt IS NULL")
+	int markResponseBreached(@Param("id") Long id,
+							 @Param("statuses") Collection<SupportTicket.TicketStatus> statuses,
+							 @Param("now") LocalDateTime now);
+
+	// Conditional on the priority read before, so a concurrent edit or escalation wins and this one is skipped
+	@Modifying
+	@Query("UPDATE SupportTicket t SET t.lastEscalationAt = :now, t.resolutionBreached = true, " +
+			"t.priority = :priority, t.updatedAt = :now " +
+			"WHERE t.id = :id AND t.priority = :previousPriority AND t.status IN :statuses " +
+			"AND t.resolutionDueAt <= :now AND t.resolvedAt IS NULL " +
+			"AND (t.lastEscalationAt IS NULL OR t.lastEscalationAt <= :repeatCutoff)")
+	int escalate(@Param("id") Long id,
+				 @Param("statuses") Collection<SupportTicket.TicketStatus> statuses,
+				 @Param("previousPriority") SupportTicket.TicketPriority previousPriority,
+				 @Param("priority") SupportTicket.TicketPriority priority,
+				 @Param("now") LocalDateTime now,
+				 @Param("repeatCutoff") LocalDateTime repeatCutoff);
+
+	// SLA counters per priority; null filters are ignored and undated rows always match
+	@Query("SELECT t.priority AS priority, COUNT(t) AS totalTickets, " +
+			"SUM(CASE WHEN t.responseBreached = false THEN 1 ELSE 0 END) AS responseMetCount, " +
+			"SUM(CASE WHEN t.resolutionBreached = false THEN 1 ELSE 0 END) AS resolutionMetCount, " +
+			"AVG((t.firstResponseAt - t.createdAt) BY HOUR) AS averageResponseHours, " +
+			"AVG((t.resolvedAt - t.createdAt) BY HOUR) AS averageResolutionHours " +
+			"FROM SupportTicket t WHERE " +
+			"(:status IS NULL OR t.status = :status) AND " +
+			"(:priority IS NULL OR t.priority = :priority) AND " +
+			"(:from IS NULL OR t.createdAt IS NULL OR t.createdAt >= :from) AND " +
+			"(:to IS NULL OR t.createdAt IS NULL OR t.createdAt < :to) " +
+			"GROUP BY t.priority")
+	List<SlaPriorityRow> summarizeSlaByPriority(@Param("status") SupportTicket.TicketStatus status,
+												@Param("priority") SupportTicket.TicketPriority priority,
+												@Param("from") LocalDateTime from,
+												@Param("to") LocalDateTime to);
+
+	// Tickets created per day within [from, to); null status/priority filters are ignored
+	@Query("SELECT CAST(t.createdAt AS LocalDate) AS day, COUNT(t) AS count " +
+			"FROM SupportTicket t WHERE t.createdAt >= :from AND t.createdAt < :to AND " +
+			"(:status IS NULL OR t.status = :status) AND " +
+			"(:priority IS NULL OR t.priority = :priority) " +
+			"GROUP BY CAST(t.createdAt AS LocalDate)")
+	List<DailyCountRow> countCreatedByDay(@Param("status") SupportTicket.TicketStatus status,
+										  @Param("priority") SupportTicket.TicketPriority priority,
+										  @Param("from") LocalDateTime from,
+										  @Param("to") LocalDateTime to);
+
+	// Full-history daily ticket counts and turnaround hours per priority, used to rebuild the ticket rollups
+	@Query("SELECT CAST(t.createdAt AS LocalDate) AS day, t.priority AS priority, COUNT(t) AS createdCount, " +
+			"COUNT(t.firstResponseAt) AS respondedCount, " +
+			"SUM((t.firstResponseAt - t.createdAt) BY HOUR) AS totalResponseHours, " +
+			"COUNT(t.resolvedAt) AS resolvedCount, " +
+			"SUM((t.resolvedAt - t.createdAt) BY HOUR) AS totalResolutionHours " +
+			"FROM SupportTicket t WHERE t.createdAt IS NOT NULL " +
+			"GROUP BY CAST(t.createdAt AS LocalDate), t.priority")
+	List<DailyTicketSlaRow> summarizeDailySlaByPriority();
+}
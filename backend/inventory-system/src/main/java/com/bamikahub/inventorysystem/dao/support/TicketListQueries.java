@@ -0,0 +1,14 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TicketListQueries {
+
+    /**
+     * One page of ticket list rows matching the specification, most recently updated first.
+     */
+    Page<TicketListRow> findTicketList(Specification<SupportTicket> specification, Pageable pageable);
+}
@@ -0,0 +1,92 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import com.bamikahub.inventorysystem.models.support.TicketCategory;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Selects only the list columns, so neither the ticket entity nor its comment and attachment collections are
+ * loaded. The count query runs only when the page does not already tell the total.
+ */
+class TicketListQueriesImpl implements TicketListQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TicketListRow> findTicketList(Specification<SupportTicket> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<TicketListRow> query = cb.createQuery(TicketListRow.class);
+        Root<SupportTicket> ticket = query.from(SupportTicket.class);
+        Join<SupportTicket, TicketCategory> category = ticket.join("category", JoinType.LEFT);
+        Join<SupportTicket, User> submittedBy = ticket.join("submittedBy", JoinType.LEFT);
+        Join<SupportTicket, User> assignedTo = ticket.join("assignedTo", JoinType.LEFT);
+        query.select(cb.construct(TicketListRow.class,
+                ticket.get("id"),
+                ticket.get("subject"),
+                category.get("name"),
+                ticket.get("otherCategory"),
+                ticket.get("priority"),
+                ticket.get("status"),
+                ticket.get("createdAt"),
+                ticket.get("updatedAt"),
+                ticket.get("responseDueAt"),
+                ticket.get("resolutionDueAt"),
+                ticket.get("responseBreached"),
+                ticket.get("resolutionBreached"),
+                submittedBy.get("id"),
+                submittedBy.get("username"),
+                assignedTo.get("id"),
+                assignedTo.get("username"),
+                ticket.get("submitterDepartment"),
+                ticket.get("archived")));
+        Predicate predicate = toPredicate(specification, ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // Id breaks ties so pages do not overlap
+        query.orderBy(cb.desc(ticket.get("updatedAt")), cb.desc(ticket.get("id")));
+
+        TypedQuery<TicketListRow> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<TicketListRow> rows = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<SupportTicket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<SupportTicket> ticket = query.from(SupportTicket.class);
+        query.select(cb.count(ticket));
+        Predicate predicate = toPredicate(specification, ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate toPredicate(Specification<SupportTicket> specification, Root<SupportTicket> ticket,
+                                         CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return specification != null ? specification.toPredicate(ticket, query, cb) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of one ticket shown in the ticket list, selected without loading the ticket entity.
+ */
+public record TicketListRow(
+        Long id,
+        String subject,
+        String categoryName,
+        String otherCategory,
+        SupportTicket.TicketPriority priority,
+        SupportTicket.TicketStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime responseDueAt,
+        LocalDateTime resolutionDueAt,
+        boolean responseBreached,
+        boolean resolutionBreached,
+        Long submittedById,
+        String submittedByName,
+        Long assignedToId,
+        String assignedToName,
+        String department,
+        boolean archived) {
+}
@@ -3,8 +3,10 @@ package com.bamikahub.inventorysystem.dao.user;
 import com.bamikahub.inventorysystem.models.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +23,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find all users that ARE deactivated
     @Query("select u from User u where u.status.name = 'DEACTIVATED'")
     List<User> findAllDeactivatedUsers();
-}
\ No newline at end of file
+
+    @Query("select u from User u where u.role.name in :roles")
+    List<User> findByRoleNames(@Param("roles") Collection<String> roles);
+
+    List<User> findByDepartmentIn(Collection<String> departments);
+}
@@ -0,0 +1,18 @@
+package com.bamikahub.inventorysystem.dto.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageDto {
+    private List<AuditLogDto> items;
+    private String nextCursor; // Opaque; pass back unchanged to fetch the next page, null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.bamikahub.inventorysystem.dto.chat;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published on a thread's destination when a reader has read every message up to upToMessageId.
+ * The type field lets thread subscribers tell it apart from chat messages.
+ */
+@Data
+@Builder
+public class ChatReadReceiptDTO {
+    public static final String TYPE = "READ_RECEIPT";
+
+    @Builder.Default
+    private String type = TYPE;
+    private Long threadId;
+    private Long readerId;
+    private Long upToMessageId;
+    private LocalDateTime readAt;
+}
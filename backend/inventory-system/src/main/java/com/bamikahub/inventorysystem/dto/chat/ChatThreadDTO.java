@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -13,6 +14,8 @@ public class ChatThreadDTO {
     private String type;
     private String subject;
     private Set<ChatThreadParticipantDTO> participants;
+    private List<Long> participantIds;
     private LocalDateTime lastMessageAt;
+    private ChatThreadLastMessageDTO lastMessage;
     private long unreadCount;
 }
@@ -0,0 +1,15 @@
+package com.bamikahub.inventorysystem.dto.chat;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ChatThreadLastMessageDTO {
+    private Long id;
+    private Long senderId;
+    private String preview;
+    private LocalDateTime sentAt;
+}
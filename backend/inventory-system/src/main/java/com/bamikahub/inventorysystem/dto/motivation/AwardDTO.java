@@ -13,7 +13,10 @@ public class AwardDTO {
     private String achievementTitle;
     private String achievementDescription;
     private String displayImageUrl; // custom display image if provided
+    private String displayImageThumbnailUrl;
+    private String displayImageMediumUrl;
     private String profilePictureUrl; // fallback source
+    private String profilePictureThumbnailUrl;
     private List<String> badges;
     private Integer priority;
     private LocalDateTime awardDate;
@@ -0,0 +1,21 @@
+package com.bamikahub.inventorysystem.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change to a user's notifications, pushed to /user/queue/notifications
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+    
+    public enum Kind { CREATED, READ, ALL_READ, DELETED }
+    
+    private Kind kind;
+    private Long notificationId; // Null for ALL_READ
+    private NotificationDto notification; // Set for CREATED only
+    private long unreadDelta; // Change of the unread count
+}
@@ -0,0 +1,19 @@
+package com.bamikahub.inventorysystem.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Notifications created after the last one a client has seen, oldest first, with the current unread count
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResumeDto {
+    private List<NotificationDto> notifications;
+    private boolean hasMore;
+    private long unreadCount;
+}
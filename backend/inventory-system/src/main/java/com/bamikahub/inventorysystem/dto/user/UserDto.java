@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.dto.user;
 
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
 import com.bamikahub.inventorysystem.models.user.Role;
 import com.bamikahub.inventorysystem.models.user.Status;
 import com.bamikahub.inventorysystem.models.user.User;
@@ -18,6 +19,8 @@ public class UserDto {
     private LocalDateTime createdAt;
     private LocalDateTime lastLoginAt;
     private String profilePictureUrl;
+    private String profilePictureThumbnailUrl;
+    private String profilePictureMediumUrl;
     private Integer version;
 
     public static UserDto fromEntity(User user) {
@@ -32,6 +35,8 @@ public class UserDto {
         dto.setCreatedAt(user.getCreatedAt());
         dto.setLastLoginAt(user.getLastLoginAt());
         dto.setProfilePictureUrl(user.getProfilePictureUrl());
+        dto.setProfilePictureThumbnailUrl(ImageVariant.THUMBNAIL.urlFor(user.getProfilePictureUrl()));
+        dto.setProfilePictureMediumUrl(ImageVariant.MEDIUM.urlFor(user.getProfilePictureUrl()));
         dto.setVersion(user.getVersion());
         return dto;
     }
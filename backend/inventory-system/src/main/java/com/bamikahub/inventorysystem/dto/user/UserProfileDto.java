@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.dto.user;
 
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
 import com.bamikahub.inventorysystem.models.user.User;
 import lombok.Data;
 import java.time.LocalDate;
@@ -17,6 +18,8 @@ public class UserProfileDto {
     private String city;
     private String country;
     private String profilePictureUrl;
+    private String profilePictureThumbnailUrl;
+    private String profilePictureMediumUrl;
 
     // Account Info (read-only)
     private String username;
@@ -37,6 +40,8 @@ public class UserProfileDto {
         dto.setCity(user.getCity());
         dto.setCountry(user.getCountry());
         dto.setProfilePictureUrl(user.getProfilePictureUrl());
+        dto.setProfilePictureThumbnailUrl(ImageVariant.THUMBNAIL.urlFor(user.getProfilePictureUrl()));
+        dto.setProfilePictureMediumUrl(ImageVariant.MEDIUM.urlFor(user.getProfilePictureUrl()));
         dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
         dto.setRoleName(user.getRole().getName());
@@ -23,6 +23,11 @@ public class AssignmentAttachment {
     @Column(nullable = false, length = 500)
     private String filePath;
 
+    // SHA-256 of the shared stored blob; null for files stored before content addressing
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
     @Column(length = 50)
     private String fileType; // e.g., "image/png", "application/pdf"
 
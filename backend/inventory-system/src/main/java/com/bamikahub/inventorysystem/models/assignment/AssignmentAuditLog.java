@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "assignment_audit_logs")
+@Table(name = "assignment_audit_logs", indexes = {
+        @Index(name = "idx_assignment_audit_created", columnList = "created_at, id"),
+        @Index(name = "idx_assignment_audit_actor_created", columnList = "actor_id, created_at")
+})
 public class AssignmentAuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
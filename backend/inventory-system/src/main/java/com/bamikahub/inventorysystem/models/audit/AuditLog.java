@@ -18,10 +18,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_user", columnList = "user_id"),
         @Index(name = "idx_audit_action", columnList = "action"),
-        @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id"),
-        @Index(name = "idx_audit_timestamp", columnList = "timestamp")
+        // Keyset pagination: (timestamp, id) for the global feed, actor and entity prefixes for filtered feeds
+        @Index(name = "idx_audit_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_audit_user_timestamp", columnList = "user_id, timestamp"),
+        @Index(name = "idx_audit_entity_timestamp", columnList = "entity_type, entity_id, timestamp")
 })
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class AuditLog {
@@ -31,6 +31,10 @@ public class ChatAttachment {
     @Column(nullable = false, length = 500)
     private String storagePath;
 
+    // SHA-256 of the shared stored blob; null for files stored before content addressing
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime uploadedAt;
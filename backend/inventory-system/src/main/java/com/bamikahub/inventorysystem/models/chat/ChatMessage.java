@@ -14,9 +14,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "chat_messages", indexes = {
-        @Index(name = "idx_chat_thread", columnList = "thread_id"),
+        // History pages are read newest first per thread with a (sent_at, id) cursor
+        @Index(name = "idx_chat_thread_sent_at", columnList = "thread_id, sent_at, id"),
         @Index(name = "idx_chat_sender", columnList = "sender_id"),
-        @Index(name = "idx_chat_sent_at", columnList = "sent_at")
+        @Index(name = "idx_chat_sent_at", columnList = "sent_at"),
+        @Index(name = "idx_chat_search_indexed", columnList = "search_indexed")
 })
 public class ChatMessage {
 
@@ -68,6 +70,10 @@ public class ChatMessage {
     @JoinColumn(name = "deleted_by_id")
     private User deletedBy;
 
+    // Null for messages that predate the search index and still wait for the backfill
+    @Column(name = "search_indexed")
+    private Boolean searchIndexed;
+
     public boolean isAttachmentMessage() {
         return MessageType.FILE.equals(messageType) && attachment != null;
     }
@@ -0,0 +1,42 @@
+package com.bamikahub.inventorysystem.models.chat;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One row of the chat search index: a normalized word that occurs in a message. Rows are written and
+ * removed with JDBC by ChatSearchIndex; lookups go through the (thread_id, term, message_id) index and
+ * removal through the primary key, which starts with message_id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(ChatMessageTerm.Key.class)
+@Table(name = "chat_message_terms", indexes = {
+        @Index(name = "idx_chat_term_thread_term", columnList = "thread_id, term, message_id")
+})
+public class ChatMessageTerm {
+
+    @Id
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Id
+    @Column(name = "term", nullable = false, length = 64)
+    private String term;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long messageId;
+        private String term;
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "chat_notifications", indexes = {
-        @Index(name = "idx_chat_notification_user", columnList = "recipient_id"),
+        @Index(name = "idx_chat_notification_user_thread", columnList = "recipient_id, thread_id, is_read, message_id"),
+        @Index(name = "idx_chat_notification_message", columnList = "message_id, is_read"),
         @Index(name = "idx_chat_notification_created", columnList = "created_at")
 })
 public class ChatNotification {
@@ -0,0 +1,40 @@
+package com.bamikahub.inventorysystem.models.chat;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a user has read in a shared thread. Unread messages are the ones after the watermark,
+ * so a new message in a shared thread needs no per-user rows.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "chat_read_watermarks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_watermark_thread_user", columnNames = {"thread_id", "user_id"})
+})
+public class ChatReadWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -53,6 +53,10 @@ public class ChatThread {
     @Column
     private LocalDateTime lastMessageAt;
 
+    // Newest message of the thread, kept with lastMessageAt so thread lists can show a preview without a subquery
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
     public boolean isPrivateThread() {
         return ThreadType.PRIVATE.equals(type);
     }
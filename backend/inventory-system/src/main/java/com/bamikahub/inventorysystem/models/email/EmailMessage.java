@@ -36,4 +36,12 @@ public class EmailMessage {
     private String recipientsCsv;
 
     private String attachmentPaths; // comma-separated
+
+    // Rendering inputs kept for the outbox dispatcher, which sends after the request has returned
+    private Long templateId;
+
+    @Column(columnDefinition = "TEXT")
+    private String templateVarsJson;
+
+    private Boolean sendInAppNotification;
 }
@@ -7,7 +7,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_recipient_logs")
+@Table(name = "email_recipient_logs", indexes = {
+        @Index(name = "idx_email_recipient_outbox", columnList = "status, next_attempt_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +27,7 @@ public class EmailRecipientLog {
     @JoinColumn(name = "message_id")
     private EmailMessage emailMessage;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recipient_id")
     private User recipient;
 
@@ -35,6 +37,15 @@ public class EmailRecipientLog {
 
     private LocalDateTime attemptedAt;
 
+    // Delivery attempts so far and, while PENDING, the earliest time the dispatcher may pick the row up
+    private Integer attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    // Set by the dispatch pass that leased the row, so a pass only sends the rows it actually claimed
+    @Column(length = 36)
+    private String claimToken;
+
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 }
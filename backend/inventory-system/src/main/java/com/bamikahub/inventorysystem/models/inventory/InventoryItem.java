@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.models.inventory;
 
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -63,4 +64,15 @@ public class InventoryItem {
     @Column(columnDefinition = "boolean default false")
     private boolean isDeleted = false;
     private LocalDateTime deletedAt;
-}
\ No newline at end of file
+
+    // Generated variants of the image, served from /uploads/variants/
+    @Transient
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMBNAIL.urlFor(imageUrl);
+    }
+
+    @Transient
+    public String getMediumUrl() {
+        return ImageVariant.MEDIUM.urlFor(imageUrl);
+    }
+}
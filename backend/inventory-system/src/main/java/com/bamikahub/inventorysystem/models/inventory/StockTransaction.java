@@ -37,6 +37,10 @@ public class StockTransaction {
     @Column(precision = 19, scale = 0)
     private BigDecimal unitCost; // UGX
 
+    // The item's unit price when the movement was recorded; reports value the movement at this price
+    @Column(precision = 19, scale = 0)
+    private BigDecimal unitPrice; // UGX
+
     @Column(nullable = false)
     private Integer previousQuantity;
 
@@ -0,0 +1,43 @@
+package com.bamikahub.inventorysystem.models.messaging;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A broker message relayed between backend nodes through the database. Rows are written and read with JDBC
+ * by JdbcBrokerBackplane and only live for a short retention window; the entity exists so the table is
+ * managed with the rest of the schema.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "broker_backplane_messages", indexes = {
+        @Index(name = "idx_backplane_created_at", columnList = "created_at")
+})
+public class BrokerBackplaneMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "destination", nullable = false, length = 255)
+    private String destination;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
     @Index(name = "idx_recipient", columnList = "recipient_id"),
     @Index(name = "idx_is_read", columnList = "is_read"),
     @Index(name = "idx_created_at", columnList = "created_at"),
-    @Index(name = "idx_recipient_read", columnList = "recipient_id, is_read")
+    // Inbox pages: newest first per recipient, optionally only unread or only read
+    @Index(name = "idx_recipient_read_created", columnList = "recipient_id, is_read, created_at"),
+    @Index(name = "idx_recipient_created", columnList = "recipient_id, created_at")
 })
 @Data
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.models.operations;
 
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -22,10 +23,26 @@ public class ProjectImage {
     @Column(nullable = false)
     private String imageUrl;
 
+    // SHA-256 of the shared stored blob; null for images stored before content addressing
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
     @Lob
     private String description;
 
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime uploadedAt;
-}
\ No newline at end of file
+
+    // Generated variants of the image, served from /uploads/variants/
+    @Transient
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMBNAIL.urlFor(imageUrl);
+    }
+
+    @Transient
+    public String getMediumUrl() {
+        return ImageVariant.MEDIUM.urlFor(imageUrl);
+    }
+}
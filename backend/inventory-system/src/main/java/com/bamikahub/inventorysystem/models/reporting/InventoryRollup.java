@@ -0,0 +1,56 @@
+package com.bamikahub.inventorysystem.models.reporting;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Stock in/out totals for one inventory item over one rollup bucket.
+ * Values use the item unit price at the time of the movement, costs use the transaction unit cost.
+ */
+@Entity
+@Table(name = "report_inventory_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "item_id"}),
+        indexes = @Index(name = "idx_inventory_rollup_bucket", columnList = "granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    private Long categoryId;
+
+    private long stockInQuantity;
+    private long stockOutQuantity;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal stockInValue;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal stockOutValue;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal stockInCost;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal stockOutCost;
+}
@@ -0,0 +1,51 @@
+package com.bamikahub.inventorysystem.models.reporting;
+
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Requisition spend (fulfilled/closed requisitions) per project and status, bucketed by requisition creation date.
+ */
+@Entity
+@Table(name = "report_requisition_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "project_id", "status"}),
+        indexes = @Index(name = "idx_requisition_rollup_bucket", columnList = "granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequisitionRollup {
+
+    // Requisitions without a project are stored under this id so the unique key never contains NULL
+    public static final long NO_PROJECT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Requisition.RequisitionStatus status;
+
+    private long requisitionCount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
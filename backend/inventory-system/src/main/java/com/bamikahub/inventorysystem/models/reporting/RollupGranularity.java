@@ -0,0 +1,51 @@
+package com.bamikahub.inventorysystem.models.reporting;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes maintained by the report rollup tables.
+ * Weekly buckets start on Monday but never cross a calendar year, matching the
+ * "yyyy-Wn" period labels used by the reporting service.
+ */
+public enum RollupGranularity {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> {
+                LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                LocalDate firstOfYear = date.withDayOfYear(1);
+                yield monday.isBefore(firstOfYear) ? firstOfYear : monday;
+            }
+            case MONTHLY -> date.withDayOfMonth(1);
+        };
+    }
+
+    // Last day (inclusive) of the bucket that starts on the given date
+    public LocalDate bucketEnd(LocalDate bucketStart) {
+        return switch (this) {
+            case DAILY -> bucketStart;
+            case WEEKLY -> {
+                LocalDate sunday = bucketStart.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                LocalDate lastOfYear = bucketStart.with(TemporalAdjusters.lastDayOfYear());
+                yield sunday.isAfter(lastOfYear) ? lastOfYear : sunday;
+            }
+            case MONTHLY -> bucketStart.with(TemporalAdjusters.lastDayOfMonth());
+        };
+    }
+
+    public static RollupGranularity fromAggregationLevel(String aggregationLevel) {
+        if ("DAILY".equals(aggregationLevel)) {
+            return DAILY;
+        }
+        if ("WEEKLY".equals(aggregationLevel)) {
+            return WEEKLY;
+        }
+        return MONTHLY;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bamikahub.inventorysystem.models.reporting;
+
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Ticket counts and SLA turnaround totals per current priority, bucketed by ticket creation date.
+ * Averages are derived as totalHours / count when reading.
+ */
+@Entity
+@Table(name = "report_ticket_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "priority"}),
+        indexes = @Index(name = "idx_ticket_rollup_bucket", columnList = "granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SupportTicket.TicketPriority priority;
+
+    private long createdCount;
+    private long respondedCount;
+    private long totalResponseHours;
+    private long resolvedCount;
+    private long totalResolutionHours;
+}
@@ -0,0 +1,78 @@
+package com.bamikahub.inventorysystem.models.storage;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Fixed-size renditions generated for uploaded images. A variant of /uploads/&lt;path&gt; lives at
+ * /uploads/variants/&lt;key&gt;/&lt;path&gt; and keeps the format of the original.
+ */
+public enum ImageVariant {
+
+    THUMBNAIL("thumb", 160),
+    MEDIUM("medium", 640);
+
+    public static final String UPLOADS_PREFIX = "/uploads/";
+    public static final String VARIANTS_DIR = "variants/";
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private final String key;
+    private final int maxSize;
+
+    ImageVariant(String key, int maxSize) {
+        this.key = key;
+        this.maxSize = maxSize;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * The longest edge of the variant in pixels; smaller originals are kept at their size.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The public URL of this variant, or null when the image is not an upload that variants are made for.
+     */
+    public String urlFor(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(UPLOADS_PREFIX)) {
+            return null;
+        }
+        String relative = imageUrl.substring(UPLOADS_PREFIX.length());
+        return isSource(relative) ? UPLOADS_PREFIX + pathFor(relative) : null;
+    }
+
+    /**
+     * The variant's path below the upload dir for an original at the given path below the upload dir.
+     */
+    public String pathFor(String relative) {
+        return VARIANTS_DIR + key + "/" + relative;
+    }
+
+    public static Optional<ImageVariant> fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key.equals(key)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether variants are made for the file at this path below the upload dir.
+     */
+    public static boolean isSource(String relative) {
+        if (relative.isEmpty() || relative.startsWith(VARIANTS_DIR)) {
+            return false;
+        }
+        int dot = relative.lastIndexOf('.');
+        return dot > relative.lastIndexOf('/')
+                && IMAGE_EXTENSIONS.contains(relative.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
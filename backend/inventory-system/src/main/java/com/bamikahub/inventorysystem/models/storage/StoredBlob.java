@@ -0,0 +1,44 @@
+package com.bamikahub.inventorysystem.models.storage;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One uploaded file content, stored once on disk under its SHA-256 and shared by every attachment with the
+ * same bytes. refCount counts the attachments pointing at it; blobs released to zero are swept after a grace period.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_blobs", indexes = {
+        @Index(name = "idx_stored_blob_released", columnList = "ref_count, released_at")
+})
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "byte_size", nullable = false)
+    private long size;
+
+    // Path below the blob root, e.g. "3f/3fa2...c9.pdf"
+    @Column(name = "storage_key", nullable = false, length = 100)
+    private String storageKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+}
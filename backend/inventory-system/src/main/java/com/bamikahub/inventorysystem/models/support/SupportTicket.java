@@ -16,7 +16,12 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "support_tickets")
+// The SLA engine scans open tickets by due time; the ticket list pages unarchived tickets by last update
+@Table(name = "support_tickets", indexes = {
+        @Index(name = "idx_ticket_status_response_due", columnList = "status, response_due_at"),
+        @Index(name = "idx_ticket_status_resolution_due", columnList = "status, resolution_due_at"),
+        @Index(name = "idx_ticket_archived_updated", columnList = "archived, updated_at")
+})
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class SupportTicket {
 
@@ -49,7 +54,8 @@ public class SupportTicket {
     @Column(nullable = false)
     private TicketStatus status;
 
-    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Loaded only for the ticket details
+    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<TicketAttachment> attachments = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
@@ -64,8 +70,8 @@ public class SupportTicket {
     @JoinColumn(name = "assigned_to_user_id")
     private User assignedTo;
 
-    // One Ticket has many Comments
-    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // One Ticket has many Comments, loaded only for the ticket details
+    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<TicketComment> comments = new ArrayList<>();
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -26,6 +26,11 @@ public class TicketAttachment {
     @Column(nullable = false)
     private String originalFilename;
 
+    // SHA-256 of the shared stored blob; null for files stored before content addressing
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
     @CreationTimestamp
     private LocalDateTime uploadedAt;
 
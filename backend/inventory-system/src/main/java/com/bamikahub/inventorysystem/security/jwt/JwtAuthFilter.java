@@ -1,16 +1,20 @@
 
 package com.bamikahub.inventorysystem.security.jwt;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.models.guest.GuestAccountStatus;
 import com.bamikahub.inventorysystem.models.guest.GuestUser;
 import com.bamikahub.inventorysystem.repositories.guest.GuestUserRepository;
 import com.bamikahub.inventorysystem.security.services.GuestUserDetails;
 import com.bamikahub.inventorysystem.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -27,18 +31,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired private JwtUtil jwtUtil;
     @Autowired private UserDetailsServiceImpl userDetailsService;
     @Autowired private GuestUserRepository guestUserRepository;
+    @Autowired private CacheManager cacheManager;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.getTokenRole(jwt);
+            Claims claims = jwt != null ? jwtUtil.parseValidClaims(jwt) : null;
+            if (claims != null) {
+                String role = jwtUtil.getTokenRole(claims);
                 if ("guest".equalsIgnoreCase(role)) {
-                    handleGuestAuthentication(jwt, request);
+                    handleGuestAuthentication(claims, request);
                 } else {
-                    handleStaffAuthentication(jwt, request);
+                    handleStaffAuthentication(claims, request);
                 }
             }
         } catch (Exception e) {
@@ -55,26 +61,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private void handleStaffAuthentication(String jwt, HttpServletRequest request) {
-        String email = jwtUtil.getEmailFromToken(jwt);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+    // Short-lived cache of resolved principals so authenticated requests skip the user lookup
+    private Cache principalCache() {
+        return cacheManager.getCache(CacheConfig.PRINCIPALS);
+    }
+
+    private void handleStaffAuthentication(Claims claims, HttpServletRequest request) {
+        String email = claims.getSubject();
+        UserDetails userDetails = principalCache().get("staff:" + email,
+                () -> userDetailsService.loadUserByUsername(email));
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    private void handleGuestAuthentication(String jwt, HttpServletRequest request) {
-        Long guestId = jwtUtil.getGuestIdFromToken(jwt);
+    private void handleGuestAuthentication(Claims claims, HttpServletRequest request) {
+        Long guestId = jwtUtil.getGuestId(claims);
         if (guestId == null) {
             return;
         }
-        GuestUser guest = guestUserRepository.findById(guestId).orElse(null);
-        if (guest == null || guest.getStatus() != GuestAccountStatus.ACTIVE) {
+        GuestUserDetails userDetails = principalCache().get("guest:" + guestId, () -> {
+            GuestUser guest = guestUserRepository.findById(guestId).orElse(null);
+            return guest != null && guest.getStatus() == GuestAccountStatus.ACTIVE ? GuestUserDetails.from(guest) : null;
+        });
+        if (userDetails == null) {
             return;
         }
 
-        GuestUserDetails userDetails = GuestUserDetails.from(guest);
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -3,9 +3,11 @@ package com.bamikahub.inventorysystem.security.jwt;
 import com.bamikahub.inventorysystem.models.guest.GuestUser;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,8 +26,14 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // The HMAC key and parser are immutable and thread-safe, so they are built once instead of per call
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void initSigningKey() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -49,7 +57,7 @@ public class JwtUtil {
                 .addClaims(claims)
                 .setIssuedAt(now)
                 .setExpiration(new Date(now.getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -58,7 +66,18 @@ public class JwtUtil {
     }
 
     public Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null when the token is invalid or expired.
+     */
+    public Claims parseValidClaims(String token) {
+        try {
+            return getClaims(token);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     public String getEmailFromToken(String token) {
@@ -76,11 +95,19 @@ public class JwtUtil {
     }
 
     public String getTokenRole(String token) {
-        return getClaims(token).get("role", String.class);
+        return getTokenRole(getClaims(token));
+    }
+
+    public String getTokenRole(Claims claims) {
+        return claims.get("role", String.class);
     }
 
     public Long getGuestIdFromToken(String token) {
-        Number guestId = getClaims(token).get("guestId", Number.class);
+        return getGuestId(getClaims(token));
+    }
+
+    public Long getGuestId(Claims claims) {
+        Number guestId = claims.get("guestId", Number.class);
         return guestId != null ? guestId.longValue() : null;
     }
 }
@@ -0,0 +1,77 @@
+package com.bamikahub.inventorysystem.security.jwt;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.security.services.UserDetailsImpl;
+import com.bamikahub.inventorysystem.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+/**
+ * Authenticates STOMP sessions from the JWT in the CONNECT frame's Authorization header. A staff session gets a
+ * principal named after the user id, so /user destinations reach it via convertAndSendToUser(userId, ...).
+ * Sessions without a valid staff token stay anonymous, as before.
+ */
+@Slf4j
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private CacheManager cacheManager;
+
+    /**
+     * Principal of an authenticated STOMP session; its name is the user id.
+     */
+    public record UserIdPrincipal(String name) implements Principal {
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            return message;
+        }
+        Claims claims = jwtUtil.parseValidClaims(header.substring(7));
+        if (claims == null || "guest".equalsIgnoreCase(jwtUtil.getTokenRole(claims))) {
+            return message;
+        }
+        try {
+            String email = claims.getSubject();
+            UserDetails userDetails = principalCache().get("staff:" + email,
+                    () -> userDetailsService.loadUserByUsername(email));
+            if (userDetails instanceof UserDetailsImpl user) {
+                accessor.setUser(new UserIdPrincipal(String.valueOf(user.getId())));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not authenticate STOMP session {}: {}", accessor.getSessionId(), e.getMessage());
+        }
+        return message;
+    }
+
+    // Shares the principal cache with JwtAuthFilter
+    private Cache principalCache() {
+        return cacheManager.getCache(CacheConfig.PRINCIPALS);
+    }
+}
@@ -1,22 +1,18 @@
 package com.bamikahub.inventorysystem.services;
 
-import com.bamikahub.inventorysystem.dao.inventory.InventoryItemRepository;
 import com.bamikahub.inventorysystem.dao.inventory.SupplierRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.DashboardSummaryDto;
-import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
+import com.bamikahub.inventorysystem.services.inventory.InventoryCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @Service
 public class DashboardService {
 
     @Autowired private UserRepository userRepository;
     @Autowired private SupplierRepository supplierRepository;
-    @Autowired private InventoryItemRepository itemRepository;
+    @Autowired private InventoryCounterService inventoryCounterService;
 
     public DashboardSummaryDto getDashboardSummary() {
         DashboardSummaryDto summary = new DashboardSummaryDto();
@@ -28,19 +24,11 @@ public class DashboardService {
         // Supplier Stats
         summary.setTotalSuppliers(supplierRepository.count());
 
-        // Inventory Stats
-        List<InventoryItem> allItems = itemRepository.findAll();
-        summary.setTotalItems(allItems.size());
-
-        long lowStockCount = allItems.stream()
-                .filter(item -> item.getQuantity() <= item.getReorderLevel())
-                .count();
-        summary.setLowStockItems(lowStockCount);
-
-        BigDecimal totalValue = allItems.stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        summary.setTotalStockValue(totalValue);
+        // Inventory Stats, served from live counters instead of loading every item
+        InventoryCounterService.Totals inventory = inventoryCounterService.getTotals();
+        summary.setTotalItems(inventory.totalItems());
+        summary.setLowStockItems(inventory.lowStockItems());
+        summary.setTotalStockValue(inventory.totalStockValue());
 
         return summary;
     }
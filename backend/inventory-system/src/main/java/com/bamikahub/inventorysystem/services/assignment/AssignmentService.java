@@ -8,7 +8,10 @@ import com.bamikahub.inventorysystem.dto.assignment.AssignmentAttachmentDTO;
 import com.bamikahub.inventorysystem.dto.assignment.AssignmentCommentDTO;
 import com.bamikahub.inventorysystem.dto.assignment.AssignmentDTO;
 import com.bamikahub.inventorysystem.models.assignment.*;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
 import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage.StagedUpload;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -17,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -44,8 +48,9 @@ public class AssignmentService {
 
 	private final AssignmentAuditService auditService;
 	private final AssignmentNotificationService notificationService;
+	private final AttachmentStorage attachmentStorage;
+	private final TransactionTemplate transactionTemplate;
 
-	private static final String UPLOAD_DIR = "uploads/assignment-attachments/";
 	private static final String ACTIVITY_UPLOAD_DIR = "uploads/assignment-activity-evidence/";
 	private static final String FINAL_REPORT_UPLOAD_DIR = "uploads/assignment-final-reports/";
 	private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -187,7 +192,11 @@ public class AssignmentService {
 				.orElseThrow(() -> new RuntimeException("Assignment not found"));
 
 		for (AssignmentAttachment attachment : assignment.getAttachments()) {
-			deleteFile(attachment.getFilePath());
+			if (attachment.getContentHash() != null) {
+				attachmentStorage.release(attachment.getContentHash());
+			} else {
+				deleteFile(attachment.getFilePath());
+			}
 		}
 
 		assignmentRepository.delete(assignment);
@@ -217,37 +226,34 @@ public class AssignmentService {
 				.collect(Collectors.toList());
 	}
 
-	@Transactional
+	/**
+	 * The file is streamed to the shared attachment storage before the transaction opens.
+	 */
 	public AssignmentAttachmentDTO uploadAttachment(Long assignmentId, MultipartFile file, Long userId) throws IOException {
-		Assignment assignment = assignmentRepository.findById(assignmentId)
-				.orElseThrow(() -> new RuntimeException("Assignment not found"));
-		User user = userRepository.findById(userId)
-				.orElseThrow(() -> new RuntimeException("User not found"));
-
-		Path uploadPath = Paths.get(UPLOAD_DIR);
-		if (!Files.exists(uploadPath)) {
-			Files.createDirectories(uploadPath);
+		StagedUpload staged = attachmentStorage.stage(file);
+		try {
+			return transactionTemplate.execute(status -> {
+				Assignment assignment = assignmentRepository.findById(assignmentId)
+						.orElseThrow(() -> new RuntimeException("Assignment not found"));
+				User user = userRepository.findById(userId)
+						.orElseThrow(() -> new RuntimeException("User not found"));
+
+				StoredBlob blob = attachmentStorage.commit(staged);
+				AssignmentAttachment attachment = new AssignmentAttachment();
+				attachment.setFileName(staged.originalFilename());
+				attachment.setFilePath(attachmentStorage.resolve(blob).toString());
+				attachment.setContentHash(blob.getSha256());
+				attachment.setFileType(staged.contentType());
+				attachment.setFileSize(staged.size());
+				attachment.setUploadedBy(user);
+				attachment.setAssignment(assignment);
+
+				AssignmentAttachment saved = attachmentRepository.save(attachment);
+				return toAttachmentDTO(saved);
+			});
+		} finally {
+			staged.discard();
 		}
-
-		String originalFilename = file.getOriginalFilename();
-		String fileExtension = originalFilename != null && originalFilename.contains(".")
-				? originalFilename.substring(originalFilename.lastIndexOf("."))
-				: "";
-		String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-		Path filePath = uploadPath.resolve(uniqueFilename);
-
-		Files.copy(file.getInputStream(), filePath);
-
-		AssignmentAttachment attachment = new AssignmentAttachment();
-		attachment.setFileName(originalFilename);
-		attachment.setFilePath(filePath.toString());
-		attachment.setFileType(file.getContentType());
-		attachment.setFileSize(file.getSize());
-		attachment.setUploadedBy(user);
-		attachment.setAssignment(assignment);
-
-		AssignmentAttachment saved = attachmentRepository.save(attachment);
-		return toAttachmentDTO(saved);
 	}
 
 	public List<AssignmentAttachmentDTO> getAttachments(Long assignmentId) {
@@ -263,7 +269,11 @@ public class AssignmentService {
 		AssignmentAttachment attachment = attachmentRepository.findById(attachmentId)
 				.orElseThrow(() -> new RuntimeException("Attachment not found"));
 
-		deleteFile(attachment.getFilePath());
+		if (attachment.getContentHash() != null) {
+			attachmentStorage.release(attachment.getContentHash());
+		} else {
+			deleteFile(attachment.getFilePath());
+		}
 		attachmentRepository.delete(attachment);
 	}
 
@@ -1,156 +1,183 @@
 package com.bamikahub.inventorysystem.services.audit;
 
+import com.bamikahub.inventorysystem.dto.audit.AuditFilterDto;
 import com.bamikahub.inventorysystem.dto.audit.AuditLogDto;
+import com.bamikahub.inventorysystem.dto.audit.AuditLogPageDto;
 import com.lowagie.text.*;
 import com.lowagie.text.Font;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import java.awt.Color;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * Service for exporting audit logs to various formats
+ * Service for exporting audit logs to various formats.
+ * Exports are written straight to the given output stream while the matching logs are read one keyset
+ * page at a time, so memory use stays flat regardless of how many rows are exported.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuditExportService {
 
+    private static final String[] HEADERS = {"ID", "Timestamp", "Actor", "Email", "Action", "Severity",
+            "Entity Type", "Entity ID", "Entity Name", "IP Address", "Details"};
+
+    // Fixed Excel column widths in characters; autoSizeColumn would rescan every row
+    private static final int[] EXCEL_COLUMN_WIDTHS = {10, 28, 20, 28, 30, 10, 18, 10, 30, 18, 60};
+
+    // Last data row index of an .xlsx sheet; further rows continue on a new sheet
+    private static final int EXCEL_MAX_ROW = 1_048_575;
+
+    private final AuditQueryService auditQueryService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${audit.export.page-size:500}")
+    private int pageSize;
+
+    @Value("${audit.export.excel-row-window:100}")
+    private int excelRowWindow;
+
+    @Value("${audit.export.pdf-flush-rows:200}")
+    private int pdfFlushRows;
+
     /**
      * Export audit logs to CSV format
      */
-    public byte[] exportToCsv(List<AuditLogDto> logs) {
-        StringBuilder csv = new StringBuilder();
-        
+    public void exportToCsv(AuditFilterDto filters, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
         // CSV Header
-        csv.append("ID,Timestamp,Actor,Email,Action,Severity,Entity Type,Entity ID,Entity Name,IP Address,Details\n");
-        
-        // CSV Rows
-        for (AuditLogDto log : logs) {
-            csv.append(escapeCsv(log.getId()))
-                    .append(",")
-                    .append(escapeCsv(log.getTimestamp()))
-                    .append(",")
-                    .append(escapeCsv(log.getActorName()))
-                    .append(",")
-                    .append(escapeCsv(log.getActorEmail()))
-                    .append(",")
-                    .append(escapeCsv(log.getAction()))
-                    .append(",")
-                    .append(escapeCsv(log.getSeverity()))
-                    .append(",")
-                    .append(escapeCsv(log.getEntityType()))
-                    .append(",")
-                    .append(escapeCsv(log.getEntityId()))
-                    .append(",")
-                    .append(escapeCsv(log.getEntityName()))
-                    .append(",")
-                    .append(escapeCsv(log.getIpAddress()))
-                    .append(",")
-                    .append(escapeCsv(log.getDetails()))
-                    .append("\n");
-        }
-        
-        return csv.toString().getBytes();
+        csv.write(String.join(",", HEADERS));
+        csv.write("\n");
+
+        // CSV Rows, flushed to the client after every page
+        forEachPage(filters, logs -> {
+            try {
+                for (AuditLogDto log : logs) {
+                    csv.write(escapeCsv(log.getId()) + "," +
+                            escapeCsv(log.getTimestamp()) + "," +
+                            escapeCsv(log.getActorName()) + "," +
+                            escapeCsv(log.getActorEmail()) + "," +
+                            escapeCsv(log.getAction()) + "," +
+                            escapeCsv(log.getSeverity()) + "," +
+                            escapeCsv(log.getEntityType()) + "," +
+                            escapeCsv(log.getEntityId()) + "," +
+                            escapeCsv(log.getEntityName()) + "," +
+                            escapeCsv(log.getIpAddress()) + "," +
+                            escapeCsv(log.getDetails()) + "\n");
+                }
+                csv.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        csv.flush();
     }
 
     /**
-     * Export audit logs to Excel format
+     * Export audit logs to Excel format. Only the last audit.export.excel-row-window rows are kept in memory;
+     * older rows are spilled to a temporary file until the workbook is written out.
      */
-    public byte[] exportToExcel(List<AuditLogDto> logs) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
-            Sheet sheet = workbook.createSheet("Audit Logs");
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
+    public void exportToExcel(AuditFilterDto filters, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(excelRowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
             CellStyle headerStyle = createHeaderStyle(workbook);
-            
-            String[] headers = {"ID", "Timestamp", "Actor", "Email", "Action", "Severity", 
-                              "Entity Type", "Entity ID", "Entity Name", "IP Address", "Details"};
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // Create data rows
-            int rowNum = 1;
-            for (AuditLogDto log : logs) {
-                Row row = sheet.createRow(rowNum++);
-                
-                row.createCell(0).setCellValue(log.getId() != null ? log.getId() : 0);
-                row.createCell(1).setCellValue(log.getTimestamp() != null ? log.getTimestamp() : "");
-                row.createCell(2).setCellValue(log.getActorName() != null ? log.getActorName() : "");
-                row.createCell(3).setCellValue(log.getActorEmail() != null ? log.getActorEmail() : "");
-                row.createCell(4).setCellValue(log.getAction() != null ? log.getAction() : "");
-                row.createCell(5).setCellValue(log.getSeverity() != null ? log.getSeverity() : "");
-                row.createCell(6).setCellValue(log.getEntityType() != null ? log.getEntityType() : "");
-                row.createCell(7).setCellValue(log.getEntityId() != null ? log.getEntityId() : 0);
-                row.createCell(8).setCellValue(log.getEntityName() != null ? log.getEntityName() : "");
-                row.createCell(9).setCellValue(log.getIpAddress() != null ? log.getIpAddress() : "");
-                row.createCell(10).setCellValue(log.getDetails() != null ? log.getDetails() : "");
-            }
-            
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
+            Sheet[] sheet = {createAuditSheet(workbook, 1, headerStyle)};
+            int[] rowNum = {1};
+
+            forEachPage(filters, logs -> {
+                for (AuditLogDto log : logs) {
+                    if (rowNum[0] > EXCEL_MAX_ROW) {
+                        sheet[0] = createAuditSheet(workbook, workbook.getNumberOfSheets() + 1, headerStyle);
+                        rowNum[0] = 1;
+                    }
+                    Row row = sheet[0].createRow(rowNum[0]++);
+
+                    row.createCell(0).setCellValue(log.getId() != null ? log.getId() : 0);
+                    row.createCell(1).setCellValue(log.getTimestamp() != null ? log.getTimestamp() : "");
+                    row.createCell(2).setCellValue(log.getActorName() != null ? log.getActorName() : "");
+                    row.createCell(3).setCellValue(log.getActorEmail() != null ? log.getActorEmail() : "");
+                    row.createCell(4).setCellValue(log.getAction() != null ? log.getAction() : "");
+                    row.createCell(5).setCellValue(log.getSeverity() != null ? log.getSeverity() : "");
+                    row.createCell(6).setCellValue(log.getEntityType() != null ? log.getEntityType() : "");
+                    row.createCell(7).setCellValue(log.getEntityId() != null ? log.getEntityId() : 0);
+                    row.createCell(8).setCellValue(log.getEntityName() != null ? log.getEntityName() : "");
+                    row.createCell(9).setCellValue(log.getIpAddress() != null ? log.getIpAddress() : "");
+                    row.createCell(10).setCellValue(log.getDetails() != null ? log.getDetails() : "");
+                }
+            });
+
             workbook.write(out);
-            return out.toByteArray();
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
     /**
-     * Export audit logs to PDF format
+     * Export audit logs to PDF format. The table is marked incomplete so finished rows are laid out
+     * and written to the stream every audit.export.pdf-flush-rows rows instead of at the end.
      */
-    public byte[] exportToPdf(List<AuditLogDto> logs) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4.rotate());
+    public void exportToPdf(AuditFilterDto filters, OutputStream out) {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
             PdfWriter.getInstance(document, out);
-            
+
             document.open();
-            
+
             // Title
             Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
             Paragraph title = new Paragraph("Audit Log Report", titleFont);
             title.setAlignment(Element.ALIGN_CENTER);
             title.setSpacingAfter(10);
             document.add(title);
-            
+
             // Generated date
             Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
             Paragraph date = new Paragraph("Generated: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), dateFont);
             date.setAlignment(Element.ALIGN_CENTER);
             date.setSpacingAfter(20);
             document.add(date);
-            
+
             // Table
             PdfPTable table = new PdfPTable(8); // 8 columns
             table.setWidthPercentage(100);
             table.setSpacingBefore(10);
-            
+            table.setComplete(false);
+
             // Set column widths
             float[] columnWidths = {1f, 2.5f, 2f, 2f, 2f, 1.5f, 2f, 2f};
             table.setWidths(columnWidths);
-            
-            // Header cells
+
+            // Header cells, repeated on every page
             Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
             addTableHeader(table, "ID", headerFont);
             addTableHeader(table, "Timestamp", headerFont);
@@ -160,36 +187,74 @@ public class AuditExportService {
             addTableHeader(table, "Entity Type", headerFont);
             addTableHeader(table, "Entity Name", headerFont);
             addTableHeader(table, "IP Address", headerFont);
-            
+            table.setHeaderRows(1);
+
             // Data rows
             Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
-            for (AuditLogDto log : logs) {
-                addTableCell(table, String.valueOf(log.getId()), cellFont);
-                addTableCell(table, log.getTimestamp() != null ? log.getTimestamp().substring(0, 19) : "", cellFont);
-                addTableCell(table, log.getActorName() != null ? log.getActorName() : "", cellFont);
-                addTableCell(table, log.getAction() != null ? log.getAction() : "", cellFont);
-                addTableCell(table, log.getSeverity() != null ? log.getSeverity() : "", cellFont);
-                addTableCell(table, log.getEntityType() != null ? log.getEntityType() : "", cellFont);
-                addTableCell(table, log.getEntityName() != null ? log.getEntityName() : "", cellFont);
-                addTableCell(table, log.getIpAddress() != null ? log.getIpAddress() : "", cellFont);
-            }
-            
+            long[] total = {0};
+            forEachPage(filters, logs -> {
+                for (AuditLogDto log : logs) {
+                    addTableCell(table, String.valueOf(log.getId()), cellFont);
+                    addTableCell(table, log.getTimestamp() != null ? log.getTimestamp().substring(0, Math.min(19, log.getTimestamp().length())) : "", cellFont);
+                    addTableCell(table, log.getActorName() != null ? log.getActorName() : "", cellFont);
+                    addTableCell(table, log.getAction() != null ? log.getAction() : "", cellFont);
+                    addTableCell(table, log.getSeverity() != null ? log.getSeverity() : "", cellFont);
+                    addTableCell(table, log.getEntityType() != null ? log.getEntityType() : "", cellFont);
+                    addTableCell(table, log.getEntityName() != null ? log.getEntityName() : "", cellFont);
+                    addTableCell(table, log.getIpAddress() != null ? log.getIpAddress() : "", cellFont);
+                    if (++total[0] % pdfFlushRows == 0) {
+                        document.add(table);
+                    }
+                }
+            });
+
+            table.setComplete(true);
             document.add(table);
-            
+
             // Footer
-            Paragraph footer = new Paragraph("Total Records: " + logs.size(), dateFont);
+            Paragraph footer = new Paragraph("Total Records: " + total[0], dateFont);
             footer.setAlignment(Element.ALIGN_RIGHT);
             footer.setSpacingBefore(10);
             document.add(footer);
-            
+
             document.close();
-            return out.toByteArray();
         } catch (Exception e) {
             log.error("Failed to generate PDF export", e);
             throw new RuntimeException("PDF export failed", e);
         }
     }
 
+    /**
+     * Hands every matching audit log to the consumer, newest first, one keyset page at a time.
+     * Entities loaded for a page are detached afterwards so an open-in-view EntityManager
+     * does not accumulate the whole export.
+     */
+    private void forEachPage(AuditFilterDto filters, Consumer<List<AuditLogDto>> consumer) {
+        String cursor = null;
+        do {
+            AuditLogPageDto page = auditQueryService.queryAuditLogsPage(filters, cursor, pageSize);
+            entityManager.clear();
+            consumer.accept(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    private Sheet createAuditSheet(Workbook workbook, int number, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(number == 1 ? "Audit Logs" : "Audit Logs (" + number + ")");
+        for (int i = 0; i < EXCEL_COLUMN_WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, EXCEL_COLUMN_WIDTHS[i] * 256);
+        }
+
+        // Create header row
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+
     /**
      * Helper: Escape CSV values
      */
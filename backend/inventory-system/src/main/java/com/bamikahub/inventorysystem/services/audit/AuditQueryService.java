@@ -5,21 +5,28 @@ import com.bamikahub.inventorysystem.dao.assignment.AssignmentAuditLogRepository
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.audit.AuditFilterDto;
 import com.bamikahub.inventorysystem.dto.audit.AuditLogDto;
+import com.bamikahub.inventorysystem.dto.audit.AuditLogPageDto;
 import com.bamikahub.inventorysystem.models.audit.AuditLog;
 import com.bamikahub.inventorysystem.models.assignment.AssignmentAuditLog;
 import com.bamikahub.inventorysystem.models.user.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,12 +42,53 @@ public class AuditQueryService {
     private final AssignmentAuditLogRepository assignmentAuditLogRepository;
     private final UserRepository userRepository;
 
+    @Value("${audit.query.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Which audit table a row came from. Rows sharing a timestamp are ordered general first, then assignment.
+     */
+    private enum Source { GENERAL, ASSIGNMENT }
+
     /**
-     * Query audit logs with filters
+     * Position of the last row of a page in the merged (timestamp DESC, source, id DESC) order.
+     */
+    private record AuditCursor(LocalDateTime timestamp, Source source, long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + source.name() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static AuditCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new AuditCursor(LocalDateTime.parse(parts[0]), Source.valueOf(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid audit log cursor.");
+            }
+        }
+    }
+
+    private record MergeEntry(AuditCursor position, AuditLogDto dto) {}
+
+    private static final Comparator<MergeEntry> NEWEST_FIRST = Comparator
+            .comparing((MergeEntry e) -> e.position().timestamp()).reversed()
+            .thenComparing(e -> e.position().source())
+            .thenComparing(e -> e.position().id(), Comparator.reverseOrder());
+
+    /**
+     * Query one page of audit logs across both audit tables, newest first.
+     * Each table is read with a keyset query limited to the page size, and the two sorted
+     * slices are merged, so only about two pages of rows are ever loaded.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
      */
     @Transactional(readOnly = true)
-    public List<AuditLogDto> queryAuditLogs(AuditFilterDto filters) {
-        // Parse filters
+    public AuditLogPageDto queryAuditLogsPage(AuditFilterDto filters, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        AuditCursor after = cursor != null && !cursor.isBlank() ? AuditCursor.decode(cursor) : null;
+
         Long userId = filters.getUserId();
         String actionFilter = normalizeBlank(filters.getAction());
         String entityType = normalizeBlank(filters.getEntityType());
@@ -48,28 +96,40 @@ public class AuditQueryService {
         AuditLog.Severity severity = parseSeverity(filters.getSeverity());
         LocalDateTime startDate = parseDate(filters.getStartDate(), true);
         LocalDateTime endDate = parseDate(filters.getEndDate(), false);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
 
-        // Query general logs
-        List<AuditLog> generalLogs = auditLogRepository.findByFilters(
-                userId, actionFilter != null ? AuditLog.ActionType.valueOf(actionFilter) : null,
-                entityType, entityId, severity, startDate, endDate
-        );
+        List<MergeEntry> candidates = new ArrayList<>();
 
-        // Query assignment-specific logs
-        List<AssignmentAuditLog> assignmentLogs = assignmentAuditLogRepository.findByFilters(
-                userId, actionFilter != null ? AssignmentAuditLog.AuditAction.valueOf(actionFilter) : null,
-                entityId, startDate, endDate
-        );
+        // An action filter that only exists in one table rules the other table out entirely
+        AuditLog.ActionType generalAction = parseActionType(actionFilter);
+        if (actionFilter == null || generalAction != null) {
+            // Rows of this table at the cursor timestamp were all emitted before any assignment row there
+            Long cursorId = after == null ? null : after.source() == Source.GENERAL ? after.id() : Long.MIN_VALUE;
+            auditLogRepository.findPageByFilters(userId, generalAction, entityType, entityId, severity,
+                            startDate, endDate, after != null ? after.timestamp() : null, cursorId, limit)
+                    .forEach(log -> candidates.add(new MergeEntry(
+                            new AuditCursor(log.getTimestamp(), Source.GENERAL, log.getId()), mapToDto(log))));
+        }
 
-        // Map and combine
-        List<AuditLogDto> combinedLogs = Stream.concat(
-                generalLogs.stream().map(this::mapToDto),
-                assignmentLogs.stream().map(this::mapAssignmentLogToDto)
-        )
-        .sorted(Comparator.comparing(AuditLogDto::getTimestamp).reversed())
-        .collect(Collectors.toList());
+        Set<AssignmentAuditLog.AuditAction> assignmentActions = assignmentActions(actionFilter, severity);
+        if ((entityType == null || "Assignment".equalsIgnoreCase(entityType)) && !assignmentActions.isEmpty()) {
+            // Rows of this table at the cursor timestamp come after every general row there
+            Long cursorId = after == null ? null : after.source() == Source.ASSIGNMENT ? after.id() : Long.MAX_VALUE;
+            assignmentAuditLogRepository.findPageByFilters(userId, assignmentActions, entityId,
+                            startDate, endDate, after != null ? after.timestamp() : null, cursorId, limit)
+                    .forEach(log -> candidates.add(new MergeEntry(
+                            new AuditCursor(log.getCreatedAt(), Source.ASSIGNMENT, log.getId()), mapAssignmentLogToDto(log))));
+        }
 
-        return combinedLogs;
+        candidates.sort(NEWEST_FIRST);
+        boolean hasMore = candidates.size() > pageSize;
+        List<MergeEntry> page = hasMore ? candidates.subList(0, pageSize) : candidates;
+
+        return AuditLogPageDto.builder()
+                .items(page.stream().map(MergeEntry::dto).collect(Collectors.toList()))
+                .nextCursor(hasMore ? page.get(page.size() - 1).position().encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
@@ -77,16 +137,9 @@ public class AuditQueryService {
      */
     @Transactional(readOnly = true)
     public List<AuditLogDto> getUserActivity(Long userId, int limit) {
-        List<AuditLog> generalLogs = auditLogRepository.findRecentActivityByUser(userId);
-        List<AssignmentAuditLog> assignmentLogs = assignmentAuditLogRepository.findRecentActivityByUser(userId);
-
-        return Stream.concat(
-                generalLogs.stream().map(this::mapToDto),
-                assignmentLogs.stream().map(this::mapAssignmentLogToDto)
-        )
-        .sorted(Comparator.comparing(AuditLogDto::getTimestamp).reversed())
-        .limit(limit)
-        .collect(Collectors.toList());
+        AuditFilterDto filters = new AuditFilterDto();
+        filters.setUserId(userId);
+        return queryAuditLogsPage(filters, null, limit).getItems();
     }
 
     /**
@@ -156,6 +209,17 @@ public class AuditQueryService {
         }
     }
 
+    private Set<AssignmentAuditLog.AuditAction> assignmentActions(String action, AuditLog.Severity severity) {
+        Set<AssignmentAuditLog.AuditAction> actions = EnumSet.allOf(AssignmentAuditLog.AuditAction.class);
+        if (action != null) {
+            actions.removeIf(candidate -> !candidate.name().equalsIgnoreCase(action));
+        }
+        if (severity != null) {
+            actions.removeIf(candidate -> !candidate.getSeverity().name().equals(severity.name()));
+        }
+        return actions;
+    }
+
     private AuditLog.Severity parseSeverity(String severity) {
         if (severity == null || severity.trim().isEmpty()) return null;
         try {
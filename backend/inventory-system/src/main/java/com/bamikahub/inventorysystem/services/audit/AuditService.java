@@ -1,6 +1,5 @@
 package com.bamikahub.inventorysystem.services.audit;
 
-import com.bamikahub.inventorysystem.dao.AuditLogRepository;
 import com.bamikahub.inventorysystem.models.audit.AuditLog;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -8,10 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -28,12 +24,13 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditWriter auditWriter;
     private final ObjectMapper objectMapper;
     private final HttpServletRequest request; // Auto-injected for IP/UserAgent
 
     /**
-     * Primary audit logging method - Asynchronous to not block main operations
+     * Primary audit logging method - captures the event on the calling thread and hands it to the
+     * batched {@link AuditWriter}, so it never blocks or fails the main operation
      * 
      * @param actor The user performing the action
      * @param action The type of action performed
@@ -42,39 +39,14 @@ public class AuditService {
      * @param entityName Human-readable name of the entity
      * @param details Additional context (can be String or Object for JSON serialization)
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(User actor, AuditLog.ActionType action, String entityType, 
                          Long entityId, String entityName, Object details) {
-        try {
-            String detailsJson = serializeDetails(details);
-            AuditLog.Severity severity = determineSeverity(action);
-
-            AuditLog auditLog = AuditLog.builder()
-                    .actor(actor)
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .entityName(entityName)
-                    .details(detailsJson)
-                    .ipAddress(getClientIp())
-                    .userAgent(getUserAgent())
-                    .severity(severity)
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: {} - {} - {}", actor.getEmail(), action, entityName);
-        } catch (Exception e) {
-            // Never let audit logging failure break the main operation
-            log.error("Failed to create audit log: {} - {}", action, e.getMessage(), e);
-        }
+        logActionWithSeverity(actor, action, entityType, entityId, entityName, details, determineSeverity(action));
     }
 
     /**
      * Simplified version for actions without entity details
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(User actor, AuditLog.ActionType action, String details) {
         logAction(actor, action, null, null, null, details);
     }
@@ -82,32 +54,38 @@ public class AuditService {
     /**
      * Log with severity override
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logActionWithSeverity(User actor, AuditLog.ActionType action, String entityType,
                                       Long entityId, String entityName, Object details, 
                                       AuditLog.Severity severity) {
         try {
-            String detailsJson = serializeDetails(details);
-
-            AuditLog auditLog = AuditLog.builder()
-                    .actor(actor)
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .entityName(entityName)
-                    .details(detailsJson)
-                    .ipAddress(getClientIp())
-                    .userAgent(getUserAgent())
-                    .severity(severity)
-                    .build();
+            if (actor == null || actor.getId() == null) {
+                log.warn("Skipping audit log without a persisted actor: {} - {}", action, entityName);
+                return;
+            }
 
-            auditLogRepository.save(auditLog);
+            // Details and request headers are captured now, while the caller's objects and request are still live
+            auditWriter.enqueue(new AuditWriter.PendingAudit(
+                    actor.getId(),
+                    action,
+                    entityType,
+                    entityId,
+                    entityName,
+                    serializeDetails(details),
+                    getClientIp(),
+                    getUserAgent(),
+                    severity,
+                    LocalDateTime.now()));
+            log.debug("Audit log queued: {} - {} - {}", actor.getEmail(), action, entityName);
         } catch (Exception e) {
+            // Never let audit logging failure break the main operation
             log.error("Failed to create audit log: {} - {}", action, e.getMessage(), e);
         }
     }
 
+    public Map<String, Long> getWriterStats() {
+        return auditWriter.getStats();
+    }
+
     /**
      * Convert details object to JSON string
      */
@@ -0,0 +1,230 @@
+package com.bamikahub.inventorysystem.services.audit;
+
+import com.bamikahub.inventorysystem.models.audit.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue-backed audit log writer. Callers enqueue fully captured entries into a bounded buffer and a single
+ * writer thread drains it into audit_logs with JDBC batch inserts. When the buffer is full a caller waits
+ * briefly and the entry is then dropped and counted, so audit logging can never stall the application.
+ * <p>
+ * The writer stops after the web server has finished its graceful shutdown. Remaining entries are flushed then,
+ * and entries that still arrive afterwards are written directly on the calling thread.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs " +
+            "(user_id, action, entity_type, entity_id, entity_name, details, ip_address, user_agent, severity, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Below the web server lifecycles (DEFAULT_PHASE - 1024 and - 2048), so it stops only once requests have drained
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * An audit event captured on the calling thread, ready to be inserted.
+     */
+    public record PendingAudit(Long actorId, AuditLog.ActionType action, String entityType, Long entityId,
+                               String entityName, String details, String ipAddress, String userAgent,
+                               AuditLog.Severity severity, LocalDateTime timestamp) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingAudit> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long flushIntervalMs;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread writerThread;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                       @Value("${audit.writer.batch-size:200}") int batchSize,
+                       @Value("${audit.writer.offer-timeout-ms:50}") long offerTimeoutMs,
+                       @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Own transactions, so a direct write never joins or poisons the caller's
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Enqueues an entry, waiting up to audit.writer.offer-timeout-ms for space before dropping it.
+     * Once the writer has stopped the entry is written directly instead.
+     */
+    public void enqueue(PendingAudit entry) {
+        if (stopped) {
+            writeBatch(List.of(entry));
+            return;
+        }
+        try {
+            if (queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                enqueued.incrementAndGet();
+                // stop() may have drained the queue between the check above and the offer
+                if (stopped) {
+                    flushQueue();
+                }
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = dropped.incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            log.warn("Audit queue full, {} audit entries dropped so far (last: {})", total, entry.action());
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", (long) queue.size());
+        stats.put("remainingCapacity", (long) queue.remainingCapacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Flush whatever is still buffered while the datasource is still available
+        flushQueue();
+        log.info("Audit writer stopped: {}", getStats());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushQueue() {
+        List<PendingAudit> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingAudit> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingAudit first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // stop() drains the rest of the queue
+                break;
+            } catch (Exception e) {
+                log.error("Audit writer loop failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAudit> batch) {
+        try {
+            // One transaction, so a batch failing part-way leaves no rows for the retry below to duplicate
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind));
+            written.addAndGet(batch.size());
+        } catch (Exception batchFailure) {
+            // Retry row by row so a single bad entry does not lose the whole batch
+            for (PendingAudit entry : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, entry)));
+                    written.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.error("Failed to write audit log: {} - {}", entry.action(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, PendingAudit entry) throws SQLException {
+        ps.setLong(1, entry.actorId());
+        ps.setString(2, entry.action().name());
+        ps.setString(3, truncate(entry.entityType(), 100));
+        if (entry.entityId() != null) {
+            ps.setLong(4, entry.entityId());
+        } else {
+            ps.setNull(4, Types.BIGINT);
+        }
+        ps.setString(5, truncate(entry.entityName(), 100));
+        ps.setString(6, entry.details());
+        ps.setString(7, truncate(entry.ipAddress(), 45));
+        ps.setString(8, truncate(entry.userAgent(), 500));
+        ps.setString(9, entry.severity() != null ? entry.severity().name() : AuditLog.Severity.INFO.name());
+        ps.setTimestamp(10, Timestamp.valueOf(entry.timestamp()));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
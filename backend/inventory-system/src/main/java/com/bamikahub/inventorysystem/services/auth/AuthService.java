@@ -17,6 +17,7 @@ import com.bamikahub.inventorysystem.security.services.UserDetailsImpl;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
 import com.bamikahub.inventorysystem.services.notification.NotificationService;
 import com.bamikahub.inventorysystem.services.security.SecurityService;
+import com.bamikahub.inventorysystem.services.settings.SystemSettingsHolder;
 import com.bamikahub.inventorysystem.util.ValidationUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +51,7 @@ public class AuthService {
     @Autowired private NotificationService notificationService;
     @Autowired private AuditService auditService;
     @Autowired private SecurityService securityService;
+    @Autowired private SystemSettingsHolder settingsHolder;
 
     @Autowired private HttpServletRequest httpServletRequest;
 
@@ -84,7 +86,7 @@ public class AuthService {
                 int attempts = user.getFailedLoginAttempts() + 1;
                 user.setFailedLoginAttempts(attempts);
                 LocalDateTime lockedUntil = null;
-                if (attempts >= 5) { // lock after 5 consecutive failures
+                if (attempts >= settingsHolder.current().maxLoginAttempts()) { // lock after too many consecutive failures
                     lockedUntil = LocalDateTime.now().plusMinutes(15);
                     user.setLockedUntil(lockedUntil);
                 }
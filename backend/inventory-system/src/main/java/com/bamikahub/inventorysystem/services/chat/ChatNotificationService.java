@@ -2,28 +2,36 @@ package com.bamikahub.inventorysystem.services.chat;
 
 import com.bamikahub.inventorysystem.dao.chat.ChatNotificationRepository;
 import com.bamikahub.inventorysystem.dao.chat.ChatMessageRepository;
-import com.bamikahub.inventorysystem.dao.user.UserRepository;
+import com.bamikahub.inventorysystem.dao.chat.ChatReadWatermarkRepository;
 import com.bamikahub.inventorysystem.models.chat.ChatMessage;
 import com.bamikahub.inventorysystem.models.chat.ChatNotification;
 import com.bamikahub.inventorysystem.models.chat.ChatThread;
 import com.bamikahub.inventorysystem.models.user.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatNotificationService {
 
+    private static final String INSERT_WATERMARK_SQL = "INSERT INTO chat_read_watermarks " +
+            "(thread_id, user_id, last_read_message_id, updated_at) VALUES (?, ?, ?, ?)";
+
     private final ChatNotificationRepository notificationRepository;
     private final ChatMessageRepository messageRepository;
-    private final UserRepository userRepository;
+    private final ChatReadWatermarkRepository watermarkRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
     public void notifyPrivateMessage(ChatThread thread, ChatMessage message, User recipient) {
         ChatNotification notification = ChatNotification.builder()
@@ -41,30 +49,55 @@ public class ChatNotificationService {
     dispatch(notification, recipient.getId());
     }
 
+    /**
+     * Announces a general-thread message with one topic publish. Nothing is stored per user: unread
+     * state for shared threads comes from read watermarks (fan-out on read).
+     */
     public void notifyGeneralAnnouncement(ChatThread thread, ChatMessage message) {
-        messagingTemplate.convertAndSend("/topic/general/notifications", message.getContent());
-
-        Long senderId = message.getSender() != null ? message.getSender().getId() : null;
-        List<User> recipients = userRepository.findAllActiveUsers();
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("type", ChatNotification.NotificationType.GENERAL_ANNOUNCEMENT.name());
+        notification.put("threadId", thread.getId());
+        notification.put("messageId", message.getId());
+        notification.put("senderId", message.getSender() != null ? message.getSender().getId() : null);
+        notification.put("payload", message.isAttachmentMessage() && message.getAttachment() != null
+                ? message.getAttachment().getFileName()
+                : message.getContent());
+        messagingTemplate.convertAndSend("/topic/general/notifications", notification);
+    }
 
-        recipients.stream()
-                .filter(recipient -> senderId == null || !senderId.equals(recipient.getId()))
-                .forEach(recipient -> {
-                    ChatNotification notification = ChatNotification.builder()
-                            .type(ChatNotification.NotificationType.GENERAL_ANNOUNCEMENT)
-                            .recipient(recipient)
-                            .threadId(thread.getId())
-                            .messageId(message.getId())
-                            .payload(message.isAttachmentMessage() && message.getAttachment() != null
-                                    ? message.getAttachment().getFileName()
-                                    : message.getContent())
-                            .delivered(false)
-                            .read(false)
-                            .build();
+    /**
+     * Moves a user's read watermark in a shared thread forward to messageId, creating it on first read.
+     * Two first reads racing (say, two open tabs) both try the insert; the loser hits
+     * uk_chat_watermark_thread_user and advances the row the winner created instead.
+     */
+    public void advanceReadWatermark(Long threadId, Long userId, Long messageId) {
+        Long latest = messageRepository.findLatestMessageId(threadId);
+        if (latest == null) {
+            return;
+        }
+        long readUpTo = Math.min(messageId, latest);
+        LocalDateTime now = LocalDateTime.now();
+        if (watermarkRepository.advance(threadId, userId, readUpTo, now) > 0
+                || watermarkRepository.existsByThreadIdAndUserId(threadId, userId)) {
+            return;
+        }
+        try {
+            // Plain JDBC, so a duplicate key fails only this statement and not the surrounding JPA transaction
+            jdbcTemplate.update(INSERT_WATERMARK_SQL, threadId, userId, readUpTo, Timestamp.valueOf(now));
+        } catch (DuplicateKeyException e) {
+            watermarkRepository.advance(threadId, userId, readUpTo, now);
+        }
+    }
 
-                    notificationRepository.save(notification);
-                    dispatch(notification, recipient.getId());
-                });
+    /**
+     * Unread messages for a user in a shared thread. Read-only, so listing threads never writes: a user who has
+     * never marked the thread read has everything posted since their account was created unread, and the
+     * watermark is created on the first mark-read.
+     */
+    public long countUnreadInSharedThread(Long threadId, Long userId) {
+        return watermarkRepository.findByThreadIdAndUserId(threadId, userId)
+                .map(watermark -> messageRepository.countUnreadAfter(threadId, watermark.getLastReadMessageId(), userId))
+                .orElseGet(() -> messageRepository.countUnreadSinceJoined(threadId, userId));
     }
 
     public void markDelivered(ChatNotification notification) {
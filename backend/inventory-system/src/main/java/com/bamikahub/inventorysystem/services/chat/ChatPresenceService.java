@@ -1,63 +1,294 @@
 package com.bamikahub.inventorysystem.services.chat;
 
 import com.bamikahub.inventorysystem.dto.chat.PresenceUpdate;
-import lombok.RequiredArgsConstructor;
+import com.bamikahub.inventorysystem.security.jwt.StompAuthChannelInterceptor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
+/**
+ * Tracks which users are online from their STOMP sessions. A session is bound to the user its CONNECT frame
+ * authenticated as (see {@link StompAuthChannelInterceptor}); sessions without a staff token are not tracked.
+ * Any inbound frame from a bound session, including STOMP heart-beats, counts as activity. Users without activity for app.chat.presence.timeout-ms expire through a
+ * timer wheel advanced once per tick.
+ * <p>
+ * State changes are debounced per user and published once per tick as a single list of changes on
+ * /topic/presence, so reconnects and heart-beats do not reach subscribers.
+ * <p>
+ * Presence is tracked per node: with several nodes (app.websocket.broker=backplane or relay) the changes each
+ * node publishes reach every subscriber, but {@link #getOnlineUserIds()} and {@link #getOnlineSnapshot()} only
+ * know the sessions connected to this node.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ChatPresenceService {
 
-    private static final long PRESENCE_TIMEOUT_SECONDS = 60;
+    public static final String PRESENCE_TOPIC = "/topic/presence";
+
+    private static final class UserPresence {
+        final Set<String> sessions = new HashSet<>();
+        boolean online;
+        boolean published;
+        long changedAt;
+        long deadlineTick;
+        int slot = -1;
+        LocalDateTime lastSeen;
+    }
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final long debounceMs;
+    private final long timeoutTicks;
+    private final List<Set<Long>> wheel;
 
-    private final Map<Long, PresenceUpdate> presenceMap = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final Map<String, Long> sessionOwners = new HashMap<>();
+    private final Map<Long, UserPresence> users = new HashMap<>();
+    private final Set<Long> changed = new HashSet<>();
+    private long currentTick;
 
-    public void markOnline(Long userId) {
-        PresenceUpdate update = PresenceUpdate.builder()
-                .userId(userId)
-                .online(true)
-                .lastSeen(LocalDateTime.now())
-                .build();
-        presenceMap.put(userId, update);
-        broadcast(update);
+    public ChatPresenceService(SimpMessagingTemplate messagingTemplate,
+                               @Value("${app.chat.presence.tick-ms:1000}") long tickMs,
+                               @Value("${app.chat.presence.timeout-ms:60000}") long timeoutMs,
+                               @Value("${app.chat.presence.debounce-ms:3000}") long debounceMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.debounceMs = debounceMs;
+        this.timeoutTicks = Math.max(1, (timeoutMs + tickMs - 1) / tickMs);
+        // One slot more than the timeout so a deadline never lands in the slot being processed
+        int slots = (int) timeoutTicks + 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new HashSet<>());
+        }
     }
 
-    public void markOffline(Long userId) {
-        PresenceUpdate update = PresenceUpdate.builder()
-                .userId(userId)
-                .online(false)
-                .lastSeen(LocalDateTime.now())
-                .build();
-        presenceMap.put(userId, update);
-        broadcast(update);
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        Long userId = userIdOf(event.getUser());
+        if (userId != null) {
+            heartbeat(SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()), userId);
+        }
+    }
+
+    /**
+     * The staff user a STOMP session authenticated as, or null for anonymous and guest sessions.
+     */
+    public static Long userIdOf(Principal user) {
+        return user instanceof StompAuthChannelInterceptor.UserIdPrincipal principal
+                ? Long.valueOf(principal.getName())
+                : null;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        signOff(event.getSessionId());
+    }
+
+    /**
+     * Binds the session to the user if needed and records activity.
+     */
+    public void heartbeat(String sessionId, Long userId) {
+        if (sessionId == null || userId == null) {
+            return;
+        }
+        synchronized (lock) {
+            Long previousOwner = sessionOwners.put(sessionId, userId);
+            if (previousOwner != null && !previousOwner.equals(userId)) {
+                removeSession(previousOwner, sessionId);
+            }
+            UserPresence presence = users.computeIfAbsent(userId, id -> new UserPresence());
+            presence.sessions.add(sessionId);
+            touch(userId, presence);
+        }
+    }
+
+    /**
+     * Records activity for a session that is already bound to a user; called for every inbound frame.
+     */
+    public void touchSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        synchronized (lock) {
+            Long userId = sessionOwners.get(sessionId);
+            UserPresence presence = userId != null ? users.get(userId) : null;
+            if (presence != null) {
+                touch(userId, presence);
+            }
+        }
+    }
+
+    /**
+     * Ends a session; its user goes offline once no other session remains.
+     */
+    public void signOff(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        synchronized (lock) {
+            Long userId = sessionOwners.remove(sessionId);
+            if (userId != null) {
+                removeSession(userId, sessionId);
+            }
+        }
     }
 
     public PresenceUpdate getPresence(Long userId) {
-        PresenceUpdate presence = presenceMap.get(userId);
-        if (presence == null) {
-            return PresenceUpdate.builder().userId(userId).online(false).lastSeen(null).build();
+        synchronized (lock) {
+            UserPresence presence = users.get(userId);
+            if (presence == null) {
+                return PresenceUpdate.builder().userId(userId).online(false).lastSeen(null).build();
+            }
+            return toUpdate(userId, presence);
         }
-        if (presence.isOnline() && presence.getLastSeen() != null &&
-                presence.getLastSeen().isBefore(LocalDateTime.now().minusSeconds(PRESENCE_TIMEOUT_SECONDS))) {
-            presence.setOnline(false);
+    }
+
+    /**
+     * The users currently published as online, for bulk lookups.
+     */
+    public Set<Long> getOnlineUserIds() {
+        synchronized (lock) {
+            Set<Long> online = new HashSet<>();
+            users.forEach((userId, presence) -> {
+                if (presence.published) {
+                    online.add(userId);
+                }
+            });
+            return online;
         }
-        return presence;
     }
 
-    private void broadcast(PresenceUpdate update) {
+    /**
+     * Everyone currently published as online. Together with the changes on /topic/presence this gives a
+     * client the full picture.
+     */
+    public List<PresenceUpdate> getOnlineSnapshot() {
+        synchronized (lock) {
+            List<PresenceUpdate> snapshot = new ArrayList<>();
+            users.forEach((userId, presence) -> {
+                if (presence.published) {
+                    snapshot.add(toUpdate(userId, presence));
+                }
+            });
+            return snapshot;
+        }
+    }
+
+    /**
+     * Advances the timer wheel, expires idle users and publishes the state changes that outlasted the debounce.
+     */
+    @Scheduled(fixedRateString = "${app.chat.presence.tick-ms:1000}")
+    public void tick() {
+        List<PresenceUpdate> changes = new ArrayList<>();
+        synchronized (lock) {
+            currentTick++;
+            int slot = slotOf(currentTick);
+            for (Long userId : wheel.get(slot)) {
+                UserPresence presence = users.get(userId);
+                // Entries left behind by later activity have moved to another slot
+                if (presence != null && presence.slot == slot && presence.deadlineTick <= currentTick) {
+                    expire(userId, presence);
+                }
+            }
+            wheel.get(slot).clear();
+
+            long now = System.currentTimeMillis();
+            Iterator<Long> pending = changed.iterator();
+            while (pending.hasNext()) {
+                Long userId = pending.next();
+                UserPresence presence = users.get(userId);
+                if (presence == null) {
+                    pending.remove();
+                    continue;
+                }
+                if (presence.online != presence.published) {
+                    if (now - presence.changedAt < debounceMs) {
+                        continue;
+                    }
+                    presence.published = presence.online;
+                    changes.add(toUpdate(userId, presence));
+                }
+                pending.remove();
+                if (!presence.online) {
+                    users.remove(userId);
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            broadcast(changes);
+        }
+    }
+
+    // Caller holds the lock
+    private void touch(Long userId, UserPresence presence) {
+        presence.lastSeen = LocalDateTime.now();
+        presence.deadlineTick = currentTick + timeoutTicks;
+        int slot = slotOf(presence.deadlineTick);
+        if (slot != presence.slot) {
+            wheel.get(slot).add(userId);
+            presence.slot = slot;
+        }
+        setOnline(userId, presence, true);
+    }
+
+    // Caller holds the lock
+    private void removeSession(Long userId, String sessionId) {
+        UserPresence presence = users.get(userId);
+        if (presence != null && presence.sessions.remove(sessionId) && presence.sessions.isEmpty()) {
+            presence.slot = -1;
+            setOnline(userId, presence, false);
+        }
+    }
+
+    // Caller holds the lock
+    private void expire(Long userId, UserPresence presence) {
+        presence.sessions.forEach(sessionOwners::remove);
+        presence.sessions.clear();
+        presence.slot = -1;
+        setOnline(userId, presence, false);
+    }
+
+    // Caller holds the lock
+    private void setOnline(Long userId, UserPresence presence, boolean online) {
+        if (presence.online != online) {
+            presence.online = online;
+            presence.changedAt = System.currentTimeMillis();
+            changed.add(userId);
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick % wheel.size());
+    }
+
+    private static PresenceUpdate toUpdate(Long userId, UserPresence presence) {
+        return PresenceUpdate.builder()
+                .userId(userId)
+                .online(presence.published)
+                .lastSeen(presence.lastSeen)
+                .build();
+    }
+
+    private void broadcast(List<PresenceUpdate> changes) {
         try {
-            messagingTemplate.convertAndSend("/topic/presence", update);
+            messagingTemplate.convertAndSend(PRESENCE_TOPIC, changes);
         } catch (Exception ex) {
-            log.warn("Failed to broadcast presence update userId={} error={}", update.getUserId(), ex.getMessage(), ex);
+            log.warn("Failed to broadcast {} presence changes error={}", changes.size(), ex.getMessage(), ex);
         }
     }
 }
@@ -0,0 +1,202 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.models.chat.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over chat message content in chat_message_terms: one row per distinct word of a message.
+ * Messages are indexed in the transaction that saves them and removed when deleted, so a search only touches
+ * the index rows of the words it looks for instead of scanning the thread. Messages that predate the index
+ * are backfilled in batches after startup.
+ */
+@Slf4j
+@Service
+public class ChatSearchIndex {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_QUERY_TERMS = 5;
+    // Shorter final words are matched exactly; a one- or two-letter prefix would match most of the thread
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_message_terms (message_id, term, thread_id) VALUES (?, ?, ?)";
+
+    private record Posting(Long messageId, String term, Long threadId) {}
+
+    private record UnindexedMessage(Long id, Long threadId, String content, boolean deleted) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillBatchSize;
+
+    public ChatSearchIndex(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${chat.search.backfill-batch-size:500}") int backfillBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /**
+     * Lower-cased distinct words of a text, in order of appearance.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String term = matcher.group();
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Indexes a saved message. Joins the caller's transaction, so the index rows commit with the message.
+     */
+    public void index(ChatMessage message) {
+        if (message.isDeleted()) {
+            return;
+        }
+        List<Posting> postings = new ArrayList<>();
+        addPostings(postings, message.getId(), message.getThread().getId(), message.getContent());
+        insert(postings);
+    }
+
+    public void remove(Long messageId) {
+        jdbcTemplate.update("DELETE FROM chat_message_terms WHERE message_id = ?", messageId);
+    }
+
+    /**
+     * Ids of the thread's messages containing every word of the query, newest first. The last word also
+     * matches as a prefix so results follow the user's typing. beforeId pages further back.
+     */
+    public List<Long> search(Long threadId, String query, Long beforeId, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        String last = terms.get(terms.size() - 1);
+        List<String> exact = terms.subList(0, terms.size() - 1);
+
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT t.message_id FROM chat_message_terms t");
+        List<Object> args = new ArrayList<>();
+        for (int i = 0; i < exact.size(); i++) {
+            String alias = "t" + i;
+            sql.append(" JOIN chat_message_terms ").append(alias)
+                    .append(" ON ").append(alias).append(".message_id = t.message_id")
+                    .append(" AND ").append(alias).append(".thread_id = ?")
+                    .append(" AND ").append(alias).append(".term = ?");
+            args.add(threadId);
+            args.add(exact.get(i));
+        }
+        sql.append(" WHERE t.thread_id = ?");
+        args.add(threadId);
+        if (last.length() >= MIN_PREFIX_LENGTH) {
+            // Terms only contain letters and digits, so there is nothing to escape
+            sql.append(" AND t.term LIKE ?");
+            args.add(last + "%");
+        } else {
+            sql.append(" AND t.term = ?");
+            args.add(last);
+        }
+        if (beforeId != null) {
+            sql.append(" AND t.message_id < ?");
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY t.message_id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    /**
+     * Indexes messages written before the search index existed, one batch per transaction.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long started = System.currentTimeMillis();
+        int total = 0;
+        try {
+            while (true) {
+                Integer indexed = transactionTemplate.execute(status -> backfillBatch());
+                if (indexed == null || indexed == 0) {
+                    break;
+                }
+                total += indexed;
+            }
+        } catch (DataAccessException ex) {
+            // e.g. another node backfilling the same batch; the next startup picks up the rest
+            log.warn("Chat search index backfill stopped after {} messages: {}", total, ex.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.info("Chat search index backfilled {} messages in {} ms", total, System.currentTimeMillis() - started);
+        }
+    }
+
+    private int backfillBatch() {
+        List<UnindexedMessage> batch = jdbcTemplate.query(
+                "SELECT id, thread_id, content, deleted FROM chat_messages WHERE search_indexed IS NULL ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new UnindexedMessage(rs.getLong("id"), rs.getLong("thread_id"),
+                        rs.getString("content"), rs.getBoolean("deleted")),
+                backfillBatchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Posting> postings = new ArrayList<>();
+        for (UnindexedMessage message : batch) {
+            if (!message.deleted()) {
+                addPostings(postings, message.id(), message.threadId(), message.content());
+            }
+        }
+        insert(postings);
+        jdbcTemplate.batchUpdate("UPDATE chat_messages SET search_indexed = TRUE WHERE id = ?", batch, batch.size(),
+                (ps, message) -> ps.setLong(1, message.id()));
+        return batch.size();
+    }
+
+    private static void addPostings(List<Posting> postings, Long messageId, Long threadId, String content) {
+        for (String term : tokenize(content)) {
+            postings.add(new Posting(messageId, term, threadId));
+        }
+    }
+
+    private void insert(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, postings, 500, (ps, posting) -> {
+            ps.setLong(1, posting.messageId());
+            ps.setString(2, posting.term());
+            ps.setLong(3, posting.threadId());
+        });
+    }
+}
@@ -4,29 +4,33 @@ import com.bamikahub.inventorysystem.dao.chat.*;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.chat.ChatAttachmentDTO;
 import com.bamikahub.inventorysystem.dto.chat.ChatMessageDTO;
+import com.bamikahub.inventorysystem.dto.chat.ChatReadReceiptDTO;
 import com.bamikahub.inventorysystem.dto.chat.ChatThreadDTO;
+import com.bamikahub.inventorysystem.dto.chat.ChatThreadLastMessageDTO;
 import com.bamikahub.inventorysystem.dto.chat.ChatThreadParticipantDTO;
 import com.bamikahub.inventorysystem.dto.chat.SendMessageRequest;
 import com.bamikahub.inventorysystem.models.chat.*;
 import com.bamikahub.inventorysystem.models.chat.ChatMessage.MessageType;
 import com.bamikahub.inventorysystem.models.chat.ChatThread.ThreadType;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
 import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage.StagedUpload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -39,6 +43,8 @@ import java.util.stream.Collectors;
 public class ChatService {
 
     private static final long MAX_FILE_SIZE_BYTES = 5 * 1024 * 1024;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int PREVIEW_LENGTH = 120;
 
     private final ChatThreadRepository threadRepository;
     private final ChatMessageRepository messageRepository;
@@ -49,6 +55,10 @@ public class ChatService {
     private final ChatAuditService auditService;
     private final ChatNotificationService notificationService;
     private final ChatPresenceService presenceService;
+    private final ChatSearchIndex searchIndex;
+    private final ChatUnreadCounter unreadCounter;
+    private final AttachmentStorage attachmentStorage;
+    private final TransactionTemplate transactionTemplate;
     private final SimpMessagingTemplate messagingTemplate;
 
     @Transactional
@@ -78,8 +88,30 @@ public class ChatService {
         });
     }
 
-    @Transactional
+    /**
+     * Sends a message. An attachment is streamed to storage before the transaction opens, so a slow upload
+     * does not hold a database connection.
+     */
     public ChatMessageDTO sendMessage(SendMessageRequest request, MultipartFile attachmentFile) {
+        boolean hasAttachment = attachmentFile != null && !attachmentFile.isEmpty();
+        if ((request.getContent() == null || request.getContent().isBlank()) && !hasAttachment) {
+            throw new IllegalArgumentException("Message content or attachment is required");
+        }
+        if (hasAttachment && attachmentFile.getSize() > MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("Attachment exceeds 5MB limit");
+        }
+
+        StagedUpload staged = hasAttachment ? attachmentStorage.stage(attachmentFile) : null;
+        try {
+            return transactionTemplate.execute(status -> sendInTransaction(request, staged));
+        } finally {
+            if (staged != null) {
+                staged.discard();
+            }
+        }
+    }
+
+    private ChatMessageDTO sendInTransaction(SendMessageRequest request, StagedUpload staged) {
         ChatThread thread;
         if (request.isGeneral()) {
             thread = ensureGeneralThread();
@@ -96,28 +128,23 @@ public class ChatService {
         User sender = userRepository.findById(request.getSenderId())
                 .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
 
-        if ((request.getContent() == null || request.getContent().isBlank())
-                && (attachmentFile == null || attachmentFile.isEmpty())) {
-            throw new IllegalArgumentException("Message content or attachment is required");
-        }
-
     ChatMessage message = new ChatMessage();
     message.setThread(thread);
     message.setSender(sender);
     message.setMessageType(MessageType.TEXT);
     message.setContent(request.getContent() != null ? request.getContent().trim() : null);
+    message.setSearchIndexed(true);
 
-        if (attachmentFile != null && !attachmentFile.isEmpty()) {
-            if (attachmentFile.getSize() > MAX_FILE_SIZE_BYTES) {
-                throw new IllegalArgumentException("Attachment exceeds 5MB limit");
-            }
+        if (staged != null) {
             message.setMessageType(MessageType.FILE);
-            ChatAttachment attachment = storeAttachment(attachmentFile);
+            ChatAttachment attachment = storeAttachment(staged);
             message.setAttachment(attachment);
         }
 
         ChatMessage saved = messageRepository.save(message);
+        searchIndex.index(saved);
         thread.setLastMessageAt(LocalDateTime.now());
+        thread.setLastMessageId(saved.getId());
         threadRepository.save(thread);
 
         auditService.logMessageSent(thread, saved);
@@ -149,33 +176,130 @@ public class ChatService {
         message.setDeletedAt(LocalDateTime.now());
         message.setDeletedBy(actor);
         messageRepository.save(message);
+        searchIndex.remove(message.getId());
         auditService.logMessageDeleted(actor, message.getThread(), message);
 
         messagingTemplate.convertAndSend(destinationForThread(message.getThread()), toDto(message));
     }
 
+    /**
+     * The chat sidebar: the general thread followed by the user's private threads, newest activity first.
+     * Threads, participants and last-message previews come from one projection query; unread counts come
+     * from the per-user unread cache, so the cost does not grow with the number of threads.
+     */
     @Transactional
     public List<ChatThreadDTO> getThreadsForUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        List<ChatThread> privateThreads = threadRepository.findByParticipantAndType(user, ThreadType.PRIVATE);
-        ChatThread generalThread = ensureGeneralThread();
-        List<ChatThreadDTO> response = new ArrayList<>();
-    response.add(toThreadDto(generalThread, userId));
-    response.addAll(privateThreads.stream()
-        .map(thread -> toThreadDto(thread, userId))
-                .collect(Collectors.toList()));
-        return response;
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        ensureGeneralThread();
+        Set<Long> online = presenceService.getOnlineUserIds();
+        Map<Long, Long> unreadByThread = unreadCounter.getUnreadByThread(userId);
+
+        Map<Long, ChatThreadDTO> threads = new LinkedHashMap<>();
+        for (ChatThreadSummaryRow row : threadRepository.findThreadSummaries(userId)) {
+            ChatThreadDTO dto = threads.computeIfAbsent(row.getThreadId(), id -> ChatThreadDTO.builder()
+                    .id(id)
+                    .type(row.getType().name())
+                    .subject(row.getSubject())
+                    .participants(new LinkedHashSet<>())
+                    .participantIds(new ArrayList<>())
+                    .lastMessageAt(row.getLastMessageAt())
+                    .lastMessage(toLastMessageDto(row))
+                    .unreadCount(row.getType() == ThreadType.GENERAL
+                            ? notificationService.countUnreadInSharedThread(id, userId)
+                            : unreadByThread.getOrDefault(id, 0L))
+                    .build());
+            if (row.getParticipantId() != null) {
+                dto.getParticipantIds().add(row.getParticipantId());
+                dto.getParticipants().add(ChatThreadParticipantDTO.builder()
+                        .id(row.getParticipantId())
+                        .fullName(fullName(row.getParticipantFirstName(), row.getParticipantLastName()))
+                        .online(online.contains(row.getParticipantId()))
+                        .avatar(row.getParticipantAvatar())
+                        .build());
+            }
+        }
+        return new ArrayList<>(threads.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLastMessageIds() {
+        int updated = threadRepository.backfillLastMessageIds();
+        if (updated > 0) {
+            log.info("Backfilled last message of {} chat threads", updated);
+        }
     }
 
+    private static ChatThreadLastMessageDTO toLastMessageDto(ChatThreadSummaryRow row) {
+        if (row.getLastMessageId() == null) {
+            return null;
+        }
+        String preview = null;
+        if (!Boolean.TRUE.equals(row.getLastMessageDeleted())) {
+            preview = row.getLastMessageContent() != null && !row.getLastMessageContent().isBlank()
+                    ? row.getLastMessageContent()
+                    : row.getLastMessageFileName();
+        }
+        if (preview != null && preview.length() > PREVIEW_LENGTH) {
+            preview = preview.substring(0, PREVIEW_LENGTH);
+        }
+        return ChatThreadLastMessageDTO.builder()
+                .id(row.getLastMessageId())
+                .senderId(row.getLastMessageSenderId())
+                .preview(preview)
+                .sentAt(row.getLastMessageSentAt())
+                .build();
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        String first = firstName != null ? firstName : "";
+        String last = lastName != null ? lastName : "";
+        return (first + " " + last).trim();
+    }
+
+    /**
+     * A page of a thread's history, newest first. Without beforeMessageId it starts at the latest message;
+     * otherwise it continues with the messages sent before that one.
+     */
     @Transactional(readOnly = true)
-    public List<ChatMessageDTO> getRecentMessages(Long threadId, int page, int size) {
-        ChatThread thread = threadRepository.findById(threadId)
-                .orElseThrow(() -> new IllegalArgumentException("Thread not found"));
-    return messageRepository.findByThreadOrderBySentAtDesc(thread, PageRequest.of(page, size))
-        .stream()
-        .map(this::toDto)
-        .collect(Collectors.toList());
+    public List<ChatMessageDTO> getMessageHistory(Long threadId, Long beforeMessageId, int size) {
+        if (!threadRepository.existsById(threadId)) {
+            throw new IllegalArgumentException("Thread not found");
+        }
+        LocalDateTime beforeSentAt = null;
+        if (beforeMessageId != null) {
+            ChatMessage cursor = messageRepository.findById(beforeMessageId)
+                    .filter(message -> message.getThread().getId().equals(threadId))
+                    .orElseThrow(() -> new IllegalArgumentException("Message not found in thread"));
+            beforeSentAt = cursor.getSentAt();
+        }
+        return messageRepository.findHistoryPage(threadId, beforeSentAt, beforeMessageId, PageRequest.of(0, clampPageSize(size)))
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Messages of a thread containing every word of the query, newest first; beforeMessageId pages further back.
+     */
+    @Transactional(readOnly = true)
+    public List<ChatMessageDTO> searchMessages(Long threadId, String query, Long beforeMessageId, int size) {
+        if (!threadRepository.existsById(threadId)) {
+            throw new IllegalArgumentException("Thread not found");
+        }
+        List<Long> ids = searchIndex.search(threadId, query, beforeMessageId, clampPageSize(size));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return messageRepository.findVisibleByIdIn(ids).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     private void broadcastMessage(ChatMessage message) {
@@ -189,7 +313,10 @@ public class ChatService {
         } else {
             thread.getParticipants().stream()
                     .filter(u -> !u.getId().equals(message.getSender().getId()))
-                    .forEach(recipient -> notificationService.notifyPrivateMessage(thread, message, recipient));
+                    .forEach(recipient -> {
+                        notificationService.notifyPrivateMessage(thread, message, recipient);
+                        unreadCounter.invalidate(recipient.getId());
+                    });
         }
     }
 
@@ -227,18 +354,21 @@ public class ChatService {
     }
 
     private ChatThreadDTO toThreadDto(ChatThread thread, Long currentUserId) {
+        Set<Long> online = presenceService.getOnlineUserIds();
         Set<ChatThreadParticipantDTO> participants = thread.getParticipants().stream()
                 .map(user -> ChatThreadParticipantDTO.builder()
                         .id(user.getId())
                         .fullName(user.getFullName())
-                        .online(presenceService.getPresence(user.getId()).isOnline())
+                        .online(online.contains(user.getId()))
                         .avatar(user.getProfilePictureUrl())
                         .build())
                 .collect(Collectors.toSet());
 
         long unread = 0;
         if (currentUserId != null) {
-            unread = notificationRepository.countByRecipientIdAndThreadIdAndReadFalse(currentUserId, thread.getId());
+            unread = thread.isGeneralThread()
+                    ? notificationService.countUnreadInSharedThread(thread.getId(), currentUserId)
+                    : unreadCounter.getUnreadByThread(currentUserId).getOrDefault(thread.getId(), 0L);
         }
 
         return ChatThreadDTO.builder()
@@ -246,6 +376,7 @@ public class ChatService {
                 .type(thread.getType().name())
                 .subject(thread.getSubject())
                 .participants(participants)
+                .participantIds(participants.stream().map(ChatThreadParticipantDTO::getId).collect(Collectors.toList()))
                 .lastMessageAt(thread.getLastMessageAt())
                 .unreadCount(unread)
                 .build();
@@ -257,86 +388,67 @@ public class ChatService {
         return toThreadDto(thread, senderId);
     }
 
+    /**
+     * Marks the user's notifications in the thread as read up to lastMessageId with set-based updates and
+     * publishes a single read receipt on the thread. Returns null when nothing new was read.
+     */
     @Transactional
-    public List<ChatMessageDTO> markThreadRead(Long threadId, Long userId, Long lastMessageId) {
+    public ChatReadReceiptDTO markThreadRead(Long threadId, Long userId, Long lastMessageId) {
         if (lastMessageId == null) {
-            return List.of();
+            return null;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
         }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
         ChatThread thread = threadRepository.findById(threadId)
                 .orElseThrow(() -> new IllegalArgumentException("Thread not found"));
 
-        List<ChatNotification> notifications = notificationRepository
-                .findByRecipientAndThreadIdAndReadFalseAndMessageIdLessThanEqual(user, threadId, lastMessageId);
-
-        if (notifications.isEmpty()) {
-            return List.of();
+        // Shared threads track reads with one watermark per user instead of per-message notifications
+        if (thread.isGeneralThread()) {
+            notificationService.advanceReadWatermark(threadId, userId, lastMessageId);
+            return null;
         }
 
         LocalDateTime now = LocalDateTime.now();
-        Map<Long, ChatMessage> messageMap = new HashMap<>();
-
-        notifications.forEach(notification -> {
-            notification.setDelivered(true);
-            if (notification.getDeliveredAt() == null) {
-                notification.setDeliveredAt(now);
-            }
-            notification.setRead(true);
-            notification.setReadAt(now);
-            if (notification.getMessageId() != null && !messageMap.containsKey(notification.getMessageId())) {
-                messageRepository.findById(notification.getMessageId())
-                        .ifPresent(message -> messageMap.put(notification.getMessageId(), message));
-            }
-        });
-
-        notificationRepository.saveAll(notifications);
+        if (notificationRepository.markReadUpTo(userId, threadId, lastMessageId, now) == 0) {
+            return null;
+        }
+        unreadCounter.invalidate(userId);
 
-        List<ChatMessageDTO> updatedMessages = new ArrayList<>();
-        for (ChatMessage message : messageMap.values()) {
-            if (message.getDeliveredAt() == null) {
-                message.setDeliveredAt(now);
-            }
-            if (!notificationRepository.existsByMessageIdAndReadFalse(message.getId())) {
-                message.setReadAt(now);
-            }
-            messageRepository.save(message);
-            ChatMessageDTO dto = toDto(message);
-            updatedMessages.add(dto);
-            messagingTemplate.convertAndSend(destinationForThread(thread), dto);
+        List<Long> fullyRead = notificationRepository.findFullyReadMessageIds(threadId, lastMessageId);
+        if (fullyRead.isEmpty()) {
+            return null;
         }
+        messageRepository.markRead(fullyRead, now);
 
-        return updatedMessages;
+        ChatReadReceiptDTO receipt = ChatReadReceiptDTO.builder()
+                .threadId(threadId)
+                .readerId(userId)
+                .upToMessageId(fullyRead.stream().max(Long::compare).orElse(lastMessageId))
+                .readAt(now)
+                .build();
+        messagingTemplate.convertAndSend(destinationForThread(thread), receipt);
+        return receipt;
     }
 
-    private ChatAttachment storeAttachment(MultipartFile file) {
-        try {
-            Path uploadDir = Paths.get("uploads", "chat");
-            if (Files.notExists(uploadDir)) {
-                Files.createDirectories(uploadDir);
-            }
-            String originalName = file.getOriginalFilename();
-            if (originalName == null || originalName.isBlank()) {
+    private ChatAttachment storeAttachment(StagedUpload staged) {
+        String originalName = staged.originalFilename();
+        if (originalName == null || originalName.isBlank()) {
+            originalName = "attachment";
+        } else {
+            originalName = originalName.replaceAll("[\\\\/]+", "");
+            if (originalName.isBlank()) {
                 originalName = "attachment";
-            } else {
-                originalName = originalName.replaceAll("[\\\\/]+", "");
-                if (originalName.isBlank()) {
-                    originalName = "attachment";
-                }
             }
-            String fileName = System.currentTimeMillis() + "_" + originalName;
-            Path filePath = uploadDir.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            ChatAttachment attachment = ChatAttachment.builder()
-                    .fileName(originalName)
-                    .contentType(file.getContentType())
-                    .fileSize(file.getSize())
-                    .storagePath(filePath.toString())
-                    .build();
-            return attachmentRepository.save(attachment);
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to store attachment", e);
         }
+        StoredBlob blob = attachmentStorage.commit(staged);
+        ChatAttachment attachment = ChatAttachment.builder()
+                .fileName(originalName)
+                .contentType(staged.contentType())
+                .fileSize(staged.size())
+                .storagePath(attachmentStorage.resolve(blob).toString())
+                .contentHash(blob.getSha256())
+                .build();
+        return attachmentRepository.save(attachment);
     }
 }
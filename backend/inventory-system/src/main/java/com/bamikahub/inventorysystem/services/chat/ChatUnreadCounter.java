@@ -0,0 +1,35 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.chat.ChatNotificationRepository;
+import com.bamikahub.inventorysystem.dao.chat.ThreadUnreadRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Unread private-chat counts per thread for one user, loaded with a single grouped query and cached per user.
+ * Sends evict the recipients' entries and reads evict the reader's; the cache defers evictions until the
+ * surrounding transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatUnreadCounter {
+
+    private final ChatNotificationRepository notificationRepository;
+
+    @Cacheable(cacheNames = CacheConfig.CHAT_UNREAD_COUNTS, key = "#userId")
+    public Map<Long, Long> getUnreadByThread(Long userId) {
+        return notificationRepository.countUnreadByThread(userId).stream()
+                .collect(Collectors.toUnmodifiableMap(ThreadUnreadRow::getThreadId, ThreadUnreadRow::getUnreadCount));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.CHAT_UNREAD_COUNTS, key = "#userId")
+    public void invalidate(Long userId) {
+        // the annotation does the work
+    }
+}
@@ -0,0 +1,552 @@
+package com.bamikahub.inventorysystem.services.email;
+
+import com.bamikahub.inventorysystem.dao.email.EmailLogRepository;
+import com.bamikahub.inventorysystem.dao.email.EmailRecipientLogRepository;
+import com.bamikahub.inventorysystem.dao.email.EmailTemplateRepository;
+import com.bamikahub.inventorysystem.models.audit.AuditLog;
+import com.bamikahub.inventorysystem.models.email.EmailLog;
+import com.bamikahub.inventorysystem.models.email.EmailMessage;
+import com.bamikahub.inventorysystem.models.email.EmailRecipientLog;
+import com.bamikahub.inventorysystem.models.email.EmailStatus;
+import com.bamikahub.inventorysystem.models.email.EmailTemplate;
+import com.bamikahub.inventorysystem.models.notification.NotificationType;
+import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.notification.NotificationService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers admin emails queued in the email_recipient_logs outbox.
+ * A single coordinator thread claims due PENDING rows in batches by leasing them (pushing next_attempt_at past
+ * email.outbox.claim-lease, so rows of a run that dies are picked up again once it expires), renders each message
+ * once through a cached template engine, and hands per-domain chunks to a bounded worker pool. Each chunk is
+ * sent over one SMTP connection, subject to a per-domain rate limit. Failed rows are retried with exponential
+ * backoff, and all outcomes of a batch are written back with one JDBC batch update. A message whose template
+ * fails to render takes the same retry path, so fixing the template lets its recipients go out.
+ * Every recipient that is sent or given up on also gets an email_logs row, as direct sends through
+ * EmailService do.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    // EmailRecipientLog.status has no @Enumerated, so it is stored by ordinal
+    private static final String UPDATE_SQL = "UPDATE email_recipient_logs " +
+            "SET status = ?, attempts = ?, attempted_at = ?, next_attempt_at = ?, error_message = ? WHERE id = ?";
+
+    private enum Result { SENT, RETRY, FAILED, DEFERRED }
+
+    private record Outcome(EmailRecipientLog row, Result result, LocalDateTime nextAttemptAt, String error) {}
+
+    // Rows selected as due and, of those, the rows this pass leased
+    private record ClaimedBatch(int selected, List<EmailRecipientLog> rows) {}
+
+    private record RenderedEmail(String subject, String html, List<String> attachmentPaths) {}
+
+    private final EmailRecipientLogRepository recipientLogRepository;
+    private final EmailLogRepository emailLogRepository;
+    private final EmailTemplateRepository emailTemplateRepository;
+    private final JavaMailSender mailSender;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationService notificationService;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TemplateEngine templateEngine;
+    private final ThreadPoolTaskExecutor coordinator;
+    private final ThreadPoolTaskExecutor workers;
+
+    @Value("${notifications.mail.from:no-reply@bamikahub.com}")
+    private String defaultFrom;
+
+    @Value("${email.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${email.outbox.connection-batch-size:25}")
+    private int connectionBatchSize;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${email.outbox.max-retry-backoff:1h}")
+    private Duration maxRetryBackoff;
+
+    // Longer than any dispatch pass takes; a claimed row becomes due again only if its outcome was never written
+    @Value("${email.outbox.claim-lease:10m}")
+    private Duration claimLease;
+
+    // 0 disables the per-domain limit
+    @Value("${email.outbox.per-domain-per-minute:60}")
+    private int perDomainPerMinute;
+
+    // A chunk whose next free domain slot is further away than this is deferred instead of waited for
+    @Value("${email.outbox.max-rate-wait-ms:2000}")
+    private long maxRateWaitMs;
+
+    private final ConcurrentHashMap<String, Long> domainNextSlot = new ConcurrentHashMap<>();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    public EmailOutboxDispatcher(EmailRecipientLogRepository recipientLogRepository,
+                                 EmailLogRepository emailLogRepository,
+                                 EmailTemplateRepository emailTemplateRepository,
+                                 JavaMailSender mailSender,
+                                 JdbcTemplate jdbcTemplate,
+                                 NotificationService notificationService,
+                                 AuditService auditService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${email.outbox.workers:4}") int workerCount) {
+        this.recipientLogRepository = recipientLogRepository;
+        this.emailLogRepository = emailLogRepository;
+        this.emailTemplateRepository = emailTemplateRepository;
+        this.mailSender = mailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationService = notificationService;
+        this.auditService = auditService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Parsed templates are cached by content, so each stored template is parsed once
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode("HTML");
+        resolver.setCacheable(true);
+        this.templateEngine = new TemplateEngine();
+        this.templateEngine.setTemplateResolver(resolver);
+
+        this.coordinator = new ThreadPoolTaskExecutor();
+        coordinator.setCorePoolSize(1);
+        coordinator.setMaxPoolSize(1);
+        coordinator.setThreadNamePrefix("email-outbox-");
+        coordinator.initialize();
+
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(workerCount);
+        workers.setMaxPoolSize(workerCount);
+        workers.setQueueCapacity(workerCount * 4);
+        workers.setThreadNamePrefix("email-sender-");
+        // When the queue is full the coordinator sends the chunk itself, which throttles claiming
+        workers.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        workers.initialize();
+    }
+
+    /**
+     * Schedules a dispatch pass once the current transaction commits, so freshly queued rows are visible to it.
+     */
+    public void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Schedules a dispatch pass on the coordinator thread; requests made while one is pending are coalesced.
+     */
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            coordinator.execute(() -> {
+                wakeUpPending.set(false);
+                try {
+                    dispatchDue();
+                } catch (Exception e) {
+                    log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Shutting down; queued rows are picked up on the next start
+            wakeUpPending.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void drainBacklog() {
+        wakeUp();
+    }
+
+    /**
+     * Sends every due outbox row, one claimed batch at a time. Runs on the calling thread.
+     */
+    public void dispatchDue() {
+        while (true) {
+            ClaimedBatch batch = claimDueBatch();
+            if (batch.selected() == 0) {
+                return;
+            }
+            // Empty when other nodes leased every selected row first
+            if (!batch.rows().isEmpty()) {
+                dispatch(batch.rows());
+            }
+            if (batch.selected() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdown();
+        workers.shutdown();
+    }
+
+    /**
+     * Selects a batch of due rows and leases them under a fresh claim token. Rows another node leased in between
+     * fail the lease's due check, so only the rows carrying this pass's token are returned.
+     */
+    private ClaimedBatch claimDueBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = recipientLogRepository.findDueIds(
+                    EmailRecipientLog.Status.PENDING, now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return new ClaimedBatch(0, List.of());
+            }
+            String claimToken = UUID.randomUUID().toString();
+            int leased = recipientLogRepository.lease(ids, EmailRecipientLog.Status.PENDING, now,
+                    now.plus(claimLease), claimToken);
+            return new ClaimedBatch(ids.size(),
+                    leased == 0 ? List.of() : recipientLogRepository.findClaimed(ids, claimToken));
+        });
+    }
+
+    private void dispatch(List<EmailRecipientLog> claimed) {
+        List<Outcome> outcomes = new ArrayList<>(claimed.size());
+
+        // Render each message once for all of its recipients in this batch
+        Map<Long, RenderedEmail> rendered = new HashMap<>();
+        Map<String, List<EmailRecipientLog>> byDomain = new LinkedHashMap<>();
+        for (EmailRecipientLog row : claimed) {
+            EmailMessage message = row.getEmailMessage();
+            RenderedEmail email = rendered.computeIfAbsent(message.getId(), id -> render(message));
+            if (email == null) {
+                outcomes.add(failure(row, "Email content could not be rendered"));
+                continue;
+            }
+            byDomain.computeIfAbsent(domainOf(row.getRecipientEmail()), d -> new ArrayList<>()).add(row);
+        }
+
+        List<CompletableFuture<List<Outcome>>> chunks = new ArrayList<>();
+        byDomain.forEach((domain, rows) -> {
+            for (int from = 0; from < rows.size(); from += connectionBatchSize) {
+                List<EmailRecipientLog> chunk = rows.subList(from, Math.min(rows.size(), from + connectionBatchSize));
+                chunks.add(CompletableFuture.supplyAsync(() -> sendChunk(domain, chunk, rendered), workers));
+            }
+        });
+        for (CompletableFuture<List<Outcome>> chunk : chunks) {
+            outcomes.addAll(chunk.join());
+        }
+
+        writeOutcomes(outcomes);
+        writeEmailLogs(outcomes, rendered);
+        afterDelivery(outcomes);
+    }
+
+    private List<Outcome> sendChunk(String domain, List<EmailRecipientLog> rows, Map<Long, RenderedEmail> rendered) {
+        List<Outcome> outcomes = new ArrayList<>(rows.size());
+
+        LocalDateTime deferredUntil = reserveDomainSlots(domain, rows.size());
+        if (deferredUntil != null) {
+            rows.forEach(row -> outcomes.add(new Outcome(row, Result.DEFERRED, deferredUntil, null)));
+            return outcomes;
+        }
+
+        Map<MimeMessage, EmailRecipientLog> messages = new IdentityHashMap<>();
+        for (EmailRecipientLog row : rows) {
+            try {
+                messages.put(buildMimeMessage(row, rendered.get(row.getEmailMessage().getId())), row);
+            } catch (MessagingException | RuntimeException e) {
+                outcomes.add(failure(row, e.getMessage()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return outcomes;
+        }
+
+        // One send call per chunk: JavaMailSender delivers the whole array over a single SMTP connection
+        Map<Object, Exception> failed = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                messages.values().forEach(row -> outcomes.add(failure(row, e.getMessage())));
+                return outcomes;
+            }
+        } catch (MailException e) {
+            messages.values().forEach(row -> outcomes.add(failure(row, e.getMessage())));
+            return outcomes;
+        }
+
+        for (Map.Entry<MimeMessage, EmailRecipientLog> entry : messages.entrySet()) {
+            Exception error = failed.get(entry.getKey());
+            outcomes.add(error == null
+                    ? new Outcome(entry.getValue(), Result.SENT, null, null)
+                    : failure(entry.getValue(), error.getMessage()));
+        }
+        return outcomes;
+    }
+
+    private MimeMessage buildMimeMessage(EmailRecipientLog row, RenderedEmail email) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(defaultFrom);
+        helper.setTo(row.getRecipientEmail());
+        helper.setSubject(email.subject());
+        helper.setText(email.html() != null ? email.html() : "", true);
+
+        for (String path : email.attachmentPaths()) {
+            FileSystemResource resource = new FileSystemResource(
+                    Paths.get(path.startsWith("/") ? path.substring(1) : path).toFile());
+            helper.addAttachment(resource.getFilename(), resource);
+        }
+        return mimeMessage;
+    }
+
+    private RenderedEmail render(EmailMessage message) {
+        try {
+            List<String> attachments = message.getAttachmentPaths() == null || message.getAttachmentPaths().isBlank()
+                    ? List.of()
+                    : List.of(message.getAttachmentPaths().split(","));
+
+            Optional<EmailTemplate> template = message.getTemplateId() != null
+                    ? emailTemplateRepository.findById(message.getTemplateId())
+                    : Optional.empty();
+            if (template.isEmpty()) {
+                return new RenderedEmail(message.getSubject(), message.getBody(), attachments);
+            }
+
+            Context context = new Context();
+            if (message.getTemplateVarsJson() != null) {
+                context.setVariables(objectMapper.readValue(message.getTemplateVarsJson(),
+                        new TypeReference<Map<String, Object>>() {}));
+            }
+            String html = templateEngine.process(template.get().getBody(), context);
+            return new RenderedEmail(template.get().getSubject(), html, attachments);
+        } catch (Exception e) {
+            log.error("Failed to render outbox email {}: {}", message.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Outcome failure(EmailRecipientLog row, String error) {
+        int attempts = attemptsOf(row) + 1;
+        if (attempts >= maxAttempts) {
+            return new Outcome(row, Result.FAILED, null, error);
+        }
+        // 1x, 2x, 4x ... the base backoff, capped
+        long backoffMs = Math.min(maxRetryBackoff.toMillis(), retryBackoff.toMillis() << Math.min(attempts - 1, 20));
+        return new Outcome(row, Result.RETRY, LocalDateTime.now().plusNanos(backoffMs * 1_000_000), error);
+    }
+
+    /**
+     * Reserves send slots for a chunk against the domain's rate limit, sleeping until the first slot if it is
+     * close. Returns the time to retry at, without reserving anything, when the domain is booked further ahead.
+     */
+    private LocalDateTime reserveDomainSlots(String domain, int count) {
+        if (perDomainPerMinute <= 0) {
+            return null;
+        }
+        long intervalMs = 60_000L / perDomainPerMinute;
+        long now = System.currentTimeMillis();
+        long[] start = new long[1];
+        domainNextSlot.compute(domain, (d, next) -> {
+            start[0] = next == null ? now : Math.max(now, next);
+            return start[0] - now > maxRateWaitMs ? next : start[0] + intervalMs * count;
+        });
+
+        long waitMs = start[0] - now;
+        if (waitMs > maxRateWaitMs) {
+            return LocalDateTime.now().plusNanos(waitMs * 1_000_000);
+        }
+        if (waitMs > 0) {
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return null;
+    }
+
+    private void writeOutcomes(List<Outcome> outcomes) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPDATE_SQL, outcomes, outcomes.size(), (ps, outcome) -> {
+            EmailRecipientLog row = outcome.row();
+            boolean attempted = outcome.result() != Result.DEFERRED;
+            EmailRecipientLog.Status status = switch (outcome.result()) {
+                case SENT -> EmailRecipientLog.Status.SENT;
+                case FAILED -> EmailRecipientLog.Status.FAILED;
+                case RETRY, DEFERRED -> EmailRecipientLog.Status.PENDING;
+            };
+            ps.setInt(1, status.ordinal());
+            ps.setInt(2, attemptsOf(row) + (attempted ? 1 : 0));
+            if (attempted) {
+                ps.setTimestamp(3, Timestamp.valueOf(now));
+            } else if (row.getAttemptedAt() != null) {
+                ps.setTimestamp(3, Timestamp.valueOf(row.getAttemptedAt()));
+            } else {
+                ps.setNull(3, Types.TIMESTAMP);
+            }
+            if (outcome.nextAttemptAt() != null) {
+                ps.setTimestamp(4, Timestamp.valueOf(outcome.nextAttemptAt()));
+            } else {
+                ps.setNull(4, Types.TIMESTAMP);
+            }
+            ps.setString(5, outcome.error());
+            ps.setLong(6, row.getId());
+        });
+    }
+
+    // One email_logs row per recipient that was sent or given up on; retries are logged once they settle
+    private void writeEmailLogs(List<Outcome> outcomes, Map<Long, RenderedEmail> rendered) {
+        List<EmailLog> logs = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.result() != Result.SENT && outcome.result() != Result.FAILED) {
+                continue;
+            }
+            EmailMessage message = outcome.row().getEmailMessage();
+            RenderedEmail email = rendered.get(message.getId());
+            EmailLog emailLog = new EmailLog();
+            emailLog.setSender(message.getCreatedBy());
+            emailLog.setRecipients(outcome.row().getRecipientEmail());
+            emailLog.setSubject(email != null ? email.subject() : message.getSubject());
+            String body = email != null ? email.html() : message.getBody();
+            emailLog.setBody(body != null ? body : "");
+            if (outcome.result() == Result.SENT) {
+                emailLog.setStatus(EmailStatus.SENT);
+            } else {
+                emailLog.setStatus(EmailStatus.FAILED);
+                emailLog.setErrorMessage(truncate(outcome.error(), 255));
+            }
+            logs.add(emailLog);
+        }
+        if (logs.isEmpty()) {
+            return;
+        }
+        try {
+            emailLogRepository.saveAll(logs);
+        } catch (RuntimeException e) {
+            // The outbox rows already hold the outcome; a missing log row must not resend anything
+            log.warn("Failed to write email logs for {} recipient(s): {}", logs.size(), e.getMessage());
+        }
+    }
+
+    private void afterDelivery(List<Outcome> outcomes) {
+        Map<Long, EmailMessage> messages = new LinkedHashMap<>();
+        Map<Long, int[]> counts = new HashMap<>(); // sent, retrying, failed
+        for (Outcome outcome : outcomes) {
+            EmailMessage message = outcome.row().getEmailMessage();
+            messages.putIfAbsent(message.getId(), message);
+            int[] count = counts.computeIfAbsent(message.getId(), id -> new int[3]);
+            switch (outcome.result()) {
+                case SENT -> {
+                    count[0]++;
+                    notifyRecipient(outcome.row(), message);
+                }
+                case RETRY -> count[1]++;
+                case FAILED -> {
+                    count[2]++;
+                    log.error("Giving up on custom email to {}: {}", outcome.row().getRecipientEmail(), outcome.error());
+                }
+                case DEFERRED -> { }
+            }
+        }
+
+        messages.forEach((id, message) -> {
+            int[] count = counts.get(id);
+            if (count[0] + count[1] + count[2] == 0) {
+                return;
+            }
+            auditService.logAction(message.getCreatedBy(), AuditLog.ActionType.NOTIFICATION_SENT,
+                    "AdminEmail", id, message.getSubject(),
+                    String.format("Sent email to %d recipient(s), %d to retry, %d failed", count[0], count[1], count[2]));
+        });
+    }
+
+    private void notifyRecipient(EmailRecipientLog row, EmailMessage message) {
+        if (!Boolean.TRUE.equals(message.getSendInAppNotification()) || row.getRecipient() == null) {
+            return;
+        }
+        try {
+            notificationService.notifyUser(row.getRecipient().getId(), NotificationType.MENTION,
+                    "Admin message: " + message.getSubject(), message.getSubject(), null);
+        } catch (Exception e) {
+            log.warn("Failed to create in-app notification for {}: {}", row.getRecipientEmail(), e.getMessage());
+        }
+    }
+
+    private static int attemptsOf(EmailRecipientLog row) {
+        return row.getAttempts() != null ? row.getAttempts() : 0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static String domainOf(String email) {
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        return at >= 0 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+    }
+}
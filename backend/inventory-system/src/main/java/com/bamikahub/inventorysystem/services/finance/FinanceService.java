@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.finance;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.operations.ProjectRepository;
 import com.bamikahub.inventorysystem.dao.finance.RequisitionItemRepository;
 import com.bamikahub.inventorysystem.dao.finance.RequisitionRepository;
@@ -14,7 +15,9 @@ import com.bamikahub.inventorysystem.models.finance.RequisitionItem;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
 import com.bamikahub.inventorysystem.services.inventory.InventoryService;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,8 +36,10 @@ public class FinanceService {
     @Autowired private RequisitionItemRepository requisitionItemRepository;
     @Autowired private InventoryService inventoryService;
     @Autowired private AuditService auditService;
+    @Autowired private ReportRollupService reportRollupService;
 
 
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition createRequisition(RequisitionRequest request) {
     User currentUser = getCurrentUser();
@@ -94,6 +99,7 @@ public class FinanceService {
         return saved;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition approveRequisition(Long requisitionId, String notes) {
         Requisition requisition = requisitionRepository.findById(requisitionId)
@@ -133,6 +139,7 @@ public class FinanceService {
         return saved;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition rejectRequisition(Long requisitionId, String reason) {
         Requisition requisition = requisitionRepository.findById(requisitionId)
@@ -169,6 +176,7 @@ public class FinanceService {
     }
 
     // Mark a requisition as fulfilled
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition fulfillRequisition(Long requisitionId, FulfillmentRequest request) {
         Requisition requisition = requisitionRepository.findById(requisitionId)
@@ -208,6 +216,7 @@ public class FinanceService {
         requisition.setApprovalNotes((requisition.getApprovalNotes() != null ? requisition.getApprovalNotes() : "") + "\nFulfilled: " + request.getNotes());
 
         Requisition saved = requisitionRepository.save(requisition);
+        reportRollupService.recordRequisitionStatusChange(saved, Requisition.RequisitionStatus.APPROVED_BY_FINANCE);
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -237,6 +246,7 @@ public class FinanceService {
     }
 
     //  Mark a requisition as closed
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition closeRequisition(Long requisitionId, String notes) {
         Requisition requisition = requisitionRepository.findById(requisitionId)
@@ -251,6 +261,7 @@ public class FinanceService {
         requisition.setApprovalNotes(requisition.getApprovalNotes() + "\nClosed: " + notes);
 
         Requisition saved = requisitionRepository.save(requisition);
+        reportRollupService.recordRequisitionStatusChange(saved, Requisition.RequisitionStatus.FULFILLED);
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -274,6 +285,7 @@ public class FinanceService {
 
 
     // NEW METHOD: Update an existing requisition
+    @CacheEvict(cacheNames = {CacheConfig.FINANCE_REPORTS, CacheConfig.PROJECT_REPORTS}, allEntries = true)
     @Transactional
     public Requisition updateRequisition(Long requisitionId, RequisitionRequest request) {
         Requisition requisition = requisitionRepository.findById(requisitionId)
@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.guest;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.guest.GuestAuthResponse;
 import com.bamikahub.inventorysystem.dto.guest.GuestMagicLinkRequest;
@@ -44,6 +45,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -218,6 +220,8 @@ public class GuestPortalService {
         return mapGuest(guest, true);
     }
 
+    // A suspended or deactivated guest must stop authenticating with tokens already issued; evicted on commit
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "'guest:' + #id")
     public GuestUserDto updateGuestStatus(Long id, GuestUserStatusUpdateRequest request, String actorReference) {
         GuestUser guest = guestUserRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Guest user not found"));
@@ -0,0 +1,145 @@
+package com.bamikahub.inventorysystem.services.inventory;
+
+import com.bamikahub.inventorysystem.dao.inventory.InventoryItemRepository;
+import com.bamikahub.inventorysystem.dao.reporting.CategoryStockRow;
+import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+/**
+ * Live inventory counters for the dashboard: active item count, low-stock count and stock value.
+ * Seeded with one aggregate query, adjusted from the inventory write paths once
+ * their transaction commits, and periodically reconciled against the database.
+ */
+@Slf4j
+@Service
+public class InventoryCounterService {
+
+    @Autowired private InventoryItemRepository itemRepository;
+
+    public record Totals(long totalItems, long lowStockItems, BigDecimal totalStockValue) {
+        static final Totals EMPTY = new Totals(0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * The counter-relevant state of one item at a point in time; null stands for "not counted" (new or deleted).
+     */
+    public record ItemSnapshot(Long categoryId, int quantity, int reorderLevel, BigDecimal unitPrice) {
+
+        public static ItemSnapshot of(InventoryItem item) {
+            if (item == null || item.isDeleted() || item.getCategory() == null) {
+                return null;
+            }
+            return new ItemSnapshot(
+                    item.getCategory().getId(),
+                    item.getQuantity() != null ? item.getQuantity() : 0,
+                    item.getReorderLevel() != null ? item.getReorderLevel() : 0,
+                    item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO);
+        }
+
+        boolean lowStock() {
+            return quantity <= reorderLevel;
+        }
+
+        BigDecimal stockValue() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    private final Object lock = new Object();
+    private volatile Totals totals = Totals.EMPTY;
+    private volatile boolean seeded;
+
+    public Totals getTotals() {
+        if (!seeded) {
+            reconcile();
+        }
+        return totals;
+    }
+
+    /**
+     * Moves an item's contribution from its state before a write to its state after it.
+     * Applied after the surrounding transaction commits so rolled-back writes never touch the counters.
+     */
+    public void recordChange(ItemSnapshot before, ItemSnapshot after) {
+        if (before == null && after == null || before != null && before.equals(after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the counters from the database. A write that commits while the aggregate query runs may be
+     * counted twice until the next reconciliation corrects it.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval-ms:600000}",
+            initialDelayString = "${dashboard.counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Totals fresh = Totals.EMPTY;
+        for (CategoryStockRow row : itemRepository.summarizeStockByCategory()) {
+            fresh = add(fresh, new Totals(
+                    row.getItemCount() != null ? row.getItemCount() : 0,
+                    row.getLowStockCount() != null ? row.getLowStockCount() : 0,
+                    row.getStockValue() != null ? row.getStockValue() : BigDecimal.ZERO));
+        }
+
+        synchronized (lock) {
+            Totals previous = totals;
+            totals = fresh;
+            if (seeded && !sameTotals(previous, totals)) {
+                log.warn("Dashboard inventory counters drifted and were reconciled: {} -> {}", previous, totals);
+            }
+            seeded = true;
+        }
+    }
+
+    private void apply(ItemSnapshot before, ItemSnapshot after) {
+        synchronized (lock) {
+            if (before != null) {
+                adjust(before, -1);
+            }
+            if (after != null) {
+                adjust(after, 1);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void adjust(ItemSnapshot item, int sign) {
+        Totals delta = new Totals(sign, item.lowStock() ? sign : 0,
+                sign > 0 ? item.stockValue() : item.stockValue().negate());
+        totals = add(totals, delta);
+    }
+
+    private static Totals add(Totals a, Totals b) {
+        return new Totals(a.totalItems() + b.totalItems(), a.lowStockItems() + b.lowStockItems(),
+                a.totalStockValue().add(b.totalStockValue()));
+    }
+
+    private static boolean sameTotals(Totals a, Totals b) {
+        return a.totalItems() == b.totalItems() && a.lowStockItems() == b.lowStockItems()
+                && a.totalStockValue().compareTo(b.totalStockValue()) == 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.inventory;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.inventory.CategoryRepository;
 import com.bamikahub.inventorysystem.dao.inventory.InventoryItemRepository;
 import com.bamikahub.inventorysystem.dao.inventory.StockTransactionRepository;
@@ -15,7 +16,10 @@ import com.bamikahub.inventorysystem.models.inventory.Supplier;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.FileStorageService;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
+import com.bamikahub.inventorysystem.services.storage.ImageVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,7 +43,11 @@ public class InventoryService {
     @Autowired private UserRepository userRepository;
     @Autowired private FileStorageService fileStorageService;
     @Autowired private AuditService auditService;
+    @Autowired private ReportRollupService reportRollupService;
+    @Autowired private InventoryCounterService inventoryCounterService;
+    @Autowired private ImageVariantService imageVariantService;
 
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public InventoryItem createItem(InventoryItemRequest request) {
         // Enforce SKU uniqueness
@@ -68,6 +76,7 @@ public class InventoryService {
         newItem.setSupplier(supplier);
 
         InventoryItem savedItem = itemRepository.save(newItem);
+        inventoryCounterService.recordChange(null, InventoryCounterService.ItemSnapshot.of(savedItem));
 
         try {
             User actor = getAuthenticatedUser();
@@ -98,10 +107,12 @@ public class InventoryService {
         return savedItem;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public InventoryItem updateItem(Long id, InventoryItemRequest request) {
         InventoryItem existingItem = itemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
+        InventoryCounterService.ItemSnapshot counted = InventoryCounterService.ItemSnapshot.of(existingItem);
 
         // Enforce SKU uniqueness for update (ignore current item)
         itemRepository.findBySku(request.getSku()).ifPresent(other -> {
@@ -142,6 +153,7 @@ public class InventoryService {
         existingItem.setSupplier(supplier);
 
         InventoryItem updatedItem = itemRepository.save(existingItem);
+        inventoryCounterService.recordChange(counted, InventoryCounterService.ItemSnapshot.of(updatedItem));
 
         try {
             User actor = getAuthenticatedUser();
@@ -188,6 +200,7 @@ public class InventoryService {
         return updatedItem;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public void deleteItem(Long id) {
         InventoryItem item = itemRepository.findById(id)
@@ -197,9 +210,11 @@ public class InventoryService {
             throw new RuntimeException("Cannot delete item with active stock. Adjust quantity to 0 first.");
         }
 
+        InventoryCounterService.ItemSnapshot counted = InventoryCounterService.ItemSnapshot.of(item);
         item.setDeleted(true);
         item.setDeletedAt(LocalDateTime.now());
         itemRepository.save(item);
+        inventoryCounterService.recordChange(counted, null);
 
         try {
             User actor = getAuthenticatedUser();
@@ -224,6 +239,7 @@ public class InventoryService {
         }
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public StockTransaction recordStockTransaction(StockTransactionRequest request) {
         InventoryItem item = itemRepository.findById(request.getItemId())
@@ -246,20 +262,24 @@ public class InventoryService {
             default -> throw new IllegalArgumentException("Unsupported transaction type.");
         }
 
+        InventoryCounterService.ItemSnapshot counted = InventoryCounterService.ItemSnapshot.of(item);
         item.setQuantity(newQuantity);
         itemRepository.save(item);
+        inventoryCounterService.recordChange(counted, InventoryCounterService.ItemSnapshot.of(item));
 
         StockTransaction transaction = new StockTransaction();
         transaction.setItem(item);
         transaction.setType(request.getType());
         transaction.setQuantity(request.getQuantity());
         transaction.setUnitCost(request.getUnitCost());
+        transaction.setUnitPrice(item.getUnitPrice());
         transaction.setPreviousQuantity(previousQuantity);
         transaction.setNewQuantity(newQuantity);
         transaction.setReference(request.getReference());
         transaction.setUser(actor);
 
         StockTransaction saved = transactionRepository.save(transaction);
+        reportRollupService.recordStockTransaction(saved);
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -310,6 +330,7 @@ public class InventoryService {
         String filename = fileStorageService.storeItemImage(file);
         item.setImageUrl("/uploads/item-images/" + filename);
         InventoryItem savedItem = itemRepository.save(item);
+        imageVariantService.generateAfterCommit(savedItem.getImageUrl());
 
         try {
             User actor = getAuthenticatedUser();
@@ -338,6 +359,7 @@ public class InventoryService {
     }
 
     // Method for Action 1: Receive into Stock
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public void receiveGoodsIntoStock(Long itemId, Integer quantity, BigDecimal unitCost, String reference, User currentUser) {
         InventoryItem item = itemRepository.findById(itemId)
@@ -346,20 +368,23 @@ public class InventoryService {
         User actor = currentUser != null ? currentUser : requireAuthenticatedUser();
         int previousQuantity = item.getQuantity();
         int newQuantity = previousQuantity + quantity;
+        InventoryCounterService.ItemSnapshot counted = InventoryCounterService.ItemSnapshot.of(item);
         item.setQuantity(newQuantity);
         itemRepository.save(item);
+        inventoryCounterService.recordChange(counted, InventoryCounterService.ItemSnapshot.of(item));
 
         StockTransaction transaction = new StockTransaction();
         transaction.setItem(item);
         transaction.setType(StockTransaction.TransactionType.IN);
         transaction.setQuantity(quantity);
         transaction.setUnitCost(unitCost);
+        transaction.setUnitPrice(item.getUnitPrice());
         transaction.setPreviousQuantity(previousQuantity);
         transaction.setNewQuantity(newQuantity);
         transaction.setReference(reference);
         transaction.setUser(actor);
 
-        transactionRepository.save(transaction);
+        reportRollupService.recordStockTransaction(transactionRepository.save(transaction));
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -385,6 +410,7 @@ public class InventoryService {
     }
 
     // Method for Action 2: Fulfill & Issue to Project
+    @CacheEvict(cacheNames = {CacheConfig.INVENTORY_REPORTS, CacheConfig.FINANCE_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public void recordDirectToProjectTransaction(Long itemId, Integer quantity, BigDecimal unitCost, String reference, User currentUser) {
         InventoryItem item = itemRepository.findById(itemId)
@@ -400,11 +426,12 @@ public class InventoryService {
         inTransaction.setType(StockTransaction.TransactionType.IN);
         inTransaction.setQuantity(quantity);
         inTransaction.setUnitCost(unitCost);
+        inTransaction.setUnitPrice(item.getUnitPrice());
         inTransaction.setPreviousQuantity(currentQuantity);
         inTransaction.setNewQuantity(currentQuantity); // Quantity does not change
         inTransaction.setReference(reference + " (Procured)");
         inTransaction.setUser(actor);
-        transactionRepository.save(inTransaction);
+        reportRollupService.recordStockTransaction(transactionRepository.save(inTransaction));
 
         // Transaction 2: STOCK OUT (Operational Record)
         StockTransaction outTransaction = new StockTransaction();
@@ -412,11 +439,12 @@ public class InventoryService {
         outTransaction.setType(StockTransaction.TransactionType.OUT);
         outTransaction.setQuantity(quantity);
         outTransaction.setUnitCost(unitCost); // Keep cost for project accounting
+        outTransaction.setUnitPrice(item.getUnitPrice());
         outTransaction.setPreviousQuantity(currentQuantity);
         outTransaction.setNewQuantity(currentQuantity); // Quantity does not change
         outTransaction.setReference(reference + " (Issued to Project)");
         outTransaction.setUser(actor);
-        transactionRepository.save(outTransaction);
+        reportRollupService.recordStockTransaction(transactionRepository.save(outTransaction));
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -0,0 +1,22 @@
+package com.bamikahub.inventorysystem.services.messaging;
+
+import java.util.function.Consumer;
+
+/**
+ * Pub/sub channel shared by every backend node. Each node publishes the broker messages it sends
+ * and re-delivers the messages published by the other nodes to its own local subscribers.
+ */
+public interface BrokerBackplane {
+
+    /**
+     * A broker message as it travels between nodes; the payload is already serialized by the sender.
+     */
+    record Envelope(String origin, String destination, String contentType, byte[] payload) {}
+
+    void publish(Envelope envelope);
+
+    /**
+     * Registers a listener for messages from every node. Listeners ignore their own node's messages.
+     */
+    void subscribe(Consumer<Envelope> listener);
+}
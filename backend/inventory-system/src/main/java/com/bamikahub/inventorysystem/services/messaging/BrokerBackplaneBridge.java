@@ -0,0 +1,95 @@
+package com.bamikahub.inventorysystem.services.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+/**
+ * Connects this node's simple broker to the backplane. As an interceptor on the broker channel it publishes
+ * every message sent to a broker destination (SimpMessagingTemplate, @SendTo) while it is delivered locally;
+ * messages from other nodes are sent into the local broker channel, marked so they are not published again.
+ * <p>
+ * /user destinations are relayed unresolved, so every node resolves them against its own user registry and
+ * delivers to whichever of the user's sessions it holds. The per-session destinations they resolve to are
+ * never relayed.
+ */
+@Slf4j
+public class BrokerBackplaneBridge implements ChannelInterceptor, SmartLifecycle {
+
+    static final String ORIGIN_HEADER = "backplaneOrigin";
+
+    private final BrokerBackplane backplane;
+    private final ApplicationContext applicationContext;
+    private final String nodeId;
+
+    private volatile MessageChannel brokerChannel;
+    private volatile boolean running;
+
+    public BrokerBackplaneBridge(BrokerBackplane backplane, ApplicationContext applicationContext, String nodeId) {
+        this.backplane = backplane;
+        this.applicationContext = applicationContext;
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(ORIGIN_HEADER)) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || message.getHeaders().containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+            return message;
+        }
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            log.debug("Not relaying unserialized {} payload to {}", message.getPayload().getClass().getSimpleName(), destination);
+            return message;
+        }
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        backplane.publish(new BrokerBackplane.Envelope(nodeId, destination,
+                contentType != null ? contentType.toString() : null, payload));
+        return message;
+    }
+
+    @Override
+    public void start() {
+        brokerChannel = applicationContext.getBean("brokerChannel", MessageChannel.class);
+        backplane.subscribe(this::deliver);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void deliver(BrokerBackplane.Envelope envelope) {
+        if (!running || nodeId.equals(envelope.origin())) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+        brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.bamikahub.inventorysystem.services.messaging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Backplane for application contexts running in the same JVM, e.g. tests that start two nodes side by side.
+ * Messages are handed to every listener synchronously on the publishing thread.
+ */
+public class InMemoryBrokerBackplane implements BrokerBackplane {
+
+    private final List<Consumer<Envelope>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Envelope envelope) {
+        for (Consumer<Envelope> listener : listeners) {
+            listener.accept(envelope);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Envelope> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,213 @@
+package com.bamikahub.inventorysystem.services.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Backplane over the shared database, so a cluster needs no extra infrastructure. Published messages are
+ * buffered and inserted in JDBC batches by a single thread, which also polls for rows written by the other
+ * nodes and removes rows older than the retention window.
+ * <p>
+ * Ids from concurrent inserts can commit out of order, so the read cursor only advances over contiguous ids;
+ * a missing id holds it back until gapTimeoutMs has passed (rolled back or skipped by the database).
+ */
+@Slf4j
+public class JdbcBrokerBackplane implements BrokerBackplane, SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO broker_backplane_messages " +
+            "(origin, destination, content_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT id, origin, destination, content_type, payload " +
+            "FROM broker_backplane_messages WHERE id > ? ORDER BY id LIMIT ?";
+
+    private record Row(long id, Envelope envelope) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Envelope> outbound;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final Duration retention;
+
+    private final List<Consumer<Envelope>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Only touched by the backplane thread
+    private long cursor;
+    private long gapOpenedAt;
+    private long lastCleanup;
+    private final Set<Long> deliveredAhead = new HashSet<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public JdbcBrokerBackplane(JdbcTemplate jdbcTemplate, int queueCapacity, long pollIntervalMs, int batchSize,
+                               long gapTimeoutMs, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retention = retention;
+    }
+
+    /**
+     * Buffers a message for the backplane thread; never blocks the sender. Messages that do not fit are dropped
+     * and counted, other nodes simply miss them.
+     */
+    @Override
+    public void publish(Envelope envelope) {
+        if (outbound.offer(envelope)) {
+            return;
+        }
+        long total = dropped.incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            log.warn("Broker backplane queue full, {} messages dropped so far (last to {})", total, envelope.destination());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Envelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        // Only messages published from now on are relayed; history is never replayed to a starting node
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM broker_backplane_messages", Long.class);
+        cursor = max != null ? max : 0;
+        running = true;
+        thread = new Thread(this::loop, "broker-backplane");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (outbound.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Envelope first = outbound.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    outbound.drainTo(batch, batchSize - 1);
+                    insert(batch);
+                }
+                poll();
+                cleanUpIfDue();
+            } catch (InterruptedException e) {
+                // stop() flushes the rest of the queue
+                break;
+            } catch (Exception e) {
+                log.error("Broker backplane loop failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<Envelope> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, envelope) -> {
+                ps.setString(1, envelope.origin());
+                ps.setString(2, envelope.destination());
+                ps.setString(3, envelope.contentType());
+                ps.setBytes(4, envelope.payload());
+                ps.setTimestamp(5, now);
+            });
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.error("Failed to publish {} broker messages to the backplane: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void poll() {
+        List<Row> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new Row(rs.getLong("id"), new Envelope(
+                rs.getString("origin"),
+                rs.getString("destination"),
+                rs.getString("content_type"),
+                rs.getBytes("payload"))), cursor, batchSize);
+
+        for (Row row : rows) {
+            if (deliveredAhead.add(row.id())) {
+                deliver(row.envelope());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        while (!deliveredAhead.isEmpty()) {
+            long next = cursor + 1;
+            if (deliveredAhead.remove(next)) {
+                cursor = next;
+                gapOpenedAt = 0;
+                continue;
+            }
+            if (gapOpenedAt == 0) {
+                gapOpenedAt = now;
+            }
+            if (now - gapOpenedAt < gapTimeoutMs) {
+                break;
+            }
+            // The missing id never committed; stop waiting for it
+            cursor = next;
+        }
+    }
+
+    private void deliver(Envelope envelope) {
+        for (Consumer<Envelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                log.warn("Broker backplane listener failed for {}: {}", envelope.destination(), e.getMessage());
+            }
+        }
+    }
+
+    private void cleanUpIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < retention.toMillis()) {
+            return;
+        }
+        lastCleanup = now;
+        // Every node runs this; deleting an already deleted range is harmless
+        jdbcTemplate.update("DELETE FROM broker_backplane_messages WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+}
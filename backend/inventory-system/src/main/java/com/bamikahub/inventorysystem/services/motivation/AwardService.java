@@ -4,7 +4,9 @@ import com.bamikahub.inventorysystem.dao.motivation.AwardRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.motivation.AwardDTO;
 import com.bamikahub.inventorysystem.models.motivation.Award;
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
 import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.storage.ImageVariantService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,7 @@ public class AwardService {
 
     private final AwardRepository awardRepository;
     private final UserRepository userRepository;
+    private final ImageVariantService imageVariantService;
     private static final String UPLOAD_DIR = "uploads/wall-of-fame-images/";
 
     public List<AwardDTO> getActiveAwards() {
@@ -146,7 +149,9 @@ public class AwardService {
             // Save file
             Files.copy(file.getInputStream(), filePath);
 
-            return "/uploads/wall-of-fame-images/" + filename;
+            String imageUrl = "/uploads/wall-of-fame-images/" + filename;
+            imageVariantService.generateAfterCommit(imageUrl);
+            return imageUrl;
         } catch (IOException e) {
             throw new RuntimeException("Failed to save image: " + e.getMessage(), e);
         }
@@ -157,6 +162,7 @@ public class AwardService {
             if (imageUrl != null && imageUrl.startsWith("/uploads/")) {
                 Path filePath = Paths.get(imageUrl.substring(1)); // Remove leading slash
                 Files.deleteIfExists(filePath);
+                imageVariantService.deleteVariants(imageUrl);
             }
         } catch (IOException e) {
             // Log error but don't throw - deletion failure shouldn't block award deletion
@@ -172,7 +178,10 @@ public class AwardService {
         dto.setAchievementTitle(award.getAchievementTitle());
         dto.setAchievementDescription(award.getAchievementDescription());
         dto.setDisplayImageUrl(award.getDisplayImageUrl());
+        dto.setDisplayImageThumbnailUrl(ImageVariant.THUMBNAIL.urlFor(award.getDisplayImageUrl()));
+        dto.setDisplayImageMediumUrl(ImageVariant.MEDIUM.urlFor(award.getDisplayImageUrl()));
         dto.setProfilePictureUrl(award.getUser().getProfilePictureUrl());
+        dto.setProfilePictureThumbnailUrl(ImageVariant.THUMBNAIL.urlFor(award.getUser().getProfilePictureUrl()));
         dto.setBadges(award.getBadges());
         dto.setPriority(award.getPriority());
         dto.setAwardDate(award.getAwardDate());
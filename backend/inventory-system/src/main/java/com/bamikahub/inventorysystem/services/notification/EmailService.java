@@ -14,6 +14,10 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import jakarta.mail.internet.MimeMessage;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service for sending email notifications
@@ -37,25 +41,28 @@ public class EmailService {
     private String companyName;
     
     /**
-     * Send notification email
+     * Send one email for a recipient's pending notifications: the notification's own email when there is one,
+     * otherwise a digest listing them all. Runs on the caller's thread and throws when sending fails
      */
-    @Async
-    public void sendNotificationEmail(User recipient, Notification notification) {
+    public void sendNotificationDigest(User recipient, List<Notification> notifications) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             
             helper.setFrom(fromEmail, companyName);
             helper.setTo(recipient.getEmail());
-            helper.setSubject(notification.getTitle());
             
-            // Build email body from template
-            String htmlContent = buildEmailContent(recipient, notification);
-            helper.setText(htmlContent, true);
+            if (notifications.size() == 1) {
+                helper.setSubject(notifications.get(0).getTitle());
+                helper.setText(buildEmailContent(recipient, notifications.get(0)), true);
+            } else {
+                helper.setSubject("You have " + notifications.size() + " new notifications");
+                helper.setText(buildDigestContent(recipient, notifications), true);
+            }
             
             mailSender.send(message);
             
-            log.info("Sent email notification to {}: {}", recipient.getEmail(), notification.getTitle());
+            log.info("Sent {} notification(s) by email to {}", notifications.size(), recipient.getEmail());
             
         } catch (Exception e) {
             log.error("Failed to send email to {}: {}", recipient.getEmail(), e.getMessage(), e);
@@ -107,6 +114,37 @@ public class EmailService {
         return templateEngine.process(templateName, context);
     }
     
+    /**
+     * Build the HTML of a digest email, oldest notification first
+     */
+    private String buildDigestContent(User recipient, List<Notification> notifications) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a");
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Notification notification : notifications) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("title", notification.getTitle());
+            item.put("message", notification.getMessage());
+            item.put("notificationType", notification.getType().getDisplayName());
+            item.put("priority", notification.getPriority().name());
+            item.put("timestamp", notification.getCreatedAt().format(formatter));
+            if (notification.getLink() != null && !notification.getLink().isEmpty()) {
+                item.put("actionLink", frontendUrl + notification.getLink());
+            }
+            items.add(item);
+        }
+        
+        Context context = new Context();
+        context.setVariable("recipientName", recipient.getFirstName());
+        context.setVariable("recipientEmail", recipient.getEmail());
+        context.setVariable("notificationCount", notifications.size());
+        context.setVariable("notifications", items);
+        context.setVariable("inboxLink", frontendUrl + "/notifications");
+        context.setVariable("companyName", companyName);
+        context.setVariable("currentYear", java.time.Year.now().getValue());
+        
+        return templateEngine.process("emails/notification-digest", context);
+    }
+    
     /**
      * Determine which email template to use
      */
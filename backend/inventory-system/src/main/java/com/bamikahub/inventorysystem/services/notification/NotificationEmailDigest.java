@@ -0,0 +1,149 @@
+package com.bamikahub.inventorysystem.services.notification;
+
+import com.bamikahub.inventorysystem.dao.notification.NotificationRepository;
+import com.bamikahub.inventorysystem.models.notification.Notification;
+import com.bamikahub.inventorysystem.services.settings.SystemSettingsChangedEvent;
+import com.bamikahub.inventorysystem.services.settings.SystemSettingsHolder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces notification emails per recipient. The first queued notification opens a window of
+ * notifications.digest.window-ms; when it closes, or once notifications.digest.max-size notifications are waiting,
+ * everything queued for that recipient goes out as one email (a single notification keeps its own email).
+ * <p>
+ * Nothing is queued while email notifications are turned off in the system settings.
+ * <p>
+ * Pending digests live in memory only. A notification whose email was lost to a restart or a failed send keeps
+ * email_sent = false.
+ */
+@Slf4j
+@Service
+public class NotificationEmailDigest {
+
+    private record Pending(long openedAt, List<Long> notificationIds) {
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final SystemSettingsHolder settingsHolder;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMs;
+    private final int maxSize;
+
+    private final Object lock = new Object();
+    private final Map<Long, Pending> pending = new HashMap<>();
+
+    public NotificationEmailDigest(NotificationRepository notificationRepository,
+                                   EmailService emailService,
+                                   SystemSettingsHolder settingsHolder,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${notifications.digest.window-ms:60000}") long windowMs,
+                                   @Value("${notifications.digest.max-size:20}") int maxSize) {
+        this.notificationRepository = notificationRepository;
+        this.emailService = emailService;
+        this.settingsHolder = settingsHolder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowMs = windowMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Queues the notification's email once the current transaction commits.
+     */
+    public void queueAfterCommit(Long recipientId, Long notificationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue(recipientId, notificationId);
+                }
+            });
+        } else {
+            queue(recipientId, notificationId);
+        }
+    }
+
+    private void queue(Long recipientId, Long notificationId) {
+        if (!settingsHolder.current().emailNotificationsEnabled()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.computeIfAbsent(recipientId, id -> new Pending(System.currentTimeMillis(), new ArrayList<>()))
+                    .notificationIds().add(notificationId);
+        }
+    }
+
+    /**
+     * Drops the queued emails when an administrator turns email notifications off.
+     */
+    @EventListener
+    public void onSettingsChanged(SystemSettingsChangedEvent event) {
+        if (event.previous().emailNotificationsEnabled() && !event.current().emailNotificationsEnabled()) {
+            synchronized (lock) {
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends the digests whose window has closed or that are full.
+     */
+    @Scheduled(fixedDelayString = "${notifications.digest.flush-interval-ms:5000}")
+    public void flushDue() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+
+    void flush(boolean all) {
+        long now = System.currentTimeMillis();
+        List<List<Long>> due = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<Pending> it = pending.values().iterator();
+            while (it.hasNext()) {
+                Pending digest = it.next();
+                if (all || now - digest.openedAt() >= windowMs || digest.notificationIds().size() >= maxSize) {
+                    due.add(digest.notificationIds());
+                    it.remove();
+                }
+            }
+        }
+
+        for (List<Long> notificationIds : due) {
+            try {
+                send(notificationIds);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send notification digest for notifications {}", notificationIds, e);
+            }
+        }
+    }
+
+    private void send(List<Long> notificationIds) {
+        // Notifications deleted meanwhile drop out here
+        List<Notification> notifications = notificationRepository.findForEmail(notificationIds);
+        if (notifications.isEmpty()) {
+            return;
+        }
+        emailService.sendNotificationDigest(notifications.get(0).getRecipient(), notifications);
+        List<Long> sentIds = notifications.stream().map(Notification::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> notificationRepository.markEmailSent(sentIds));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bamikahub.inventorysystem.services.notification;
+
+import com.bamikahub.inventorysystem.dto.notification.NotificationDto;
+import com.bamikahub.inventorysystem.dto.notification.NotificationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pushes notification changes to the recipient's STOMP sessions on /user/queue/notifications once the change
+ * commits. In backplane and relay mode the user is resolved on every node, so sessions on other nodes get the push
+ * too. Delivery is best effort: a client that was offline catches up through GET /api/notifications/since.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationPushService {
+
+    public static final String DESTINATION = "/queue/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void created(Long recipientId, NotificationDto notification) {
+        pushAfterCommit(recipientId, new NotificationEvent(NotificationEvent.Kind.CREATED,
+                notification.getId(), notification, 1));
+    }
+
+    public void read(Long recipientId, Long notificationId) {
+        pushAfterCommit(recipientId, new NotificationEvent(NotificationEvent.Kind.READ, notificationId, null, -1));
+    }
+
+    public void allRead(Long recipientId, int count) {
+        if (count > 0) {
+            pushAfterCommit(recipientId, new NotificationEvent(NotificationEvent.Kind.ALL_READ, null, null, -count));
+        }
+    }
+
+    public void deleted(Long recipientId, Long notificationId, boolean wasUnread) {
+        pushAfterCommit(recipientId, new NotificationEvent(NotificationEvent.Kind.DELETED, notificationId, null,
+                wasUnread ? -1 : 0));
+    }
+
+    private void pushAfterCommit(Long recipientId, NotificationEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push(recipientId, event);
+                }
+            });
+        } else {
+            push(recipientId, event);
+        }
+    }
+
+    private void push(Long recipientId, NotificationEvent event) {
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(recipientId), DESTINATION, event);
+        } catch (MessagingException e) {
+            log.warn("Failed to push {} notification event to user {}: {}", event.getKind(), recipientId, e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.bamikahub.inventorysystem.services.notification;
 import com.bamikahub.inventorysystem.dao.notification.NotificationRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.notification.NotificationDto;
+import com.bamikahub.inventorysystem.dto.notification.NotificationResumeDto;
 import com.bamikahub.inventorysystem.models.audit.AuditLog;
 import com.bamikahub.inventorysystem.models.notification.Notification;
 import com.bamikahub.inventorysystem.models.notification.NotificationPriority;
@@ -11,13 +12,28 @@ import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,11 +45,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NotificationService {
     
+    private static final String INSERT_SQL = "INSERT INTO notifications " +
+            "(recipient_id, type, title, message, link, entity_type, entity_id, priority, is_read, email_sent, " +
+            "created_at, triggered_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, false, ?, ?)";
+    
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final AuditService auditService;
-    // WebSocket service will be injected after creation
+    private final NotificationUnreadCounter unreadCounter;
+    private final NotificationEmailDigest emailDigest;
+    private final NotificationPushService pushService;
+    private final JdbcTemplate jdbcTemplate;
     
     /**
      * Create and send a notification to a user
@@ -77,24 +100,17 @@ public class NotificationService {
             notification.setEmailSent(false);
             
             notification = notificationRepository.save(notification);
+            unreadCounter.adjustAfterCommit(recipientId, 1);
             
             log.info("Created notification ID {} for user {} - Type: {}", 
                     notification.getId(), recipient.getEmail(), type);
             
             // Send email if requested and user preferences allow
             if (sendEmail || type.isHighPriority()) {
-                try {
-                    emailService.sendNotificationEmail(recipient, notification);
-                    notification.setEmailSent(true);
-                    notificationRepository.save(notification);
-                } catch (Exception e) {
-                    log.error("Failed to send email notification to {}: {}", 
-                             recipient.getEmail(), e.getMessage());
-                }
+                emailDigest.queueAfterCommit(recipientId, notification.getId());
             }
             
-            // TODO: Send via WebSocket for real-time delivery
-            // webSocketService.sendNotification(recipientId, toDto(notification));
+            pushService.created(recipientId, toDto(notification));
             
             // Audit log
             User actor = getCurrentUser();
@@ -121,25 +137,141 @@ public class NotificationService {
     @Transactional
     public void notifyUsers(List<Long> recipientIds, NotificationType type, String title,
                            String message, String link) {
-        for (Long recipientId : recipientIds) {
-            notifyUser(recipientId, type, title, message, link);
+        notifyUsers(recipientIds, type, title, message, link,
+                   NotificationPriority.NORMAL, null, null, true);
+    }
+    
+    /**
+     * Notify multiple users with full parameters. Recipients are loaded with one query, the notifications
+     * are written with one JDBC batch insert and their emails go to the digest sender
+     */
+    @Async
+    @Transactional
+    public void notifyUsers(List<Long> recipientIds, NotificationType type, String title,
+                           String message, String link, NotificationPriority priority,
+                           String entityType, Long entityId, boolean sendEmail) {
+        try {
+            Set<Long> uniqueIds = new LinkedHashSet<>(recipientIds);
+            List<User> recipients = userRepository.findAllById(uniqueIds);
+            if (recipients.size() < uniqueIds.size()) {
+                log.warn("Skipping {} unknown notification recipient(s)", uniqueIds.size() - recipients.size());
+            }
+            if (recipients.isEmpty()) {
+                return;
+            }
+            
+            User triggeredBy = getCurrentUser();
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+            
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, recipients.get(i).getId());
+                        ps.setString(2, type.name());
+                        ps.setString(3, title);
+                        ps.setString(4, message);
+                        ps.setString(5, link);
+                        ps.setString(6, entityType);
+                        ps.setObject(7, entityId, Types.BIGINT);
+                        ps.setString(8, priority.name());
+                        ps.setTimestamp(9, createdAt);
+                        ps.setObject(10, triggeredBy != null ? triggeredBy.getId() : null, Types.BIGINT);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return recipients.size();
+                    }
+                }, keys);
+            
+            List<Map<String, Object>> generated = keys.getKeyList();
+            boolean email = sendEmail || type.isHighPriority();
+            for (int i = 0; i < recipients.size(); i++) {
+                Long recipientId = recipients.get(i).getId();
+                Long notificationId = ((Number) generated.get(i).values().iterator().next()).longValue();
+                unreadCounter.adjustAfterCommit(recipientId, 1);
+                
+                // Same fields as the inserted row, for the push
+                Notification inserted = new Notification();
+                inserted.setId(notificationId);
+                inserted.setType(type);
+                inserted.setTitle(title);
+                inserted.setMessage(message);
+                inserted.setLink(link);
+                inserted.setPriority(priority);
+                inserted.setEntityType(entityType);
+                inserted.setEntityId(entityId);
+                inserted.setTriggeredBy(triggeredBy);
+                inserted.setCreatedAt(createdAt.toLocalDateTime());
+                pushService.created(recipientId, toDto(inserted));
+                
+                if (email) {
+                    emailDigest.queueAfterCommit(recipientId, notificationId);
+                }
+            }
+            
+            log.info("Created {} notifications - Type: {}", recipients.size(), type);
+            
+            if (triggeredBy != null) {
+                auditService.logAction(
+                    triggeredBy,
+                    AuditLog.ActionType.NOTIFICATION_SENT,
+                    "Notification",
+                    null,
+                    title,
+                    String.format("Sent %s notification to %d users", type, recipients.size())
+                );
+            }
+            
+        } catch (Exception e) {
+            log.error("Failed to create notifications for users {}: {}", recipientIds, e.getMessage(), e);
         }
     }
     
     /**
-     * Get all notifications for a user
+     * Get one page of a user's notifications, newest first; null filters are ignored
      */
     @Transactional(readOnly = true)
-    public List<NotificationDto> getUserNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    public Page<NotificationDto> getUserNotifications(Long userId, NotificationType type,
+                                                      NotificationPriority priority, Boolean isRead,
+                                                      Pageable pageable) {
+        return notificationRepository.findInbox(userId, type, priority, isRead, pageable)
+            .map(this::toDto);
+    }
+    
+    /**
+     * Get the user's notifications that follow the given one, newest first, without counting the total
+     */
+    @Transactional(readOnly = true)
+    public Slice<NotificationDto> getUserNotificationsBefore(Long userId, Long beforeId, NotificationType type,
+                                                             NotificationPriority priority, Boolean isRead,
+                                                             int size) {
+        Notification cursor = notificationRepository.findById(beforeId)
+            .orElseThrow(() -> new RuntimeException("Notification not found"));
         
-        List<Notification> notifications = notificationRepository
-            .findByRecipientOrderByCreatedAtDesc(user);
+        // Verify ownership
+        if (!cursor.getRecipient().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to notification");
+        }
         
-        return notifications.stream()
+        return notificationRepository.findInboxBefore(userId, type, priority, isRead,
+                cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size))
+            .map(this::toDto);
+    }
+    
+    /**
+     * Get the notifications created after the given one, oldest first, so a reconnecting client can catch up
+     * on what it missed; the unread count resynchronises read and delete changes made meanwhile
+     */
+    @Transactional(readOnly = true)
+    public NotificationResumeDto getNotificationsAfter(Long userId, Long afterId, int size) {
+        Slice<Notification> slice = notificationRepository.findCreatedAfter(userId, afterId, PageRequest.of(0, size));
+        List<NotificationDto> notifications = slice.getContent().stream()
             .map(this::toDto)
             .collect(Collectors.toList());
+        return new NotificationResumeDto(notifications, slice.hasNext(), unreadCounter.get(userId));
     }
     
     /**
@@ -161,12 +293,8 @@ public class NotificationService {
     /**
      * Get unread count for a user
      */
-    @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return notificationRepository.countByRecipientAndIsReadFalse(user);
+        return unreadCounter.get(userId);
     }
     
     /**
@@ -185,6 +313,8 @@ public class NotificationService {
         if (!notification.getIsRead()) {
             notification.markAsRead();
             notificationRepository.save(notification);
+            unreadCounter.adjustAfterCommit(userId, -1);
+            pushService.read(userId, notificationId);
             
             log.info("User {} marked notification {} as read", userId, notificationId);
         }
@@ -199,6 +329,8 @@ public class NotificationService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         int count = notificationRepository.markAllAsRead(user, LocalDateTime.now());
+        unreadCounter.adjustAfterCommit(userId, -count);
+        pushService.allRead(userId, count);
         
         log.info("User {} marked {} notifications as read", userId, count);
         
@@ -219,6 +351,10 @@ public class NotificationService {
         }
         
         notificationRepository.delete(notification);
+        if (notification.isUnread()) {
+            unreadCounter.adjustAfterCommit(userId, -1);
+        }
+        pushService.deleted(userId, notificationId, notification.isUnread());
         log.info("User {} deleted notification {}", userId, notificationId);
     }
     
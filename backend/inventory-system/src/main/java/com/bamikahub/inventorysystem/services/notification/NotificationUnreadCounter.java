@@ -0,0 +1,61 @@
+package com.bamikahub.inventorysystem.services.notification;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.notification.NotificationRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread in-app notification count per user. A user's counter is loaded with one indexed count on first use and
+ * then kept current by the notify, read and delete paths, which apply their delta once their transaction
+ * commits. Counters of users who are not cached are left alone; the next read loads them.
+ */
+@Service
+public class NotificationUnreadCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final Cache cache;
+
+    public NotificationUnreadCounter(NotificationRepository notificationRepository, CacheManager cacheManager) {
+        this.notificationRepository = notificationRepository;
+        this.cache = cacheManager.getCache(CacheConfig.NOTIFICATION_UNREAD_COUNTS);
+    }
+
+    public long get(Long userId) {
+        AtomicLong counter = cache.get(userId, () -> new AtomicLong(notificationRepository.countUnreadByRecipientId(userId)));
+        return counter != null ? counter.get() : 0L;
+    }
+
+    /**
+     * Adds the delta to the user's counter once the current transaction commits.
+     */
+    public void adjustAfterCommit(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(userId, delta);
+                }
+            });
+        } else {
+            adjust(userId, delta);
+        }
+    }
+
+    private void adjust(Long userId, long delta) {
+        AtomicLong counter = cache.get(userId, AtomicLong.class);
+        // A counter that would go negative raced with its own load; reload it on the next read. Runs after
+        // commit, where a deferred evict would never be applied, so evict immediately
+        if (counter != null && counter.addAndGet(delta) < 0) {
+            cache.evictIfPresent(userId);
+        }
+    }
+}
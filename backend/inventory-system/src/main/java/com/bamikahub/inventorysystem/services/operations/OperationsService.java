@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.operations;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.operations.DailyFieldReportRepository;
 import com.bamikahub.inventorysystem.dao.operations.ProjectImageRepository;
 import com.bamikahub.inventorysystem.dao.operations.ProjectRepository;
@@ -13,14 +14,20 @@ import com.bamikahub.inventorysystem.models.operations.DailyFieldReport;
 import com.bamikahub.inventorysystem.models.operations.Project;
 import com.bamikahub.inventorysystem.models.operations.ProjectImage;
 import com.bamikahub.inventorysystem.models.operations.Site;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.FileStorageService;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage.StagedUpload;
+import com.bamikahub.inventorysystem.services.storage.ImageVariantService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
@@ -40,6 +47,9 @@ public class OperationsService {
     @Autowired private SiteRepository siteRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private FileStorageService fileStorageService;
+    @Autowired private ImageVariantService imageVariantService;
+    @Autowired private AttachmentStorage attachmentStorage;
+    @Autowired private TransactionTemplate transactionTemplate;
     @Autowired private AuditService auditService;
 
     @Transactional(readOnly = true)
@@ -58,6 +68,7 @@ public class OperationsService {
                 .orElseThrow(() -> new RuntimeException("Project not found."));
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PROJECT_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public Project createProject(ProjectRequest request) {
         Project project = new Project();
@@ -87,6 +98,7 @@ public class OperationsService {
         return savedProject;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PROJECT_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public Project updateProject(Long id, ProjectRequest request) {
         Project project = projectRepository.findById(id)
@@ -442,6 +454,7 @@ public class OperationsService {
         return saved;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PROJECT_REPORTS, CacheConfig.DASHBOARD_CHARTS}, allEntries = true)
     @Transactional
     public void archiveProject(Long projectId) {
         Project project = projectRepository.findById(projectId)
@@ -484,8 +497,19 @@ public class OperationsService {
         }
     }
 
-    @Transactional
+    /**
+     * The image is streamed to the shared attachment storage before the transaction opens.
+     */
     public ProjectImage addImageToProjectGallery(Long projectId, String description, MultipartFile file) {
+        StagedUpload staged = attachmentStorage.stage(file);
+        try {
+            return transactionTemplate.execute(status -> saveGalleryImage(projectId, description, staged));
+        } finally {
+            staged.discard();
+        }
+    }
+
+    private ProjectImage saveGalleryImage(Long projectId, String description, StagedUpload staged) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found."));
 
@@ -496,13 +520,15 @@ public class OperationsService {
 
         // ... (validation for image file) ...
 
-        String filename = fileStorageService.storeItemImage(file);
+        StoredBlob blob = attachmentStorage.commit(staged);
         ProjectImage projectImage = new ProjectImage();
         projectImage.setProject(project);
         projectImage.setDescription(description);
-        projectImage.setImageUrl("/uploads/item-images/" + filename);
+        projectImage.setImageUrl(attachmentStorage.publicUrl(blob));
+        projectImage.setContentHash(blob.getSha256());
 
         ProjectImage saved = imageRepository.save(projectImage);
+        imageVariantService.generateAfterCommit(saved.getImageUrl());
 
         User actor = safeGetCurrentUser();
         if (actor != null) {
@@ -548,9 +574,8 @@ public class OperationsService {
             throw new SecurityException("Image does not belong to the specified project.");
         }
 
-        // TODO: Add logic here to delete the actual file from the filesystem
-        // File fileToDelete = new File(uploadDir + image.getImageUrl());
-        // fileToDelete.delete();
+        // Images stored before content addressing keep their file
+        attachmentStorage.release(image.getContentHash());
 
         String imageUrl = image.getImageUrl();
         imageRepository.delete(image);
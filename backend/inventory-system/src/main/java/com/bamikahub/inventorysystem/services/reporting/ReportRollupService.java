@@ -0,0 +1,569 @@
+package com.bamikahub.inventorysystem.services.reporting;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.finance.RequisitionRepository;
+import com.bamikahub.inventorysystem.dao.inventory.StockTransactionRepository;
+import com.bamikahub.inventorysystem.dao.reporting.BucketAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.BucketCountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyItemMovementRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyRequisitionSpendRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyTicketSlaRow;
+import com.bamikahub.inventorysystem.dao.reporting.InventoryRollupRepository;
+import com.bamikahub.inventorysystem.dao.reporting.RequisitionRollupRepository;
+import com.bamikahub.inventorysystem.dao.reporting.TicketRollupRepository;
+import com.bamikahub.inventorysystem.dao.support.SlaTicketRow;
+import com.bamikahub.inventorysystem.dao.support.SupportTicketRepository;
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+import com.bamikahub.inventorysystem.models.finance.RequisitionItem;
+import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
+import com.bamikahub.inventorysystem.models.inventory.StockTransaction;
+import com.bamikahub.inventorysystem.models.reporting.InventoryRollup;
+import com.bamikahub.inventorysystem.models.reporting.RequisitionRollup;
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
+import com.bamikahub.inventorysystem.models.reporting.TicketRollup;
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains the daily/weekly/monthly report rollup tables.
+ * Write paths record deltas that are applied once the surrounding transaction commits,
+ * trend reports read whole buckets from the rollups, and a nightly job rebuilds everything from history.
+ */
+@Slf4j
+@Service
+public class ReportRollupService {
+
+    private static final List<Requisition.RequisitionStatus> SPENT_STATUSES =
+            List.of(Requisition.RequisitionStatus.FULFILLED, Requisition.RequisitionStatus.CLOSED);
+
+    // Caches holding reports read from the rollups
+    private static final List<String> REBUILT_REPORT_CACHES =
+            List.of(CacheConfig.FINANCE_REPORTS, CacheConfig.SUPPORT_REPORTS);
+
+    @Autowired private InventoryRollupRepository inventoryRollupRepository;
+    @Autowired private RequisitionRollupRepository requisitionRollupRepository;
+    @Autowired private TicketRollupRepository ticketRollupRepository;
+    @Autowired private StockTransactionRepository transactionRepository;
+    @Autowired private RequisitionRepository requisitionRepository;
+    @Autowired private SupportTicketRepository ticketRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private CacheManager cacheManager;
+
+    @Value("${reports.rollups.enabled:true}")
+    private boolean enabled;
+
+    private TransactionTemplate newTransaction;
+
+    // Serialises rollup writes within this node so concurrent deltas never race to insert the same bucket row
+    private final Object writeLock = new Object();
+
+    // Write paths hold the read lock from just before their commit until their delta is applied; the rebuild holds
+    // the write lock while it reads history, so every delta is either in its snapshot or applied after it
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+    private record InventoryDelta(LocalDate day, Long itemId, Long categoryId, long inQty, long outQty,
+                                  BigDecimal inValue, BigDecimal outValue, BigDecimal inCost, BigDecimal outCost) {}
+
+    private record RequisitionDelta(LocalDate day, Long projectId, Requisition.RequisitionStatus status,
+                                    long count, BigDecimal amount) {}
+
+    private record TicketDelta(LocalDate day, SupportTicket.TicketPriority priority, long created,
+                               long responded, long responseHours, long resolved, long resolutionHours) {}
+
+    // Buckets fully covered by a date range, plus the leftover days at either end
+    private record BucketPlan(RollupGranularity granularity, List<LocalDate> fullBuckets, List<LocalDate> partialDays) {}
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ============= WRITE PATH =============
+
+    public void recordStockTransaction(StockTransaction transaction) {
+        if (!enabled || (transaction.getType() != StockTransaction.TransactionType.IN
+                && transaction.getType() != StockTransaction.TransactionType.OUT)) {
+            return;
+        }
+
+        InventoryItem item = transaction.getItem();
+        BigDecimal quantity = BigDecimal.valueOf(transaction.getQuantity());
+        // Same valuation as the rebuild: the price recorded with the movement, else the item's current price
+        BigDecimal unitPrice = transaction.getUnitPrice() != null ? transaction.getUnitPrice() : item.getUnitPrice();
+        BigDecimal value = unitPrice != null ? unitPrice.multiply(quantity) : BigDecimal.ZERO;
+        BigDecimal cost = transaction.getUnitCost() != null ? transaction.getUnitCost().multiply(quantity) : BigDecimal.ZERO;
+        boolean in = transaction.getType() == StockTransaction.TransactionType.IN;
+
+        InventoryDelta delta = new InventoryDelta(
+                dayOf(transaction.getCreatedAt()),
+                item.getId(),
+                item.getCategory() != null ? item.getCategory().getId() : null,
+                in ? transaction.getQuantity() : 0,
+                in ? 0 : transaction.getQuantity(),
+                in ? value : BigDecimal.ZERO,
+                in ? BigDecimal.ZERO : value,
+                in ? cost : BigDecimal.ZERO,
+                in ? BigDecimal.ZERO : cost);
+
+        afterCommit(() -> applyInventory(List.of(delta)));
+    }
+
+    /**
+     * Moves a requisition's spend between status rows. Only fulfilled/closed requisitions count as spend,
+     * so transitions outside those statuses leave the rollups untouched.
+     */
+    public void recordRequisitionStatusChange(Requisition requisition, Requisition.RequisitionStatus previousStatus) {
+        if (!enabled || requisition.getCreatedAt() == null) {
+            return;
+        }
+
+        LocalDate day = requisition.getCreatedAt().toLocalDate();
+        Long projectId = requisition.getProject() != null ? requisition.getProject().getId() : RequisitionRollup.NO_PROJECT;
+        BigDecimal amount = estimatedCost(requisition);
+
+        List<RequisitionDelta> deltas = new ArrayList<>();
+        if (previousStatus != null && SPENT_STATUSES.contains(previousStatus)) {
+            deltas.add(new RequisitionDelta(day, projectId, previousStatus, -1, amount.negate()));
+        }
+        if (SPENT_STATUSES.contains(requisition.getStatus())) {
+            deltas.add(new RequisitionDelta(day, projectId, requisition.getStatus(), 1, amount));
+        }
+        if (!deltas.isEmpty()) {
+            afterCommit(() -> applyRequisitions(deltas));
+        }
+    }
+
+    public void recordTicketCreated(SupportTicket ticket) {
+        if (!enabled || ticket.getCreatedAt() == null) {
+            return;
+        }
+        TicketDelta delta = new TicketDelta(ticket.getCreatedAt().toLocalDate(), ticket.getPriority(), 1, 0, 0, 0, 0);
+        afterCommit(() -> applyTickets(List.of(delta)));
+    }
+
+    public void recordTicketFirstResponse(SupportTicket ticket) {
+        if (!enabled || ticket.getCreatedAt() == null || ticket.getFirstResponseAt() == null) {
+            return;
+        }
+        long hours = Duration.between(ticket.getCreatedAt(), ticket.getFirstResponseAt()).toHours();
+        TicketDelta delta = new TicketDelta(ticket.getCreatedAt().toLocalDate(), ticket.getPriority(), 0, 1, hours, 0, 0);
+        afterCommit(() -> applyTickets(List.of(delta)));
+    }
+
+    public void recordTicketResolved(SupportTicket ticket) {
+        if (!enabled || ticket.getCreatedAt() == null || ticket.getResolvedAt() == null) {
+            return;
+        }
+        long hours = Duration.between(ticket.getCreatedAt(), ticket.getResolvedAt()).toHours();
+        TicketDelta delta = new TicketDelta(ticket.getCreatedAt().toLocalDate(), ticket.getPriority(), 0, 0, 0, 1, hours);
+        afterCommit(() -> applyTickets(List.of(delta)));
+    }
+
+    // Rollups are keyed by current priority, so a priority change moves the ticket's whole contribution
+    public void recordTicketPriorityChange(SupportTicket ticket, SupportTicket.TicketPriority previousPriority) {
+        if (!enabled || ticket.getCreatedAt() == null || previousPriority == null || previousPriority == ticket.getPriority()) {
+            return;
+        }
+        recordTicketPriorityChange(ticket.getCreatedAt(), ticket.getFirstResponseAt(), ticket.getResolvedAt(),
+                ticket.getPriority(), previousPriority);
+    }
+
+    public void recordTicketPriorityChange(SlaTicketRow ticket, SupportTicket.TicketPriority previousPriority) {
+        if (!enabled || ticket.getCreatedAt() == null || previousPriority == null || previousPriority == ticket.getPriority()) {
+            return;
+        }
+        recordTicketPriorityChange(ticket.getCreatedAt(), ticket.getFirstResponseAt(), ticket.getResolvedAt(),
+                ticket.getPriority(), previousPriority);
+    }
+
+    private void recordTicketPriorityChange(LocalDateTime createdAt, LocalDateTime firstResponseAt,
+                                            LocalDateTime resolvedAt, SupportTicket.TicketPriority priority,
+                                            SupportTicket.TicketPriority previousPriority) {
+        TicketDelta added = ticketContribution(createdAt, firstResponseAt, resolvedAt, priority, 1);
+        TicketDelta removed = ticketContribution(createdAt, firstResponseAt, resolvedAt, previousPriority, -1);
+        afterCommit(() -> applyTickets(List.of(removed, added)));
+    }
+
+    // ============= READ PATH =============
+
+    public List<BucketAmountRow> stockOutValueByBucket(LocalDate start, LocalDate end, RollupGranularity granularity) {
+        BucketPlan plan = plan(start, end, granularity);
+        List<BucketAmountRow> rows = new ArrayList<>();
+        if (!plan.fullBuckets().isEmpty()) {
+            rows.addAll(inventoryRollupRepository.sumStockOutValue(granularity, plan.fullBuckets()));
+        }
+        if (!plan.partialDays().isEmpty()) {
+            rows.addAll(inventoryRollupRepository.sumStockOutValue(RollupGranularity.DAILY, plan.partialDays()));
+        }
+        return rows;
+    }
+
+    public List<BucketAmountRow> requisitionSpendByBucket(LocalDate start, LocalDate end, RollupGranularity granularity) {
+        BucketPlan plan = plan(start, end, granularity);
+        List<BucketAmountRow> rows = new ArrayList<>();
+        if (!plan.fullBuckets().isEmpty()) {
+            rows.addAll(requisitionRollupRepository.sumAmount(granularity, plan.fullBuckets(), SPENT_STATUSES));
+        }
+        if (!plan.partialDays().isEmpty()) {
+            rows.addAll(requisitionRollupRepository.sumAmount(RollupGranularity.DAILY, plan.partialDays(), SPENT_STATUSES));
+        }
+        return rows;
+    }
+
+    public List<BucketCountRow> ticketsCreatedByBucket(LocalDate start, LocalDate end, RollupGranularity granularity,
+                                                       SupportTicket.TicketPriority priority) {
+        BucketPlan plan = plan(start, end, granularity);
+        List<BucketCountRow> rows = new ArrayList<>();
+        if (!plan.fullBuckets().isEmpty()) {
+            rows.addAll(ticketRollupRepository.sumCreated(granularity, plan.fullBuckets(), priority));
+        }
+        if (!plan.partialDays().isEmpty()) {
+            rows.addAll(ticketRollupRepository.sumCreated(RollupGranularity.DAILY, plan.partialDays(), priority));
+        }
+        return rows;
+    }
+
+    // ============= REBUILD =============
+
+    @Scheduled(cron = "${reports.rollups.rebuild-cron:0 30 2 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuildAll();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (enabled && inventoryRollupRepository.count() == 0
+                && requisitionRollupRepository.count() == 0
+                && ticketRollupRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Regenerates every rollup table from the raw stock transaction, requisition and ticket history, then drops
+     * the cached reports built from the old figures.
+     */
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        // Taken before writeLock: deltas of commits already in flight need writeLock to finish
+        commitGate.writeLock().lock();
+        try {
+            synchronized (writeLock) {
+                newTransaction.executeWithoutResult(status -> {
+                    List<DailyItemMovementRow> movements;
+                    List<DailyRequisitionSpendRow> spend;
+                    List<DailyTicketSlaRow> tickets;
+                    try {
+                        movements = transactionRepository.sumDailyMovementByItem(
+                                StockTransaction.TransactionType.IN, StockTransaction.TransactionType.OUT);
+                        spend = requisitionRepository.sumDailySpendByProjectAndStatus(SPENT_STATUSES);
+                        tickets = ticketRepository.summarizeDailySlaByPriority();
+                    } finally {
+                        // Commits may resume; their deltas wait for writeLock and land on the rebuilt rollups
+                        commitGate.writeLock().unlock();
+                    }
+
+                    inventoryRollupRepository.deleteAllInBatch();
+                    requisitionRollupRepository.deleteAllInBatch();
+                    ticketRollupRepository.deleteAllInBatch();
+
+                    rebuildInventory(movements);
+                    rebuildRequisitions(spend);
+                    rebuildTickets(tickets);
+                });
+            }
+        } finally {
+            if (commitGate.isWriteLockedByCurrentThread()) {
+                commitGate.writeLock().unlock();
+            }
+        }
+        for (String cacheName : REBUILT_REPORT_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        log.info("Report rollups rebuilt in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private void rebuildInventory(List<DailyItemMovementRow> rows) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<List<Object>, InventoryRollup> buckets = new LinkedHashMap<>();
+            for (DailyItemMovementRow row : rows) {
+                LocalDate bucketStart = granularity.bucketStart(row.getDay());
+                InventoryRollup rollup = buckets.computeIfAbsent(List.of(bucketStart, row.getItemId()),
+                        key -> emptyInventoryRollup(granularity, bucketStart, row.getItemId(), row.getCategoryId()));
+                rollup.setStockInQuantity(rollup.getStockInQuantity() + zeroIfNull(row.getStockIn()));
+                rollup.setStockOutQuantity(rollup.getStockOutQuantity() + zeroIfNull(row.getStockOut()));
+                rollup.setStockInValue(rollup.getStockInValue().add(zeroIfNull(row.getStockInValue())));
+                rollup.setStockOutValue(rollup.getStockOutValue().add(zeroIfNull(row.getStockOutValue())));
+                rollup.setStockInCost(rollup.getStockInCost().add(zeroIfNull(row.getStockInCost())));
+                rollup.setStockOutCost(rollup.getStockOutCost().add(zeroIfNull(row.getStockOutCost())));
+            }
+            inventoryRollupRepository.saveAll(buckets.values());
+        }
+    }
+
+    private void rebuildRequisitions(List<DailyRequisitionSpendRow> rows) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<List<Object>, RequisitionRollup> buckets = new LinkedHashMap<>();
+            for (DailyRequisitionSpendRow row : rows) {
+                LocalDate bucketStart = granularity.bucketStart(row.getDay());
+                RequisitionRollup rollup = buckets.computeIfAbsent(List.of(bucketStart, row.getProjectId(), row.getStatus()),
+                        key -> emptyRequisitionRollup(granularity, bucketStart, row.getProjectId(), row.getStatus()));
+                rollup.setRequisitionCount(rollup.getRequisitionCount() + zeroIfNull(row.getCount()));
+                rollup.setTotalAmount(rollup.getTotalAmount().add(zeroIfNull(row.getAmount())));
+            }
+            requisitionRollupRepository.saveAll(buckets.values());
+        }
+    }
+
+    private void rebuildTickets(List<DailyTicketSlaRow> rows) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<List<Object>, TicketRollup> buckets = new LinkedHashMap<>();
+            for (DailyTicketSlaRow row : rows) {
+                LocalDate bucketStart = granularity.bucketStart(row.getDay());
+                TicketRollup rollup = buckets.computeIfAbsent(List.of(bucketStart, row.getPriority()),
+                        key -> emptyTicketRollup(granularity, bucketStart, row.getPriority()));
+                rollup.setCreatedCount(rollup.getCreatedCount() + zeroIfNull(row.getCreatedCount()));
+                rollup.setRespondedCount(rollup.getRespondedCount() + zeroIfNull(row.getRespondedCount()));
+                rollup.setTotalResponseHours(rollup.getTotalResponseHours() + zeroIfNull(row.getTotalResponseHours()));
+                rollup.setResolvedCount(rollup.getResolvedCount() + zeroIfNull(row.getResolvedCount()));
+                rollup.setTotalResolutionHours(rollup.getTotalResolutionHours() + zeroIfNull(row.getTotalResolutionHours()));
+            }
+            ticketRollupRepository.saveAll(buckets.values());
+        }
+    }
+
+    // ============= DELTA APPLICATION =============
+
+    private void applyInventory(List<InventoryDelta> deltas) {
+        applyInNewTransaction(() -> {
+            for (InventoryDelta delta : deltas) {
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    LocalDate bucketStart = granularity.bucketStart(delta.day());
+                    int updated = inventoryRollupRepository.increment(granularity, bucketStart, delta.itemId(),
+                            delta.inQty(), delta.outQty(), delta.inValue(), delta.outValue(), delta.inCost(), delta.outCost());
+                    if (updated == 0) {
+                        InventoryRollup rollup = emptyInventoryRollup(granularity, bucketStart, delta.itemId(), delta.categoryId());
+                        rollup.setStockInQuantity(delta.inQty());
+                        rollup.setStockOutQuantity(delta.outQty());
+                        rollup.setStockInValue(delta.inValue());
+                        rollup.setStockOutValue(delta.outValue());
+                        rollup.setStockInCost(delta.inCost());
+                        rollup.setStockOutCost(delta.outCost());
+                        inventoryRollupRepository.saveAndFlush(rollup);
+                    }
+                }
+            }
+        });
+    }
+
+    private void applyRequisitions(List<RequisitionDelta> deltas) {
+        applyInNewTransaction(() -> {
+            for (RequisitionDelta delta : deltas) {
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    LocalDate bucketStart = granularity.bucketStart(delta.day());
+                    int updated = requisitionRollupRepository.increment(granularity, bucketStart, delta.projectId(),
+                            delta.status(), delta.count(), delta.amount());
+                    if (updated == 0) {
+                        RequisitionRollup rollup = emptyRequisitionRollup(granularity, bucketStart, delta.projectId(), delta.status());
+                        rollup.setRequisitionCount(delta.count());
+                        rollup.setTotalAmount(delta.amount());
+                        requisitionRollupRepository.saveAndFlush(rollup);
+                    }
+                }
+            }
+        });
+    }
+
+    private void applyTickets(List<TicketDelta> deltas) {
+        applyInNewTransaction(() -> {
+            for (TicketDelta delta : deltas) {
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    LocalDate bucketStart = granularity.bucketStart(delta.day());
+                    int updated = ticketRollupRepository.increment(granularity, bucketStart, delta.priority(),
+                            delta.created(), delta.responded(), delta.responseHours(), delta.resolved(), delta.resolutionHours());
+                    if (updated == 0) {
+                        TicketRollup rollup = emptyTicketRollup(granularity, bucketStart, delta.priority());
+                        rollup.setCreatedCount(delta.created());
+                        rollup.setRespondedCount(delta.responded());
+                        rollup.setTotalResponseHours(delta.responseHours());
+                        rollup.setResolvedCount(delta.resolved());
+                        rollup.setTotalResolutionHours(delta.resolutionHours());
+                        ticketRollupRepository.saveAndFlush(rollup);
+                    }
+                }
+            }
+        });
+    }
+
+    private void applyInNewTransaction(Runnable writes) {
+        synchronized (writeLock) {
+            try {
+                newTransaction.executeWithoutResult(status -> writes.run());
+            } catch (DataIntegrityViolationException e) {
+                // Another node inserted the same bucket row first; the retry takes the update path
+                newTransaction.executeWithoutResult(status -> writes.run());
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean gated;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitGate.readLock().lock();
+                    gated = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    runSafely(action);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (gated) {
+                        commitGate.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            runSafely(action);
+        }
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            // Rollups are derived data; the next rebuild corrects any missed delta
+            log.warn("Failed to update report rollups: {}", e.getMessage());
+        }
+    }
+
+    // ============= HELPERS =============
+
+    private BucketPlan plan(LocalDate start, LocalDate end, RollupGranularity granularity) {
+        List<LocalDate> fullBuckets = new ArrayList<>();
+        List<LocalDate> partialDays = new ArrayList<>();
+
+        LocalDate cursor = start;
+        while (!cursor.isAfter(end)) {
+            LocalDate bucketStart = granularity.bucketStart(cursor);
+            LocalDate bucketEnd = granularity.bucketEnd(bucketStart);
+            if (bucketStart.equals(cursor) && !bucketEnd.isAfter(end)) {
+                fullBuckets.add(bucketStart);
+            } else {
+                LocalDate last = bucketEnd.isAfter(end) ? end : bucketEnd;
+                for (LocalDate day = cursor; !day.isAfter(last); day = day.plusDays(1)) {
+                    partialDays.add(day);
+                }
+            }
+            cursor = bucketEnd.plusDays(1);
+        }
+        return new BucketPlan(granularity, fullBuckets, partialDays);
+    }
+
+    private TicketDelta ticketContribution(LocalDateTime createdAt, LocalDateTime firstResponseAt, LocalDateTime resolvedAt,
+                                           SupportTicket.TicketPriority priority, int sign) {
+        long responded = firstResponseAt != null ? 1 : 0;
+        long responseHours = responded == 1 ? Duration.between(createdAt, firstResponseAt).toHours() : 0;
+        long resolved = resolvedAt != null ? 1 : 0;
+        long resolutionHours = resolved == 1 ? Duration.between(createdAt, resolvedAt).toHours() : 0;
+        return new TicketDelta(createdAt.toLocalDate(), priority,
+                sign, sign * responded, sign * responseHours, sign * resolved, sign * resolutionHours);
+    }
+
+    private static BigDecimal estimatedCost(Requisition requisition) {
+        if (requisition.getItems() == null) {
+            return BigDecimal.ZERO;
+        }
+        return requisition.getItems().stream()
+                .filter(item -> item.getEstimatedUnitCost() != null && item.getQuantity() != null)
+                .map(item -> item.getEstimatedUnitCost().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return (timestamp != null ? timestamp : LocalDateTime.now()).toLocalDate();
+    }
+
+    private static long zeroIfNull(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static InventoryRollup emptyInventoryRollup(RollupGranularity granularity, LocalDate bucketStart,
+                                                        Long itemId, Long categoryId) {
+        return InventoryRollup.builder()
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .itemId(itemId)
+                .categoryId(categoryId)
+                .stockInValue(BigDecimal.ZERO)
+                .stockOutValue(BigDecimal.ZERO)
+                .stockInCost(BigDecimal.ZERO)
+                .stockOutCost(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static RequisitionRollup emptyRequisitionRollup(RollupGranularity granularity, LocalDate bucketStart,
+                                                            Long projectId, Requisition.RequisitionStatus status) {
+        return RequisitionRollup.builder()
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .projectId(projectId)
+                .status(status)
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static TicketRollup emptyTicketRollup(RollupGranularity granularity, LocalDate bucketStart,
+                                                  SupportTicket.TicketPriority priority) {
+        return TicketRollup.builder()
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .priority(priority)
+                .build();
+    }
+}
@@ -1,20 +1,31 @@
 package com.bamikahub.inventorysystem.services.reporting;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.finance.RequisitionRepository;
 import com.bamikahub.inventorysystem.dao.inventory.InventoryItemRepository;
 import com.bamikahub.inventorysystem.dao.inventory.StockTransactionRepository;
 import com.bamikahub.inventorysystem.dao.operations.DailyFieldReportRepository;
 import com.bamikahub.inventorysystem.dao.operations.ProjectRepository;
 import com.bamikahub.inventorysystem.dao.operations.SiteRepository;
+import com.bamikahub.inventorysystem.dao.reporting.BucketAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.BucketCountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.DailyCountRow;
+import com.bamikahub.inventorysystem.dao.reporting.ItemMovementRow;
+import com.bamikahub.inventorysystem.dao.reporting.ItemStockRow;
+import com.bamikahub.inventorysystem.dao.reporting.ProjectBudgetRow;
 import com.bamikahub.inventorysystem.dao.reporting.ReportHistoryRepository;
+import com.bamikahub.inventorysystem.dao.reporting.RequisitionStatusRow;
+import com.bamikahub.inventorysystem.dao.reporting.SlaPriorityRow;
+import com.bamikahub.inventorysystem.dao.reporting.StockOutItemRow;
 import com.bamikahub.inventorysystem.dao.support.SupportTicketRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.reporting.*;
 import com.bamikahub.inventorysystem.models.finance.Requisition;
-import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
 import com.bamikahub.inventorysystem.models.inventory.StockTransaction;
 import com.bamikahub.inventorysystem.models.operations.Project;
 import com.bamikahub.inventorysystem.models.reporting.ReportHistory;
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
 import com.bamikahub.inventorysystem.models.support.SupportTicket;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,7 +36,6 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -47,12 +57,16 @@ public class ReportingService {
     @Autowired private ReportHistoryRepository reportHistoryRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private ObjectMapper objectMapper;
+    @Autowired private ReportRollupService reportRollupService;
+
+    private static final List<Requisition.RequisitionStatus> SPENT_REQUISITION_STATUSES =
+            List.of(Requisition.RequisitionStatus.FULFILLED, Requisition.RequisitionStatus.CLOSED);
 
     /**
      * Gathers data specifically for the main dashboard charts.
-     * Cached for 5 minutes to optimize performance.
+     * Cached for app.cache.dashboardCharts.ttl (5 minutes by default) to optimize performance.
      */
-    @Cacheable(value = "dashboardCharts", unless = "#result == null")
+    @Cacheable(cacheNames = CacheConfig.DASHBOARD_CHARTS, unless = "#result == null")
     public DashboardChartsDto getDashboardChartsData() {
         DashboardChartsDto chartsData = new DashboardChartsDto();
 
@@ -113,43 +127,28 @@ public class ReportingService {
      * Computes revenue generated from stock-out transactions and COGS using transaction unitCost.
      * Revenue uses current item unitPrice for simplicity; could be extended to capture sale price per transaction.
      */
+    @Cacheable(cacheNames = CacheConfig.FINANCE_REPORTS, unless = "#result == null")
     public StockOutRevenueSummaryDto getStockOutRevenueSummary(ReportRequestDto request) {
         LocalDate start = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(1);
         LocalDate end = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
 
-        // Filter OUT transactions by date range (inclusive) and optional category
-        List<StockTransaction> outs = transactionRepository.findAll().stream()
-                .filter(t -> t.getType() == StockTransaction.TransactionType.OUT)
-                .filter(t -> t.getCreatedAt() != null)
-                .filter(t -> {
-                    LocalDate d = t.getCreatedAt().toLocalDate();
-                    return !d.isBefore(start) && !d.isAfter(end);
-                })
-                .filter(t -> request.getCategoryId() == null ||
-                        (t.getItem() != null && t.getItem().getCategory() != null &&
-                                t.getItem().getCategory().getId().equals(request.getCategoryId())))
-                .toList();
+        // Aggregate OUT transactions per item in the database (date range inclusive, optional category)
+        List<StockOutItemRow> rows = transactionRepository.sumByItem(
+                StockTransaction.TransactionType.OUT, startOfDay(start), endOfDayExclusive(end), request.getCategoryId());
 
-        Map<Long, List<StockTransaction>> byItem = outs.stream()
-                .collect(Collectors.groupingBy(t -> t.getItem().getId()));
-
-        List<StockOutItemDto> items = byItem.entrySet().stream()
-                .map(entry -> {
-                    InventoryItem item = entry.getValue().get(0).getItem();
-                    long qty = entry.getValue().stream().mapToLong(StockTransaction::getQuantity).sum();
-                    BigDecimal revenue = item.getUnitPrice().multiply(BigDecimal.valueOf(qty));
-                    BigDecimal cogs = entry.getValue().stream()
-                            .map(t -> (t.getUnitCost() != null ? t.getUnitCost() : BigDecimal.ZERO)
-                                    .multiply(BigDecimal.valueOf(t.getQuantity())))
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<StockOutItemDto> items = rows.stream()
+                .map(row -> {
+                    long qty = row.getQuantity() != null ? row.getQuantity() : 0L;
+                    BigDecimal revenue = row.getUnitPrice().multiply(BigDecimal.valueOf(qty));
+                    BigDecimal cogs = row.getCogs() != null ? row.getCogs() : BigDecimal.ZERO;
                     BigDecimal margin = revenue.subtract(cogs);
                     double marginPct = revenue.compareTo(BigDecimal.ZERO) == 0 ? 0.0
                             : margin.divide(revenue, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue();
 
                     return StockOutItemDto.builder()
-                            .itemId(item.getId())
-                            .itemName(item.getName())
-                            .sku(item.getSku())
+                            .itemId(row.getItemId())
+                            .itemName(row.getItemName())
+                            .sku(row.getSku())
                             .quantityOut(qty)
                             .revenue(revenue)
                             .cogs(cogs)
@@ -180,41 +179,34 @@ public class ReportingService {
     /**
      * Multi-series finance trend: revenue (stock-outs), expenditure (fulfilled/closed requisitions), and net.
      */
+    @Cacheable(cacheNames = CacheConfig.FINANCE_REPORTS, unless = "#result == null")
     public FinancePerformanceTrendDto getFinancePerformanceTrend(ReportRequestDto request) {
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(12);
         LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
 
-        // Revenue per period from stock-out transactions
-        Map<String, BigDecimal> revenueByPeriod = transactionRepository.findAll().stream()
-                .filter(t -> t.getType() == StockTransaction.TransactionType.OUT)
-                .filter(t -> t.getCreatedAt() != null)
-                .filter(t -> {
-                    LocalDate d = t.getCreatedAt().toLocalDate();
-                    return !d.isBefore(startDate) && !d.isAfter(endDate);
-                })
-                .collect(Collectors.groupingBy(
-                        t -> formatPeriod(t.getCreatedAt().toLocalDate(), request.getAggregationLevel()),
-                        Collectors.reducing(BigDecimal.ZERO,
-                                t -> t.getItem().getUnitPrice().multiply(BigDecimal.valueOf(t.getQuantity())),
-                                BigDecimal::add)
-                ));
-
-        // Expenditure per period from fulfilled/closed requisitions
-        Map<String, BigDecimal> expendByPeriod = requisitionRepository.findAll().stream()
-                .filter(r -> r.getCreatedAt() != null)
-                .filter(r -> r.getStatus() == Requisition.RequisitionStatus.FULFILLED || r.getStatus() == Requisition.RequisitionStatus.CLOSED)
-                .filter(r -> {
-                    LocalDate d = r.getCreatedAt().toLocalDate();
-                    return !d.isBefore(startDate) && !d.isAfter(endDate);
-                })
-                .collect(Collectors.groupingBy(
-                        r -> formatPeriod(r.getCreatedAt().toLocalDate(), request.getAggregationLevel()),
-                        Collectors.reducing(BigDecimal.ZERO,
-                                r -> r.getItems().stream()
-                                        .map(i -> i.getEstimatedUnitCost().multiply(BigDecimal.valueOf(i.getQuantity())))
-                                        .reduce(BigDecimal.ZERO, BigDecimal::add),
-                                BigDecimal::add)
-                ));
+        Map<String, BigDecimal> revenueByPeriod;
+        Map<String, BigDecimal> expendByPeriod;
+        if (reportRollupService.isEnabled()) {
+            RollupGranularity granularity = RollupGranularity.fromAggregationLevel(request.getAggregationLevel());
+            revenueByPeriod = rollUpBuckets(
+                    reportRollupService.stockOutValueByBucket(startDate, endDate, granularity),
+                    request.getAggregationLevel());
+            expendByPeriod = rollUpBuckets(
+                    reportRollupService.requisitionSpendByBucket(startDate, endDate, granularity),
+                    request.getAggregationLevel());
+        } else {
+            // Revenue per period from stock-out transactions
+            revenueByPeriod = rollUpAmounts(
+                    transactionRepository.sumValueByDay(StockTransaction.TransactionType.OUT,
+                            startOfDay(startDate), endOfDayExclusive(endDate)),
+                    request.getAggregationLevel());
+
+            // Expenditure per period from fulfilled/closed requisitions
+            expendByPeriod = rollUpAmounts(
+                    requisitionRepository.sumEstimatedCostByDay(SPENT_REQUISITION_STATUSES,
+                            startOfDay(startDate), endOfDayExclusive(endDate)),
+                    request.getAggregationLevel());
+        }
 
         // Merge periods
         Set<String> periods = new TreeSet<>();
@@ -248,6 +240,7 @@ public class ReportingService {
     /**
      * Generates a complete valuation list of all inventory items.
      */
+    @Cacheable(cacheNames = CacheConfig.INVENTORY_REPORTS, unless = "#result == null")
     public List<InventoryValuationDto> getInventoryValuationReport() {
         return itemRepository.findAll().stream()
                 .map(InventoryValuationDto::new)
@@ -257,6 +250,7 @@ public class ReportingService {
     /**
      * Calculates the total estimated cost of all approved or fulfilled requisitions per project.
      */
+    @Cacheable(cacheNames = CacheConfig.PROJECT_REPORTS, unless = "#result == null")
     public List<ProjectCostDto> getProjectCostReport() {
         return requisitionRepository.findAll().stream()
                 .filter(req -> req.getStatus() == Requisition.RequisitionStatus.APPROVED_BY_FINANCE ||
@@ -277,6 +271,7 @@ public class ReportingService {
     /**
      * Gathers summary data for the support ticket system.
      */
+    @Cacheable(cacheNames = CacheConfig.SUPPORT_REPORTS, unless = "#result == null")
     public SupportTicketSummaryDto getSupportTicketSummary() {
         SupportTicketSummaryDto summary = new SupportTicketSummaryDto();
 
@@ -302,6 +297,7 @@ public class ReportingService {
     /**
      * Project performance analysis by department with filtering.
      */
+    @Cacheable(cacheNames = CacheConfig.PROJECT_REPORTS, unless = "#result == null")
     public List<ProjectPerformanceDto> getProjectPerformance(ReportRequestDto request) {
         List<Project> projects = projectRepository.findAll().stream()
                 .filter(p -> applyProjectFilters(p, request))
@@ -342,6 +338,7 @@ public class ReportingService {
     /**
      * Project delay analysis - identifies overdue projects.
      */
+    @Cacheable(cacheNames = CacheConfig.PROJECT_REPORTS, unless = "#result == null")
     public List<ProjectDelayDto> getProjectDelays(ReportRequestDto request) {
         LocalDate now = LocalDate.now();
         List<Project> delayedProjects = projectRepository.findAll().stream()
@@ -366,6 +363,7 @@ public class ReportingService {
     /**
      * Monthly project completion trend.
      */
+    @Cacheable(cacheNames = CacheConfig.PROJECT_REPORTS, unless = "#result == null")
     public TrendReportDto getProjectCompletionTrend(ReportRequestDto request) {
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(12);
         LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
@@ -407,29 +405,30 @@ public class ReportingService {
     /**
      * Requisitions grouped by status.
      */
+    @Cacheable(cacheNames = CacheConfig.FINANCE_REPORTS, unless = "#result == null")
     public List<RequisitionStatusDto> getRequisitionsByStatus(ReportRequestDto request) {
-        List<Requisition> requisitions = requisitionRepository.findAll().stream()
-                .filter(r -> applyRequisitionFilters(r, request))
-                .toList();
-
-        Map<Requisition.RequisitionStatus, List<Requisition>> grouped = requisitions.stream()
-                .collect(Collectors.groupingBy(Requisition::getStatus));
-
-        trackReportGeneration("REQUISITION_STATUS", "Requisitions by Status", request, requisitions.size());
-
-        return grouped.entrySet().stream()
-                .map(entry -> {
-                    List<Requisition> reqs = entry.getValue();
-                    BigDecimal total = reqs.stream()
-                            .flatMap(r -> r.getItems().stream())
-                            .map(item -> item.getEstimatedUnitCost().multiply(BigDecimal.valueOf(item.getQuantity())))
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Requisition.RequisitionStatus status = parseEnum(Requisition.RequisitionStatus.class, request.getStatus());
+        List<RequisitionStatusRow> rows = request.getStatus() != null && status == null
+                ? List.of()
+                : requisitionRepository.summarizeByStatus(
+                        request.getProjectId(),
+                        status,
+                        startOfDay(request.getStartDate()),
+                        endOfDayExclusive(request.getEndDate()));
+
+        int requisitionCount = rows.stream().mapToInt(row -> row.getCount().intValue()).sum();
+        trackReportGeneration("REQUISITION_STATUS", "Requisitions by Status", request, requisitionCount);
+
+        return rows.stream()
+                .map(row -> {
+                    long count = row.getCount();
+                    BigDecimal total = row.getTotalValue() != null ? row.getTotalValue() : BigDecimal.ZERO;
 
                     return RequisitionStatusDto.builder()
-                            .status(entry.getKey().name())
-                            .count((long) reqs.size())
+                            .status(row.getStatus().name())
+                            .count(count)
                             .totalValue(total)
-                            .averageValue(reqs.isEmpty() ? 0.0 : total.divide(BigDecimal.valueOf(reqs.size()), 2, RoundingMode.HALF_UP).doubleValue())
+                            .averageValue(count == 0 ? 0.0 : total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP).doubleValue())
                             .build();
                 })
                 .toList();
@@ -438,28 +437,18 @@ public class ReportingService {
     /**
      * Monthly expenditure trend analysis.
      */
+    @Cacheable(cacheNames = CacheConfig.FINANCE_REPORTS, unless = "#result == null")
     public TrendReportDto getMonthlyExpenditureTrend(ReportRequestDto request) {
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(12);
         LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
 
-        List<Requisition> requisitions = requisitionRepository.findAll().stream()
-                .filter(r -> r.getCreatedAt() != null)
-                .filter(r -> {
-                    LocalDate reqDate = r.getCreatedAt().toLocalDate();
-                    return !reqDate.isBefore(startDate) && !reqDate.isAfter(endDate);
-                })
-                .filter(r -> r.getStatus() == Requisition.RequisitionStatus.FULFILLED || r.getStatus() == Requisition.RequisitionStatus.CLOSED)
-                .toList();
-
-        Map<String, BigDecimal> groupedData = requisitions.stream()
-                .collect(Collectors.groupingBy(
-                        r -> formatPeriod(r.getCreatedAt().toLocalDate(), request.getAggregationLevel()),
-                        Collectors.reducing(BigDecimal.ZERO,
-                                r -> r.getItems().stream()
-                                        .map(item -> item.getEstimatedUnitCost().multiply(BigDecimal.valueOf(item.getQuantity())))
-                                        .reduce(BigDecimal.ZERO, BigDecimal::add),
-                                BigDecimal::add)
-                ));
+        Map<String, BigDecimal> groupedData = reportRollupService.isEnabled()
+                ? rollUpBuckets(reportRollupService.requisitionSpendByBucket(startDate, endDate,
+                        RollupGranularity.fromAggregationLevel(request.getAggregationLevel())),
+                        request.getAggregationLevel())
+                : rollUpAmounts(requisitionRepository.sumEstimatedCostByDay(SPENT_REQUISITION_STATUSES,
+                        startOfDay(startDate), endOfDayExclusive(endDate)),
+                        request.getAggregationLevel());
 
         List<TrendDataPointDto> dataPoints = groupedData.entrySet().stream()
                 .map(entry -> TrendDataPointDto.builder()
@@ -483,6 +472,7 @@ public class ReportingService {
     /**
      * Budget vs Actual cost analysis per project.
      */
+    @Cacheable(cacheNames = CacheConfig.FINANCE_REPORTS, unless = "#result == null")
     public List<BudgetVsActualDto> getBudgetVsActual(ReportRequestDto request) {
         List<Project> projects = projectRepository.findAll().stream()
                 .filter(p -> applyProjectFilters(p, request))
@@ -490,26 +480,17 @@ public class ReportingService {
 
         trackReportGeneration("BUDGET_VS_ACTUAL", "Budget vs Actual Cost", request, projects.size());
 
+        // One grouped pass over requisition items, keyed by project
+        // Budgeted: all requisition estimates excluding rejected; Actual: fulfilled/closed requisitions only
+        Map<Long, ProjectBudgetRow> costsByProject = requisitionRepository
+                .sumCostByProject(List.of(Requisition.RequisitionStatus.REJECTED), SPENT_REQUISITION_STATUSES).stream()
+                .collect(Collectors.toMap(ProjectBudgetRow::getProjectId, row -> row));
+
         return projects.stream()
                 .map(project -> {
-                    // Get all requisitions for this project
-                    List<Requisition> projectRequisitions = requisitionRepository.findAll().stream()
-                            .filter(r -> r.getProject() != null && r.getProject().getId().equals(project.getId()))
-                            .toList();
-                    
-                    // Budgeted: sum of all approved/pending requisition estimates (excluding rejected)
-                    BigDecimal budgeted = projectRequisitions.stream()
-                            .filter(r -> r.getStatus() != Requisition.RequisitionStatus.REJECTED)
-                            .flatMap(r -> r.getItems().stream())
-                            .map(item -> item.getEstimatedUnitCost().multiply(BigDecimal.valueOf(item.getQuantity())))
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    // Actual: sum of fulfilled/closed requisitions only
-                    BigDecimal actual = projectRequisitions.stream()
-                            .filter(r -> r.getStatus() == Requisition.RequisitionStatus.FULFILLED || r.getStatus() == Requisition.RequisitionStatus.CLOSED)
-                            .flatMap(r -> r.getItems().stream())
-                            .map(item -> item.getEstimatedUnitCost().multiply(BigDecimal.valueOf(item.getQuantity())))
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    ProjectBudgetRow costs = costsByProject.get(project.getId());
+                    BigDecimal budgeted = costs != null && costs.getBudgetedCost() != null ? costs.getBudgetedCost() : BigDecimal.ZERO;
+                    BigDecimal actual = costs != null && costs.getActualCost() != null ? costs.getActualCost() : BigDecimal.ZERO;
 
                     BigDecimal variance = budgeted.subtract(actual);
                     double variancePercent = budgeted.compareTo(BigDecimal.ZERO) == 0 ? 0
@@ -536,45 +517,37 @@ public class ReportingService {
     /**
      * Stock movement analysis over time.
      */
+    @Cacheable(cacheNames = CacheConfig.INVENTORY_REPORTS, unless = "#result == null")
     public List<StockMovementDto> getStockMovementReport(ReportRequestDto request) {
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(1);
         LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
 
-        List<InventoryItem> items = itemRepository.findAll().stream()
-                .filter(item -> request.getCategoryId() == null || item.getCategory().getId().equals(request.getCategoryId()))
-                .toList();
+        List<ItemStockRow> items = itemRepository.findStockLevels(request.getCategoryId());
 
         trackReportGeneration("STOCK_MOVEMENT", "Stock Movement Report", request, items.size());
 
+        // One grouped pass over the transactions in range, keyed by item
+        Map<Long, ItemMovementRow> movementByItem = transactionRepository
+                .sumMovementByItem(StockTransaction.TransactionType.IN, StockTransaction.TransactionType.OUT,
+                        startOfDay(startDate), endOfDayExclusive(endDate), request.getCategoryId()).stream()
+                .collect(Collectors.toMap(ItemMovementRow::getItemId, row -> row));
+
         return items.stream()
                 .map(item -> {
-                    List<StockTransaction> transactions = transactionRepository.findAll().stream()
-                            .filter(t -> t.getItem().getId().equals(item.getId()))
-                            .filter(t -> t.getCreatedAt() != null
-                                    && !t.getCreatedAt().toLocalDate().isBefore(startDate)
-                                    && !t.getCreatedAt().toLocalDate().isAfter(endDate))
-                            .toList();
-
-                    int stockIn = transactions.stream()
-                            .filter(t -> t.getType() == StockTransaction.TransactionType.IN)
-                            .mapToInt(StockTransaction::getQuantity)
-                            .sum();
-
-                    int stockOut = transactions.stream()
-                            .filter(t -> t.getType() == StockTransaction.TransactionType.OUT)
-                            .mapToInt(StockTransaction::getQuantity)
-                            .sum();
+                    ItemMovementRow movement = movementByItem.get(item.getItemId());
+                    int stockIn = movement != null ? movement.getStockIn().intValue() : 0;
+                    int stockOut = movement != null ? movement.getStockOut().intValue() : 0;
+                    int stockInCount = movement != null ? movement.getStockInCount().intValue() : 0;
 
                     return StockMovementDto.builder()
-                            .itemId(item.getId())
-                            .itemName(item.getName())
+                            .itemId(item.getItemId())
+                            .itemName(item.getItemName())
                             .sku(item.getSku())
                             .initialStock(item.getQuantity() - stockIn + stockOut)
                             .stockIn(stockIn)
                             .stockOut(stockOut)
                             .finalStock(item.getQuantity())
-                            .reorderFrequency((int) transactions.stream()
-                                    .filter(t -> t.getType() == StockTransaction.TransactionType.IN).count())
+                            .reorderFrequency(stockInCount)
                             .build();
                 })
                 .toList();
@@ -585,41 +558,34 @@ public class ReportingService {
     /**
      * SLA compliance report by priority.
      */
+    @Cacheable(cacheNames = CacheConfig.SUPPORT_REPORTS, unless = "#result == null")
     public List<SlaComplianceDto> getSlaComplianceReport(ReportRequestDto request) {
-        List<SupportTicket> tickets = ticketRepository.findAll().stream()
-                .filter(t -> applySupportTicketFilters(t, request))
-                .toList();
-
-        Map<SupportTicket.TicketPriority, List<SupportTicket>> grouped = tickets.stream()
-                .collect(Collectors.groupingBy(SupportTicket::getPriority));
-
-        trackReportGeneration("SLA_COMPLIANCE", "SLA Compliance Report", request, tickets.size());
-
-        return grouped.entrySet().stream()
-                .map(entry -> {
-                    List<SupportTicket> priorityTickets = entry.getValue();
-                    long responseMet = priorityTickets.stream().filter(t -> !t.isResponseBreached()).count();
-                    long resolutionMet = priorityTickets.stream().filter(t -> !t.isResolutionBreached()).count();
-
-                    double avgResponseHours = priorityTickets.stream()
-                            .filter(t -> t.getFirstResponseAt() != null)
-                            .mapToDouble(t -> Duration.between(t.getCreatedAt(), t.getFirstResponseAt()).toHours())
-                            .average().orElse(0);
-
-                    double avgResolutionHours = priorityTickets.stream()
-                            .filter(t -> t.getResolvedAt() != null)
-                            .mapToDouble(t -> Duration.between(t.getCreatedAt(), t.getResolvedAt()).toHours())
-                            .average().orElse(0);
+        List<SlaPriorityRow> rows = hasUnknownTicketFilter(request)
+                ? List.of()
+                : ticketRepository.summarizeSlaByPriority(
+                        parseEnum(SupportTicket.TicketStatus.class, request.getStatus()),
+                        parseEnum(SupportTicket.TicketPriority.class, request.getPriority()),
+                        startOfDay(request.getStartDate()),
+                        endOfDayExclusive(request.getEndDate()));
+
+        int ticketCount = rows.stream().mapToInt(row -> row.getTotalTickets().intValue()).sum();
+        trackReportGeneration("SLA_COMPLIANCE", "SLA Compliance Report", request, ticketCount);
+
+        return rows.stream()
+                .map(row -> {
+                    long total = row.getTotalTickets();
+                    long responseMet = row.getResponseMetCount() != null ? row.getResponseMetCount() : 0L;
+                    long resolutionMet = row.getResolutionMetCount() != null ? row.getResolutionMetCount() : 0L;
 
                     return SlaComplianceDto.builder()
-                            .priority(entry.getKey().name())
-                            .totalTickets((long) priorityTickets.size())
+                            .priority(row.getPriority().name())
+                            .totalTickets(total)
                             .responseMetCount(responseMet)
                             .resolutionMetCount(resolutionMet)
-                            .responseCompliancePercentage(priorityTickets.isEmpty() ? 0 : (responseMet * 100.0) / priorityTickets.size())
-                            .resolutionCompliancePercentage(priorityTickets.isEmpty() ? 0 : (resolutionMet * 100.0) / priorityTickets.size())
-                            .averageResponseHours(avgResponseHours)
-                            .averageResolutionHours(avgResolutionHours)
+                            .responseCompliancePercentage(total == 0 ? 0 : (responseMet * 100.0) / total)
+                            .resolutionCompliancePercentage(total == 0 ? 0 : (resolutionMet * 100.0) / total)
+                            .averageResponseHours(row.getAverageResponseHours() != null ? row.getAverageResponseHours() : 0)
+                            .averageResolutionHours(row.getAverageResolutionHours() != null ? row.getAverageResolutionHours() : 0)
                             .build();
                 })
                 .toList();
@@ -628,24 +594,31 @@ public class ReportingService {
     /**
      * Ticket volume trend over time.
      */
+    @Cacheable(cacheNames = CacheConfig.SUPPORT_REPORTS, unless = "#result == null")
     public TrendReportDto getTicketVolumeTrend(ReportRequestDto request) {
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().minusMonths(6);
         LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
 
-        List<SupportTicket> tickets = ticketRepository.findAll().stream()
-                .filter(t -> t.getCreatedAt() != null)
-                .filter(t -> {
-                    LocalDate ticketDate = t.getCreatedAt().toLocalDate();
-                    return !ticketDate.isBefore(startDate) && !ticketDate.isAfter(endDate);
-                })
-                .filter(t -> applySupportTicketFilters(t, request))
-                .toList();
-
-        Map<String, Long> groupedData = tickets.stream()
-                .collect(Collectors.groupingBy(
-                        t -> formatPeriod(t.getCreatedAt().toLocalDate(), request.getAggregationLevel()),
-                        Collectors.counting()
-                ));
+        // An unknown status or priority matches no tickets
+        boolean unknownFilter = hasUnknownTicketFilter(request);
+
+        Map<String, Long> groupedData = new HashMap<>();
+        if (!unknownFilter && reportRollupService.isEnabled() && request.getStatus() == null) {
+            // Rollups are keyed by priority only; status-filtered trends still read the live tickets
+            for (BucketCountRow row : reportRollupService.ticketsCreatedByBucket(startDate, endDate,
+                    RollupGranularity.fromAggregationLevel(request.getAggregationLevel()),
+                    parseEnum(SupportTicket.TicketPriority.class, request.getPriority()))) {
+                groupedData.merge(formatPeriod(row.getBucketStart(), request.getAggregationLevel()), row.getCount(), Long::sum);
+            }
+        } else if (!unknownFilter) {
+            for (DailyCountRow row : ticketRepository.countCreatedByDay(
+                    parseEnum(SupportTicket.TicketStatus.class, request.getStatus()),
+                    parseEnum(SupportTicket.TicketPriority.class, request.getPriority()),
+                    startOfDay(startDate),
+                    endOfDayExclusive(endDate))) {
+                groupedData.merge(formatPeriod(row.getDay(), request.getAggregationLevel()), row.getCount(), Long::sum);
+            }
+        }
 
         List<TrendDataPointDto> dataPoints = groupedData.entrySet().stream()
                 .map(entry -> TrendDataPointDto.builder()
@@ -684,36 +657,51 @@ public class ReportingService {
         return true;
     }
 
-    private boolean applyRequisitionFilters(Requisition req, ReportRequestDto request) {
-        if (request.getProjectId() != null && (req.getProject() == null || !req.getProject().getId().equals(request.getProjectId()))) {
-            return false;
-        }
-        if (request.getStatus() != null && !req.getStatus().name().equals(request.getStatus())) {
-            return false;
-        }
-        if (request.getStartDate() != null && req.getCreatedAt() != null && req.getCreatedAt().toLocalDate().isBefore(request.getStartDate())) {
-            return false;
-        }
-        if (request.getEndDate() != null && req.getCreatedAt() != null && req.getCreatedAt().toLocalDate().isAfter(request.getEndDate())) {
-            return false;
-        }
-        return true;
+    private boolean hasUnknownTicketFilter(ReportRequestDto request) {
+        return (request.getStatus() != null && parseEnum(SupportTicket.TicketStatus.class, request.getStatus()) == null)
+                || (request.getPriority() != null && parseEnum(SupportTicket.TicketPriority.class, request.getPriority()) == null);
     }
 
-    private boolean applySupportTicketFilters(SupportTicket ticket, ReportRequestDto request) {
-        if (request.getStatus() != null && !ticket.getStatus().name().equals(request.getStatus())) {
-            return false;
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name) {
+        if (name == null) {
+            return null;
         }
-        if (request.getPriority() != null && !ticket.getPriority().name().equals(request.getPriority())) {
-            return false;
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        if (request.getStartDate() != null && ticket.getCreatedAt() != null && ticket.getCreatedAt().toLocalDate().isBefore(request.getStartDate())) {
-            return false;
+    }
+
+    private static LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    // Exclusive upper bound so that a whole end date is included in the range
+    private static LocalDateTime endOfDayExclusive(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+
+    // Rolls daily aggregate rows up into the requested reporting period
+    private Map<String, BigDecimal> rollUpAmounts(List<DailyAmountRow> rows, String aggregationLevel) {
+        Map<String, BigDecimal> byPeriod = new HashMap<>();
+        for (DailyAmountRow row : rows) {
+            if (row.getAmount() != null) {
+                byPeriod.merge(formatPeriod(row.getDay(), aggregationLevel), row.getAmount(), BigDecimal::add);
+            }
         }
-        if (request.getEndDate() != null && ticket.getCreatedAt() != null && ticket.getCreatedAt().toLocalDate().isAfter(request.getEndDate())) {
-            return false;
+        return byPeriod;
+    }
+
+    // Rolls rollup bucket rows (whole buckets plus partial-range days) into the requested reporting period
+    private Map<String, BigDecimal> rollUpBuckets(List<BucketAmountRow> rows, String aggregationLevel) {
+        Map<String, BigDecimal> byPeriod = new HashMap<>();
+        for (BucketAmountRow row : rows) {
+            if (row.getAmount() != null) {
+                byPeriod.merge(formatPeriod(row.getBucketStart(), aggregationLevel), row.getAmount(), BigDecimal::add);
+            }
         }
-        return true;
+        return byPeriod;
     }
 
     private String formatPeriod(LocalDate date, String aggregationLevel) {
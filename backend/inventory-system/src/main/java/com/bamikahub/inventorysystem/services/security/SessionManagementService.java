@@ -1,11 +1,13 @@
 package com.bamikahub.inventorysystem.services.security;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.security.UserSessionRepository;
 import com.bamikahub.inventorysystem.models.security.UserSession;
 import com.bamikahub.inventorysystem.models.user.User;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,6 +78,7 @@ public class SessionManagementService {
     /**
      * Terminate a specific session
      */
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "'staff:' + #user.email")
     @Transactional
     public void terminateSession(Long sessionId, User user, String reason) {
         Optional<UserSession> sessionOpt = sessionRepository.findById(sessionId);
@@ -106,6 +109,7 @@ public class SessionManagementService {
     /**
      * Terminate all sessions for a user (e.g., after password change)
      */
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "'staff:' + #user.email")
     @Transactional
     public void terminateAllUserSessions(User user, String reason) {
         sessionRepository.terminateAllUserSessions(user, LocalDateTime.now(), reason);
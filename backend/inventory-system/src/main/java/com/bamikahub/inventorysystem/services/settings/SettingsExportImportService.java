@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.settings;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.settings.SystemSettingsRepository;
 import com.bamikahub.inventorysystem.dao.settings.UserSettingsRepository;
 import com.bamikahub.inventorysystem.dto.settings.SettingsExportDto;
@@ -10,6 +11,8 @@ import com.bamikahub.inventorysystem.models.settings.UserSettings;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +44,12 @@ public class SettingsExportImportService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SystemSettingsHolder settingsHolder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     private static final String EXPORT_VERSION = "1.0";
 
     /**
@@ -56,10 +65,7 @@ public class SettingsExportImportService {
         export.setEnvironment(determineEnvironment());
         
         // Export system settings
-        SystemSettings systemSettings = systemSettingsRepository.findAll().stream().findFirst().orElse(null);
-        if (systemSettings != null) {
-            export.setSystemSettings(convertToSystemSettingsDto(systemSettings));
-        }
+        export.setSystemSettings(settingsHolder.current().toDto());
         
         // Export user settings
         List<UserSettings> allUserSettings = userSettingsRepository.findAll();
@@ -150,7 +156,7 @@ public class SettingsExportImportService {
      * Import system settings
      */
     private void importSystemSettings(SystemSettingsDto dto, boolean overwrite, String currentUser) {
-        SystemSettings existing = systemSettingsRepository.findAll().stream().findFirst().orElse(null);
+        SystemSettings existing = systemSettingsRepository.findFirstByOrderByIdAsc().orElse(null);
         
         if (existing != null && !overwrite) {
             throw new IllegalStateException("System settings already exist. Set overwrite=true to replace.");
@@ -177,7 +183,7 @@ public class SettingsExportImportService {
         settings.setMaintenanceMessage(dto.getMaintenanceMessage());
         settings.setUpdatedBy(currentUser);
         
-        systemSettingsRepository.save(settings);
+        settingsHolder.replaceAfterCommit(systemSettingsRepository.saveAndFlush(settings));
     }
 
     /**
@@ -217,6 +223,8 @@ public class SettingsExportImportService {
             settings.setCompactView(dto.isCompactView());
             
             userSettingsRepository.save(settings);
+            // Deferred until commit by the transaction-aware cache manager
+            userSettingsCache().evict(userId);
         }
     }
 
@@ -249,30 +257,7 @@ public class SettingsExportImportService {
         return "PRODUCTION";
     }
 
-    /**
-     * Convert entity to DTO
-     */
-    private SystemSettingsDto convertToSystemSettingsDto(SystemSettings settings) {
-        SystemSettingsDto dto = new SystemSettingsDto();
-        dto.setId(settings.getId());
-        dto.setCompanyName(settings.getCompanyName());
-        dto.setCompanyLogo(settings.getCompanyLogo());
-        dto.setCompanyEmail(settings.getCompanyEmail());
-        dto.setCompanyPhone(settings.getCompanyPhone());
-        dto.setCompanyAddress(settings.getCompanyAddress());
-        dto.setTimezone(settings.getTimezone());
-        dto.setCurrency(settings.getCurrency());
-        dto.setLanguage(settings.getLanguage());
-        dto.setEmailNotificationsEnabled(settings.isEmailNotificationsEnabled());
-        dto.setSmsNotificationsEnabled(settings.isSmsNotificationsEnabled());
-        dto.setPushNotificationsEnabled(settings.isPushNotificationsEnabled());
-        dto.setSessionTimeoutMinutes(settings.getSessionTimeoutMinutes());
-        dto.setMaxLoginAttempts(settings.getMaxLoginAttempts());
-        dto.setTwoFactorAuthRequired(settings.isTwoFactorAuthRequired());
-        dto.setMaintenanceMode(settings.isMaintenanceMode());
-        dto.setMaintenanceMessage(settings.getMaintenanceMessage());
-        dto.setUpdatedAt(settings.getUpdatedAt());
-        dto.setUpdatedBy(settings.getUpdatedBy());
-        return dto;
+    private Cache userSettingsCache() {
+        return cacheManager.getCache(CacheConfig.USER_SETTINGS);
     }
 }
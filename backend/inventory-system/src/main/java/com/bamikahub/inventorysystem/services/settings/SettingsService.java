@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.settings;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.settings.SystemSettingsRepository;
 import com.bamikahub.inventorysystem.dao.settings.UserSettingsRepository;
 import com.bamikahub.inventorysystem.dto.settings.SystemSettingsDto;
@@ -10,12 +11,12 @@ import com.bamikahub.inventorysystem.models.settings.SystemSettings;
 import com.bamikahub.inventorysystem.models.settings.UserSettings;
 import com.bamikahub.inventorysystem.models.user.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-
 @Service
 @Transactional
 public class SettingsService {
@@ -35,17 +36,22 @@ public class SettingsService {
     @Autowired
     private SettingsExportImportService exportImportService;
 
+    @Autowired
+    private SystemSettingsHolder settingsHolder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     // System Settings Methods
 
     public SystemSettingsDto getSystemSettings() {
-        SystemSettings settings = systemSettingsRepository.findAll().stream().findFirst()
-                .orElseGet(() -> createDefaultSystemSettings());
-        return convertToSystemSettingsDto(settings);
+        return settingsHolder.current().toDto();
     }
 
     public SystemSettingsDto updateSystemSettings(SystemSettingsUpdateRequest request) {
-        SystemSettings settings = systemSettingsRepository.findAll().stream().findFirst()
-                .orElseGet(() -> createDefaultSystemSettings());
+        // The holder creates the row if it did not exist yet
+        SystemSettings settings = systemSettingsRepository.findById(settingsHolder.current().id())
+                .orElseThrow(() -> new IllegalStateException("System settings row is missing"));
 
         // Capture old values for audit
         SystemSettings oldSettings = new SystemSettings();
@@ -74,7 +80,9 @@ public class SettingsService {
         String currentUser = SecurityContextHolder.getContext().getAuthentication().getName();
         settings.setUpdatedBy(currentUser);
 
-        SystemSettings saved = systemSettingsRepository.save(settings);
+        // Flushed so the snapshot carries the new update timestamp
+        SystemSettings saved = systemSettingsRepository.saveAndFlush(settings);
+        settingsHolder.replaceAfterCommit(saved);
 
         // Log audit trail for significant changes
         if (!oldSettings.getCompanyName().equals(saved.getCompanyName())) {
@@ -90,35 +98,19 @@ public class SettingsService {
                 oldSettings.getMaxLoginAttempts(), saved.getMaxLoginAttempts(), currentUser, "System settings update");
         }
 
-        return convertToSystemSettingsDto(saved);
-    }
-
-    private SystemSettings createDefaultSystemSettings() {
-        SystemSettings settings = new SystemSettings();
-        settings.setCompanyName("Bamika Inventory System");
-        settings.setTimezone("UTC");
-        settings.setCurrency("USD");
-        settings.setLanguage("en");
-        settings.setEmailNotificationsEnabled(true);
-        settings.setSmsNotificationsEnabled(false);
-        settings.setPushNotificationsEnabled(true);
-        settings.setSessionTimeoutMinutes(30);
-        settings.setMaxLoginAttempts(5);
-        settings.setTwoFactorAuthRequired(false);
-        settings.setMaintenanceMode(false);
-        return systemSettingsRepository.save(settings);
+        return SystemSettingsSnapshot.of(saved, 0).toDto();
     }
 
     // User Settings Methods
 
     public UserSettingsDto getUserSettings(Long userId) {
-        User user = new User();
-        user.setId(userId);
-
-        UserSettings settings = userSettingsRepository.findByUser(user)
-                .orElseGet(() -> createDefaultUserSettings(user));
-
-        return convertToUserSettingsDto(settings);
+        return userSettingsCache().get(userId, () -> {
+            User user = new User();
+            user.setId(userId);
+            UserSettings settings = userSettingsRepository.findByUserId(userId)
+                    .orElseGet(() -> createDefaultUserSettings(user));
+            return convertToUserSettingsDto(settings);
+        });
     }
 
     public UserSettingsDto updateUserSettings(Long userId, UserSettingsUpdateRequest request) {
@@ -144,7 +136,10 @@ public class SettingsService {
         settings.setCompactView(request.isCompactView());
 
         UserSettings saved = userSettingsRepository.save(settings);
-        return convertToUserSettingsDto(saved);
+        UserSettingsDto dto = convertToUserSettingsDto(saved);
+        // Deferred until commit by the transaction-aware cache manager
+        userSettingsCache().put(userId, dto);
+        return dto;
     }
 
     private UserSettings createDefaultUserSettings(User user) {
@@ -166,32 +161,13 @@ public class SettingsService {
         return userSettingsRepository.save(settings);
     }
 
-    // Conversion Methods
-
-    private SystemSettingsDto convertToSystemSettingsDto(SystemSettings settings) {
-        SystemSettingsDto dto = new SystemSettingsDto();
-        dto.setId(settings.getId());
-        dto.setCompanyName(settings.getCompanyName());
-        dto.setCompanyLogo(settings.getCompanyLogo());
-        dto.setCompanyEmail(settings.getCompanyEmail());
-        dto.setCompanyPhone(settings.getCompanyPhone());
-        dto.setCompanyAddress(settings.getCompanyAddress());
-        dto.setTimezone(settings.getTimezone());
-        dto.setCurrency(settings.getCurrency());
-        dto.setLanguage(settings.getLanguage());
-        dto.setEmailNotificationsEnabled(settings.isEmailNotificationsEnabled());
-        dto.setSmsNotificationsEnabled(settings.isSmsNotificationsEnabled());
-        dto.setPushNotificationsEnabled(settings.isPushNotificationsEnabled());
-        dto.setSessionTimeoutMinutes(settings.getSessionTimeoutMinutes());
-        dto.setMaxLoginAttempts(settings.getMaxLoginAttempts());
-        dto.setTwoFactorAuthRequired(settings.isTwoFactorAuthRequired());
-        dto.setMaintenanceMode(settings.isMaintenanceMode());
-        dto.setMaintenanceMessage(settings.getMaintenanceMessage());
-        dto.setUpdatedAt(settings.getUpdatedAt());
-        dto.setUpdatedBy(settings.getUpdatedBy());
-        return dto;
+    // Bounded per-user cache of settings DTOs, see app.cache.userSettings.*
+    private Cache userSettingsCache() {
+        return cacheManager.getCache(CacheConfig.USER_SETTINGS);
     }
 
+    // Conversion Methods
+
     private UserSettingsDto convertToUserSettingsDto(UserSettings settings) {
         UserSettingsDto dto = new UserSettingsDto();
         dto.setUserId(settings.getUser().getId());
@@ -0,0 +1,8 @@
+package com.bamikahub.inventorysystem.services.settings;
+
+/**
+ * Published once new system settings are in effect, after the change committed (or, for a change made on another
+ * node, once this node picked it up). Listeners run on the thread that swapped the snapshot.
+ */
+public record SystemSettingsChangedEvent(SystemSettingsSnapshot previous, SystemSettingsSnapshot current) {
+}
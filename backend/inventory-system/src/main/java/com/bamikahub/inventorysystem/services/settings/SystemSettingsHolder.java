@@ -0,0 +1,132 @@
+package com.bamikahub.inventorysystem.services.settings;
+
+import com.bamikahub.inventorysystem.dao.settings.SystemSettingsRepository;
+import com.bamikahub.inventorysystem.models.settings.SystemSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * In-memory system settings. The single settings row is loaded once at startup into an immutable
+ * {@link SystemSettingsSnapshot}; reads never touch the database. Writes hand the saved row over with
+ * {@link #replaceAfterCommit}, which swaps the snapshot once the transaction commits and publishes a
+ * {@link SystemSettingsChangedEvent}. Every settings.system.refresh-ms the row is re-read so changes made on other
+ * nodes are picked up too.
+ */
+@Slf4j
+@Service
+public class SystemSettingsHolder {
+
+    private final SystemSettingsRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile SystemSettingsSnapshot current;
+
+    public SystemSettingsHolder(SystemSettingsRepository repository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The settings in effect. Loads them on first use if this runs before startup finished.
+     */
+    public SystemSettingsSnapshot current() {
+        SystemSettingsSnapshot snapshot = current;
+        return snapshot != null ? snapshot : load();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    /**
+     * Puts the saved settings into effect once the current transaction commits.
+     */
+    public void replaceAfterCommit(SystemSettings saved) {
+        SystemSettingsSnapshot snapshot = SystemSettingsSnapshot.of(saved, 0);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(snapshot);
+                }
+            });
+        } else {
+            replace(snapshot);
+        }
+    }
+
+    /**
+     * Picks up changes written by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${settings.system.refresh-ms:60000}")
+    public void refresh() {
+        if (current == null) {
+            return;
+        }
+        repository.findFirstByOrderByIdAsc().ifPresent(row -> {
+            if (!sameTime(row.getUpdatedAt(), current.updatedAt())) {
+                replace(SystemSettingsSnapshot.of(row, 0));
+            }
+        });
+    }
+
+    private synchronized SystemSettingsSnapshot load() {
+        if (current == null) {
+            SystemSettings row = transactionTemplate.execute(status -> repository.findFirstByOrderByIdAsc()
+                    .orElseGet(() -> repository.saveAndFlush(defaultSettings())));
+            current = SystemSettingsSnapshot.of(row, 1);
+        }
+        return current;
+    }
+
+    private void replace(SystemSettingsSnapshot loaded) {
+        SystemSettingsSnapshot previous;
+        SystemSettingsSnapshot next;
+        synchronized (this) {
+            previous = current != null ? current : load();
+            next = loaded.withVersion(previous.version() + 1);
+            current = next;
+        }
+        log.info("System settings updated to version {} by {}", next.version(), next.updatedBy());
+        eventPublisher.publishEvent(new SystemSettingsChangedEvent(previous, next));
+    }
+
+    // The database may round the sub-second part of what this node wrote
+    private static boolean sameTime(LocalDateTime a, LocalDateTime b) {
+        return a == null || b == null
+                ? a == b
+                : a.truncatedTo(ChronoUnit.MILLIS).equals(b.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    private static SystemSettings defaultSettings() {
+        SystemSettings settings = new SystemSettings();
+        settings.setCompanyName("Bamika Inventory System");
+        settings.setTimezone("UTC");
+        settings.setCurrency("USD");
+        settings.setLanguage("en");
+        settings.setEmailNotificationsEnabled(true);
+        settings.setSmsNotificationsEnabled(false);
+        settings.setPushNotificationsEnabled(true);
+        settings.setSessionTimeoutMinutes(30);
+        settings.setMaxLoginAttempts(5);
+        settings.setTwoFactorAuthRequired(false);
+        settings.setMaintenanceMode(false);
+        return settings;
+    }
+}
@@ -0,0 +1,87 @@
+package com.bamikahub.inventorysystem.services.settings;
+
+import com.bamikahub.inventorysystem.dto.settings.SystemSettingsDto;
+import com.bamikahub.inventorysystem.models.settings.SystemSettings;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the system settings row. The version counts the snapshots this node has loaded.
+ */
+public record SystemSettingsSnapshot(
+        long version,
+        Long id,
+        String companyName,
+        String companyLogo,
+        String companyEmail,
+        String companyPhone,
+        String companyAddress,
+        String timezone,
+        String currency,
+        String language,
+        boolean emailNotificationsEnabled,
+        boolean smsNotificationsEnabled,
+        boolean pushNotificationsEnabled,
+        int sessionTimeoutMinutes,
+        int maxLoginAttempts,
+        boolean twoFactorAuthRequired,
+        boolean maintenanceMode,
+        String maintenanceMessage,
+        LocalDateTime updatedAt,
+        String updatedBy) {
+
+    public static SystemSettingsSnapshot of(SystemSettings settings, long version) {
+        return new SystemSettingsSnapshot(
+                version,
+                settings.getId(),
+                settings.getCompanyName(),
+                settings.getCompanyLogo(),
+                settings.getCompanyEmail(),
+                settings.getCompanyPhone(),
+                settings.getCompanyAddress(),
+                settings.getTimezone(),
+                settings.getCurrency(),
+                settings.getLanguage(),
+                settings.isEmailNotificationsEnabled(),
+                settings.isSmsNotificationsEnabled(),
+                settings.isPushNotificationsEnabled(),
+                settings.getSessionTimeoutMinutes(),
+                settings.getMaxLoginAttempts(),
+                settings.isTwoFactorAuthRequired(),
+                settings.isMaintenanceMode(),
+                settings.getMaintenanceMessage(),
+                settings.getUpdatedAt(),
+                settings.getUpdatedBy());
+    }
+
+    public SystemSettingsSnapshot withVersion(long newVersion) {
+        return new SystemSettingsSnapshot(newVersion, id, companyName, companyLogo, companyEmail, companyPhone,
+                companyAddress, timezone, currency, language, emailNotificationsEnabled, smsNotificationsEnabled,
+                pushNotificationsEnabled, sessionTimeoutMinutes, maxLoginAttempts, twoFactorAuthRequired,
+                maintenanceMode, maintenanceMessage, updatedAt, updatedBy);
+    }
+
+    public SystemSettingsDto toDto() {
+        SystemSettingsDto dto = new SystemSettingsDto();
+        dto.setId(id);
+        dto.setCompanyName(companyName);
+        dto.setCompanyLogo(companyLogo);
+        dto.setCompanyEmail(companyEmail);
+        dto.setCompanyPhone(companyPhone);
+        dto.setCompanyAddress(companyAddress);
+        dto.setTimezone(timezone);
+        dto.setCurrency(currency);
+        dto.setLanguage(language);
+        dto.setEmailNotificationsEnabled(emailNotificationsEnabled);
+        dto.setSmsNotificationsEnabled(smsNotificationsEnabled);
+        dto.setPushNotificationsEnabled(pushNotificationsEnabled);
+        dto.setSessionTimeoutMinutes(sessionTimeoutMinutes);
+        dto.setMaxLoginAttempts(maxLoginAttempts);
+        dto.setTwoFactorAuthRequired(twoFactorAuthRequired);
+        dto.setMaintenanceMode(maintenanceMode);
+        dto.setMaintenanceMessage(maintenanceMessage);
+        dto.setUpdatedAt(updatedAt);
+        dto.setUpdatedBy(updatedBy);
+        return dto;
+    }
+}
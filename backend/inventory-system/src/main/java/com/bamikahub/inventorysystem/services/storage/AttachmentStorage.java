@@ -0,0 +1,272 @@
+package com.bamikahub.inventorysystem.services.storage;
+
+import com.bamikahub.inventorysystem.dao.storage.StoredBlobRepository;
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Content-addressed storage for uploaded attachments, shared by chat, assignments, support tickets and
+ * project galleries.
+ * <p>
+ * An upload is first staged: streamed to a temp file while its SHA-256 is computed, then forced to disk.
+ * This needs no database connection, so callers stage before opening their transaction. Committing the
+ * staged upload takes a reference on the blob for that hash and moves the temp file into place with an
+ * atomic rename, or drops it when the content is already stored. The caller's metadata therefore only
+ * commits once the bytes are durable. Blobs whose last reference is released are deleted by a sweep after
+ * a grace period.
+ */
+@Slf4j
+@Service
+public class AttachmentStorage {
+
+    // Blobs live under file.upload-dir, which WebConfig serves at /uploads/**
+    public static final String PUBLIC_PREFIX = "/uploads/blobs/";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    /**
+     * An upload streamed to a temp file and hashed, not yet referenced by anything.
+     */
+    public record StagedUpload(Path tempFile, String sha256, long size, String originalFilename, String contentType) {
+
+        /**
+         * Deletes the temp file if commit did not consume it; safe to call in a finally block.
+         */
+        public void discard() {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("Failed to delete staged upload {}", tempFile, e);
+            }
+        }
+    }
+
+    private final StoredBlobRepository blobRepository;
+    private final TransactionTemplate requiresNew;
+    private final Path root;
+    private final Path tempDir;
+    private final Path uploadRoot;
+    private final Duration sweepGrace;
+
+    public AttachmentStorage(StoredBlobRepository blobRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${file.upload-dir}") String uploadDir,
+                             @Value("${file.upload-dir.blobs}") String blobDir,
+                             @Value("${file.blobs.sweep-grace-ms:86400000}") long sweepGraceMs) {
+        this.blobRepository = blobRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Paths.get(blobDir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.sweepGrace = Duration.ofMillis(sweepGraceMs);
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not initialize blob storage", e);
+        }
+    }
+
+    /**
+     * Streams the upload to a temp file with a running SHA-256 and forces it to disk.
+     */
+    public StagedUpload stage(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Attachment file cannot be empty.");
+        }
+        MessageDigest digest = newDigest();
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        long size = 0;
+        try (InputStream in = file.getInputStream();
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+                size += read;
+            }
+            out.force(true);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new IllegalStateException("Failed to store upload", e);
+        }
+        return new StagedUpload(temp, HexFormat.of().formatHex(digest.digest()), size,
+                file.getOriginalFilename(), file.getContentType());
+    }
+
+    /**
+     * Takes a reference on the staged content and moves its bytes into place if this is the first copy.
+     * The reference is taken in its own short transaction; inside a caller transaction that later rolls
+     * back, it is released again.
+     */
+    public StoredBlob commit(StagedUpload staged) {
+        StoredBlob blob;
+        try {
+            blob = requiresNew.execute(status -> acquireAndPlace(staged));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same content inserted the row first; take a reference on it instead
+            blob = requiresNew.execute(status -> acquireAndPlace(staged));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String sha256 = blob.getSha256();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        requiresNew.executeWithoutResult(s -> blobRepository.release(sha256, LocalDateTime.now()));
+                    }
+                }
+            });
+        }
+        return blob;
+    }
+
+    /**
+     * Drops one reference; the file goes once the blob has been unreferenced for the sweep grace period.
+     */
+    @Transactional
+    public void release(String sha256) {
+        if (sha256 != null) {
+            blobRepository.release(sha256, LocalDateTime.now());
+        }
+    }
+
+    public Path resolve(StoredBlob blob) {
+        return root.resolve(blob.getStorageKey());
+    }
+
+    public String publicUrl(StoredBlob blob) {
+        return PUBLIC_PREFIX + blob.getStorageKey();
+    }
+
+    @Scheduled(fixedDelayString = "${file.blobs.sweep-interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sweepGrace);
+        List<String> released = blobRepository.findReleasedBefore(cutoff, PageRequest.of(0, SWEEP_BATCH_SIZE));
+        for (String sha256 : released) {
+            try {
+                requiresNew.executeWithoutResult(status -> sweepOne(sha256));
+            } catch (RuntimeException e) {
+                log.warn("Failed to sweep blob {}", sha256, e);
+            }
+        }
+    }
+
+    // Runs with the blob row locked, so the file and the row are never re-acquired half deleted
+    private void sweepOne(String sha256) {
+        blobRepository.findForUpdate(sha256)
+                .filter(blob -> blob.getRefCount() == 0)
+                .ifPresent(blob -> {
+                    try {
+                        Files.deleteIfExists(resolve(blob));
+                        deleteVariants(resolve(blob));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    blobRepository.delete(blob);
+                });
+    }
+
+    // Image variants of a blob are derived from its content and go with it
+    private void deleteVariants(Path file) throws IOException {
+        if (!file.startsWith(uploadRoot)) {
+            return;
+        }
+        String relative = uploadRoot.relativize(file).toString().replace('\\', '/');
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.deleteIfExists(uploadRoot.resolve(variant.pathFor(relative)));
+        }
+    }
+
+    private StoredBlob acquireAndPlace(StagedUpload staged) {
+        if (blobRepository.acquire(staged.sha256()) == 0) {
+            blobRepository.insertFirstReference(staged.sha256(), staged.size(), storageKey(staged), LocalDateTime.now());
+        }
+        StoredBlob blob = blobRepository.findById(staged.sha256())
+                .orElseThrow(() -> new IllegalStateException("Blob " + staged.sha256() + " vanished"));
+        // The row is locked by the update or insert above, so a sweep cannot delete the file meanwhile
+        place(staged, resolve(blob));
+        return blob;
+    }
+
+    private void place(StagedUpload staged, Path target) {
+        try {
+            if (Files.exists(target)) {
+                Files.deleteIfExists(staged.tempFile());
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(staged.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staged.tempFile(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store upload", e);
+        }
+    }
+
+    // Sharded by the first two hex digits; the extension of the first upload is kept for static serving
+    private static String storageKey(StagedUpload staged) {
+        String extension = StringUtils.getFilenameExtension(staged.originalFilename());
+        String suffix = extension != null && extension.matches("[A-Za-z0-9]{1,10}")
+                ? "." + extension.toLowerCase(Locale.ROOT)
+                : "";
+        return staged.sha256().substring(0, 2) + "/" + staged.sha256() + suffix;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+}
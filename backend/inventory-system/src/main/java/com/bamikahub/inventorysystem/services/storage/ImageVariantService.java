@@ -0,0 +1,303 @@
+package com.bamikahub.inventorysystem.services.storage;
+
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Generates the {@link ImageVariant}s of uploaded images with ImageIO on a bounded pool. Uploads schedule their
+ * variants once the transaction commits; a variant that is still missing when it is requested is generated on
+ * demand, and the original is served if that does not finish within app.images.lazy-timeout-ms.
+ * <p>
+ * Large originals are subsampled while decoding and then halved with bilinear filtering down to the target,
+ * which keeps memory bounded and quality close to a full-resolution resize.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final Path uploadRoot;
+    private final long lazyTimeoutMs;
+    private final ThreadPoolTaskExecutor executor;
+    // One generation per variant file at a time; later requests wait for the running one
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(@Value("${file.upload-dir}") String uploadDir,
+                               @Value("${app.images.variant-threads:2}") int threads,
+                               @Value("${app.images.variant-queue:200}") int queueCapacity,
+                               @Value("${app.images.lazy-timeout-ms:3000}") long lazyTimeoutMs) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.lazyTimeoutMs = lazyTimeoutMs;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variants-");
+        // A full queue drops the request; the variant is then generated when it is first asked for
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+    }
+
+    /**
+     * Schedules the variants of an uploaded image once the current transaction commits.
+     */
+    public void generateAfterCommit(String imageUrl) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generate(imageUrl);
+                }
+            });
+        } else {
+            generate(imageUrl);
+        }
+    }
+
+    /**
+     * Schedules the variants of an uploaded image without waiting for them.
+     */
+    public void generate(String imageUrl) {
+        Optional<String> relative = sourcePath(imageUrl);
+        if (relative.isEmpty()) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            schedule(variant, relative.get());
+        }
+    }
+
+    /**
+     * The file to serve for a path below variants/: the variant, generated now if missing, or the original
+     * when it cannot be generated in time. Returns the requested path when there is nothing to serve.
+     */
+    public Path resolve(String relative) {
+        Path target = uploadRoot.resolve(relative).normalize();
+        if (Files.isRegularFile(target) || !relative.startsWith(ImageVariant.VARIANTS_DIR)) {
+            return target;
+        }
+        String rest = relative.substring(ImageVariant.VARIANTS_DIR.length());
+        int slash = rest.indexOf('/');
+        Optional<ImageVariant> variant = slash > 0 ? ImageVariant.fromKey(rest.substring(0, slash)) : Optional.empty();
+        String sourceRelative = slash > 0 ? rest.substring(slash + 1) : "";
+        if (variant.isEmpty() || !ImageVariant.isSource(sourceRelative)) {
+            return target;
+        }
+        Path source = uploadRoot.resolve(sourceRelative).normalize();
+        if (!source.startsWith(uploadRoot) || !Files.isRegularFile(source)) {
+            return target;
+        }
+        try {
+            if (schedule(variant.get(), sourceRelative).get(lazyTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return target;
+            }
+        } catch (TimeoutException e) {
+            log.debug("Variant {} not ready in time, serving the original", relative);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Failed to generate variant {}", relative, e.getCause());
+        }
+        return source;
+    }
+
+    /**
+     * Deletes the variants of an image whose original was removed.
+     */
+    public void deleteVariants(String imageUrl) {
+        sourcePath(imageUrl).ifPresent(this::deleteVariantsOf);
+    }
+
+    private void deleteVariantsOf(String relative) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                Files.deleteIfExists(uploadRoot.resolve(variant.pathFor(relative)));
+            } catch (IOException e) {
+                log.warn("Failed to delete variant {} of {}", variant.key(), relative, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Optional<String> sourcePath(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(ImageVariant.UPLOADS_PREFIX)) {
+            return Optional.empty();
+        }
+        String relative = imageUrl.substring(ImageVariant.UPLOADS_PREFIX.length());
+        if (!ImageVariant.isSource(relative) || !uploadRoot.resolve(relative).normalize().startsWith(uploadRoot)) {
+            return Optional.empty();
+        }
+        return Optional.of(relative);
+    }
+
+    private CompletableFuture<Boolean> schedule(ImageVariant variant, String sourceRelative) {
+        String key = variant.pathFor(sourceRelative);
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(writeVariant(variant, uploadRoot.resolve(sourceRelative), uploadRoot.resolve(key)));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue is full, skipping {}", key);
+            inFlight.remove(key, created);
+            created.complete(false);
+        }
+        return created;
+    }
+
+    /**
+     * Writes the variant next to the others through a temp file, so readers never see a partial image.
+     * Returns false when the original is missing or not an image ImageIO can read and write.
+     */
+    boolean writeVariant(ImageVariant variant, Path source, Path target) throws IOException {
+        if (Files.isRegularFile(target)) {
+            return true;
+        }
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            if (!render(variant, source, temp)) {
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean render(ImageVariant variant, Path source, Path output) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int longest = Math.max(width, height);
+                if (longest <= variant.maxSize()) {
+                    // Already small enough; the original is the variant
+                    Files.copy(source, output, StandardCopyOption.REPLACE_EXISTING);
+                    return true;
+                }
+
+                // Decode at no less than twice the target size, so the final halving steps still filter
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (variant.maxSize() * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                double scale = (double) variant.maxSize() / longest;
+                int targetWidth = Math.max(1, (int) Math.round(width * scale));
+                int targetHeight = Math.max(1, (int) Math.round(height * scale));
+                boolean opaque = format.equals("jpeg") || !decoded.getColorModel().hasAlpha();
+                BufferedImage scaled = downscale(decoded, targetWidth, targetHeight, opaque);
+                return write(scaled, format, output);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage downscale(BufferedImage image, int targetWidth, int targetHeight, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static boolean write(BufferedImage image, String format, Path output) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            return false;
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(output.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+            return true;
+        } finally {
+            writer.dispose();
+        }
+    }
+}
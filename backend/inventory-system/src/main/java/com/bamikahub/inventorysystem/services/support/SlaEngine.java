@@ -0,0 +1,178 @@
+package com.bamikahub.inventorysystem.services.support;
+
+import com.bamikahub.inventorysystem.dao.support.SlaDueRow;
+import com.bamikahub.inventorysystem.dao.support.SlaTicketRow;
+import com.bamikahub.inventorysystem.dao.support.SupportTicketRepository;
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Flags response SLA breaches and escalates tickets past their resolution target.
+ * <p>
+ * Every app.support.sla.refresh-ms the engine reads, through the (status, due time) indexes, the ids and due times of
+ * the open tickets that fall due within app.support.sla.window-ms, and keeps them in a queue ordered by due time.
+ * A short tick fires the events that are due, each in its own transaction, with conditional updates that skip
+ * tickets answered, resolved or escalated meanwhile. Ticket entities (and their comments and attachments) are
+ * never loaded; notifications and rollups work from {@link SlaTicketRow}.
+ */
+@Slf4j
+@Service
+public class SlaEngine {
+
+    private static final List<SupportTicket.TicketStatus> ACTIVE_STATUSES =
+            List.of(SupportTicket.TicketStatus.OPEN, SupportTicket.TicketStatus.IN_PROGRESS);
+
+    private enum Kind { RESPONSE_BREACH, ESCALATION }
+
+    private record DueEvent(LocalDateTime dueAt, Long ticketId, Kind kind) {
+    }
+
+    private final SupportTicketRepository ticketRepository;
+    private final SlaService slaService;
+    private final TicketNotificationService notificationService;
+    private final ReportRollupService reportRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<DueEvent> queue = new PriorityQueue<>(Comparator.comparing(DueEvent::dueAt));
+    // Set when a refresh hit the batch size, so the next one runs as soon as the queue drains
+    private boolean backlog;
+
+    public SlaEngine(SupportTicketRepository ticketRepository,
+                     SlaService slaService,
+                     TicketNotificationService notificationService,
+                     ReportRollupService reportRollupService,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${app.support.sla.window-ms:600000}") long windowMs,
+                     @Value("${app.support.sla.batch-size:500}") int batchSize) {
+        this.ticketRepository = ticketRepository;
+        this.slaService = slaService;
+        this.notificationService = notificationService;
+        this.reportRollupService = reportRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = Duration.ofMillis(windowMs);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reloads the queue with the events due before now + window. The window must be longer than the refresh
+     * interval, so every due time is queued before it is reached.
+     */
+    @Scheduled(fixedDelayString = "${app.support.sla.refresh-ms:300000}")
+    public void refresh() {
+        LocalDateTime horizon = LocalDateTime.now().plus(window);
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<DueEvent> events = new ArrayList<>();
+
+        List<SlaDueRow> responses = ticketRepository.findResponseDue(ACTIVE_STATUSES, horizon, page);
+        for (SlaDueRow row : responses) {
+            events.add(new DueEvent(row.getResponseDueAt(), row.getTicketId(), Kind.RESPONSE_BREACH));
+        }
+        List<SlaDueRow> escalations = ticketRepository.findEscalationDue(
+                ACTIVE_STATUSES, horizon, horizon.minus(SlaService.ESCALATION_INTERVAL), page);
+        for (SlaDueRow row : escalations) {
+            events.add(new DueEvent(escalationDueAt(row), row.getTicketId(), Kind.ESCALATION));
+        }
+
+        synchronized (lock) {
+            queue.clear();
+            queue.addAll(events);
+            backlog = responses.size() == batchSize || escalations.size() == batchSize;
+        }
+    }
+
+    /**
+     * Fires the queued events that are due.
+     */
+    @Scheduled(fixedDelayString = "${app.support.sla.tick-ms:10000}")
+    public void fireDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<DueEvent> due = new ArrayList<>();
+        boolean refreshNow;
+        synchronized (lock) {
+            while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+                due.add(queue.poll());
+            }
+            refreshNow = backlog && queue.isEmpty();
+        }
+
+        int fired = 0;
+        for (DueEvent event : due) {
+            try {
+                if (fire(event, now)) {
+                    fired++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to process {} for ticket #{}", event.kind(), event.ticketId(), e);
+            }
+        }
+        if (fired > 0) {
+            log.info("SLA engine processed {} due events", fired);
+        }
+        if (refreshNow) {
+            refresh();
+        }
+    }
+
+    private boolean fire(DueEvent event, LocalDateTime now) {
+        Boolean fired = transactionTemplate.execute(status -> event.kind() == Kind.RESPONSE_BREACH
+                ? flagResponseBreach(event.ticketId(), now)
+                : escalate(event.ticketId(), now));
+        return Boolean.TRUE.equals(fired);
+    }
+
+    private boolean flagResponseBreach(Long ticketId, LocalDateTime now) {
+        if (ticketRepository.markResponseBreached(ticketId, ACTIVE_STATUSES, now) == 0) {
+            return false;
+        }
+        log.warn("Response SLA breached for ticket #{}", ticketId);
+        ticketRepository.findSlaTicket(ticketId).ifPresent(notificationService::notifySlaBreached);
+        return true;
+    }
+
+    private boolean escalate(Long ticketId, LocalDateTime now) {
+        SlaTicketRow before = ticketRepository.findSlaTicket(ticketId).orElse(null);
+        if (before == null) {
+            return false;
+        }
+        SupportTicket.TicketPriority previousPriority = before.getPriority();
+        int updated = ticketRepository.escalate(ticketId, ACTIVE_STATUSES, previousPriority,
+                slaService.escalatedPriority(previousPriority), now, now.minus(SlaService.ESCALATION_INTERVAL));
+        if (updated == 0) {
+            return false;
+        }
+        log.warn("Escalating ticket #{}: {}", ticketId, before.getSubject());
+        SlaTicketRow after = ticketRepository.findSlaTicket(ticketId).orElseThrow();
+        reportRollupService.recordTicketPriorityChange(after, previousPriority);
+        // The first escalation is also the resolution breach
+        if (!Boolean.TRUE.equals(before.getResolutionBreached())) {
+            notificationService.notifySlaBreached(after);
+        }
+        notificationService.notifyEscalation(after);
+        return true;
+    }
+
+    private static LocalDateTime escalationDueAt(SlaDueRow row) {
+        if (row.getLastEscalationAt() == null) {
+            return row.getResolutionDueAt();
+        }
+        LocalDateTime repeatAt = row.getLastEscalationAt().plus(SlaService.ESCALATION_INTERVAL);
+        return repeatAt.isAfter(row.getResolutionDueAt()) ? repeatAt : row.getResolutionDueAt();
+    }
+}
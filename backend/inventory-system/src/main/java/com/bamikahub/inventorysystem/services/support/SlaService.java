@@ -1,8 +1,12 @@
 package com.bamikahub.inventorysystem.services.support;
 
+import com.bamikahub.inventorysystem.dao.support.SlaTicketRow;
+import com.bamikahub.inventorysystem.dao.support.SupportTicketRepository;
+import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.models.support.SupportTicket;
 import com.bamikahub.inventorysystem.models.support.TicketActivity;
 import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +19,11 @@ import java.util.Map;
 @Service
 public class SlaService {
 
+    /**
+     * An unresolved ticket past its resolution target is escalated again after this long.
+     */
+    public static final Duration ESCALATION_INTERVAL = Duration.ofHours(4);
+
     private final Map<SupportTicket.TicketPriority, Duration> responseTargets;
     private final Map<SupportTicket.TicketPriority, Duration> resolutionTargets;
 
@@ -36,6 +45,15 @@ public class SlaService {
     @Autowired
     private com.bamikahub.inventorysystem.dao.support.TicketActivityRepository activityRepository;
 
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     public void applyInitialSla(SupportTicket ticket) {
         LocalDateTime now = LocalDateTime.now();
         ticket.setResponseDueAt(now.plus(responseTargets.get(ticket.getPriority())));
@@ -65,6 +83,7 @@ public class SlaService {
         if (ticket.getResponseDueAt() != null && activity.getCreatedAt().isAfter(ticket.getResponseDueAt())) {
             ticket.setResponseBreached(true);
         }
+        reportRollupService.recordTicketFirstResponse(ticket);
     }
 
     public void handleResolution(SupportTicket ticket) {
@@ -74,40 +93,48 @@ public class SlaService {
         }
     }
 
-    public boolean shouldEscalate(SupportTicket ticket) {
-        if (ticket.getResolutionDueAt() == null) {
-            return false;
-        }
-        LocalDateTime now = LocalDateTime.now();
-        return now.isAfter(ticket.getResolutionDueAt())
-                && (ticket.getLastEscalationAt() == null || Duration.between(ticket.getLastEscalationAt(), now).toHours() >= 4);
+    /**
+     * The priority an escalation raises a ticket to; URGENT tickets stay URGENT.
+     */
+    public SupportTicket.TicketPriority escalatedPriority(SupportTicket.TicketPriority priority) {
+        return switch (priority) {
+            case LOW -> SupportTicket.TicketPriority.MEDIUM;
+            case MEDIUM -> SupportTicket.TicketPriority.HIGH;
+            case HIGH, URGENT -> SupportTicket.TicketPriority.URGENT;
+        };
     }
 
-    public void markEscalated(SupportTicket ticket) {
-        ticket.setLastEscalationAt(LocalDateTime.now());
-        ticket.setResolutionBreached(true);
+    public String buildSlaSummary(SupportTicket ticket) {
+        return buildSlaSummary(ticket.getPriority(), ticket.getResponseDueAt(), ticket.getResolutionDueAt(),
+                ticket.isResponseBreached(), ticket.isResolutionBreached());
     }
 
-    public String buildSlaSummary(SupportTicket ticket) {
+    public String buildSlaSummary(SlaTicketRow ticket) {
+        return buildSlaSummary(ticket.getPriority(), ticket.getResponseDueAt(), ticket.getResolutionDueAt(),
+                Boolean.TRUE.equals(ticket.getResponseBreached()), Boolean.TRUE.equals(ticket.getResolutionBreached()));
+    }
+
+    private String buildSlaSummary(SupportTicket.TicketPriority priority, LocalDateTime responseDueAt,
+                                   LocalDateTime resolutionDueAt, boolean responseBreached, boolean resolutionBreached) {
         StringBuilder builder = new StringBuilder();
-        builder.append("Priority: ").append(ticket.getPriority());
-        if (ticket.getResponseDueAt() != null) {
-            builder.append(" | Response due: ").append(ticket.getResponseDueAt());
+        builder.append("Priority: ").append(priority);
+        if (responseDueAt != null) {
+            builder.append(" | Response due: ").append(responseDueAt);
         }
-        if (ticket.getResolutionDueAt() != null) {
-            builder.append(" | Resolution due: ").append(ticket.getResolutionDueAt());
+        if (resolutionDueAt != null) {
+            builder.append(" | Resolution due: ").append(resolutionDueAt);
         }
-        if (ticket.isResponseBreached()) {
+        if (responseBreached) {
             builder.append(" | Response SLA breached");
         }
-        if (ticket.isResolutionBreached()) {
+        if (resolutionBreached) {
             builder.append(" | Resolution SLA breached");
         }
         return builder.toString();
     }
 
-    public String buildEscalationDetails(SupportTicket ticket) {
-        return "Ticket #" + ticket.getId() + " has breached its resolution SLA. Please review immediately.";
+    public String buildEscalationDetails(Long ticketId) {
+        return "Ticket #" + ticketId + " has breached its resolution SLA. Please review immediately.";
     }
 
     @Transactional
@@ -126,4 +153,17 @@ public class SlaService {
         }
         return activity;
     }
+
+    /**
+     * Records an activity by reference, without loading the ticket or its collections.
+     */
+    @Transactional
+    public TicketActivity createActivity(Long ticketId, TicketActivity.ActionType type, String details, Long actorId) {
+        TicketActivity activity = new TicketActivity();
+        activity.setTicket(ticketRepository.getReferenceById(ticketId));
+        activity.setActionType(type);
+        activity.setDetails(details);
+        activity.setPerformedBy(actorId != null ? userRepository.getReferenceById(actorId) : null);
+        return activityRepository.save(activity);
+    }
 }
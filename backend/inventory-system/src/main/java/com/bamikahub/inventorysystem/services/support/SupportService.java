@@ -1,10 +1,12 @@
 package com.bamikahub.inventorysystem.services.support;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.inventory.InventoryItemRepository;
 import com.bamikahub.inventorysystem.dao.operations.ProjectRepository;
 import com.bamikahub.inventorysystem.dao.support.SupportTicketRepository;
 import com.bamikahub.inventorysystem.dao.support.SupportTicketSpecifications;
 import com.bamikahub.inventorysystem.dao.support.TicketCategoryRepository;
+import com.bamikahub.inventorysystem.dao.support.TicketListRow;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
 import com.bamikahub.inventorysystem.dto.support.CommentRequest;
 import com.bamikahub.inventorysystem.dto.support.TicketActivityResponse;
@@ -23,15 +25,23 @@ import com.bamikahub.inventorysystem.models.support.TicketActivity;
 import com.bamikahub.inventorysystem.models.support.TicketAttachment;
 import com.bamikahub.inventorysystem.models.support.TicketCategory;
 import com.bamikahub.inventorysystem.models.support.TicketComment;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.FileStorageService;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage.StagedUpload;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Duration;
@@ -52,15 +62,19 @@ public class SupportService {
     @Autowired private InventoryItemRepository inventoryItemRepository;
     @Autowired private ProjectRepository projectRepository;
     @Autowired private FileStorageService fileStorageService;
+    @Autowired private AttachmentStorage attachmentStorage;
+    @Autowired private TransactionTemplate transactionTemplate;
     @Autowired private SlaService slaService;
     @Autowired private TicketNotificationService notificationService;
     @Autowired private TicketExportService ticketExportService;
+    @Autowired private ReportRollupService reportRollupService;
 
     public enum ExportFormat {
         EXCEL,
         PDF
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     @Transactional
     public SupportTicket createTicket(TicketRequest request) {
         User currentUser = getCurrentUser();
@@ -97,10 +111,12 @@ public class SupportService {
 
         slaService.applyInitialSla(ticket);
         SupportTicket saved = ticketRepository.save(ticket);
+        reportRollupService.recordTicketCreated(saved);
         notificationService.notifyTicketCreated(saved);
         return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     @Transactional
     public SupportTicket assignTicketToSelf(Long ticketId) {
         User currentUser = getCurrentUser();
@@ -113,6 +129,7 @@ public class SupportService {
         return ticketRepository.save(ticket);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     @Transactional
     public TicketComment addComment(Long ticketId, String commentJson, MultipartFile file) {
         // Step 1: Deserialize the JSON part to get the comment text
@@ -157,6 +174,7 @@ public class SupportService {
     return comment;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     @Transactional
     public SupportTicket resolveTicket(Long ticketId, String resolutionNotes) {
         SupportTicket ticket = findTicketById(ticketId);
@@ -189,9 +207,11 @@ public class SupportService {
     notificationService.notifyResolution(ticket, actor);
     notificationService.notifyStatusChange(ticket, previousStatus, actor);
     SupportTicket saved = ticketRepository.save(ticket);
+    reportRollupService.recordTicketResolved(saved);
     return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     @Transactional
     public SupportTicket closeTicket(Long ticketId) {
         User currentUser = getCurrentUser();
@@ -212,10 +232,10 @@ public class SupportService {
     return ticketRepository.save(ticket);
     }
 
-    @Transactional
+    /**
+     * Validates the file and streams it to the shared attachment storage before the transaction opens.
+     */
     public TicketAttachment addAttachmentToTicket(Long ticketId, MultipartFile file) {
-        SupportTicket ticket = findTicketById(ticketId);
-
         // --- FILE VALIDATION LOGIC START ---
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Attachment file cannot be empty.");
@@ -253,24 +273,29 @@ public class SupportService {
         }
         // --- FILE VALIDATION LOGIC END ---
 
-        // Store file (reuse existing file storage service)
-        User currentUser = getCurrentUser();
-        String filename = fileStorageService.storeSupportAttachment(file);
-
-        // Build attachment entity
-        TicketAttachment attachment = new TicketAttachment();
-        attachment.setTicket(ticket);
-        attachment.setOriginalFilename(originalFilename);
-        attachment.setFileUrl("/uploads/support-attachments/" + filename);
-        attachment.setUploadedAt(LocalDateTime.now());
-        attachment.setUploadedBy(currentUser);
-
-        // Add to ticket and persist
-    ticket.getAttachments().add(attachment);
-    notificationService.notifyAttachment(ticket, currentUser, originalFilename);
-    ticketRepository.save(ticket);
-
-    return attachment;
+        StagedUpload staged = attachmentStorage.stage(file);
+        try {
+            return transactionTemplate.execute(status -> {
+                User currentUser = getCurrentUser();
+                SupportTicket ticket = findTicketById(ticketId);
+                StoredBlob blob = attachmentStorage.commit(staged);
+
+                TicketAttachment attachment = new TicketAttachment();
+                attachment.setTicket(ticket);
+                attachment.setOriginalFilename(originalFilename);
+                attachment.setFileUrl(attachmentStorage.publicUrl(blob));
+                attachment.setContentHash(blob.getSha256());
+                attachment.setUploadedAt(LocalDateTime.now());
+                attachment.setUploadedBy(currentUser);
+
+                ticket.getAttachments().add(attachment);
+                notificationService.notifyAttachment(ticket, currentUser, originalFilename);
+                ticketRepository.save(ticket);
+                return attachment;
+            });
+        } finally {
+            staged.discard();
+        }
     }
 
     /**
@@ -300,13 +325,12 @@ public class SupportService {
                 .orElseThrow(() -> new RuntimeException("Support ticket not found with id: " + ticketId));
     }
 
-    public List<TicketListResponse> findTickets(TicketFilterCriteria criteria) {
-    Specification<SupportTicket> specification = SupportTicketSpecifications.byFilter(criteria);
-    List<SupportTicket> tickets = specification != null
-        ? ticketRepository.findAll(specification, Sort.by(Sort.Direction.DESC, "updatedAt"))
-        : ticketRepository.findAll(Sort.by(Sort.Direction.DESC, "updatedAt"));
-
-    return tickets.stream().map(this::mapToListResponse).collect(Collectors.toList());
+    /**
+     * One page of tickets matching the filter, most recently updated first. Only the list columns are selected.
+     */
+    public Page<TicketListResponse> findTickets(TicketFilterCriteria criteria, Pageable pageable) {
+        return ticketRepository.findTicketList(SupportTicketSpecifications.byFilter(criteria), pageable)
+                .map(this::mapToListResponse);
     }
 
     public byte[] exportTickets(TicketFilterCriteria criteria, ExportFormat format) {
@@ -320,31 +344,33 @@ public class SupportService {
         : ticketExportService.exportAsPdf(tickets);
     }
 
+    // Comments, attachments and activities load lazily while the details are mapped
+    @Transactional(readOnly = true)
     public TicketDetailsResponse getTicketDetails(Long id) {
     SupportTicket ticket = findTicketById(id);
     return mapToDetailsResponse(ticket);
     }
 
-    private TicketListResponse mapToListResponse(SupportTicket ticket) {
+    private TicketListResponse mapToListResponse(TicketListRow row) {
     return TicketListResponse.builder()
-        .id(ticket.getId())
-        .subject(ticket.getSubject())
-        .categoryName(ticket.getCategory() != null ? ticket.getCategory().getName() : null)
-        .otherCategory(ticket.getOtherCategory())
-        .priority(ticket.getPriority())
-        .status(ticket.getStatus())
-        .createdAt(ticket.getCreatedAt())
-        .updatedAt(ticket.getUpdatedAt())
-        .responseDueAt(ticket.getResponseDueAt())
-        .resolutionDueAt(ticket.getResolutionDueAt())
-        .responseBreached(ticket.isResponseBreached())
-        .resolutionBreached(ticket.isResolutionBreached())
-        .submittedById(ticket.getSubmittedBy() != null ? ticket.getSubmittedBy().getId() : null)
-        .submittedByName(ticket.getSubmittedBy() != null ? ticket.getSubmittedBy().getUsername() : null)
-        .assignedToId(ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null)
-        .assignedToName(ticket.getAssignedTo() != null ? ticket.getAssignedTo().getUsername() : null)
-        .department(ticket.getSubmitterDepartment())
-        .archived(ticket.isArchived())
+        .id(row.id())
+        .subject(row.subject())
+        .categoryName(row.categoryName())
+        .otherCategory(row.otherCategory())
+        .priority(row.priority())
+        .status(row.status())
+        .createdAt(row.createdAt())
+        .updatedAt(row.updatedAt())
+        .responseDueAt(row.responseDueAt())
+        .resolutionDueAt(row.resolutionDueAt())
+        .responseBreached(row.responseBreached())
+        .resolutionBreached(row.resolutionBreached())
+        .submittedById(row.submittedById())
+        .submittedByName(row.submittedByName())
+        .assignedToId(row.assignedToId())
+        .assignedToName(row.assignedToName())
+        .department(row.department())
+        .archived(row.archived())
         .build();
     }
 
@@ -424,6 +450,7 @@ public class SupportService {
         .build();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     public SupportTicket updateTicketMetadata(Long id, TicketUpdateRequest request) {
         SupportTicket ticket = findTicketById(id);
         SupportTicket.TicketPriority previousPriority = ticket.getPriority();
@@ -457,9 +484,12 @@ public class SupportService {
             slaService.recalculateSlaForPriorityChange(ticket);
         }
 
-        return ticketRepository.save(ticket);
+        SupportTicket saved = ticketRepository.save(ticket);
+        reportRollupService.recordTicketPriorityChange(saved, previousPriority);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     public SupportTicket archiveTicket(Long id) {
         SupportTicket ticket = findTicketById(id);
         ticket.setArchived(true);
@@ -468,6 +498,7 @@ public class SupportService {
         return ticketRepository.save(ticket);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SUPPORT_REPORTS, allEntries = true)
     public SupportTicket restoreTicket(Long id) {
         SupportTicket ticket = findTicketById(id);
         ticket.setArchived(false);
@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.support;
 
+import com.bamikahub.inventorysystem.dao.support.SlaTicketRow;
 import com.bamikahub.inventorysystem.models.support.SupportTicket;
 import com.bamikahub.inventorysystem.models.support.TicketActivity;
 import com.bamikahub.inventorysystem.models.user.User;
@@ -106,25 +107,25 @@ public class TicketNotificationService {
         }
     }
 
-    public void notifyEscalation(SupportTicket ticket) {
-        slaService.createActivity(ticket, TicketActivity.ActionType.ESCALATED,
-                slaService.buildEscalationDetails(ticket), ticket.getAssignedTo());
+    public void notifyEscalation(SlaTicketRow ticket) {
+        slaService.createActivity(ticket.getId(), TicketActivity.ActionType.ESCALATED,
+                slaService.buildEscalationDetails(ticket.getId()), ticket.getAssignedToId());
         List<String> recipients = parseEscalationRecipients();
         if (!mailEnabled || recipients.isEmpty()) {
             return;
         }
         for (String recipient : recipients) {
             sendEmail(recipient, "Escalation: Support Ticket Breached SLA",
-                    slaService.buildEscalationDetails(ticket), ticket);
+                    slaService.buildEscalationDetails(ticket.getId()), ticket);
         }
     }
 
-    public void notifySlaBreached(SupportTicket ticket) {
+    public void notifySlaBreached(SlaTicketRow ticket) {
         if (!mailEnabled) {
             return;
         }
-        if (ticket.getAssignedTo() != null) {
-            sendEmail(ticket.getAssignedTo().getEmail(), "SLA Breached: Action Required",
+        if (ticket.getAssignedToEmail() != null) {
+            sendEmail(ticket.getAssignedToEmail(), "SLA Breached: Action Required",
                     "Ticket #" + ticket.getId() + " has breached its SLA targets.", ticket);
         }
         
@@ -159,6 +160,18 @@ public class TicketNotificationService {
                 ));
     }
 
+    private void sendEmail(String to, String subject, String message, SlaTicketRow ticket) {
+        mailService.sendTemplateMail(fromAddress, to, subject,
+                Map.of(
+                        "subject", subject,
+                        "message", message,
+                        "ticketId", ticket.getId(),
+                        "ticketSubject", ticket.getSubject(),
+                        "ticketStatus", ticket.getStatus(),
+                        "slaSummary", slaService.buildSlaSummary(ticket)
+                ));
+    }
+
     private List<String> parseEscalationRecipients() {
         if (!StringUtils.hasText(escalationRecipientsConfig)) {
             return List.of();
@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.user;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.user.PermissionRepository;
 import com.bamikahub.inventorysystem.dao.user.RoleRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
@@ -11,6 +12,7 @@ import com.bamikahub.inventorysystem.models.user.Role;
 import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -95,6 +97,7 @@ public class RoleService {
         return savedRole;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public Role updateRole(Integer id, RoleRequest roleRequest) {
         Role role = roleRepository.findById(id)
@@ -174,6 +177,7 @@ public class RoleService {
         return updatedRole;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public void deleteRole(Integer id) {
         Role role = roleRepository.findById(id)
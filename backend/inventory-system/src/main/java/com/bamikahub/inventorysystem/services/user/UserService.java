@@ -1,5 +1,6 @@
 package com.bamikahub.inventorysystem.services.user;
 
+import com.bamikahub.inventorysystem.config.CacheConfig;
 import com.bamikahub.inventorysystem.dao.user.RoleRepository;
 import com.bamikahub.inventorysystem.dao.user.StatusRepository;
 import com.bamikahub.inventorysystem.dao.user.UserRepository;
@@ -12,7 +13,9 @@ import com.bamikahub.inventorysystem.models.user.User;
 import com.bamikahub.inventorysystem.services.FileStorageService;
 import com.bamikahub.inventorysystem.services.audit.AuditService;
 import com.bamikahub.inventorysystem.services.notification.EmailService;
+import com.bamikahub.inventorysystem.services.storage.ImageVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import com.bamikahub.inventorysystem.util.ValidationUtil;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +39,7 @@ public class UserService {
     @Autowired private StatusRepository statusRepository;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private FileStorageService fileStorageService;
+    @Autowired private ImageVariantService imageVariantService;
     @Autowired private AuditService auditService;
     @Autowired private EmailService emailService;
 
@@ -120,6 +124,7 @@ public class UserService {
         return UserDto.fromEntity(savedUser);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public UserDto updateUser(Long id, UserUpdateRequest request) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
@@ -202,6 +207,7 @@ public class UserService {
         return UserDto.fromEntity(updatedUser);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public UserDto approveUser(Long id, Integer roleId) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
@@ -286,6 +292,7 @@ public class UserService {
     }
 
     // NEW METHOD: Update the profile for the currently authenticated user
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public UserProfileDto updateCurrentUserProfile(ProfileUpdateRequest request) {
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -365,6 +372,7 @@ public class UserService {
     }
 
     // METHOD: Change password for the currently authenticated user
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public void changeCurrentUserPassword(PasswordChangeRequest request) {
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -425,6 +433,7 @@ public class UserService {
         user.setProfilePictureUrl("/uploads/profile-pictures/" + filename);
 
         userRepository.save(user);
+        imageVariantService.generateAfterCommit(user.getProfilePictureUrl());
 
         try {
             Map<String, Object> details = auditService.createDetailsMap();
@@ -444,6 +453,7 @@ public class UserService {
         return UserProfileDto.fromEntity(user);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public void deactivateUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
@@ -475,6 +485,7 @@ public class UserService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     @Transactional
     public void reactivateUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
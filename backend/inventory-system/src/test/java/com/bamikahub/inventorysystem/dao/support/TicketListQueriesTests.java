@@ -0,0 +1,146 @@
+package com.bamikahub.inventorysystem.dao.support;
+
+import com.bamikahub.inventorysystem.dto.support.TicketFilterCriteria;
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import com.bamikahub.inventorysystem.models.support.TicketCategory;
+import com.bamikahub.inventorysystem.models.support.TicketComment;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+public class TicketListQueriesTests {
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User submitter;
+    private User agent;
+    private TicketCategory category;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("STAFF");
+        entityManager.persist(role);
+        Status status = new Status();
+        status.setName("ACTIVE");
+        entityManager.persist(status);
+
+        submitter = user("sam", role, status);
+        agent = user("alex", role, status);
+        category = entityManager.persist(new TicketCategory("EQUIPMENT_FAULT"));
+    }
+
+    @Test
+    public void pagesMatchingTicketsWithTheirListColumns() {
+        SupportTicket first = ticket("Printer offline", submitter, false);
+        first.setAssignedTo(agent);
+        first.setCategory(category);
+        entityManager.persist(first);
+        TicketComment comment = new TicketComment();
+        comment.setTicket(first);
+        comment.setCommenter(agent);
+        comment.setComment("Looking into it");
+        entityManager.persist(comment);
+        SupportTicket second = ticket("Laptop battery", submitter, false);
+        SupportTicket third = ticket("Broken chair", submitter, false);
+        ticket("Old request", submitter, true);
+        ticket("Someone else's", agent, false);
+        entityManager.flush();
+        entityManager.clear();
+
+        TicketFilterCriteria criteria = TicketFilterCriteria.builder().submittedById(submitter.getId()).build();
+        Page<TicketListRow> page = ticketRepository.findTicketList(
+                SupportTicketSpecifications.byFilter(criteria), PageRequest.of(0, 2));
+
+        // Archived tickets and other submitters are filtered out
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(2);
+
+        Page<TicketListRow> rest = ticketRepository.findTicketList(
+                SupportTicketSpecifications.byFilter(criteria), PageRequest.of(1, 2));
+        assertThat(rest.getContent()).hasSize(1);
+        List<TicketListRow> all = Stream.concat(page.getContent().stream(), rest.getContent().stream()).toList();
+        assertThat(all).extracting(TicketListRow::id)
+                .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+
+        TicketListRow row = all.stream()
+                .filter(candidate -> candidate.id().equals(first.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(row.subject()).isEqualTo("Printer offline");
+        assertThat(row.categoryName()).isEqualTo("EQUIPMENT_FAULT");
+        assertThat(row.submittedById()).isEqualTo(submitter.getId());
+        assertThat(row.submittedByName()).isEqualTo("sam");
+        assertThat(row.assignedToId()).isEqualTo(agent.getId());
+        assertThat(row.assignedToName()).isEqualTo("alex");
+        assertThat(row.priority()).isEqualTo(SupportTicket.TicketPriority.MEDIUM);
+        assertThat(row.archived()).isFalse();
+    }
+
+    @Test
+    public void keepsUnassignedAndUncategorisedTickets() {
+        SupportTicket ticket = ticket("Network down", submitter, false);
+        ticket.setSubmitterDepartment("IT");
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<TicketListRow> page = ticketRepository.findTicketList(
+                SupportTicketSpecifications.byFilter(TicketFilterCriteria.builder().department("it").build()),
+                PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).singleElement().satisfies(row -> {
+            assertThat(row.id()).isEqualTo(ticket.getId());
+            assertThat(row.categoryName()).isNull();
+            assertThat(row.assignedToId()).isNull();
+            assertThat(row.assignedToName()).isNull();
+        });
+    }
+
+    private User user(String username, Role role, Status status) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName("Tester");
+        user.setUsername(username);
+        user.setEmail(username + "@example.test");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setStatus(status);
+        return entityManager.persist(user);
+    }
+
+    private SupportTicket ticket(String subject, User submittedBy, boolean archived) {
+        SupportTicket ticket = new SupportTicket();
+        ticket.setSubject(subject);
+        ticket.setDescription(subject + " needs attention.");
+        ticket.setStatus(SupportTicket.TicketStatus.OPEN);
+        ticket.setPriority(SupportTicket.TicketPriority.MEDIUM);
+        ticket.setSubmittedBy(submittedBy);
+        ticket.setArchived(archived);
+        return entityManager.persist(ticket);
+    }
+}
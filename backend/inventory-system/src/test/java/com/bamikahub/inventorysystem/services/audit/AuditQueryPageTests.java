@@ -0,0 +1,155 @@
+package com.bamikahub.inventorysystem.services.audit;
+
+import com.bamikahub.inventorysystem.dto.audit.AuditFilterDto;
+import com.bamikahub.inventorysystem.dto.audit.AuditLogPageDto;
+import com.bamikahub.inventorysystem.models.assignment.Assignment;
+import com.bamikahub.inventorysystem.models.assignment.AssignmentAuditLog;
+import com.bamikahub.inventorysystem.models.audit.AuditLog;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import(AuditQueryService.class)
+public class AuditQueryPageTests {
+
+    private static final LocalDateTime NEWER = LocalDateTime.of(2026, 3, 2, 9, 30);
+    private static final LocalDateTime OLDER = LocalDateTime.of(2026, 3, 1, 16, 0);
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> expectedOrder = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("AUDITOR");
+        entityManager.persist(role);
+        Status active = new Status();
+        active.setName("ACTIVE");
+        entityManager.persist(active);
+        User actor = new User();
+        actor.setFirstName("Audit");
+        actor.setLastName("Reader");
+        actor.setUsername("auditreader");
+        actor.setEmail("auditreader@example.test");
+        actor.setPassword("secret");
+        actor.setRole(role);
+        actor.setStatus(active);
+        entityManager.persist(actor);
+
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Site survey");
+        assignment.setDueDate(NEWER.plusDays(7));
+        assignment.setAssignee(actor);
+        assignment.setAssigner(actor);
+        entityManager.persist(assignment);
+
+        // Two rows per table share the newer timestamp; one per table has the older one
+        long general1 = generalLog(actor, NEWER);
+        long general2 = generalLog(actor, NEWER);
+        long general3 = generalLog(actor, OLDER);
+        long assignment1 = assignmentLog(actor, assignment, NEWER);
+        long assignment2 = assignmentLog(actor, assignment, NEWER);
+        long assignment3 = assignmentLog(actor, assignment, OLDER);
+        entityManager.clear();
+
+        // Timestamp DESC; on a tie general rows before assignment rows, each by id DESC
+        expectedOrder.addAll(List.of(
+                "Item:" + general2, "Item:" + general1,
+                "Assignment:" + assignment2, "Assignment:" + assignment1,
+                "Item:" + general3, "Assignment:" + assignment3));
+    }
+
+    @Test
+    public void pagesWalkTheMergedFeedOnceWhateverThePageSize() {
+        for (int size = 1; size <= expectedOrder.size() + 1; size++) {
+            assertThat(readAllPages(size)).as("page size %d", size).isEqualTo(expectedOrder);
+        }
+    }
+
+    @Test
+    public void cursorCrossesFromTheGeneralTableToTheAssignmentTableWithinATie() {
+        // The first page ends on the last general row at the tied timestamp
+        AuditLogPageDto first = auditQueryService.queryAuditLogsPage(new AuditFilterDto(), null, 2);
+        assertThat(keys(first)).containsExactly(expectedOrder.get(0), expectedOrder.get(1));
+        assertThat(first.isHasMore()).isTrue();
+
+        // The next page resumes with the assignment rows at that same timestamp
+        AuditLogPageDto second = auditQueryService.queryAuditLogsPage(new AuditFilterDto(), first.getNextCursor(), 3);
+        assertThat(keys(second)).containsExactly(expectedOrder.get(2), expectedOrder.get(3), expectedOrder.get(4));
+
+        AuditLogPageDto last = auditQueryService.queryAuditLogsPage(new AuditFilterDto(), second.getNextCursor(), 3);
+        assertThat(keys(last)).containsExactly(expectedOrder.get(5));
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    private List<String> readAllPages(int size) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            AuditLogPageDto page = auditQueryService.queryAuditLogsPage(new AuditFilterDto(), cursor, size);
+            seen.addAll(keys(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<String> keys(AuditLogPageDto page) {
+        return page.getItems().stream().map(dto -> dto.getEntityType() + ":" + dto.getId()).toList();
+    }
+
+    private long generalLog(User actor, LocalDateTime timestamp) {
+        AuditLog log = AuditLog.builder()
+                .actor(actor)
+                .action(AuditLog.ActionType.ITEM_UPDATED)
+                .entityType("Item")
+                .entityId(1L)
+                .severity(AuditLog.Severity.INFO)
+                .build();
+        entityManager.persist(log);
+        entityManager.flush();
+        // The timestamp is generated on insert, so pin it afterwards
+        jdbcTemplate.update("UPDATE audit_logs SET timestamp = ? WHERE id = ?", timestamp, log.getId());
+        return log.getId();
+    }
+
+    private long assignmentLog(User actor, Assignment assignment, LocalDateTime createdAt) {
+        AssignmentAuditLog log = new AssignmentAuditLog();
+        log.setActor(actor);
+        log.setAssignment(assignment);
+        log.setActionType(AssignmentAuditLog.AuditAction.values()[0]);
+        entityManager.persist(log);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE assignment_audit_logs SET created_at = ? WHERE id = ?", createdAt, log.getId());
+        return log.getId();
+    }
+}
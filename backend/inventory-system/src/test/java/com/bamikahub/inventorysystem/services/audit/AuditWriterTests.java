@@ -0,0 +1,138 @@
+package com.bamikahub.inventorysystem.services.audit;
+
+import com.bamikahub.inventorysystem.models.audit.AuditLog;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+// The writer commits on its own, so the tests must not run inside one transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AuditWriterTests {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long actorId;
+
+    @BeforeEach
+    void setUp() {
+        actorId = new TransactionTemplate(transactionManager).execute(status -> {
+            Role role = new Role();
+            role.setName("AUDITOR" + sequence.incrementAndGet());
+            entityManager.persist(role);
+            Status active = new Status();
+            active.setName("ACTIVE" + sequence.incrementAndGet());
+            entityManager.persist(active);
+            String username = "auditor" + sequence.incrementAndGet();
+            User user = new User();
+            user.setFirstName(username);
+            user.setLastName("Tester");
+            user.setUsername(username);
+            user.setEmail(username + "@example.test");
+            user.setPassword("secret");
+            user.setRole(role);
+            user.setStatus(active);
+            entityManager.persist(user);
+            return user.getId();
+        });
+    }
+
+    @AfterEach
+    void clearAuditLogs() {
+        jdbcTemplate.update("DELETE FROM audit_logs");
+    }
+
+    @Test
+    public void flushesBufferedEntriesOnStopAndWritesLateOnesDirectly() {
+        // Never started, so entries stay buffered until stop()
+        AuditWriter writer = writer(10);
+        writer.enqueue(entry("first"));
+        writer.enqueue(entry("second"));
+        assertThat(auditRows()).isZero();
+
+        writer.stop();
+        assertThat(auditRows()).isEqualTo(2);
+
+        // A request still in flight after shutdown is not lost
+        writer.enqueue(entry("late"));
+        assertThat(auditRows()).isEqualTo(3);
+        assertThat(writer.getStats()).containsEntry("written", 3L).containsEntry("queued", 0L);
+    }
+
+    @Test
+    public void dropsAndCountsEntriesWhenTheQueueIsFull() {
+        AuditWriter writer = writer(2);
+        writer.enqueue(entry("first"));
+        writer.enqueue(entry("second"));
+        writer.enqueue(entry("overflow"));
+
+        assertThat(writer.getStats()).containsEntry("enqueued", 2L).containsEntry("dropped", 1L);
+        writer.stop();
+        assertThat(auditRows()).isEqualTo(2);
+    }
+
+    @Test
+    public void retriesAFailedBatchRowByRowWithoutDuplicates() {
+        jdbcTemplate.execute("ALTER TABLE audit_logs ADD CONSTRAINT ck_audit_test CHECK (entity_name <> 'reject')");
+        try {
+            AuditWriter writer = writer(10);
+            writer.enqueue(entry("first"));
+            writer.enqueue(entry("second"));
+            writer.enqueue(entry("reject"));
+            writer.enqueue(entry("fourth"));
+
+            // One batch; the rows inserted before the rejected one roll back with it
+            writer.stop();
+
+            assertThat(auditRows()).isEqualTo(3);
+            assertThat(writer.getStats()).containsEntry("written", 3L).containsEntry("failed", 1L);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DROP CONSTRAINT ck_audit_test");
+        }
+    }
+
+    private AuditWriter writer(int queueCapacity) {
+        return new AuditWriter(jdbcTemplate, transactionManager, queueCapacity, 200, 10, 500);
+    }
+
+    private AuditWriter.PendingAudit entry(String entityName) {
+        return new AuditWriter.PendingAudit(actorId, AuditLog.ActionType.ITEM_UPDATED, "Item", 1L, entityName,
+                "details", "127.0.0.1", "test", AuditLog.Severity.INFO, LocalDateTime.now());
+    }
+
+    private long auditRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.dto.chat.PresenceUpdate;
+import com.bamikahub.inventorysystem.security.jwt.StompAuthChannelInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ChatPresenceServiceTests {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatPresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        // 1s ticks, 3s timeout, no debounce
+        presenceService = new ChatPresenceService(messagingTemplate, 1000, 3000, 0);
+    }
+
+    @Test
+    public void publishesOneCoalescedDiffPerTick() {
+        presenceService.heartbeat("s1", 1L);
+        presenceService.heartbeat("s2", 2L);
+        presenceService.touchSession("s1");
+        presenceService.heartbeat("s1", 1L);
+
+        presenceService.tick();
+        presenceService.tick();
+
+        List<PresenceUpdate> diff = captureBroadcasts(1).get(0);
+        assertThat(diff).extracting(PresenceUpdate::getUserId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(diff).allMatch(PresenceUpdate::isOnline);
+        assertThat(presenceService.getOnlineUserIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    public void expiresUsersWithoutActivityAndKeepsActiveOnesOnline() {
+        presenceService.heartbeat("s1", 1L);
+        presenceService.heartbeat("s2", 2L);
+        presenceService.tick();
+        clearInvocations(messagingTemplate);
+
+        presenceService.tick();
+        presenceService.touchSession("s2");
+        presenceService.tick();
+        presenceService.tick();
+
+        List<PresenceUpdate> diff = captureBroadcasts(1).get(0);
+        assertThat(diff).singleElement().satisfies(update -> {
+            assertThat(update.getUserId()).isEqualTo(1L);
+            assertThat(update.isOnline()).isFalse();
+        });
+        assertThat(presenceService.getOnlineUserIds()).containsExactly(2L);
+    }
+
+    @Test
+    public void staysOnlineWhileAnotherSessionRemainsAndDebouncesReconnects() {
+        presenceService.heartbeat("tab-1", 1L);
+        presenceService.heartbeat("tab-2", 1L);
+        presenceService.tick();
+        clearInvocations(messagingTemplate);
+
+        presenceService.signOff("tab-1");
+        presenceService.tick();
+        verify(messagingTemplate, never()).convertAndSend(eq(ChatPresenceService.PRESENCE_TOPIC), any(Object.class));
+
+        ChatPresenceService debounced = new ChatPresenceService(messagingTemplate, 1000, 3000, 60000);
+        debounced.heartbeat("s1", 5L);
+        debounced.signOff("s1");
+        debounced.heartbeat("s2", 5L);
+        debounced.tick();
+        verify(messagingTemplate, never()).convertAndSend(eq(ChatPresenceService.PRESENCE_TOPIC), any(Object.class));
+        assertThat(debounced.getOnlineUserIds()).isEmpty();
+    }
+
+    @Test
+    public void bindsSessionsToTheAuthenticatedUserNotTheClientHeader() {
+        presenceService.onSessionConnect(connect("s1", new StompAuthChannelInterceptor.UserIdPrincipal("7")));
+        // Sessions without a staff token are not tracked, whatever they claim
+        presenceService.onSessionConnect(connect("s2", null));
+        presenceService.tick();
+
+        assertThat(presenceService.getOnlineUserIds()).containsExactly(7L);
+    }
+
+    private SessionConnectEvent connect(String sessionId, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setNativeHeader("userId", "99");
+        return new SessionConnectEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), user);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<PresenceUpdate>> captureBroadcasts(int expected) {
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(expected)).convertAndSend(eq(ChatPresenceService.PRESENCE_TOPIC), payloads.capture());
+        return payloads.getAllValues().stream().map(payload -> (List<PresenceUpdate>) payload).toList();
+    }
+}
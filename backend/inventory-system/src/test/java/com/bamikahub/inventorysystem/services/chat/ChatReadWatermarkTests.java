@@ -0,0 +1,191 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.dao.chat.ChatReadWatermarkRepository;
+import com.bamikahub.inventorysystem.models.chat.ChatMessage;
+import com.bamikahub.inventorysystem.models.chat.ChatReadWatermark;
+import com.bamikahub.inventorysystem.models.chat.ChatThread;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import(ChatNotificationService.class)
+// Concurrent first reads need their own committed transactions, so the tests must not run inside one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChatReadWatermarkTests {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private ChatNotificationService notificationService;
+
+    @Autowired
+    private ChatReadWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private TransactionTemplate tx;
+    private User author;
+    private User reader;
+    private ChatThread thread;
+    private final List<Long> messageIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        messageIds.clear();
+        tx.executeWithoutResult(status -> {
+            Role role = new Role();
+            role.setName("STAFF" + sequence.incrementAndGet());
+            entityManager.persist(role);
+            Status active = new Status();
+            active.setName("ACTIVE" + sequence.incrementAndGet());
+            entityManager.persist(active);
+            author = user(role, active);
+            reader = user(role, active);
+            thread = ChatThread.builder().type(ChatThread.ThreadType.GENERAL).subject("General").build();
+            entityManager.persist(thread);
+            for (int i = 0; i < 3; i++) {
+                messageIds.add(message("Update " + i).getId());
+            }
+        });
+    }
+
+    @Test
+    public void userWithoutAWatermarkHasEverythingSinceJoiningUnreadWithoutAWrite() {
+        assertThat(unread()).isEqualTo(3);
+        assertThat(watermarkRepository.findByThreadIdAndUserId(thread.getId(), reader.getId())).isEmpty();
+
+        // History from before an account existed is not unread for it
+        User newcomer = tx.execute(status -> user(author.getRole(), author.getStatus()));
+        tx.executeWithoutResult(status -> message("Welcome"));
+        long newcomerUnread = tx.execute(status ->
+                notificationService.countUnreadInSharedThread(thread.getId(), newcomer.getId()));
+        assertThat(newcomerUnread).isEqualTo(1);
+        assertThat(unread()).isEqualTo(4);
+    }
+
+    @Test
+    public void markReadCreatesTheWatermarkThenOnlyMovesItForward() {
+        markRead(messageIds.get(1));
+        assertThat(watermark().getLastReadMessageId()).isEqualTo(messageIds.get(1));
+        assertThat(unread()).isEqualTo(1);
+
+        // Reading an older message (a stale tab) never moves the watermark back
+        markRead(messageIds.get(0));
+        assertThat(watermark().getLastReadMessageId()).isEqualTo(messageIds.get(1));
+
+        markRead(messageIds.get(2));
+        assertThat(watermark().getLastReadMessageId()).isEqualTo(messageIds.get(2));
+        assertThat(unread()).isZero();
+
+        tx.executeWithoutResult(status -> message("After the read"));
+        assertThat(unread()).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentFirstReadsLeaveASingleWatermark() throws Exception {
+        int readers = 8;
+        CyclicBarrier barrier = new CyclicBarrier(readers);
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                long readUpTo = messageIds.get(i % messageIds.size());
+                results.add(pool.submit(() -> {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    markRead(readUpTo);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                // Rethrows a duplicate key failure from any reader
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long rows = watermarkRepository.findAll().stream()
+                .filter(watermark -> watermark.getThreadId().equals(thread.getId()))
+                .count();
+        assertThat(rows).isEqualTo(1);
+        assertThat(watermark().getLastReadMessageId()).isEqualTo(messageIds.get(2));
+    }
+
+    private void markRead(long messageId) {
+        tx.executeWithoutResult(status ->
+                notificationService.advanceReadWatermark(thread.getId(), reader.getId(), messageId));
+    }
+
+    private long unread() {
+        return tx.execute(status -> notificationService.countUnreadInSharedThread(thread.getId(), reader.getId()));
+    }
+
+    private ChatReadWatermark watermark() {
+        return watermarkRepository.findByThreadIdAndUserId(thread.getId(), reader.getId()).orElseThrow();
+    }
+
+    private ChatMessage message(String content) {
+        ChatMessage message = ChatMessage.builder()
+                .thread(entityManager.getReference(ChatThread.class, thread.getId()))
+                .sender(entityManager.getReference(User.class, author.getId()))
+                .messageType(ChatMessage.MessageType.TEXT)
+                .content(content)
+                .build();
+        entityManager.persist(message);
+        entityManager.flush();
+        return message;
+    }
+
+    private User user(Role role, Status status) {
+        String username = "reader" + sequence.incrementAndGet();
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName("Tester");
+        user.setUsername(username);
+        user.setEmail(username + "@example.test");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setStatus(status);
+        entityManager.persist(user);
+        return user;
+    }
+}
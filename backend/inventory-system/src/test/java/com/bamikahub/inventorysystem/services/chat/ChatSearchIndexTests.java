@@ -0,0 +1,130 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.dao.chat.ChatMessageRepository;
+import com.bamikahub.inventorysystem.models.chat.ChatMessage;
+import com.bamikahub.inventorysystem.models.chat.ChatThread;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import(ChatSearchIndex.class)
+public class ChatSearchIndexTests {
+
+    @Autowired
+    private ChatSearchIndex searchIndex;
+
+    @Autowired
+    private ChatMessageRepository messageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User sender;
+    private ChatThread thread;
+    private ChatThread otherThread;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("STAFF");
+        entityManager.persist(role);
+        Status status = new Status();
+        status.setName("ACTIVE");
+        entityManager.persist(status);
+
+        sender = new User();
+        sender.setFirstName("Ada");
+        sender.setLastName("Okello");
+        sender.setUsername("ada");
+        sender.setEmail("ada@example.test");
+        sender.setPassword("secret");
+        sender.setRole(role);
+        sender.setStatus(status);
+        entityManager.persist(sender);
+
+        thread = entityManager.persist(ChatThread.builder().type(ChatThread.ThreadType.GENERAL).build());
+        otherThread = entityManager.persist(ChatThread.builder().type(ChatThread.ThreadType.PRIVATE).build());
+    }
+
+    @Test
+    public void findsMessagesContainingEveryWordWithPrefixOnTheLastOne() {
+        ChatMessage cement = send(thread, "Cement delivery arrives Monday");
+        ChatMessage steel = send(thread, "Steel delivery is late");
+        send(thread, "Cement order approved");
+        send(otherThread, "Cement delivery for the other site");
+
+        assertThat(searchIndex.search(thread.getId(), "cement deliv", null, 20)).containsExactly(cement.getId());
+        assertThat(searchIndex.search(thread.getId(), "DELIVERY", null, 20)).containsExactly(steel.getId(), cement.getId());
+        assertThat(searchIndex.search(thread.getId(), "delivery", steel.getId(), 20)).containsExactly(cement.getId());
+        assertThat(searchIndex.search(thread.getId(), "  !! ", null, 20)).isEmpty();
+    }
+
+    @Test
+    public void removedMessagesNoLongerMatch() {
+        ChatMessage message = send(thread, "Scaffolding inspection passed");
+
+        searchIndex.remove(message.getId());
+
+        assertThat(searchIndex.search(thread.getId(), "scaffolding", null, 20)).isEmpty();
+    }
+
+    @Test
+    public void historyPagesContinueBeforeTheCursorIncludingSameTimestamps() {
+        LocalDateTime sentAt = LocalDateTime.of(2026, 1, 5, 9, 0);
+        List<ChatMessage> messages = List.of(
+                send(thread, "one"), send(thread, "two"), send(thread, "three"), send(thread, "four"));
+        // Two messages share a timestamp so the id has to break the tie
+        setSentAt(messages.get(0), sentAt);
+        setSentAt(messages.get(1), sentAt.plusMinutes(1));
+        setSentAt(messages.get(2), sentAt.plusMinutes(1));
+        setSentAt(messages.get(3), sentAt.plusMinutes(2));
+        entityManager.clear();
+
+        List<ChatMessage> first = messageRepository.findHistoryPage(thread.getId(), null, null, PageRequest.of(0, 2));
+        ChatMessage cursor = first.get(first.size() - 1);
+        List<ChatMessage> second = messageRepository.findHistoryPage(thread.getId(), cursor.getSentAt(), cursor.getId(), PageRequest.of(0, 2));
+
+        assertThat(first).extracting(ChatMessage::getContent).containsExactly("four", "three");
+        assertThat(second).extracting(ChatMessage::getContent).containsExactly("two", "one");
+    }
+
+    private ChatMessage send(ChatThread target, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setThread(target);
+        message.setSender(sender);
+        message.setMessageType(ChatMessage.MessageType.TEXT);
+        message.setContent(content);
+        message.setSearchIndexed(true);
+        entityManager.persistAndFlush(message);
+        searchIndex.index(message);
+        return message;
+    }
+
+    private void setSentAt(ChatMessage message, LocalDateTime sentAt) {
+        entityManager.getEntityManager()
+                .createQuery("UPDATE ChatMessage m SET m.sentAt = :sentAt WHERE m.id = :id")
+                .setParameter("sentAt", sentAt)
+                .setParameter("id", message.getId())
+                .executeUpdate();
+    }
+}
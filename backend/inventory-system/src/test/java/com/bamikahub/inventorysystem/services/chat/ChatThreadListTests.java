@@ -0,0 +1,182 @@
+package com.bamikahub.inventorysystem.services.chat;
+
+import com.bamikahub.inventorysystem.dto.chat.ChatThreadDTO;
+import com.bamikahub.inventorysystem.models.chat.ChatMessage;
+import com.bamikahub.inventorysystem.models.chat.ChatNotification;
+import com.bamikahub.inventorysystem.models.chat.ChatThread;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.storage.AttachmentStorage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({ChatService.class, ChatUnreadCounter.class})
+public class ChatThreadListTests {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatAuditService auditService;
+
+    @MockitoBean
+    private ChatNotificationService notificationService;
+
+    @MockitoBean
+    private ChatPresenceService presenceService;
+
+    @MockitoBean
+    private ChatSearchIndex searchIndex;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @MockitoBean
+    private AttachmentStorage attachmentStorage;
+
+    private User me;
+    private final List<User> contacts = new ArrayList<>();
+    private final List<ChatThread> threads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("STAFF");
+        entityManager.persist(role);
+        Status status = new Status();
+        status.setName("ACTIVE");
+        entityManager.persist(status);
+
+        me = user("me", role, status);
+        entityManager.persist(ChatThread.builder().type(ChatThread.ThreadType.GENERAL).subject("General").build());
+        for (int i = 0; i < 6; i++) {
+            User contact = user("contact" + i, role, status);
+            contacts.add(contact);
+            ChatThread thread = ChatThread.builder().type(ChatThread.ThreadType.PRIVATE).build();
+            thread.getParticipants().add(me);
+            thread.getParticipants().add(contact);
+            threads.add(entityManager.persist(thread));
+        }
+
+        when(presenceService.getOnlineUserIds()).thenReturn(Set.of(contacts.get(0).getId()));
+        when(notificationService.countUnreadInSharedThread(anyLong(), anyLong())).thenReturn(3L);
+    }
+
+    @Test
+    public void listsThreadsWithPreviewsAndUnreadCounts() {
+        ChatThread first = threads.get(0);
+        send(first, contacts.get(0), "Site visit moved to Thursday", LocalDateTime.now().minusMinutes(5), 2);
+        ChatThread second = threads.get(1);
+        send(second, contacts.get(1), "Latest", LocalDateTime.now(), 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ChatThreadDTO> result = chatService.getThreadsForUser(me.getId());
+
+        assertThat(result).hasSize(7);
+        assertThat(result.get(0).getType()).isEqualTo("GENERAL");
+        assertThat(result.get(0).getUnreadCount()).isEqualTo(3);
+        assertThat(result.get(0).getParticipants()).isEmpty();
+        // Most recent activity first
+        assertThat(result.get(1).getId()).isEqualTo(second.getId());
+        assertThat(result.get(2).getId()).isEqualTo(first.getId());
+
+        ChatThreadDTO firstDto = result.get(2);
+        assertThat(firstDto.getUnreadCount()).isEqualTo(2);
+        assertThat(firstDto.getLastMessage().getPreview()).isEqualTo("Site visit moved to Thursday");
+        assertThat(firstDto.getLastMessage().getSenderId()).isEqualTo(contacts.get(0).getId());
+        assertThat(firstDto.getParticipantIds()).containsExactlyInAnyOrder(me.getId(), contacts.get(0).getId());
+        assertThat(firstDto.getParticipants())
+                .anySatisfy(participant -> {
+                    assertThat(participant.getId()).isEqualTo(contacts.get(0).getId());
+                    assertThat(participant.getFullName()).isEqualTo("contact0 Tester");
+                    assertThat(participant.isOnline()).isTrue();
+                });
+        assertThat(result.get(3).getLastMessage()).isNull();
+        assertThat(result.get(3).getUnreadCount()).isZero();
+    }
+
+    @Test
+    public void statementCountDoesNotGrowWithThreads() {
+        for (int i = 0; i < threads.size(); i++) {
+            send(threads.get(i), contacts.get(i), "Message " + i, LocalDateTime.now().minusMinutes(i), 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        chatService.getThreadsForUser(me.getId());
+
+        // User check, general thread lookup, grouped unread counts and the summary projection
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private User user(String username, Role role, Status status) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName("Tester");
+        user.setUsername(username);
+        user.setEmail(username + "@example.test");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setStatus(status);
+        return entityManager.persist(user);
+    }
+
+    private void send(ChatThread thread, User sender, String content, LocalDateTime at, int unreadNotifications) {
+        for (int i = 0; i < unreadNotifications; i++) {
+            ChatMessage message = new ChatMessage();
+            message.setThread(thread);
+            message.setSender(sender);
+            message.setMessageType(ChatMessage.MessageType.TEXT);
+            message.setContent(content);
+            entityManager.persist(message);
+            entityManager.persist(ChatNotification.builder()
+                    .type(ChatNotification.NotificationType.PRIVATE_MESSAGE)
+                    .recipient(me)
+                    .threadId(thread.getId())
+                    .messageId(message.getId())
+                    .delivered(false)
+                    .read(false)
+                    .build());
+            thread.setLastMessageId(message.getId());
+        }
+        thread.setLastMessageAt(at);
+        entityManager.merge(thread);
+    }
+}
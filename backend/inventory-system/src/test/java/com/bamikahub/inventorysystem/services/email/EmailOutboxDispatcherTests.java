@@ -0,0 +1,314 @@
+package com.bamikahub.inventorysystem.services.email;
+
+import com.bamikahub.inventorysystem.dao.email.EmailRecipientLogRepository;
+import com.bamikahub.inventorysystem.models.email.EmailMessage;
+import com.bamikahub.inventorysystem.models.email.EmailRecipientLog;
+import com.bamikahub.inventorysystem.models.email.EmailStatus;
+import com.bamikahub.inventorysystem.models.email.EmailTemplate;
+import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.notification.NotificationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never",
+    "email.outbox.poll-interval-ms=3600000",
+    "email.outbox.connection-batch-size=10",
+    "email.outbox.per-domain-per-minute=0",
+    "email.outbox.max-attempts=2"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({EmailOutboxDispatcher.class, EmailOutboxDispatcherTests.SmtpStandInConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class EmailOutboxDispatcherTests {
+
+    private static final SmtpStandIn smtp = new SmtpStandIn();
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmailRecipientLogRepository recipientLogRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private AuditService auditService;
+
+    @TestConfiguration
+    static class SmtpStandInConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(smtp.port());
+            return sender;
+        }
+    }
+
+    @BeforeAll
+    static void startSmtp() throws IOException {
+        smtp.start();
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtp.stop();
+    }
+
+    @BeforeEach
+    void resetSmtp() {
+        smtp.reset();
+    }
+
+    @Test
+    public void sendsQueuedRecipientsOverSharedConnections() {
+        EmailMessage message = queueMessage(25, "example.test");
+
+        dispatcher.dispatchDue();
+
+        assertThat(smtp.recipients).hasSize(25);
+        // 25 recipients of one domain in chunks of 10 need three connections, not 25
+        assertThat(smtp.connections.get()).isEqualTo(3);
+        assertThat(statusesOf(message)).containsOnly(EmailRecipientLog.Status.SENT);
+        assertThat(emailLogStatuses("%@example.test")).hasSize(25).containsOnly(EmailStatus.SENT);
+    }
+
+    @Test
+    public void retriesRejectedRecipientsWithBackoffThenGivesUp() {
+        EmailMessage message = queueMessage(3, "example.test");
+        EmailRecipientLog rejected = EmailRecipientLog.builder()
+                .emailMessage(message)
+                .recipientEmail("bounce@example.test")
+                .status(EmailRecipientLog.Status.PENDING)
+                .attempts(0)
+                .build();
+        entityManager.persistAndFlush(rejected);
+
+        dispatcher.dispatchDue();
+
+        entityManager.clear();
+        EmailRecipientLog afterFirst = entityManager.find(EmailRecipientLog.class, rejected.getId());
+        assertThat(afterFirst.getStatus()).isEqualTo(EmailRecipientLog.Status.PENDING);
+        assertThat(afterFirst.getAttempts()).isEqualTo(1);
+        assertThat(afterFirst.getNextAttemptAt()).isNotNull();
+        assertThat(smtp.recipients).hasSize(3);
+
+        // Make the retry due now; the second failure reaches email.outbox.max-attempts
+        afterFirst.setNextAttemptAt(null);
+        entityManager.persistAndFlush(afterFirst);
+        // A recipient still being retried has no email log yet
+        assertThat(emailLogStatuses("bounce@example.test")).isEmpty();
+        dispatcher.dispatchDue();
+
+        entityManager.clear();
+        EmailRecipientLog afterSecond = entityManager.find(EmailRecipientLog.class, rejected.getId());
+        assertThat(afterSecond.getStatus()).isEqualTo(EmailRecipientLog.Status.FAILED);
+        assertThat(afterSecond.getAttempts()).isEqualTo(2);
+        assertThat(afterSecond.getErrorMessage()).isNotBlank();
+        assertThat(emailLogStatuses("bounce@example.test")).containsExactly(EmailStatus.FAILED);
+    }
+
+    @Test
+    public void retriesRecipientsWhoseTemplateFailsToRender() {
+        EmailTemplate template = entityManager.persist(EmailTemplate.builder()
+                .name("broken")
+                .subject("Broken")
+                .body("<p th:text=\"${'unterminated}\">x</p>")
+                .build());
+        EmailMessage message = queueMessage(1, "render.test");
+        message.setTemplateId(template.getId());
+        entityManager.persistAndFlush(message);
+
+        dispatcher.dispatchDue();
+
+        entityManager.clear();
+        EmailRecipientLog row = entityManager.getEntityManager()
+                .createQuery("select r from EmailRecipientLog r where r.emailMessage.id = :id", EmailRecipientLog.class)
+                .setParameter("id", message.getId())
+                .getSingleResult();
+        assertThat(smtp.recipients).isEmpty();
+        assertThat(row.getStatus()).isEqualTo(EmailRecipientLog.Status.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    public void leasesOnlyRowsStillDueSoTwoNodesNeverClaimTheSameRow() {
+        queueMessage(3, "example.test");
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = recipientLogRepository.findDueIds(
+                EmailRecipientLog.Status.PENDING, now, PageRequest.of(0, 10));
+        assertThat(ids).hasSize(3);
+
+        // Both nodes selected the same rows; the first lease wins them all
+        int first = recipientLogRepository.lease(ids, EmailRecipientLog.Status.PENDING, now,
+                now.plusMinutes(5), "node-a");
+        int second = recipientLogRepository.lease(ids, EmailRecipientLog.Status.PENDING, now,
+                now.plusMinutes(5), "node-b");
+        entityManager.clear();
+
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isZero();
+        assertThat(recipientLogRepository.findClaimed(ids, "node-a")).hasSize(3);
+        assertThat(recipientLogRepository.findClaimed(ids, "node-b")).isEmpty();
+
+        // Leased rows are not due again until the lease expires
+        dispatcher.dispatchDue();
+        assertThat(smtp.recipients).isEmpty();
+    }
+
+    private EmailMessage queueMessage(int recipients, String domain) {
+        EmailMessage message = entityManager.persist(EmailMessage.builder()
+                .subject("Site update")
+                .body("<p>Hello</p>")
+                .sendInAppNotification(false)
+                .build());
+        for (int i = 0; i < recipients; i++) {
+            entityManager.persist(EmailRecipientLog.builder()
+                    .emailMessage(message)
+                    .recipientEmail("user" + i + "@" + domain)
+                    .status(EmailRecipientLog.Status.PENDING)
+                    .attempts(0)
+                    .build());
+        }
+        entityManager.flush();
+        return message;
+    }
+
+    private List<EmailRecipientLog.Status> statusesOf(EmailMessage message) {
+        entityManager.clear();
+        return entityManager.getEntityManager()
+                .createQuery("select r.status from EmailRecipientLog r where r.emailMessage.id = :id", EmailRecipientLog.Status.class)
+                .setParameter("id", message.getId())
+                .getResultList();
+    }
+
+    private List<EmailStatus> emailLogStatuses(String recipientPattern) {
+        entityManager.clear();
+        return entityManager.getEntityManager()
+                .createQuery("select l.status from EmailLog l where l.recipients like :recipient", EmailStatus.class)
+                .setParameter("recipient", recipientPattern)
+                .getResultList();
+    }
+
+    /**
+     * Minimal in-process SMTP server: accepts every recipient except bounce@..., records deliveries
+     * and counts connections.
+     */
+    static class SmtpStandIn {
+        final List<String> recipients = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        private ServerSocket serverSocket;
+
+        void start() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        Thread session = new Thread(() -> serve(socket));
+                        session.setDaemon(true);
+                        session.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        void reset() {
+            recipients.clear();
+            connections.set(0);
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost SMTP stand-in");
+                String pending = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        if (command.contains("BOUNCE@")) {
+                            reply(out, "550 No such user");
+                        } else {
+                            pending = line.substring(8).trim();
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message content is not inspected
+                        }
+                        recipients.add(pending);
+                        pending = null;
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // EHLO, HELO, MAIL FROM, RSET, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+                // client disconnected
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bamikahub.inventorysystem.services.messaging;
+
+import com.bamikahub.inventorysystem.config.BrokerBackplaneConfig;
+import com.bamikahub.inventorysystem.config.WebSocketConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts act as two backend nodes sharing an in-memory backplane.
+ */
+public class BrokerBackplaneTests {
+
+    private final InMemoryBrokerBackplane backplane = new InMemoryBrokerBackplane();
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    public void deliversBrokerMessagesToSubscribersOnOtherNodes() throws InterruptedException {
+        BlockingQueue<Message<?>> receivedOnA = subscribe(nodeA, "session-a", "/topic/general");
+        BlockingQueue<Message<?>> receivedOnB = subscribe(nodeB, "session-b", "/topic/general");
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend("/topic/general", Map.of("content", "hello"));
+
+        Message<?> local = receivedOnA.poll(5, TimeUnit.SECONDS);
+        Message<?> remote = receivedOnB.poll(5, TimeUnit.SECONDS);
+        assertThat(local).isNotNull();
+        assertThat(remote).isNotNull();
+        assertThat(new String((byte[]) remote.getPayload(), StandardCharsets.UTF_8)).contains("\"content\":\"hello\"");
+        assertThat(SimpMessageHeaderAccessor.getDestination(remote.getHeaders())).isEqualTo("/topic/general");
+
+        // Each node delivers the message exactly once; relayed messages are not published back
+        assertThat(receivedOnA.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(receivedOnB.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void onlyDeliversToMatchingSubscriptions() throws InterruptedException {
+        BlockingQueue<Message<?>> threadSubscriber = subscribe(nodeB, "session-b", "/queue/thread.7");
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend("/queue/thread.8", "other thread");
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend("/queue/thread.7", "this thread");
+
+        Message<?> received = threadSubscriber.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("this thread");
+        assertThat(threadSubscriber.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void resolvesUserDestinationsOnTheNodeHoldingTheSession() throws InterruptedException {
+        // Per-session destination the user destination resolves to for session-b
+        BlockingQueue<Message<?>> receivedOnB = subscribe(nodeB, "session-b", "/queue/notifications-usersession-b");
+        connectUser(nodeB, "session-b", "42");
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSendToUser("42", "/queue/notifications", "unread");
+
+        Message<?> received = receivedOnB.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("unread");
+        assertThat(receivedOnB.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(WebSocketConfig.class, BrokerBackplaneConfig.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().registerSingleton("brokerBackplane", backplane))
+                // Command-line arguments take precedence over application.properties
+                .run("--app.websocket.broker=backplane", "--app.websocket.backplane.node-id=" + nodeId);
+    }
+
+    /**
+     * Subscribes a simulated client session to a destination and collects what the broker sends to it.
+     */
+    private BlockingQueue<Message<?>> subscribe(ConfigurableApplicationContext node, String sessionId, String destination) {
+        BlockingQueue<Message<?>> received = new LinkedBlockingQueue<>();
+        node.getBean("clientOutboundChannel", SubscribableChannel.class).subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                    && sessionId.equals(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()))) {
+                received.add(message);
+            }
+        });
+
+        // Handed to the broker directly so the subscription is registered before the test publishes
+        SimpleBrokerMessageHandler broker = node.getBean(SimpleBrokerMessageHandler.class);
+        SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        connect.setSessionId(sessionId);
+        broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setSessionId(sessionId);
+        subscribe.setSubscriptionId("sub-" + sessionId);
+        subscribe.setDestination(destination);
+        broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        return received;
+    }
+
+    /**
+     * Registers an authenticated session in the node's user registry, as a STOMP CONNECTED frame would.
+     */
+    private void connectUser(ConfigurableApplicationContext node, String sessionId, String userName) {
+        Principal user = () -> userName;
+        SimpMessageHeaderAccessor connected = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        connected.setSessionId(sessionId);
+        connected.setUser(user);
+        node.publishEvent(new SessionConnectedEvent(this,
+                MessageBuilder.createMessage(new byte[0], connected.getMessageHeaders()), user));
+    }
+}
@@ -0,0 +1,158 @@
+package com.bamikahub.inventorysystem.services.notification;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.notification.NotificationRepository;
+import com.bamikahub.inventorysystem.dao.user.RoleRepository;
+import com.bamikahub.inventorysystem.dao.user.StatusRepository;
+import com.bamikahub.inventorysystem.dao.user.UserRepository;
+import com.bamikahub.inventorysystem.models.notification.Notification;
+import com.bamikahub.inventorysystem.models.notification.NotificationPriority;
+import com.bamikahub.inventorysystem.models.notification.NotificationType;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.settings.SystemSettingsHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never",
+    // Digests are flushed by the tests
+    "notifications.digest.flush-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({NotificationService.class, NotificationUnreadCounter.class, NotificationEmailDigest.class,
+        NotificationPushService.class, SystemSettingsHolder.class, CacheConfig.class})
+// Counters and digests are fed after commit, so the tests must not run inside one transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NotificationFanOutTests {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationEmailDigest emailDigest;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private AuditService auditService;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private Role role;
+    private Status status;
+
+    @BeforeEach
+    void setUp() {
+        role = new Role();
+        role.setName("STAFF-" + UUID.randomUUID());
+        roleRepository.save(role);
+        status = new Status();
+        status.setName("ACTIVE-" + UUID.randomUUID());
+        statusRepository.save(status);
+    }
+
+    @Test
+    public void insertsOneNotificationPerKnownRecipientAndCountsThemUnread() {
+        User first = user();
+        User second = user();
+        assertThat(notificationService.getUnreadCount(first.getId())).isZero();
+
+        notificationService.notifyUsers(List.of(first.getId(), second.getId(), first.getId(), -1L),
+                NotificationType.PROJECT_STATUS_CHANGED, "Project moved", "Now in progress", "/projects/7",
+                NotificationPriority.HIGH, "Project", 7L, false);
+
+        // notifyUsers runs asynchronously
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(notificationService.getUnreadCount(first.getId())).isEqualTo(1));
+        assertThat(notificationService.getUnreadCount(second.getId())).isEqualTo(1);
+
+        List<Notification> stored = notificationRepository.findByRecipientOrderByCreatedAtDesc(second);
+        assertThat(stored).hasSize(1);
+        Notification notification = stored.get(0);
+        assertThat(notification.getTitle()).isEqualTo("Project moved");
+        assertThat(notification.getPriority()).isEqualTo(NotificationPriority.HIGH);
+        assertThat(notification.getEntityType()).isEqualTo("Project");
+        assertThat(notification.getEntityId()).isEqualTo(7L);
+        assertThat(notification.getIsRead()).isFalse();
+        assertThat(notification.getEmailSent()).isFalse();
+
+        emailDigest.flush(true);
+        verify(emailService, never()).sendNotificationDigest(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void coalescesARecipientsEmailsIntoOneDigest() {
+        User recipient = user();
+
+        notificationService.notifyUsers(List.of(recipient.getId()), NotificationType.TASK_ASSIGNED,
+                "Site visit", "Tomorrow at 9", null);
+        notificationService.notifyUsers(List.of(recipient.getId()), NotificationType.TASK_ASSIGNED,
+                "Safety briefing", "Friday", null);
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(notificationService.getUnreadCount(recipient.getId())).isEqualTo(2));
+
+        emailDigest.flush(true);
+
+        ArgumentCaptor<List<Notification>> sent = ArgumentCaptor.forClass(List.class);
+        verify(emailService).sendNotificationDigest(
+                argThat(user -> user.getId().equals(recipient.getId())), sent.capture());
+        assertThat(sent.getValue()).extracting(Notification::getTitle)
+                .containsExactlyInAnyOrder("Site visit", "Safety briefing");
+        assertThat(notificationRepository.findByRecipientOrderByCreatedAtDesc(recipient))
+                .allMatch(Notification::getEmailSent);
+    }
+
+    private User user() {
+        String name = "user-" + UUID.randomUUID();
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setUsername(name);
+        user.setEmail(name + "@example.test");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setStatus(status);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,203 @@
+package com.bamikahub.inventorysystem.services.notification;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.notification.NotificationRepository;
+import com.bamikahub.inventorysystem.dao.user.RoleRepository;
+import com.bamikahub.inventorysystem.dao.user.StatusRepository;
+import com.bamikahub.inventorysystem.dao.user.UserRepository;
+import com.bamikahub.inventorysystem.dto.notification.NotificationDto;
+import com.bamikahub.inventorysystem.dto.notification.NotificationEvent;
+import com.bamikahub.inventorysystem.dto.notification.NotificationResumeDto;
+import com.bamikahub.inventorysystem.models.notification.Notification;
+import com.bamikahub.inventorysystem.models.notification.NotificationPriority;
+import com.bamikahub.inventorysystem.models.notification.NotificationType;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.audit.AuditService;
+import com.bamikahub.inventorysystem.services.settings.SystemSettingsHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({NotificationService.class, NotificationUnreadCounter.class, NotificationEmailDigest.class,
+        NotificationPushService.class, SystemSettingsHolder.class, CacheConfig.class})
+// Counter deltas are applied after commit, so the tests must not run inside one transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NotificationInboxTests {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private AuditService auditService;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private User recipient;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("STAFF-" + UUID.randomUUID());
+        roleRepository.save(role);
+        Status status = new Status();
+        status.setName("ACTIVE-" + UUID.randomUUID());
+        statusRepository.save(status);
+        recipient = user(role, status);
+        other = user(role, status);
+    }
+
+    @Test
+    public void pagesAndFiltersInTheDatabaseAndContinuesFromACursor() {
+        List<Notification> unreadTickets = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Notification notification = notification(recipient, NotificationType.TICKET_COMMENT_ADDED, i % 3 == 0);
+            if (!notification.getIsRead()) {
+                unreadTickets.add(0, notification);
+            }
+        }
+        notification(recipient, NotificationType.ITEM_LOW_STOCK, false);
+        notification(other, NotificationType.TICKET_COMMENT_ADDED, false);
+
+        Page<NotificationDto> first = notificationService.getUserNotifications(recipient.getId(),
+                NotificationType.TICKET_COMMENT_ADDED, null, false, PageRequest.of(0, 5));
+
+        assertThat(first.getTotalElements()).isEqualTo(8);
+        assertThat(first.getContent()).extracting(NotificationDto::getId)
+                .containsExactlyElementsOf(unreadTickets.subList(0, 5).stream().map(Notification::getId).toList());
+
+        Slice<NotificationDto> next = notificationService.getUserNotificationsBefore(recipient.getId(),
+                first.getContent().get(4).getId(), NotificationType.TICKET_COMMENT_ADDED, null, false, 5);
+
+        assertThat(next.getContent()).extracting(NotificationDto::getId)
+                .containsExactlyElementsOf(unreadTickets.subList(5, 8).stream().map(Notification::getId).toList());
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    @Test
+    public void keepsTheUnreadCounterCurrentThroughNotifyReadAndDelete() {
+        notification(recipient, NotificationType.ITEM_LOW_STOCK, false);
+        assertThat(notificationService.getUnreadCount(recipient.getId())).isEqualTo(1);
+
+        notificationService.notifyUser(recipient.getId(), NotificationType.ITEM_LOW_STOCK, "Cement low", "Reorder",
+                null, NotificationPriority.NORMAL, null, null, false);
+        notificationService.notifyUser(recipient.getId(), NotificationType.ITEM_LOW_STOCK, "Sand low", "Reorder",
+                null, NotificationPriority.NORMAL, null, null, false);
+        // notifyUser runs asynchronously
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(notificationService.getUnreadCount(recipient.getId())).isEqualTo(3));
+
+        List<Notification> stored = notificationRepository.findByRecipientOrderByCreatedAtDesc(recipient);
+        notificationService.markAsRead(stored.get(0).getId(), recipient.getId());
+        notificationService.markAsRead(stored.get(0).getId(), recipient.getId());
+        assertThat(notificationService.getUnreadCount(recipient.getId())).isEqualTo(2);
+
+        notificationService.deleteNotification(stored.get(1).getId(), recipient.getId());
+        assertThat(notificationService.getUnreadCount(recipient.getId())).isEqualTo(1);
+
+        notificationService.markAllAsRead(recipient.getId());
+        assertThat(notificationService.getUnreadCount(recipient.getId())).isZero();
+        assertThat(notificationRepository.countUnreadByRecipientId(recipient.getId())).isZero();
+    }
+
+    @Test
+    public void pushesNewNotificationsAndResumesAfterTheLastSeenOne() {
+        Notification seen = notification(recipient, NotificationType.ITEM_LOW_STOCK, false);
+        Notification missedRead = notification(recipient, NotificationType.ITEM_LOW_STOCK, true);
+        notification(other, NotificationType.ITEM_LOW_STOCK, false);
+
+        notificationService.notifyUser(recipient.getId(), NotificationType.ITEM_LOW_STOCK, "Cement low", "Reorder",
+                null, NotificationPriority.NORMAL, null, null, false);
+
+        ArgumentCaptor<NotificationEvent> pushed = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(messagingTemplate, timeout(10000)).convertAndSendToUser(eq(String.valueOf(recipient.getId())),
+                eq(NotificationPushService.DESTINATION), pushed.capture());
+        assertThat(pushed.getValue().getKind()).isEqualTo(NotificationEvent.Kind.CREATED);
+        assertThat(pushed.getValue().getUnreadDelta()).isEqualTo(1);
+        assertThat(pushed.getValue().getNotification().getTitle()).isEqualTo("Cement low");
+        Long createdId = pushed.getValue().getNotificationId();
+
+        NotificationResumeDto resumed = notificationService.getNotificationsAfter(recipient.getId(), seen.getId(), 10);
+
+        assertThat(resumed.getNotifications()).extracting(NotificationDto::getId)
+                .containsExactly(missedRead.getId(), createdId);
+        assertThat(resumed.isHasMore()).isFalse();
+        assertThat(resumed.getUnreadCount()).isEqualTo(2);
+
+        notificationService.markAsRead(createdId, recipient.getId());
+        verify(messagingTemplate).convertAndSendToUser(eq(String.valueOf(recipient.getId())),
+                eq(NotificationPushService.DESTINATION),
+                argThat((NotificationEvent event) -> event.getKind() == NotificationEvent.Kind.READ
+                        && createdId.equals(event.getNotificationId()) && event.getUnreadDelta() == -1));
+    }
+
+    private User user(Role role, Status status) {
+        String name = "user-" + UUID.randomUUID();
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setUsername(name);
+        user.setEmail(name + "@example.test");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setStatus(status);
+        return userRepository.save(user);
+    }
+
+    private Notification notification(User to, NotificationType type, boolean read) {
+        Notification notification = new Notification();
+        notification.setRecipient(to);
+        notification.setType(type);
+        notification.setTitle(type.name());
+        notification.setIsRead(read);
+        return notificationRepository.save(notification);
+    }
+}
@@ -0,0 +1,176 @@
+package com.bamikahub.inventorysystem.services.reporting;
+
+import com.bamikahub.inventorysystem.config.CacheConfig;
+import com.bamikahub.inventorysystem.dao.reporting.BucketAmountRow;
+import com.bamikahub.inventorysystem.dao.reporting.InventoryRollupRepository;
+import com.bamikahub.inventorysystem.models.inventory.Category;
+import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
+import com.bamikahub.inventorysystem.models.inventory.StockTransaction;
+import com.bamikahub.inventorysystem.models.reporting.RollupGranularity;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({ReportRollupService.class, CacheConfig.class})
+// Rollup deltas are applied after commit, so the tests must not run inside one transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReportRollupTests {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private ReportRollupService rollupService;
+
+    @Autowired
+    private InventoryRollupRepository inventoryRollupRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User user;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Role role = new Role();
+            role.setName("STOREKEEPER" + sequence.incrementAndGet());
+            entityManager.persist(role);
+            Status active = new Status();
+            active.setName("ACTIVE" + sequence.incrementAndGet());
+            entityManager.persist(active);
+            String username = "storekeeper" + sequence.incrementAndGet();
+            user = new User();
+            user.setFirstName(username);
+            user.setLastName("Tester");
+            user.setUsername(username);
+            user.setEmail(username + "@example.test");
+            user.setPassword("secret");
+            user.setRole(role);
+            user.setStatus(active);
+            entityManager.persist(user);
+
+            Category category = new Category();
+            category.setName("Category " + sequence.incrementAndGet());
+            entityManager.persist(category);
+            item = new InventoryItem();
+            item.setName("Cement " + sequence.incrementAndGet());
+            item.setSku("SKU-" + sequence.get());
+            item.setCategory(category);
+            item.setQuantity(100);
+            item.setUnitPrice(new BigDecimal("1000"));
+            entityManager.persist(item);
+        });
+    }
+
+    @AfterEach
+    void clearRollups() {
+        inventoryRollupRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void rebuildMatchesIncrementalRollupsAfterAPriceChange() {
+        recordMovement(StockTransaction.TransactionType.IN, 10);
+        recordMovement(StockTransaction.TransactionType.OUT, 4);
+        recordMovement(StockTransaction.TransactionType.OUT, 2);
+
+        List<String> incremental = inventoryRollups();
+        assertThat(stockOutValueToday()).isEqualByComparingTo("6000");
+
+        // Movements keep the price they were recorded at, so a later price change does not revalue history
+        tx.executeWithoutResult(status ->
+                entityManager.find(InventoryItem.class, item.getId()).setUnitPrice(new BigDecimal("2500")));
+        rollupService.rebuildAll();
+
+        assertThat(inventoryRollups()).isEqualTo(incremental);
+        assertThat(stockOutValueToday()).isEqualByComparingTo("6000");
+
+        // Deltas after a rebuild land on the rebuilt rows exactly once
+        recordMovement(StockTransaction.TransactionType.OUT, 1);
+        assertThat(stockOutValueToday()).isEqualByComparingTo("8500");
+        List<String> afterDelta = inventoryRollups();
+        rollupService.rebuildAll();
+        assertThat(inventoryRollups()).isEqualTo(afterDelta);
+    }
+
+    @Test
+    public void rebuildEvictsReportsCachedFromTheOldRollups() {
+        cacheManager.getCache(CacheConfig.FINANCE_REPORTS).put("trend", "stale");
+        cacheManager.getCache(CacheConfig.SUPPORT_REPORTS).put("volume", "stale");
+
+        rollupService.rebuildAll();
+
+        assertThat(cacheManager.getCache(CacheConfig.FINANCE_REPORTS).get("trend")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.SUPPORT_REPORTS).get("volume")).isNull();
+    }
+
+    private void recordMovement(StockTransaction.TransactionType type, int quantity) {
+        tx.executeWithoutResult(status -> {
+            InventoryItem current = entityManager.find(InventoryItem.class, item.getId());
+            StockTransaction transaction = new StockTransaction();
+            transaction.setItem(current);
+            transaction.setUser(entityManager.getReference(User.class, user.getId()));
+            transaction.setType(type);
+            transaction.setQuantity(quantity);
+            transaction.setPreviousQuantity(current.getQuantity());
+            transaction.setNewQuantity(current.getQuantity());
+            transaction.setUnitPrice(current.getUnitPrice());
+            entityManager.persist(transaction);
+            rollupService.recordStockTransaction(transaction);
+        });
+    }
+
+    private BigDecimal stockOutValueToday() {
+        LocalDate today = LocalDate.now();
+        return rollupService.stockOutValueByBucket(today, today, RollupGranularity.DAILY).stream()
+                .map(BucketAmountRow::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Comparable snapshot of every inventory rollup row, independent of row ids
+    private List<String> inventoryRollups() {
+        return inventoryRollupRepository.findAll().stream()
+                .map(rollup -> String.join("|", rollup.getGranularity().name(), rollup.getBucketStart().toString(),
+                        String.valueOf(rollup.getItemId()),
+                        String.valueOf(rollup.getStockInQuantity()), String.valueOf(rollup.getStockOutQuantity()),
+                        rollup.getStockInValue().stripTrailingZeros().toPlainString(),
+                        rollup.getStockOutValue().stripTrailingZeros().toPlainString()))
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,240 @@
+package com.bamikahub.inventorysystem.services.reporting;
+
+import com.bamikahub.inventorysystem.dto.reporting.BudgetVsActualDto;
+import com.bamikahub.inventorysystem.dto.reporting.ReportRequestDto;
+import com.bamikahub.inventorysystem.dto.reporting.StockMovementDto;
+import com.bamikahub.inventorysystem.models.finance.Requisition;
+import com.bamikahub.inventorysystem.models.finance.RequisitionItem;
+import com.bamikahub.inventorysystem.models.inventory.Category;
+import com.bamikahub.inventorysystem.models.inventory.InventoryItem;
+import com.bamikahub.inventorysystem.models.inventory.StockTransaction;
+import com.bamikahub.inventorysystem.models.operations.Project;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({ReportingService.class, ReportRollupService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class ReportingServiceTests {
+
+    private static final String REPORTER_EMAIL = "reporter@bamikahub.test";
+
+    // Two report queries plus the fixed cost of recording report history (user lookup and insert)
+    private static final long MAX_REPORT_STATEMENTS = 8;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Report caching stays off here so every call reaches the database; the rollup service only needs the bean
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    private User user;
+    private int sequence;
+
+    @BeforeEach
+    public void setUp() {
+        Status status = new Status();
+        status.setName("ACTIVE");
+        entityManager.persist(status);
+
+        Role role = new Role();
+        role.setName("ADMIN");
+        entityManager.persist(role);
+
+        user = new User();
+        user.setFirstName("Report");
+        user.setLastName("Runner");
+        user.setUsername("reporter");
+        user.setEmail(REPORTER_EMAIL);
+        user.setPassword("secret");
+        user.setStatus(status);
+        user.setRole(role);
+        entityManager.persist(user);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(REPORTER_EMAIL, null, List.of()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void budgetVsActualIssuesBoundedStatementsRegardlessOfProjectCount() {
+        seedProjects(2);
+        long fewProjects = countStatements(() -> reportingService.getBudgetVsActual(new ReportRequestDto()));
+
+        seedProjects(25);
+        long manyProjects = countStatements(() -> reportingService.getBudgetVsActual(new ReportRequestDto()));
+
+        assertThat(manyProjects).isEqualTo(fewProjects).isLessThanOrEqualTo(MAX_REPORT_STATEMENTS);
+    }
+
+    @Test
+    public void stockMovementIssuesBoundedStatementsRegardlessOfItemCount() {
+        seedItems(2);
+        long fewItems = countStatements(() -> reportingService.getStockMovementReport(new ReportRequestDto()));
+
+        seedItems(25);
+        long manyItems = countStatements(() -> reportingService.getStockMovementReport(new ReportRequestDto()));
+
+        assertThat(manyItems).isEqualTo(fewItems).isLessThanOrEqualTo(MAX_REPORT_STATEMENTS);
+    }
+
+    @Test
+    public void budgetVsActualSplitsBudgetedAndActualCostPerProject() {
+        Project project = newProject();
+        newRequisition(project, Requisition.RequisitionStatus.CLOSED, "1000", 2.0);
+        newRequisition(project, Requisition.RequisitionStatus.PENDING, "500", 1.0);
+        newRequisition(project, Requisition.RequisitionStatus.REJECTED, "9000", 1.0);
+        entityManager.flush();
+
+        List<BudgetVsActualDto> report = reportingService.getBudgetVsActual(new ReportRequestDto());
+
+        assertThat(report).singleElement().satisfies(row -> {
+            assertThat(row.getBudgetedCost()).isEqualByComparingTo("2500");
+            assertThat(row.getActualCost()).isEqualByComparingTo("2000");
+            assertThat(row.getStatus()).isEqualTo("UNDER_BUDGET");
+        });
+    }
+
+    @Test
+    public void stockMovementDerivesInitialStockFromMovementsInRange() {
+        InventoryItem item = newItem(newCategory(), 20);
+        newTransaction(item, StockTransaction.TransactionType.IN, 10);
+        newTransaction(item, StockTransaction.TransactionType.IN, 5);
+        newTransaction(item, StockTransaction.TransactionType.OUT, 3);
+        entityManager.flush();
+
+        List<StockMovementDto> report = reportingService.getStockMovementReport(ReportRequestDto.builder()
+                .startDate(LocalDate.now().minusDays(1))
+                .endDate(LocalDate.now())
+                .build());
+
+        assertThat(report).singleElement().satisfies(row -> {
+            assertThat(row.getStockIn()).isEqualTo(15);
+            assertThat(row.getStockOut()).isEqualTo(3);
+            assertThat(row.getInitialStock()).isEqualTo(8);
+            assertThat(row.getFinalStock()).isEqualTo(20);
+            assertThat(row.getReorderFrequency()).isEqualTo(2);
+        });
+    }
+
+    private long countStatements(Supplier<?> report) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        report.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedProjects(int count) {
+        for (int i = 0; i < count; i++) {
+            Project project = newProject();
+            newRequisition(project, Requisition.RequisitionStatus.FULFILLED, "250", 4.0);
+            newRequisition(project, Requisition.RequisitionStatus.PENDING, "100", 1.5);
+        }
+    }
+
+    private void seedItems(int count) {
+        for (int i = 0; i < count; i++) {
+            InventoryItem item = newItem(newCategory(), 50);
+            newTransaction(item, StockTransaction.TransactionType.IN, 10);
+            newTransaction(item, StockTransaction.TransactionType.OUT, 4);
+        }
+    }
+
+    private Project newProject() {
+        Project project = new Project();
+        project.setName("Project " + (++sequence));
+        project.setClientName("Client");
+        project.setStatus(Project.ProjectStatus.IN_PROGRESS);
+        return entityManager.persist(project);
+    }
+
+    private void newRequisition(Project project, Requisition.RequisitionStatus status, String unitCost, double quantity) {
+        Requisition requisition = new Requisition();
+        requisition.setRequestedBy(user);
+        requisition.setProject(project);
+        requisition.setStatus(status);
+        requisition.setDateNeeded(LocalDate.now());
+
+        RequisitionItem item = new RequisitionItem();
+        item.setRequisition(requisition);
+        item.setItemName("Cement");
+        item.setQuantity(quantity);
+        item.setUnitOfMeasure("bags");
+        item.setEstimatedUnitCost(new BigDecimal(unitCost));
+        requisition.setItems(List.of(item));
+
+        entityManager.persist(requisition);
+    }
+
+    private Category newCategory() {
+        Category category = new Category();
+        category.setName("Category " + (++sequence));
+        return entityManager.persist(category);
+    }
+
+    private InventoryItem newItem(Category category, int quantity) {
+        InventoryItem item = new InventoryItem();
+        item.setName("Item " + (++sequence));
+        item.setSku("SKU-" + sequence);
+        item.setCategory(category);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal("1000"));
+        return entityManager.persist(item);
+    }
+
+    private void newTransaction(InventoryItem item, StockTransaction.TransactionType type, int quantity) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setItem(item);
+        transaction.setUser(user);
+        transaction.setType(type);
+        transaction.setQuantity(quantity);
+        transaction.setPreviousQuantity(item.getQuantity());
+        transaction.setNewQuantity(item.getQuantity());
+        entityManager.persist(transaction);
+    }
+}
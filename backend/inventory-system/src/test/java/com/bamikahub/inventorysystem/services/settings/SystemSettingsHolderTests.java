@@ -0,0 +1,92 @@
+package com.bamikahub.inventorysystem.services.settings;
+
+import com.bamikahub.inventorysystem.dao.settings.SystemSettingsRepository;
+import com.bamikahub.inventorysystem.models.settings.SystemSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never",
+    // Refreshes are triggered by the tests
+    "settings.system.refresh-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import(SystemSettingsHolder.class)
+@RecordApplicationEvents
+// Snapshots are swapped after commit, so the tests must not run inside one transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SystemSettingsHolderTests {
+
+    @Autowired
+    private SystemSettingsHolder holder;
+
+    @Autowired
+    private SystemSettingsRepository repository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        // Creates the default row on first use
+        holder.current();
+    }
+
+    @Test
+    public void keepsTheSingleSettingsRowInMemory() {
+        assertThat(repository.count()).isEqualTo(1);
+        SystemSettings row = repository.findFirstByOrderByIdAsc().orElseThrow();
+        SystemSettingsSnapshot current = holder.current();
+        assertThat(current.id()).isEqualTo(row.getId());
+        assertThat(current.companyName()).isEqualTo(row.getCompanyName());
+        assertThat(current.maxLoginAttempts()).isEqualTo(row.getMaxLoginAttempts());
+    }
+
+    @Test
+    public void replaceSwapsTheSnapshotAndPublishesTheChange() {
+        SystemSettingsSnapshot before = holder.current();
+        SystemSettings row = repository.findById(before.id()).orElseThrow();
+        row.setMaxLoginAttempts(before.maxLoginAttempts() + 1);
+        row.setEmailNotificationsEnabled(!before.emailNotificationsEnabled());
+
+        holder.replaceAfterCommit(repository.saveAndFlush(row));
+
+        SystemSettingsSnapshot after = holder.current();
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+        assertThat(after.maxLoginAttempts()).isEqualTo(before.maxLoginAttempts() + 1);
+        assertThat(events.stream(SystemSettingsChangedEvent.class)).singleElement().satisfies(event -> {
+            assertThat(event.previous()).isEqualTo(before);
+            assertThat(event.current()).isEqualTo(after);
+        });
+    }
+
+    @Test
+    public void refreshPicksUpChangesWrittenElsewhere() {
+        long version = holder.current().version();
+
+        holder.refresh();
+        assertThat(holder.current().version()).isEqualTo(version);
+        assertThat(events.stream(SystemSettingsChangedEvent.class)).isEmpty();
+
+        SystemSettings row = repository.findById(holder.current().id()).orElseThrow();
+        row.setCompanyName("Another node");
+        repository.saveAndFlush(row);
+
+        holder.refresh();
+        assertThat(holder.current().companyName()).isEqualTo("Another node");
+        assertThat(holder.current().version()).isEqualTo(version + 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bamikahub.inventorysystem.services.storage;
+
+import com.bamikahub.inventorysystem.dao.storage.StoredBlobRepository;
+import com.bamikahub.inventorysystem.models.storage.StoredBlob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never",
+    "file.blobs.sweep-grace-ms=0"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import(AttachmentStorage.class)
+// Storage commits references in transactions of its own, so the tests must not run inside one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AttachmentStorageTests {
+
+    @TempDir
+    static Path blobDir;
+
+    @DynamicPropertySource
+    static void blobProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload-dir.blobs", () -> blobDir.toString());
+    }
+
+    @Autowired
+    private AttachmentStorage storage;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void storesIdenticalContentOnceWithOneReferencePerUpload() throws IOException {
+        StoredBlob first = storage.commit(storage.stage(upload("report.pdf", "quarterly numbers")));
+        StoredBlob second = storage.commit(storage.stage(upload("copy of report.pdf", "quarterly numbers")));
+
+        assertThat(second.getSha256()).isEqualTo(first.getSha256());
+        assertThat(second.getStorageKey()).endsWith(".pdf");
+        assertThat(blobRepository.findById(first.getSha256())).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(2);
+        assertThat(Files.readString(storage.resolve(first))).isEqualTo("quarterly numbers");
+        assertThat(storage.publicUrl(first)).isEqualTo("/uploads/blobs/" + first.getStorageKey());
+        // Both temp files were consumed: one moved into place, the duplicate dropped
+        try (Stream<Path> temps = Files.list(blobDir.resolve("tmp"))) {
+            assertThat(temps).isEmpty();
+        }
+    }
+
+    @Test
+    public void releasesTheReferenceWhenTheCallerRollsBack() {
+        AttachmentStorage.StagedUpload staged = storage.stage(upload("photo.jpg", "site photo"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            storage.commit(staged);
+            status.setRollbackOnly();
+        });
+
+        assertThat(blobRepository.findById(staged.sha256())).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(0);
+    }
+
+    @Test
+    public void sweepDeletesBlobsWithoutReferences() {
+        StoredBlob kept = storage.commit(storage.stage(upload("kept.txt", "still referenced")));
+        StoredBlob dropped = storage.commit(storage.stage(upload("dropped.txt", "no longer referenced")));
+        storage.release(dropped.getSha256());
+
+        storage.sweep();
+
+        assertThat(blobRepository.existsById(dropped.getSha256())).isFalse();
+        assertThat(Files.exists(storage.resolve(dropped))).isFalse();
+        assertThat(blobRepository.existsById(kept.getSha256())).isTrue();
+        assertThat(Files.exists(storage.resolve(kept))).isTrue();
+    }
+
+    private static MockMultipartFile upload(String name, String content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
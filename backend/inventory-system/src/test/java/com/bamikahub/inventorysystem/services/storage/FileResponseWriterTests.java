@@ -0,0 +1,96 @@
+package com.bamikahub.inventorysystem.services.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileResponseWriterTests {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path dir;
+
+    private final FileResponseWriter writer = new FileResponseWriter(300, 100);
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(dir.resolve("photo.jpg"), CONTENT, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void servesWholeFileWithValidatorsAndAnswersConditionalGetWith304() throws IOException {
+        MockHttpServletResponse first = serve(new MockHttpServletRequest("GET", "/uploads/photo.jpg"), null);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(first.getContentType()).isEqualTo("image/jpeg");
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("public, max-age=300, must-revalidate");
+        String etag = first.getHeader("ETag");
+        assertThat(etag).startsWith("\"").endsWith("\"").hasSize(66);
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        revalidate.addHeader("If-None-Match", "W/" + etag);
+        MockHttpServletResponse second = serve(revalidate, null);
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void servesSingleRangesAndRejectsUnsatisfiableOnes() throws IOException {
+        MockHttpServletRequest ranged = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        ranged.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse partial = serve(ranged, null);
+        assertThat(partial.getStatus()).isEqualTo(206);
+        assertThat(partial.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(partial.getContentAsString()).isEqualTo("56789");
+
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        suffix.addHeader("Range", "bytes=-3");
+        assertThat(serve(suffix, null).getContentAsString()).isEqualTo("hij");
+
+        MockHttpServletRequest beyond = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        beyond.addHeader("Range", "bytes=20-");
+        MockHttpServletResponse unsatisfiable = serve(beyond, null);
+        assertThat(unsatisfiable.getStatus()).isEqualTo(416);
+        assertThat(unsatisfiable.getHeader("Content-Range")).isEqualTo("bytes */20");
+    }
+
+    @Test
+    public void ignoresRangeWhenIfRangeNoLongerMatches() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=0-4");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = serve(request, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void contentAddressedFilesUseTheirHashAndAreImmutable() throws IOException {
+        String hash = "ab".repeat(32);
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("HEAD", "/uploads/photo.jpg"), hash);
+
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + hash + "\"");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(response.getContentLengthLong()).isEqualTo(20);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request, String contentHash) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.writePublic(request, response, file, contentHash);
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package com.bamikahub.inventorysystem.services.storage;
+
+import com.bamikahub.inventorysystem.models.storage.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ImageVariantServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageVariantService(uploadDir.toString(), 1, 10, 10000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void mapsUploadUrlsToVariantUrls() {
+        assertThat(ImageVariant.THUMBNAIL.urlFor("/uploads/item-images/a.png"))
+                .isEqualTo("/uploads/variants/thumb/item-images/a.png");
+        assertThat(ImageVariant.MEDIUM.urlFor("/uploads/blobs/ab/abc.JPG"))
+                .isEqualTo("/uploads/variants/medium/blobs/ab/abc.JPG");
+        assertThat(ImageVariant.THUMBNAIL.urlFor("/uploads/support-attachments/report.pdf")).isNull();
+        assertThat(ImageVariant.THUMBNAIL.urlFor("https://example.test/a.png")).isNull();
+        assertThat(ImageVariant.THUMBNAIL.urlFor(null)).isNull();
+    }
+
+    @Test
+    public void generatesMissingVariantOnRequestKeepingFormatAndAspectRatio() throws IOException {
+        writeImage("item-images/wide.png", 1600, 800);
+
+        Path served = service.resolve("variants/thumb/item-images/wide.png");
+
+        assertThat(served).isEqualTo(uploadDir.resolve("variants/thumb/item-images/wide.png"));
+        BufferedImage thumbnail = ImageIO.read(served.toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(160);
+        assertThat(thumbnail.getHeight()).isEqualTo(80);
+        // Only the requested variant was made, and no temp files were left behind
+        try (var files = Files.list(served.getParent())) {
+            assertThat(files).containsExactly(served);
+        }
+        assertThat(uploadDir.resolve("variants/medium")).doesNotExist();
+    }
+
+    @Test
+    public void keepsSmallOriginalsAsTheyAreAndDeletesVariantsWithTheImage() throws IOException {
+        Path original = writeImage("wall-of-fame-images/small.png", 100, 120);
+
+        Path served = service.resolve("variants/medium/wall-of-fame-images/small.png");
+
+        assertThat(Files.readAllBytes(served)).isEqualTo(Files.readAllBytes(original));
+        service.deleteVariants("/uploads/wall-of-fame-images/small.png");
+        assertThat(served).doesNotExist();
+    }
+
+    @Test
+    public void leavesUnknownVariantsAndPathsOutsideTheUploadDirAlone() {
+        assertThat(service.resolve("variants/huge/item-images/wide.png"))
+                .isEqualTo(uploadDir.resolve("variants/huge/item-images/wide.png"));
+        assertThat(service.resolve("variants/thumb/../../outside.png")).doesNotExist();
+    }
+
+    private Path writeImage(String relative, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width / 2, height);
+        g.dispose();
+        Path file = uploadDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+}
@@ -0,0 +1,136 @@
+package com.bamikahub.inventorysystem.services.support;
+
+import com.bamikahub.inventorysystem.dao.support.SlaTicketRow;
+import com.bamikahub.inventorysystem.models.support.SupportTicket;
+import com.bamikahub.inventorysystem.models.user.Role;
+import com.bamikahub.inventorysystem.models.user.Status;
+import com.bamikahub.inventorysystem.models.user.User;
+import com.bamikahub.inventorysystem.services.reporting.ReportRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Import({SlaEngine.class, SlaService.class})
+public class SlaEngineTests {
+
+    @Autowired
+    private SlaEngine engine;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private TicketNotificationService notificationService;
+
+    @MockitoBean
+    private ReportRollupService reportRollupService;
+
+    private User submitter;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("STAFF");
+        entityManager.persist(role);
+        Status status = new Status();
+        status.setName("ACTIVE");
+        entityManager.persist(status);
+
+        submitter = new User();
+        submitter.setFirstName("Sam");
+        submitter.setLastName("Submitter");
+        submitter.setUsername("sam");
+        submitter.setEmail("sam@example.test");
+        submitter.setPassword("secret");
+        submitter.setRole(role);
+        submitter.setStatus(status);
+        entityManager.persist(submitter);
+    }
+
+    @Test
+    public void flagsResponseBreachAndEscalatesOverdueTicketOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        SupportTicket overdue = ticket(SupportTicket.TicketPriority.MEDIUM, now.minusMinutes(5), now.minusMinutes(1));
+        SupportTicket onTime = ticket(SupportTicket.TicketPriority.LOW, now.plusHours(6), now.plusHours(48));
+
+        engine.refresh();
+        engine.fireDue();
+
+        entityManager.clear();
+        SupportTicket escalated = entityManager.find(SupportTicket.class, overdue.getId());
+        assertThat(escalated.isResponseBreached()).isTrue();
+        assertThat(escalated.isResolutionBreached()).isTrue();
+        assertThat(escalated.getPriority()).isEqualTo(SupportTicket.TicketPriority.HIGH);
+        assertThat(escalated.getLastEscalationAt()).isNotNull();
+        SupportTicket untouched = entityManager.find(SupportTicket.class, onTime.getId());
+        assertThat(untouched.isResponseBreached()).isFalse();
+        assertThat(untouched.getPriority()).isEqualTo(SupportTicket.TicketPriority.LOW);
+
+        // One alert for the response breach, one for the resolution breach, one escalation
+        ArgumentCaptor<SlaTicketRow> breached = ArgumentCaptor.forClass(SlaTicketRow.class);
+        verify(notificationService, times(2)).notifySlaBreached(breached.capture());
+        assertThat(breached.getAllValues()).extracting(SlaTicketRow::getId).containsOnly(overdue.getId());
+        verify(notificationService, times(1)).notifyEscalation(any());
+        verify(reportRollupService).recordTicketPriorityChange(any(SlaTicketRow.class), eq(SupportTicket.TicketPriority.MEDIUM));
+
+        // Within the escalation interval nothing is queued or fired again
+        engine.refresh();
+        engine.fireDue();
+        verify(notificationService, times(1)).notifyEscalation(any());
+    }
+
+    @Test
+    public void skipsTicketsResolvedOrAnsweredBeforeTheirEventFires() {
+        LocalDateTime now = LocalDateTime.now();
+        SupportTicket ticket = ticket(SupportTicket.TicketPriority.HIGH, now.minusMinutes(5), now.minusMinutes(1));
+
+        engine.refresh();
+        ticket.setFirstResponseAt(now.minusMinutes(10));
+        ticket.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        ticket.setResolvedAt(now.minusMinutes(2));
+        entityManager.persistAndFlush(ticket);
+        engine.fireDue();
+
+        entityManager.clear();
+        SupportTicket reloaded = entityManager.find(SupportTicket.class, ticket.getId());
+        assertThat(reloaded.isResponseBreached()).isFalse();
+        assertThat(reloaded.getPriority()).isEqualTo(SupportTicket.TicketPriority.HIGH);
+        verify(notificationService, never()).notifySlaBreached(any());
+        verify(notificationService, never()).notifyEscalation(any());
+    }
+
+    private SupportTicket ticket(SupportTicket.TicketPriority priority, LocalDateTime responseDueAt,
+                                 LocalDateTime resolutionDueAt) {
+        SupportTicket ticket = new SupportTicket();
+        ticket.setSubject("Printer offline");
+        ticket.setDescription("The site office printer does not respond.");
+        ticket.setStatus(SupportTicket.TicketStatus.OPEN);
+        ticket.setPriority(priority);
+        ticket.setSubmittedBy(submitter);
+        ticket.setResponseDueAt(responseDueAt);
+        ticket.setResolutionDueAt(resolutionDueAt);
+        return entityManager.persistAndFlush(ticket);
+    }
+}
@@ -1,8 +1,9 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Dropdown, Badge, ListGroup, Spinner } from 'react-bootstrap';
 import { FaBell, FaCheckDouble, FaExternalLinkAlt } from 'react-icons/fa';
 import { useNavigate } from 'react-router-dom';
 import api from '../../api/api.js';
+import { useChat } from '../../context/ChatContext.jsx';
 import { toast } from 'react-toastify';
 import './NotificationBell.css';
 
@@ -11,19 +12,84 @@ const NotificationBell = () => {
     const [unreadCount, setUnreadCount] = useState(0);
     const [loading, setLoading] = useState(false);
     const [show, setShow] = useState(false);
+    const lastSeenId = useRef(0);
+    // Reads this tab already applied, so their pushed events do not count twice
+    const readHere = useRef(new Set());
+    const { connected, subscribeNotifications } = useChat();
     const navigate = useNavigate();
 
     useEffect(() => {
         fetchNotifications();
         fetchUnreadCount();
-        
-        // Poll for new notifications every 30 seconds
+    }, []);
+
+    // Changes are pushed while the socket is up; poll only while it is down
+    useEffect(() => {
+        if (connected) {
+            resume();
+            return subscribeNotifications(applyEvent);
+        }
         const interval = setInterval(() => {
             fetchUnreadCount();
         }, 30000);
-
         return () => clearInterval(interval);
-    }, []);
+    }, [connected]);
+
+    const remember = (items) => {
+        items.forEach((item) => {
+            lastSeenId.current = Math.max(lastSeenId.current, item.id);
+        });
+    };
+
+    const applyEvent = (event) => {
+        const appliedHere = event.kind === 'READ' && readHere.current.delete(event.notificationId);
+        if (!appliedHere) {
+            setUnreadCount(prev => Math.max(0, prev + (event.unreadDelta || 0)));
+        }
+        switch (event.kind) {
+            case 'CREATED':
+                remember([event.notification]);
+                setNotifications(prev => prev.some(n => n.id === event.notificationId)
+                    ? prev
+                    : [event.notification, ...prev].slice(0, 10));
+                break;
+            case 'READ':
+                setNotifications(prev =>
+                    prev.map(n => n.id === event.notificationId ? { ...n, isRead: true } : n)
+                );
+                break;
+            case 'ALL_READ':
+                setNotifications(prev => prev.map(n => ({ ...n, isRead: true })));
+                break;
+            case 'DELETED':
+                setNotifications(prev => prev.filter(n => n.id !== event.notificationId));
+                break;
+            default:
+                break;
+        }
+    };
+
+    // After a (re)connect, fetch what was missed instead of reloading the list
+    const resume = async () => {
+        try {
+            const { data } = await api.get('/notifications/since', {
+                params: { afterId: lastSeenId.current, size: 10 }
+            });
+            remember(data.notifications);
+            if (data.hasMore) {
+                await fetchNotifications();
+            } else if (data.notifications.length) {
+                const missed = [...data.notifications].reverse();
+                setNotifications(prev => [
+                    ...missed,
+                    ...prev.filter(n => !missed.some(m => m.id === n.id))
+                ].slice(0, 10));
+            }
+            setUnreadCount(data.unreadCount);
+        } catch (error) {
+            console.error('Failed to resume notifications:', error);
+        }
+    };
 
     const fetchNotifications = async () => {
         setLoading(true);
@@ -31,6 +97,7 @@ const NotificationBell = () => {
             const response = await api.get('/notifications', { params: { page: 0, size: 10 } });
             const data = response.data;
             const items = Array.isArray(data?.content) ? data.content : Array.isArray(data) ? data : [];
+            remember(items);
             setNotifications(items);
         } catch (error) {
             console.error('Failed to fetch notifications:', error);
@@ -50,13 +117,22 @@ const NotificationBell = () => {
     };
 
     const markAsRead = async (notificationId) => {
+        const wasUnread = notifications.some(n => n.id === notificationId && !n.isRead);
+        // Registered before the request, as the pushed event may arrive before the response
+        if (wasUnread && connected) {
+            readHere.current.add(notificationId);
+        }
         try {
             await api.put(`/notifications/${notificationId}/read`);
+            if (!wasUnread) {
+                return;
+            }
             setNotifications(prev =>
                 prev.map(n => n.id === notificationId ? { ...n, isRead: true } : n)
             );
             setUnreadCount(prev => Math.max(0, prev - 1));
         } catch (error) {
+            readHere.current.delete(notificationId);
             console.error('Failed to mark notification as read:', error);
         }
     };
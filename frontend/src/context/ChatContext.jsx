@@ -22,6 +22,7 @@ export const ChatProvider = ({ children }) => {
   const threadSubscriptionRef = useRef(null);
   const activeThreadRef = useRef(null);
   const userRef = useRef(null);
+  const notificationListeners = useRef(new Set());
 
   const loadThreads = async () => {
     if (!user) return [];
@@ -39,19 +40,13 @@ export const ChatProvider = ({ children }) => {
   const markThreadRead = async (threadId, lastMessageId) => {
     if (!user || !lastMessageId) return [];
     try {
+      // Answers with a read receipt, or 204 when nothing new was read
       const { data } = await api.post(`/chat/threads/${threadId}/read`, {
         userId: user.id,
         lastMessageId
       });
-      if (data.length) {
-        setMessages((prev) => {
-          const existing = prev[threadId] ?? [];
-          const updates = new Map(data.map((msg) => [msg.id, msg]));
-          return {
-            ...prev,
-            [threadId]: existing.map((msg) => updates.get(msg.id) ?? msg)
-          };
-        });
+      if (data) {
+        applyReadReceipt(data);
       }
       setThreads((prev) => prev.map((thread) => (
         thread.id === threadId
@@ -86,12 +81,14 @@ export const ChatProvider = ({ children }) => {
     const socket = new SockJS(WS_ENDPOINT);
     const client = Stomp.over(socket);
     client.debug = () => {};
-    client.connect({}, () => {
+    // The token authenticates the session, which binds it to the user for presence and /user destinations
+    client.connect({ Authorization: `Bearer ${user.token}` }, () => {
       clearReconnectTimer();
       setConnected(true);
       stompClientRef.current = client;
       subscribeChannels();
       sendPresence(true);
+      loadPresence();
     }, () => scheduleReconnect());
   };
 
@@ -120,6 +117,8 @@ export const ChatProvider = ({ children }) => {
     client.subscribe('/topic/general', onMessageReceived);
     client.subscribe('/topic/presence', onPresenceUpdate);
     client.subscribe(`/topic/user.${user.id}.notifications`, onNotificationReceived);
+    client.subscribe('/topic/general/notifications', onGeneralNotificationReceived);
+    client.subscribe('/user/queue/notifications', onUserNotificationEvent);
     subscribeToActiveThread();
   };
 
@@ -133,9 +132,26 @@ export const ChatProvider = ({ children }) => {
     threadSubscriptionRef.current = client.subscribe(`/queue/thread.${activeThreadId}`, onMessageReceived);
   };
 
+  // Presence changes arrive as one coalesced list per server tick
   const onPresenceUpdate = (frame) => {
     const payload = JSON.parse(frame.body);
-    setPresence((prev) => ({ ...prev, [payload.userId]: payload }));
+    const updates = Array.isArray(payload) ? payload : [payload];
+    setPresence((prev) => {
+      const next = { ...prev };
+      updates.forEach((update) => {
+        next[update.userId] = update;
+      });
+      return next;
+    });
+  };
+
+  const loadPresence = async () => {
+    try {
+      const { data } = await api.get('/chat/presence');
+      setPresence(Object.fromEntries(data.map((update) => [update.userId, update])));
+    } catch (error) {
+      console.error('Failed to load presence', error);
+    }
   };
 
   const onNotificationReceived = (frame) => {
@@ -150,8 +166,46 @@ export const ChatProvider = ({ children }) => {
     }
   };
 
+  // Inbox changes (created, read, all read, deleted) for the notification bell and pages
+  const onUserNotificationEvent = (frame) => {
+    const event = JSON.parse(frame.body);
+    notificationListeners.current.forEach((listener) => listener(event));
+  };
+
+  const subscribeNotifications = (listener) => {
+    notificationListeners.current.add(listener);
+    return () => notificationListeners.current.delete(listener);
+  };
+
+  // General-thread announcements are published once to everyone, so skip our own messages here
+  const onGeneralNotificationReceived = (frame) => {
+    const notification = JSON.parse(frame.body);
+    if (notification.senderId === userRef.current?.id) return;
+    onNotificationReceived(frame);
+  };
+
+  // A receipt covers every message of the other participants up to upToMessageId
+  const applyReadReceipt = (receipt) => {
+    setMessages((prev) => {
+      const existing = prev[receipt.threadId];
+      if (!existing) return prev;
+      return {
+        ...prev,
+        [receipt.threadId]: existing.map((msg) => (
+          msg.senderId !== receipt.readerId && msg.id <= receipt.upToMessageId && !msg.readAt
+            ? { ...msg, readAt: receipt.readAt, deliveredAt: msg.deliveredAt ?? receipt.readAt }
+            : msg
+        ))
+      };
+    });
+  };
+
   const onMessageReceived = (frame) => {
     const message = JSON.parse(frame.body);
+    if (message.type === 'READ_RECEIPT') {
+      applyReadReceipt(message);
+      return;
+    }
     const currentThreadId = activeThreadRef.current;
     const currentUserId = userRef.current?.id;
     setMessages((prev) => {
@@ -168,10 +222,7 @@ export const ChatProvider = ({ children }) => {
 
   const sendPresence = (online) => {
     if (!stompClientRef.current || !user) return;
-    stompClientRef.current.send('/app/chat/presence', {}, JSON.stringify({
-      userId: user.id,
-      online
-    }));
+    stompClientRef.current.send('/app/chat/presence', {}, JSON.stringify({ online }));
   };
 
   const sendViaRest = async (bodyPayload, file, { refreshThreads = false, ensureActiveThread = false } = {}) => {
@@ -274,7 +325,8 @@ export const ChatProvider = ({ children }) => {
       presence,
       generalUnreadCount,
       directUnreadCount,
-      totalUnreadCount
+      totalUnreadCount,
+      subscribeNotifications
     };
   }, [threads, activeThreadId, messages, connected, presence, sendMessage, loadThreads, loadMessages]);
 
@@ -50,6 +50,11 @@ const sanitizeFilters = (filters) => {
     };
 };
 
+const pageSizeOptions = [25, 50, 100];
+
+// Keyset pages: cursors[i] loads page i, so going back re-requests a cursor already seen
+const firstPage = { index: 0, cursors: [null] };
+
 const hasActiveFilters = (payload) => Object.values(payload).some((value) => value !== null);
 
 const severityToClass = {
@@ -81,6 +86,9 @@ const AuditLogPage = () => {
     const [logs, setLogs] = useState([]);
     const [actionTypes, setActionTypes] = useState([]);
     const [filters, setFilters] = useState(initialFilters);
+    const [pageSize, setPageSize] = useState(50);
+    const [pagination, setPagination] = useState(firstPage);
+    const [nextCursor, setNextCursor] = useState(null);
 
     const sanitizedFilters = useMemo(() => sanitizeFilters(filters), [filters]);
 
@@ -94,12 +102,15 @@ const AuditLogPage = () => {
     }, []);
 
     const fetchLogs = useCallback(
-        async (payload = sanitizedFilters) => {
+        async (payload, cursor) => {
             setLoading(true);
             try {
-                const response = await api.post('/audit/query', payload);
-                const records = Array.isArray(response.data) ? response.data : [];
+                const response = await api.post('/audit/query/page', payload, {
+                    params: { size: pageSize, ...(cursor ? { cursor } : {}) }
+                });
+                const records = Array.isArray(response.data?.items) ? response.data.items : [];
                 setLogs(records);
+                setNextCursor(response.data?.hasMore ? response.data.nextCursor : null);
                 if (records.length === 0 && hasActiveFilters(payload)) {
                     toast.info('No audit logs found matching your filters');
                 }
@@ -113,11 +124,12 @@ const AuditLogPage = () => {
                     toast.error('Failed to fetch audit logs. Please try again.');
                 }
                 setLogs([]);
+                setNextCursor(null);
             } finally {
                 setLoading(false);
             }
         },
-        [sanitizedFilters]
+        [pageSize]
     );
 
     useEffect(() => {
@@ -125,15 +137,37 @@ const AuditLogPage = () => {
     }, [fetchActionTypes]);
 
     useEffect(() => {
-        fetchLogs(sanitizedFilters);
-    }, [fetchLogs, sanitizedFilters]);
+        fetchLogs(sanitizedFilters, pagination.cursors[pagination.index]);
+    }, [fetchLogs, sanitizedFilters, pagination]);
 
+    // Filter and size changes are batched with the reset, so only the first page is fetched
     const handleFilterChange = (field, value) => {
         setFilters((prev) => ({ ...prev, [field]: value }));
+        setPagination(firstPage);
     };
 
     const handleResetFilters = () => {
         setFilters(initialFilters);
+        setPagination(firstPage);
+    };
+
+    const handlePageSizeChange = (value) => {
+        setPageSize(Number(value));
+        setPagination(firstPage);
+    };
+
+    const handlePreviousPage = () => {
+        setPagination((current) => ({ ...current, index: Math.max(current.index - 1, 0) }));
+    };
+
+    const handleNextPage = () => {
+        if (!nextCursor) {
+            return;
+        }
+        setPagination((current) => ({
+            index: current.index + 1,
+            cursors: [...current.cursors.slice(0, current.index + 1), nextCursor]
+        }));
     };
 
     const handleExport = async (format) => {
@@ -274,7 +308,7 @@ const AuditLogPage = () => {
     };
 
     const manualRefresh = () => {
-        fetchLogs(sanitizedFilters);
+        fetchLogs(sanitizedFilters, pagination.cursors[pagination.index]);
     };
 
     const severityLevels = ['CRITICAL', 'WARNING', 'INFO'];
@@ -480,12 +514,25 @@ const AuditLogPage = () => {
                     <div>
                         <h2 className="audit-results__title">Audit Log Results</h2>
                         <p className="audit-results__meta">
-                            {stats.totalRecords} record{stats.totalRecords === 1 ? '' : 's'} • {lastActivityLabel}
+                            Page {pagination.index + 1} • {stats.totalRecords} record{stats.totalRecords === 1 ? '' : 's'} • {lastActivityLabel}
                             {activeFilterCount ? ` • ${activeFilterCount} active ${activeFilterCount === 1 ? 'filter' : 'filters'}` : ''}
                         </p>
                     </div>
                     <div className="audit-results__controls">
                         {loading && <span className="audit-spinner audit-spinner--sm" aria-hidden="true" />}
+                        <select
+                            aria-label="Records per page"
+                            className="audit-select audit-select--compact"
+                            value={pageSize}
+                            onChange={(event) => handlePageSizeChange(event.target.value)}
+                            disabled={loading}
+                        >
+                            {pageSizeOptions.map((option) => (
+                                <option key={option} value={option}>
+                                    {option} per page
+                                </option>
+                            ))}
+                        </select>
                         <button
                             type="button"
                             className="audit-btn audit-btn--ghost"
@@ -579,6 +626,28 @@ const AuditLogPage = () => {
                         </table>
                     </div>
                 )}
+
+                {(pagination.index > 0 || nextCursor) && (
+                    <div className="audit-pagination">
+                        <button
+                            type="button"
+                            className="audit-btn audit-btn--secondary"
+                            onClick={handlePreviousPage}
+                            disabled={loading || pagination.index === 0}
+                        >
+                            Previous
+                        </button>
+                        <span className="audit-pagination__info">Page {pagination.index + 1}</span>
+                        <button
+                            type="button"
+                            className="audit-btn audit-btn--secondary"
+                            onClick={handleNextPage}
+                            disabled={loading || !nextCursor}
+                        >
+                            Next
+                        </button>
+                    </div>
+                )}
             </div>
         </section>
     );
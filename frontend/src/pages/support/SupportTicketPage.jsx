@@ -48,12 +48,17 @@ const sanitizeFilters = (filters) => {
 
 const areFiltersEqual = (a, b) => JSON.stringify(a) === JSON.stringify(b);
 
+const PAGE_SIZE = 25;
+
 const SupportTicketPage = () => {
     const navigate = useNavigate();
     const { hasPermission } = useAuth();
     const canManageTickets = hasPermission('TICKET_MANAGE');
 
     const [tickets, setTickets] = useState([]);
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalTickets, setTotalTickets] = useState(0);
     const [categories, setCategories] = useState([]);
     const [analytics, setAnalytics] = useState(null);
 
@@ -83,17 +88,22 @@ const SupportTicketPage = () => {
     }, []);
 
     useEffect(() => {
-        fetchTickets(appliedFilters);
+        fetchTickets({ ...appliedFilters, page, size: PAGE_SIZE });
         // eslint-disable-next-line react-hooks/exhaustive-deps
-    }, [appliedFilters]);
+    }, [appliedFilters, page]);
 
     useEffect(() => {
         const sanitized = sanitizeFilters(filters);
         const timeout = setTimeout(() => {
-            setAppliedFilters((previous) => (areFiltersEqual(previous, sanitized) ? previous : sanitized));
+            if (!areFiltersEqual(appliedFilters, sanitized)) {
+                // Batched with the filter change, so only the first page is fetched
+                setAppliedFilters(sanitized);
+                setPage(0);
+            }
         }, 300);
 
         return () => clearTimeout(timeout);
+        // eslint-disable-next-line react-hooks/exhaustive-deps
     }, [filters]);
 
     useEffect(() => {
@@ -121,7 +131,10 @@ const SupportTicketPage = () => {
         setLoadingTickets(true);
         try {
             const response = await api.get('/support/tickets', { params });
-            setTickets(Array.isArray(response.data) ? response.data : []);
+            const payload = response.data || {};
+            setTickets(Array.isArray(payload.content) ? payload.content : []);
+            setTotalPages(payload.totalPages || 0);
+            setTotalTickets(payload.totalElements || 0);
         } catch (error) {
             toast.error('Failed to load support tickets.');
         } finally {
@@ -152,6 +165,7 @@ const SupportTicketPage = () => {
     const handleResetFilters = () => {
         setFilters(initialFilters);
         setAppliedFilters({});
+        setPage(0);
     };
 
     const handleFormChange = (event) => {
@@ -185,6 +199,7 @@ const SupportTicketPage = () => {
             await api.post('/support/tickets', payload);
             toast.success('Support ticket created successfully.');
             handleCloseModal();
+            setPage(0);
             setAppliedFilters((prev) => ({ ...prev }));
         } catch (error) {
             toast.error(error.response?.data?.message || 'Failed to create support ticket.');
@@ -548,6 +563,27 @@ const SupportTicketPage = () => {
                                 )}
                             </tbody>
                         </table>
+                        {totalPages > 1 && (
+                            <div className="support-pagination">
+                                <button
+                                    className="support-btn support-btn--secondary support-btn--sm"
+                                    onClick={() => setPage((current) => Math.max(current - 1, 0))}
+                                    disabled={page === 0}
+                                >
+                                    Previous
+                                </button>
+                                <span className="support-pagination__info">
+                                    Page {page + 1} of {totalPages} ({totalTickets} tickets)
+                                </span>
+                                <button
+                                    className="support-btn support-btn--secondary support-btn--sm"
+                                    onClick={() => setPage((current) => Math.min(current + 1, totalPages - 1))}
+                                    disabled={page >= totalPages - 1}
+                                >
+                                    Next
+                                </button>
+                            </div>
+                        )}
                     </div>
                 )}
             </div>